@@ -22,6 +22,7 @@ import com.intellij.psi.search.GlobalSearchScope
 import org.jetbrains.kotlin.analyzer.ModuleContent
 import org.jetbrains.kotlin.analyzer.ModuleInfo
 import org.jetbrains.kotlin.builtins.BuiltInsSerializedResourcePaths
+import org.jetbrains.kotlin.builtins.BuiltInsSnapshot
 import org.jetbrains.kotlin.cli.common.CLIConfigurationKeys
 import org.jetbrains.kotlin.cli.common.messages.MessageCollector
 import org.jetbrains.kotlin.cli.jvm.compiler.EnvironmentConfigFiles
@@ -114,6 +115,7 @@ public class BuiltInsSerializer(private val dependOnOldBuiltIns: Boolean) {
         // DescriptorValidator.validate(packageView)
 
         val serializer = DescriptorSerializer.createTopLevel(BuiltInsSerializerExtension)
+        val snapshotEntries = linkedMapOf<String, ByteArray>()
 
         val classifierDescriptors = DescriptorSerializer.sort(packageView.getMemberScope().getDescriptors(DescriptorKindFilter.CLASSIFIERS))
 
@@ -122,6 +124,7 @@ public class BuiltInsSerializer(private val dependOnOldBuiltIns: Boolean) {
             val stream = ByteArrayOutputStream()
             classProto.writeTo(stream)
             write(destDir, getFileName(classDescriptor), stream)
+            snapshotEntries[getFileName(classDescriptor)] = stream.toByteArray()
         }
 
         val packageStream = ByteArrayOutputStream()
@@ -130,12 +133,19 @@ public class BuiltInsSerializer(private val dependOnOldBuiltIns: Boolean) {
         packageProto.writeTo(packageStream)
         write(destDir, BuiltInsSerializedResourcePaths.getPackageFilePath(fqName), packageStream,
               BuiltInsSerializedResourcePaths.fallbackPaths.getPackageFilePath(fqName))
+        snapshotEntries[BuiltInsSerializedResourcePaths.getPackageFilePath(fqName)] = packageStream.toByteArray()
 
         val nameStream = ByteArrayOutputStream()
         val strings = serializer.getStringTable()
         SerializationUtil.serializeStringTable(nameStream, strings.serializeSimpleNames(), strings.serializeQualifiedNames())
         write(destDir, BuiltInsSerializedResourcePaths.getStringTableFilePath(fqName), nameStream,
               BuiltInsSerializedResourcePaths.fallbackPaths.getStringTableFilePath(fqName))
+        snapshotEntries[BuiltInsSerializedResourcePaths.getStringTableFilePath(fqName)] = nameStream.toByteArray()
+
+        // The snapshot duplicates the files above, so that old compilers still find the separate files
+        val snapshotStream = ByteArrayOutputStream()
+        BuiltInsSnapshot.write(snapshotStream, snapshotEntries)
+        write(destDir, BuiltInsSerializedResourcePaths.getSnapshotFilePath(fqName), snapshotStream)
     }
 
     private fun write(destDir: File, fileName: String, stream: ByteArrayOutputStream, legacyFileName: String? = null) {
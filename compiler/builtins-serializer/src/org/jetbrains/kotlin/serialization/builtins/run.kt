@@ -29,7 +29,8 @@ Usage: ... <destination dir> (<source dir>)+
 
 Analyzes Kotlin sources found in the given source directories and serializes
 found top-level declarations to <destination dir> (files such as
-*.kotlin_string_table, *.kotlin_package, *.kotlin_class)"""
+*.kotlin_string_table, *.kotlin_package, *.kotlin_class and a per-package
+*.kotlin_builtins snapshot containing all of them)"""
         )
         return
     }
@@ -58,6 +58,25 @@ public class K2JSCompilerArguments extends CommonCompilerArguments {
     @ValueDescription("<path>")
     public String outputPostfix;
 
+    @Argument(value = "Xdce", description = "Remove package members of the module not used by its main, tests and package initializers")
+    public boolean deadCodeElimination;
+
+    @Argument(value = "Xdce-keep", description = "Names of declarations to keep with -Xdce, separated by commas")
+    @ValueDescription("<name[,]>")
+    public String[] declarationsToKeep;
+
+    @Argument(value = "Xminify", description = "Shorten names of parameters and local variables in generated code")
+    public boolean minify;
+
+    @Argument(value = "Xtyped-arrays", description = "Create primitive number arrays as JavaScript typed arrays")
+    public boolean typedArrays;
+
+    @Argument(value = "Xsplit-output", description = "Put each package into a separate file, loaded when the package is first used")
+    public boolean splitOutput;
+
+    @Argument(value = "Xincremental-translation", description = "Reuse JS of unchanged files when the module is compiled again in the same process")
+    public boolean incrementalTranslation;
+
     @Override
     @NotNull
     public String executableScriptFileName() {
@@ -66,6 +66,10 @@ public class K2JVMCompilerArguments extends CommonCompilerArguments {
     @Argument(value = "Xno-optimize", description = "Disable optimizations")
     public boolean noOptimize;
 
+    @Argument(value = "Xcontrol-flow-threads", description = "Number of threads used for control flow analysis of declarations")
+    @ValueDescription("<n>")
+    public String controlFlowThreads;
+
     @Override
     @NotNull
     public String executableScriptFileName() {
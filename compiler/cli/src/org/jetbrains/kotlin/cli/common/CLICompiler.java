@@ -178,6 +178,20 @@ public abstract class CLICompiler<A extends CommonCompilerArguments> {
                                 CompilerMessageLocation.NO_LOCATION);
     }
 
+    /**
+     * @return the number of threads given by an advanced option, or null if it is not a positive integer
+     */
+    @Nullable
+    protected static Integer parseThreadCount(@NotNull String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            return threads > 0 ? threads : null;
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Useful main for derived command line tools
      */
@@ -19,6 +19,7 @@ package org.jetbrains.kotlin.cli.js;
 import com.google.common.base.Joiner;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.Function;
@@ -30,7 +31,6 @@ import kotlin.jvm.functions.Function1;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.kotlin.analyzer.AnalysisResult;
-import org.jetbrains.kotlin.backend.common.output.OutputFileCollection;
 import org.jetbrains.kotlin.cli.common.CLICompiler;
 import org.jetbrains.kotlin.cli.common.CLIConfigurationKeys;
 import org.jetbrains.kotlin.cli.common.ExitCode;
@@ -40,7 +40,7 @@ import org.jetbrains.kotlin.cli.common.messages.AnalyzerWithCompilerReport;
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageLocation;
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity;
 import org.jetbrains.kotlin.cli.common.messages.MessageCollector;
-import org.jetbrains.kotlin.cli.common.output.outputUtils.OutputUtilsPackage;
+import org.jetbrains.kotlin.cli.common.messages.OutputMessageUtil;
 import org.jetbrains.kotlin.cli.jvm.compiler.CompilerJarLocator;
 import org.jetbrains.kotlin.cli.jvm.compiler.EnvironmentConfigFiles;
 import org.jetbrains.kotlin.cli.jvm.compiler.KotlinCoreEnvironment;
@@ -52,6 +52,7 @@ import org.jetbrains.kotlin.js.analyzer.JsAnalysisResult;
 import org.jetbrains.kotlin.js.config.Config;
 import org.jetbrains.kotlin.js.config.EcmaVersion;
 import org.jetbrains.kotlin.js.config.LibrarySourcesConfig;
+import org.jetbrains.kotlin.js.facade.IncrementalTranslationCache;
 import org.jetbrains.kotlin.js.facade.K2JSTranslator;
 import org.jetbrains.kotlin.js.facade.MainCallParameters;
 import org.jetbrains.kotlin.js.facade.TranslationResult;
@@ -59,7 +60,11 @@ import org.jetbrains.kotlin.psi.JetFile;
 import org.jetbrains.kotlin.utils.PathUtil;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.jetbrains.kotlin.cli.common.ExitCode.COMPILATION_ERROR;
 import static org.jetbrains.kotlin.cli.common.ExitCode.OK;
@@ -67,6 +72,12 @@ import static org.jetbrains.kotlin.cli.common.messages.CompilerMessageLocation.N
 import static org.jetbrains.kotlin.config.ConfigPackage.addKotlinSourceRoots;
 
 public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
+    /**
+     * Translated files kept between compilations of a module in this process with -Xincremental-translation, by the path of the output file.
+     * The cache of a module is replaced when the module is compiled with other settings or libraries.
+     */
+    private static final Map<String, Pair<String, IncrementalTranslationCache>> translationCaches =
+            new HashMap<String, Pair<String, IncrementalTranslationCache>>();
 
     public static void main(String... args) {
         doMain(new K2JSCompiler(), args);
@@ -118,6 +129,13 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
 
         File outputFile = new File(arguments.outputFile);
 
+        if (arguments.deadCodeElimination && arguments.metaInfo) {
+            messageCollector.report(CompilerMessageSeverity.ERROR,
+                                    "-Xdce can't be used with -meta-info: other modules may use any public declaration of a library",
+                                    CompilerMessageLocation.NO_LOCATION);
+            return COMPILATION_ERROR;
+        }
+
         Config config = getConfig(arguments, project);
         if (config.checkLibFilesAndReportErrors(new Function1<String, Unit>() {
             @Override
@@ -163,7 +181,8 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
         MainCallParameters mainCallParameters = createMainCallParameters(arguments.main);
         TranslationResult translationResult;
 
-        K2JSTranslator translator = new K2JSTranslator(config);
+        IncrementalTranslationCache cache = arguments.incrementalTranslation ? getTranslationCache(outputFile, arguments) : null;
+        K2JSTranslator translator = new K2JSTranslator(config, cache);
         try {
             //noinspection unchecked
             translationResult = translator.translate(sourcesFiles, mainCallParameters, jsAnalysisResult);
@@ -176,7 +195,6 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
         if (!(translationResult instanceof TranslationResult.Success)) return ExitCode.COMPILATION_ERROR;
 
         TranslationResult.Success successResult = (TranslationResult.Success) translationResult;
-        OutputFileCollection outputFiles = successResult.getOutputFiles(outputFile, outputPrefixFile, outputPostfixFile);
 
         if (outputFile.isDirectory()) {
             messageCollector.report(CompilerMessageSeverity.ERROR,
@@ -185,15 +203,57 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
             return ExitCode.COMPILATION_ERROR;
         }
 
-        File outputDir = outputFile.getParentFile();
-        if (outputDir == null) {
-            outputDir = outputFile.getAbsoluteFile().getParentFile();
+        // The program is printed straight into the output file (and the source map next to it) instead of being built in memory first
+        List<File> sources = successResult.getSourceFiles();
+        for (File writtenFile : successResult.writeOutputFiles(outputFile, outputPrefixFile, outputPostfixFile)) {
+            messageCollector.report(CompilerMessageSeverity.OUTPUT, OutputMessageUtil.formatOutputMessage(sources, writtenFile),
+                                    CompilerMessageLocation.NO_LOCATION);
         }
-        OutputUtilsPackage.writeAll(outputFiles, outputDir, messageCollector);
 
         return OK;
     }
 
+    @NotNull
+    private static IncrementalTranslationCache getTranslationCache(@NotNull File outputFile, @NotNull K2JSCompilerArguments arguments) {
+        String settings = getTranslationSettings(arguments);
+        String key = outputFile.getAbsolutePath();
+        synchronized (translationCaches) {
+            Pair<String, IncrementalTranslationCache> cached = translationCaches.get(key);
+            if (cached == null || !cached.first.equals(settings)) {
+                cached = Pair.create(settings, new IncrementalTranslationCache());
+                translationCaches.put(key, cached);
+            }
+            return cached.second;
+        }
+    }
+
+    /**
+     * Everything besides the sources that the translation of a file depends on: the options and the state of the library files
+     */
+    @NotNull
+    private static String getTranslationSettings(@NotNull K2JSCompilerArguments arguments) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(arguments.target).append(arguments.noStdlib).append(arguments.noInline).append(arguments.typedArrays)
+                .append(arguments.splitOutput).append(arguments.metaInfo).append(arguments.sourceMap);
+        if (arguments.libraryFiles != null) {
+            for (String path : arguments.libraryFiles) {
+                appendFileState(sb, new File(path));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendFileState(@NotNull StringBuilder sb, @NotNull File file) {
+        sb.append('\n').append(file.getAbsolutePath()).append(':').append(file.lastModified()).append(':').append(file.length());
+        File[] children = file.listFiles();
+        if (children != null) {
+            Arrays.sort(children);
+            for (File child : children) {
+                appendFileState(sb, child);
+            }
+        }
+    }
+
     private static void reportCompiledSourcesList(@NotNull MessageCollector messageCollector, @NotNull List<JetFile> sourceFiles) {
         Iterable<String> fileNames = ContainerUtil.map(sourceFiles, new Function<JetFile, String>() {
             @Override
@@ -245,6 +305,13 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
                 .sourceMap(arguments.sourceMap)
                 .inlineEnabled(inlineEnabled)
                 .metaInfo(arguments.metaInfo)
+                .deadCodeElimination(arguments.deadCodeElimination)
+                .declarationsToKeep(arguments.declarationsToKeep != null
+                                    ? Arrays.asList(arguments.declarationsToKeep)
+                                    : Collections.<String>emptyList())
+                .minificationEnabled(arguments.minify)
+                .typedArraysEnabled(arguments.typedArrays)
+                .splitOutput(arguments.splitOutput)
                 .build();
     }
 
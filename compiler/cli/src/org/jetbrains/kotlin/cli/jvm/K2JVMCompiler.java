@@ -35,6 +35,7 @@ import org.jetbrains.kotlin.compiler.plugin.PluginCliOptionProcessingException;
 import org.jetbrains.kotlin.compiler.plugin.PluginPackage;
 import org.jetbrains.kotlin.config.CompilerConfiguration;
 import org.jetbrains.kotlin.config.Services;
+import org.jetbrains.kotlin.incremental.components.LookupTracker;
 import org.jetbrains.kotlin.load.kotlin.incremental.cache.IncrementalCacheProvider;
 import org.jetbrains.kotlin.resolve.AnalyzerScriptParameter;
 import org.jetbrains.kotlin.utils.KotlinPaths;
@@ -80,6 +81,11 @@ public class K2JVMCompiler extends CLICompiler<K2JVMCompilerArguments> {
             configuration.put(JVMConfigurationKeys.INCREMENTAL_CACHE_PROVIDER, incrementalCacheProvider);
         }
 
+        LookupTracker lookupTracker = services.get(LookupTracker.class);
+        if (lookupTracker != null) {
+            configuration.put(JVMConfigurationKeys.LOOKUP_TRACKER, lookupTracker);
+        }
+
         CompilerJarLocator locator = services.get(CompilerJarLocator.class);
         if (locator != null) {
             configuration.put(JVMConfigurationKeys.COMPILER_JAR_LOCATOR, locator);
@@ -143,6 +149,13 @@ public class K2JVMCompiler extends CLICompiler<K2JVMCompilerArguments> {
                                                                   ? CommandLineScriptUtils.scriptParameters()
                                                                   : Collections.<AnalyzerScriptParameter>emptyList());
 
+        if (arguments.controlFlowThreads != null && parseThreadCount(arguments.controlFlowThreads) == null) {
+            messageCollector.report(CompilerMessageSeverity.ERROR,
+                                    "Number of control flow analysis threads should be a positive integer: " + arguments.controlFlowThreads,
+                                    CompilerMessageLocation.NO_LOCATION);
+            return COMPILATION_ERROR;
+        }
+
         putAdvancedOptions(configuration, arguments);
 
         messageCollector.report(CompilerMessageSeverity.LOGGING, "Configuring the compilation environment",
@@ -204,6 +217,9 @@ public class K2JVMCompiler extends CLICompiler<K2JVMCompilerArguments> {
         configuration.put(JVMConfigurationKeys.DISABLE_PARAM_ASSERTIONS, arguments.noParamAssertions);
         configuration.put(JVMConfigurationKeys.DISABLE_INLINE, arguments.noInline);
         configuration.put(JVMConfigurationKeys.DISABLE_OPTIMIZATION, arguments.noOptimize);
+        if (arguments.controlFlowThreads != null) {
+            configuration.put(JVMConfigurationKeys.CONTROL_FLOW_THREADS, parseThreadCount(arguments.controlFlowThreads));
+        }
     }
 
     /**
@@ -213,6 +213,14 @@ public class CliLightClassGenerationSupport extends LightClassGenerationSupport
     }
 
     public static class NoScopeRecordCliBindingTrace extends CliBindingTrace {
+        public NoScopeRecordCliBindingTrace() {
+            this(false);
+        }
+
+        public NoScopeRecordCliBindingTrace(boolean threadSafe) {
+            super(threadSafe);
+        }
+
         @Override
         public <K, V> void record(WritableSlice<K, V> slice, K key, V value) {
             if (slice == BindingContext.RESOLUTION_SCOPE || slice == BindingContext.TYPE_RESOLUTION_SCOPE) {
@@ -233,6 +241,11 @@ public class CliLightClassGenerationSupport extends LightClassGenerationSupport
 
         @TestOnly
         public CliBindingTrace() {
+            this(false);
+        }
+
+        protected CliBindingTrace(boolean threadSafe) {
+            super(threadSafe);
         }
 
         @Override
@@ -42,6 +42,8 @@ import org.jetbrains.kotlin.codegen.state.Progress;
 import org.jetbrains.kotlin.config.CompilerConfiguration;
 import org.jetbrains.kotlin.context.ModuleContext;
 import org.jetbrains.kotlin.idea.MainFunctionDetector;
+import org.jetbrains.kotlin.incremental.components.ComponentsPackage;
+import org.jetbrains.kotlin.incremental.components.LookupTracker;
 import org.jetbrains.kotlin.load.kotlin.PackageClassUtils;
 import org.jetbrains.kotlin.load.kotlin.incremental.cache.IncrementalCache;
 import org.jetbrains.kotlin.load.kotlin.incremental.cache.IncrementalCacheProvider;
@@ -315,7 +317,8 @@ public class KotlinToJVMBytecodeCompiler {
                     @NotNull
                     @Override
                     public AnalysisResult invoke() {
-                        BindingTrace sharedTrace = new CliLightClassGenerationSupport.NoScopeRecordCliBindingTrace();
+                        int controlFlowThreads = environment.getConfiguration().get(JVMConfigurationKeys.CONTROL_FLOW_THREADS, 1);
+                        BindingTrace sharedTrace = new CliLightClassGenerationSupport.NoScopeRecordCliBindingTrace(controlFlowThreads > 1);
                         ModuleContext moduleContext = TopDownAnalyzerFacadeForJVM.createContextWithSealedModule(environment.getProject());
 
                         return TopDownAnalyzerFacadeForJVM.analyzeFilesWithJavaIntegrationWithCustomContext(
@@ -323,7 +326,8 @@ public class KotlinToJVMBytecodeCompiler {
                                 environment.getSourceFiles(),
                                 sharedTrace,
                                 environment.getConfiguration().get(JVMConfigurationKeys.MODULE_IDS),
-                                environment.getConfiguration().get(JVMConfigurationKeys.INCREMENTAL_CACHE_PROVIDER)
+                                environment.getConfiguration().get(JVMConfigurationKeys.INCREMENTAL_CACHE_PROVIDER),
+                                controlFlowThreads
                         );
                     }
                 }
@@ -338,6 +342,11 @@ public class KotlinToJVMBytecodeCompiler {
             plugin.processFiles(context);
         }
 
+        LookupTracker lookupTracker = environment.getConfiguration().get(JVMConfigurationKeys.LOOKUP_TRACKER);
+        if (lookupTracker != null) {
+            ComponentsPackage.recordLookups(environment.getSourceFiles(), result.getBindingContext(), lookupTracker);
+        }
+
         return analyzerWithCompilerReport.hasErrors() ? null : result;
     }
 
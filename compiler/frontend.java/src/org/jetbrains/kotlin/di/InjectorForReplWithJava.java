@@ -111,6 +111,7 @@ public class InjectorForReplWithJava {
     private final LazyTopDownAnalyzerForTopLevel lazyTopDownAnalyzerForTopLevel;
     private final JavaDescriptorResolver javaDescriptorResolver;
     private final DeserializationComponentsForJava deserializationComponentsForJava;
+    private final ControlFlowAnalyzer controlFlowAnalyzer;
     private final JvmVirtualFileFinder jvmVirtualFileFinder;
     private final JavaClassFinderImpl javaClassFinder;
     private final TraceBasedExternalSignatureResolver traceBasedExternalSignatureResolver;
@@ -156,7 +157,6 @@ public class InjectorForReplWithJava {
     private final DeclarationScopeProviderImpl declarationScopeProvider;
     private final ScriptBodyResolver scriptBodyResolver;
     private final BodyResolver bodyResolver;
-    private final ControlFlowAnalyzer controlFlowAnalyzer;
     private final DeclarationsChecker declarationsChecker;
     private final ModifiersChecker modifiersChecker;
     private final FunctionAnalyzerExtension functionAnalyzerExtension;
@@ -209,6 +209,7 @@ public class InjectorForReplWithJava {
         this.javaClassDataFinder = new JavaClassDataFinder(jvmVirtualFileFinder, deserializedDescriptorResolver);
         this.binaryClassAnnotationAndConstantLoader = new BinaryClassAnnotationAndConstantLoaderImpl(moduleDescriptor, storageManager, jvmVirtualFileFinder, traceBasedErrorReporter);
         this.deserializationComponentsForJava = new DeserializationComponentsForJava(storageManager, moduleDescriptor, javaClassDataFinder, binaryClassAnnotationAndConstantLoader, lazyJavaPackageFragmentProvider);
+        this.controlFlowAnalyzer = new ControlFlowAnalyzer();
         this.javaLazyAnalyzerPostConstruct = new JavaLazyAnalyzerPostConstruct();
         this.javaFlexibleTypeCapabilitiesProvider = new JavaFlexibleTypeCapabilitiesProvider();
         this.kotlinJvmCheckerProvider = KotlinJvmCheckerProvider.INSTANCE$;
@@ -242,7 +243,6 @@ public class InjectorForReplWithJava {
         this.declarationScopeProvider = new DeclarationScopeProviderImpl(lazyDeclarationResolver);
         this.scriptBodyResolver = new ScriptBodyResolver();
         this.bodyResolver = new BodyResolver();
-        this.controlFlowAnalyzer = new ControlFlowAnalyzer();
         this.declarationsChecker = new DeclarationsChecker();
         this.modifiersChecker = new ModifiersChecker(bindingTrace, kotlinJvmCheckerProvider);
         this.functionAnalyzerExtension = new FunctionAnalyzerExtension();
@@ -279,6 +279,8 @@ public class InjectorForReplWithJava {
         this.lazyTopDownAnalyzerForTopLevel.setKotlinCodeAnalyzer(resolveSession);
         this.lazyTopDownAnalyzerForTopLevel.setLazyTopDownAnalyzer(lazyTopDownAnalyzer);
 
+        this.controlFlowAnalyzer.setTrace(bindingTrace);
+
         javaClassFinder.setComponentPostConstruct(javaLazyAnalyzerPostConstruct);
         javaClassFinder.setProject(project);
         javaClassFinder.setScope(moduleContentScope);
@@ -382,8 +384,6 @@ public class InjectorForReplWithJava {
         bodyResolver.setTrace(bindingTrace);
         bodyResolver.setValueParameterResolver(valueParameterResolver);
 
-        controlFlowAnalyzer.setTrace(bindingTrace);
-
         declarationsChecker.setDescriptorResolver(descriptorResolver);
         declarationsChecker.setModifiersChecker(modifiersChecker);
         declarationsChecker.setTrace(bindingTrace);
@@ -433,4 +433,8 @@ public class InjectorForReplWithJava {
         return this.deserializationComponentsForJava;
     }
 
+    public ControlFlowAnalyzer getControlFlowAnalyzer() {
+        return this.controlFlowAnalyzer;
+    }
+
 }
@@ -111,6 +111,7 @@ public class InjectorForTopDownAnalyzerForJvm {
     private final LazyTopDownAnalyzerForTopLevel lazyTopDownAnalyzerForTopLevel;
     private final JavaDescriptorResolver javaDescriptorResolver;
     private final DeserializationComponentsForJava deserializationComponentsForJava;
+    private final ControlFlowAnalyzer controlFlowAnalyzer;
     private final JvmVirtualFileFinder jvmVirtualFileFinder;
     private final JavaClassFinderImpl javaClassFinder;
     private final TraceBasedExternalSignatureResolver traceBasedExternalSignatureResolver;
@@ -156,7 +157,6 @@ public class InjectorForTopDownAnalyzerForJvm {
     private final ScriptBodyResolver scriptBodyResolver;
     private final AdditionalFileScopeProvider additionalFileScopeProvider;
     private final BodyResolver bodyResolver;
-    private final ControlFlowAnalyzer controlFlowAnalyzer;
     private final DeclarationsChecker declarationsChecker;
     private final ModifiersChecker modifiersChecker;
     private final FunctionAnalyzerExtension functionAnalyzerExtension;
@@ -208,6 +208,7 @@ public class InjectorForTopDownAnalyzerForJvm {
         this.javaClassDataFinder = new JavaClassDataFinder(jvmVirtualFileFinder, deserializedDescriptorResolver);
         this.binaryClassAnnotationAndConstantLoader = new BinaryClassAnnotationAndConstantLoaderImpl(moduleDescriptor, storageManager, jvmVirtualFileFinder, traceBasedErrorReporter);
         this.deserializationComponentsForJava = new DeserializationComponentsForJava(storageManager, moduleDescriptor, javaClassDataFinder, binaryClassAnnotationAndConstantLoader, lazyJavaPackageFragmentProvider);
+        this.controlFlowAnalyzer = new ControlFlowAnalyzer();
         this.javaLazyAnalyzerPostConstruct = new JavaLazyAnalyzerPostConstruct();
         this.javaFlexibleTypeCapabilitiesProvider = new JavaFlexibleTypeCapabilitiesProvider();
         this.kotlinJvmCheckerProvider = KotlinJvmCheckerProvider.INSTANCE$;
@@ -241,7 +242,6 @@ public class InjectorForTopDownAnalyzerForJvm {
         this.scriptBodyResolver = new ScriptBodyResolver();
         this.additionalFileScopeProvider = new AdditionalFileScopeProvider();
         this.bodyResolver = new BodyResolver();
-        this.controlFlowAnalyzer = new ControlFlowAnalyzer();
         this.declarationsChecker = new DeclarationsChecker();
         this.modifiersChecker = new ModifiersChecker(bindingTrace, kotlinJvmCheckerProvider);
         this.functionAnalyzerExtension = new FunctionAnalyzerExtension();
@@ -278,6 +278,8 @@ public class InjectorForTopDownAnalyzerForJvm {
         this.lazyTopDownAnalyzerForTopLevel.setKotlinCodeAnalyzer(resolveSession);
         this.lazyTopDownAnalyzerForTopLevel.setLazyTopDownAnalyzer(lazyTopDownAnalyzer);
 
+        this.controlFlowAnalyzer.setTrace(bindingTrace);
+
         javaClassFinder.setComponentPostConstruct(javaLazyAnalyzerPostConstruct);
         javaClassFinder.setProject(project);
         javaClassFinder.setScope(moduleContentScope);
@@ -381,8 +383,6 @@ public class InjectorForTopDownAnalyzerForJvm {
         bodyResolver.setTrace(bindingTrace);
         bodyResolver.setValueParameterResolver(valueParameterResolver);
 
-        controlFlowAnalyzer.setTrace(bindingTrace);
-
         declarationsChecker.setDescriptorResolver(descriptorResolver);
         declarationsChecker.setModifiersChecker(modifiersChecker);
         declarationsChecker.setTrace(bindingTrace);
@@ -432,4 +432,8 @@ public class InjectorForTopDownAnalyzerForJvm {
         return this.deserializationComponentsForJava;
     }
 
+    public ControlFlowAnalyzer getControlFlowAnalyzer() {
+        return this.controlFlowAnalyzer;
+    }
+
 }
@@ -91,7 +91,7 @@ public enum TopDownAnalyzerFacadeForJVM {
             @NotNull BindingTrace trace,
             @NotNull TopDownAnalysisMode topDownAnalysisMode
     ) {
-        return analyzeFilesWithJavaIntegration(moduleContext, files, trace, topDownAnalysisMode, null, null);
+        return analyzeFilesWithJavaIntegration(moduleContext, files, trace, topDownAnalysisMode, null, null, 1);
     }
 
     @NotNull
@@ -101,9 +101,25 @@ public enum TopDownAnalyzerFacadeForJVM {
             @NotNull BindingTrace trace,
             @Nullable List<String> moduleIds,
             @Nullable IncrementalCacheProvider incrementalCacheProvider
+    ) {
+        return analyzeFilesWithJavaIntegrationWithCustomContext(moduleContext, files, trace, moduleIds, incrementalCacheProvider, 1);
+    }
+
+    /**
+     * @param controlFlowThreads see {@link org.jetbrains.kotlin.resolve.ControlFlowAnalyzer#setParallelism(int)}
+     */
+    @NotNull
+    public static AnalysisResult analyzeFilesWithJavaIntegrationWithCustomContext(
+            @NotNull ModuleContext moduleContext,
+            @NotNull Collection<JetFile> files,
+            @NotNull BindingTrace trace,
+            @Nullable List<String> moduleIds,
+            @Nullable IncrementalCacheProvider incrementalCacheProvider,
+            int controlFlowThreads
     ) {
         return analyzeFilesWithJavaIntegration(
-                moduleContext, files, trace, TopDownAnalysisMode.TopLevelDeclarations, moduleIds, incrementalCacheProvider
+                moduleContext, files, trace, TopDownAnalysisMode.TopLevelDeclarations, moduleIds, incrementalCacheProvider,
+                controlFlowThreads
         );
     }
 
@@ -114,7 +130,8 @@ public enum TopDownAnalyzerFacadeForJVM {
             @NotNull BindingTrace trace,
             @NotNull TopDownAnalysisMode topDownAnalysisMode,
             @Nullable List<String> moduleIds,
-            @Nullable IncrementalCacheProvider incrementalCacheProvider
+            @Nullable IncrementalCacheProvider incrementalCacheProvider,
+            int controlFlowThreads
     ) {
         Project project = moduleContext.getProject();
         List<JetFile> allFiles = JvmAnalyzerFacade.getAllFilesToAnalyze(project, null, files);
@@ -129,6 +146,8 @@ public enum TopDownAnalyzerFacadeForJVM {
                 GlobalSearchScope.allScope(project)
         );
 
+        injector.getControlFlowAnalyzer().setParallelism(controlFlowThreads);
+
         try {
             List<PackageFragmentProvider> additionalProviders = new ArrayList<PackageFragmentProvider>();
 
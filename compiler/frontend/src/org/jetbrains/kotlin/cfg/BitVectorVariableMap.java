@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.cfg;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.descriptors.VariableDescriptor;
+
+import java.util.*;
+
+/**
+ * A read-only view of the data of one instruction computed by {@link PseudocodeVariableDataCollector}:
+ * variables are numbered per pseudocode, and the value of each variable is decoded from the bit vector on access.
+ */
+public abstract class BitVectorVariableMap<D> extends AbstractMap<VariableDescriptor, D> {
+    private final List<VariableDescriptor> variables;
+    private final Map<VariableDescriptor, Integer> variableIndices;
+
+    protected BitVectorVariableMap(
+            @NotNull List<VariableDescriptor> variables,
+            @NotNull Map<VariableDescriptor, Integer> variableIndices
+    ) {
+        this.variables = variables;
+        this.variableIndices = variableIndices;
+    }
+
+    /**
+     * @return the value of the variable with the given index, or null if there's no data for it
+     */
+    @Nullable
+    protected abstract D getValue(int index);
+
+    @Override
+    public D get(Object key) {
+        Integer index = variableIndices.get(key);
+        return index == null ? null : getValue(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<VariableDescriptor, D>> entrySet() {
+        return new AbstractSet<Entry<VariableDescriptor, D>>() {
+            @NotNull
+            @Override
+            public Iterator<Entry<VariableDescriptor, D>> iterator() {
+                return new Iterator<Entry<VariableDescriptor, D>>() {
+                    private int nextIndex = findNext(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextIndex < variables.size();
+                    }
+
+                    @Override
+                    public Entry<VariableDescriptor, D> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Entry<VariableDescriptor, D> entry = new SimpleImmutableEntry<VariableDescriptor, D>(variables.get(nextIndex), getValue(nextIndex));
+                        nextIndex = findNext(nextIndex + 1);
+                        return entry;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int i = 0; i < variables.size(); i++) {
+                    if (getValue(i) != null) size++;
+                }
+                return size;
+            }
+        };
+    }
+
+    private int findNext(int from) {
+        int index = from;
+        while (index < variables.size() && getValue(index) == null) {
+            index++;
+        }
+        return index;
+    }
+}
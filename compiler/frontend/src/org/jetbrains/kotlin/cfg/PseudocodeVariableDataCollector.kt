@@ -16,62 +16,256 @@
 
 package org.jetbrains.kotlin.cfg
 
+import org.jetbrains.kotlin.cfg.PseudocodeVariablesData.VariableInitState
+import org.jetbrains.kotlin.cfg.PseudocodeVariablesData.VariableUseState
 import org.jetbrains.kotlin.cfg.pseudocode.Pseudocode
+import org.jetbrains.kotlin.cfg.pseudocode.PseudocodeUtil
 import org.jetbrains.kotlin.cfg.pseudocode.instructions.Instruction
 import org.jetbrains.kotlin.cfg.pseudocode.instructions.LexicalScope
+import org.jetbrains.kotlin.cfg.pseudocode.instructions.eval.ReadValueInstruction
+import org.jetbrains.kotlin.cfg.pseudocode.instructions.eval.WriteValueInstruction
 import org.jetbrains.kotlin.cfg.pseudocode.instructions.special.VariableDeclarationInstruction
 import org.jetbrains.kotlin.cfg.pseudocodeTraverser.Edges
 import org.jetbrains.kotlin.cfg.pseudocodeTraverser.TraversalOrder
 import org.jetbrains.kotlin.cfg.pseudocodeTraverser.collectData
 import org.jetbrains.kotlin.cfg.pseudocodeTraverser.traverse
 import org.jetbrains.kotlin.descriptors.VariableDescriptor
+import org.jetbrains.kotlin.psi.JetProperty
 import org.jetbrains.kotlin.resolve.BindingContext
 import java.util.ArrayList
-import java.util.Collections
+import java.util.Arrays
 import java.util.HashMap
 
+/**
+ * Computes variable initialization and usage data with dense bit vectors. Variables are numbered once per pseudocode,
+ * the data of an instruction is a single [VariableBits] instance (shared by all instructions which don't change it),
+ * and merge/transfer functions work on whole words. The results are exposed as read-only [BitVectorVariableMap]s.
+ */
 public class PseudocodeVariableDataCollector(
         private val bindingContext: BindingContext,
         private val pseudocode: Pseudocode
 ) {
     val lexicalScopeVariableInfo = computeLexicalScopeVariableInfo(pseudocode)
 
-    suppress("UNCHECKED_CAST")
-    public fun <D> collectData(
-            traversalOrder: TraversalOrder,
-            mergeDataWithLocalDeclarations: Boolean,
-            instructionDataMergeStrategy: InstructionDataMergeStrategy<D>
-    ): MutableMap<Instruction, Edges<MutableMap<VariableDescriptor, D>>> {
-        val result = pseudocode.collectData(
-                traversalOrder, mergeDataWithLocalDeclarations,
-                //see KT-4605
-                instructionDataMergeStrategy as
-                    (Instruction, Collection<Map<VariableDescriptor, D>>) -> Edges<Map<VariableDescriptor, D>>,
-                { from, to, data -> filterOutVariablesOutOfScope(from, to, data)},
-                Collections.emptyMap<VariableDescriptor, D>())
-        //see KT-4605
-        return result as MutableMap<Instruction, Edges<MutableMap<VariableDescriptor, D>>>
+    private val variables = ArrayList<VariableDescriptor>()
+    private val variableIndices = HashMap<VariableDescriptor, Int>()
+
+    // Indices of variables declared or initialized by instructions (for initializers),
+    // and of variables read or written by instructions (for use status)
+    private val initializedVariables = HashMap<Instruction, Int>()
+    private val usedVariables = HashMap<Instruction, Int>()
+
+    private val wordCount: Int
+    private val declarationDepths: IntArray
+    private val scopeMasks = HashMap<Int, LongArray>()
+
+    init {
+        pseudocode.traverse(TraversalOrder.FORWARD, { instruction ->
+            if (instruction is WriteValueInstruction || instruction is VariableDeclarationInstruction) {
+                val variable = PseudocodeUtil.extractVariableDescriptorIfAny(instruction, false, bindingContext)
+                if (variable != null) {
+                    initializedVariables[instruction] = indexOf(variable)
+                }
+            }
+            if (instruction is ReadValueInstruction || instruction is WriteValueInstruction) {
+                val variable = PseudocodeUtil.extractVariableDescriptorIfAny(instruction, true, bindingContext)
+                if (variable != null) {
+                    usedVariables[instruction] = indexOf(variable)
+                }
+            }
+        })
+
+        wordCount = (variables.size() + 63) / 64
+        declarationDepths = IntArray(variables.size())
+        for (i in 0..variables.size() - 1) {
+            // '-1' for variables declared outside this pseudocode
+            declarationDepths[i] = lexicalScopeVariableInfo.declaredIn[variables[i]]?.depth ?: -1
+        }
+    }
+
+    private fun indexOf(variable: VariableDescriptor): Int {
+        return variableIndices.getOrPut(variable) {
+            variables.add(variable)
+            variables.size() - 1
+        }
+    }
+
+    // variable initializers: segments of 'present', 'initialized' and 'declared' bits
+
+    public fun collectInitializers(): Map<Instruction, Edges<Map<VariableDescriptor, VariableInitState>>> {
+        val data = pseudocode.collectData<VariableBits>(
+                TraversalOrder.FORWARD, /* mergeDataWithLocalDeclarations = */ false,
+                { instruction, incomingEdgesData ->
+                    val enterInstructionData = mergeInitializers(incomingEdgesData)
+                    Edges(enterInstructionData, addInitStateFromInstruction(instruction, enterInstructionData))
+                },
+                { from, to, data -> filterOutVariablesOutOfScope(from, to, data) },
+                VariableBits(LongArray(INIT_SEGMENTS * wordCount)))
+        return data.mapValues { Edges(initStates(it.getValue().incoming), initStates(it.getValue().outgoing)) }
     }
 
-    private fun <D> filterOutVariablesOutOfScope(
+    private fun mergeInitializers(incomingEdgesData: Collection<VariableBits>): VariableBits {
+        val result = LongArray(INIT_SEGMENTS * wordCount)
+        for (w in 0..wordCount - 1) {
+            var present = 0L
+            var initialized = -1L
+            var declared = -1L
+            for (edgeData in incomingEdgesData) {
+                val words = edgeData.words
+                val edgePresent = words[PRESENT * wordCount + w]
+                present = present or edgePresent
+                // variables missing on an edge don't affect the merged state
+                initialized = initialized and (words[INITIALIZED * wordCount + w] or edgePresent.inv())
+                declared = declared and (words[DECLARED * wordCount + w] or edgePresent.inv())
+            }
+            result[PRESENT * wordCount + w] = present
+            result[INITIALIZED * wordCount + w] = initialized and present
+            result[DECLARED * wordCount + w] = declared and present
+        }
+        return VariableBits(result)
+    }
+
+    private fun addInitStateFromInstruction(instruction: Instruction, enterInstructionData: VariableBits): VariableBits {
+        val index = initializedVariables[instruction] ?: return enterInstructionData
+
+        val isPresent = enterInstructionData[PRESENT, index]
+        val isDeclared = isPresent && enterInstructionData[DECLARED, index]
+        if (instruction is WriteValueInstruction) {
+            // if writing to already initialized object
+            if (!PseudocodeUtil.isThisOrNoDispatchReceiver(instruction, bindingContext)) return enterInstructionData
+
+            return withInitState(enterInstructionData, index, true, instruction.element is JetProperty || isDeclared)
+        }
+
+        // instruction is VariableDeclarationInstruction
+        val isInitialized =
+                if (isPresent) enterInstructionData[INITIALIZED, index]
+                else PseudocodeVariablesData.getDefaultValueForInitializers(variables[index], instruction, lexicalScopeVariableInfo).isInitialized
+        if (isPresent && isInitialized && isDeclared) return enterInstructionData
+
+        return withInitState(enterInstructionData, index, isInitialized, true)
+    }
+
+    private fun withInitState(data: VariableBits, index: Int, isInitialized: Boolean, isDeclared: Boolean): VariableBits {
+        if (data[PRESENT, index] && data[INITIALIZED, index] == isInitialized && data[DECLARED, index] == isDeclared) return data
+
+        val words = Arrays.copyOf(data.words, data.words.size())
+        setBit(words, PRESENT, index, true)
+        setBit(words, INITIALIZED, index, isInitialized)
+        setBit(words, DECLARED, index, isDeclared)
+        return VariableBits(words)
+    }
+
+    private fun initStates(data: VariableBits): Map<VariableDescriptor, VariableInitState> =
+            object : BitVectorVariableMap<VariableInitState>(variables, variableIndices) {
+                override fun getValue(index: Int): VariableInitState? {
+                    if (!data[PRESENT, index]) return null
+                    return VariableInitState.create(data[INITIALIZED, index], data[DECLARED, index])
+                }
+            }
+
+    // variable use status: the two bits of VariableUseState priority (0 means no data)
+
+    public fun collectUseStatus(): Map<Instruction, Edges<Map<VariableDescriptor, VariableUseState>>> {
+        val data = pseudocode.collectData<VariableBits>(
+                TraversalOrder.BACKWARD, /* mergeDataWithLocalDeclarations = */ true,
+                { instruction, incomingEdgesData ->
+                    val enterResult = mergeUseStatus(incomingEdgesData)
+                    Edges(enterResult, addUseStatusFromInstruction(instruction, enterResult))
+                },
+                { from, to, data -> filterOutVariablesOutOfScope(from, to, data) },
+                VariableBits(LongArray(USE_SEGMENTS * wordCount)))
+        return data.mapValues { Edges(useStates(it.getValue().incoming), useStates(it.getValue().outgoing)) }
+    }
+
+    private fun mergeUseStatus(incomingEdgesData: Collection<VariableBits>): VariableBits {
+        val result = LongArray(USE_SEGMENTS * wordCount)
+        for (w in 0..wordCount - 1) {
+            // maximum of two-bit priorities
+            var high = 0L
+            var low = 0L
+            for (edgeData in incomingEdgesData) {
+                val edgeHigh = edgeData.words[HIGH * wordCount + w]
+                val edgeLow = edgeData.words[LOW * wordCount + w]
+                low = (low and (edgeHigh and high.inv()).inv()) or (edgeLow and (high and edgeHigh.inv()).inv())
+                high = high or edgeHigh
+            }
+            result[HIGH * wordCount + w] = high
+            result[LOW * wordCount + w] = low
+        }
+        return VariableBits(result)
+    }
+
+    private fun addUseStatusFromInstruction(instruction: Instruction, enterResult: VariableBits): VariableBits {
+        val index = usedVariables[instruction] ?: return enterResult
+
+        val high = enterResult[HIGH, index]
+        // READ after a read; otherwise WRITTEN_AFTER_READ after READ or WRITTEN_AFTER_READ, and ONLY_WRITTEN_NEVER_READ after the rest
+        val newHigh = if (instruction is ReadValueInstruction) true else high
+        val newLow = if (instruction is ReadValueInstruction) true else !high
+        if (high == newHigh && enterResult[LOW, index] == newLow) return enterResult
+
+        val words = Arrays.copyOf(enterResult.words, enterResult.words.size())
+        setBit(words, HIGH, index, newHigh)
+        setBit(words, LOW, index, newLow)
+        return VariableBits(words)
+    }
+
+    private fun useStates(data: VariableBits): Map<VariableDescriptor, VariableUseState> =
+            object : BitVectorVariableMap<VariableUseState>(variables, variableIndices) {
+                override fun getValue(index: Int): VariableUseState? {
+                    val priority = (if (data[HIGH, index]) 2 else 0) + (if (data[LOW, index]) 1 else 0)
+                    return if (priority == 0) null else VariableUseState.byPriority(priority)
+                }
+            }
+
+    // common
+
+    private fun filterOutVariablesOutOfScope(
             from: Instruction,
             to: Instruction,
-            data: Map<VariableDescriptor, D>
-    ): Map<VariableDescriptor, D> {
+            data: VariableBits
+    ): VariableBits {
         // If an edge goes from deeper lexical scope to a less deep one, this means that it points outside of the deeper scope.
         val toDepth = to.lexicalScope.depth
         if (toDepth >= from.lexicalScope.depth) return data
 
         // Variables declared in an inner (deeper) scope can't be accessed from an outer scope.
         // Thus they can be filtered out upon leaving the inner scope.
-        return data.filterKeys { variable ->
-            val lexicalScope = lexicalScopeVariableInfo.declaredIn[variable]
-            // '-1' for variables declared outside this pseudocode
-            val depth = lexicalScope?.depth ?: -1
-            depth <= toDepth
+        val mask = scopeMask(toDepth)
+        var words: LongArray? = null
+        for (i in 0..data.words.size() - 1) {
+            val filtered = data.words[i] and mask[i % wordCount]
+            if (filtered != data.words[i]) {
+                if (words == null) {
+                    words = Arrays.copyOf(data.words, data.words.size())
+                }
+                words!![i] = filtered
+            }
+        }
+        return if (words == null) data else VariableBits(words!!)
+    }
+
+    private fun scopeMask(depth: Int): LongArray {
+        return scopeMasks.getOrPut(depth) {
+            val mask = LongArray(wordCount)
+            for (index in 0..variables.size() - 1) {
+                if (declarationDepths[index] <= depth) {
+                    mask[index / 64] = mask[index / 64] or (1L shl index)
+                }
+            }
+            mask
         }
     }
 
+    private fun VariableBits.get(segment: Int, index: Int): Boolean =
+            (words[segment * wordCount + index / 64] and (1L shl index)) != 0L
+
+    private fun setBit(words: LongArray, segment: Int, index: Int, value: Boolean) {
+        val i = segment * wordCount + index / 64
+        words[i] = if (value) words[i] or (1L shl index) else words[i] and (1L shl index).inv()
+    }
+
     fun computeLexicalScopeVariableInfo(pseudocode: Pseudocode): LexicalScopeVariableInfo {
         val lexicalScopeVariableInfo = LexicalScopeVariableInfoImpl()
         pseudocode.traverse(TraversalOrder.FORWARD, { instruction ->
@@ -96,9 +290,23 @@ public class PseudocodeVariableDataCollector(
     }
 }
 
-//todo may be a type alias
-trait InstructionDataMergeStrategy<D> :
-  (Instruction, Collection<MutableMap<VariableDescriptor, D>>) -> Edges<MutableMap<VariableDescriptor, D>>
+/**
+ * Per-instruction data of [PseudocodeVariableDataCollector]: several segments of one bit per variable each.
+ */
+class VariableBits(val words: LongArray) {
+    override fun equals(other: Any?): Boolean = other is VariableBits && Arrays.equals(words, other.words)
+
+    override fun hashCode(): Int = Arrays.hashCode(words)
+}
+
+private val PRESENT = 0
+private val INITIALIZED = 1
+private val DECLARED = 2
+private val INIT_SEGMENTS = 3
+
+private val HIGH = 0
+private val LOW = 1
+private val USE_SEGMENTS = 2
 
 public trait LexicalScopeVariableInfo {
     val declaredIn : Map<VariableDescriptor, LexicalScope>
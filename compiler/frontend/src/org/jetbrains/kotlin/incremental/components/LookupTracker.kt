@@ -0,0 +1,36 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.incremental.components
+
+public val PACKAGE_LEVEL_LOOKUP_SCOPE: String = ""
+
+/**
+ * Receives name lookups performed while resolving source files, so that an incremental build can later find
+ * which files need to be recompiled when declarations with some name change.
+ *
+ * [scopeFqName] is the fully qualified name of the class in which the name was looked up as a member,
+ * or [PACKAGE_LEVEL_LOOKUP_SCOPE] for lookups of top-level declarations (in any package).
+ */
+public trait LookupTracker {
+    public fun record(lookupContainingFile: String, scopeFqName: String, name: String)
+
+    companion object DO_NOTHING : LookupTracker {
+        override fun record(lookupContainingFile: String, scopeFqName: String, name: String) {
+        }
+    }
+}
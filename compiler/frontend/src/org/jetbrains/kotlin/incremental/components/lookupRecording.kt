@@ -0,0 +1,204 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.incremental.components
+
+import org.jetbrains.kotlin.descriptors.ClassDescriptor
+import org.jetbrains.kotlin.descriptors.DeclarationDescriptor
+import org.jetbrains.kotlin.descriptors.PackageFragmentDescriptor
+import org.jetbrains.kotlin.descriptors.PackageViewDescriptor
+import org.jetbrains.kotlin.descriptors.PropertyDescriptor
+import org.jetbrains.kotlin.lexer.JetToken
+import org.jetbrains.kotlin.lexer.JetTokens
+import org.jetbrains.kotlin.psi.*
+import org.jetbrains.kotlin.resolve.BindingContext
+import org.jetbrains.kotlin.resolve.DescriptorUtils
+import org.jetbrains.kotlin.resolve.calls.callUtil.getResolvedCall
+import org.jetbrains.kotlin.resolve.calls.model.ResolvedCall
+import org.jetbrains.kotlin.resolve.calls.model.VariableAsFunctionResolvedCall
+import org.jetbrains.kotlin.resolve.scopes.JetScopeUtils
+import org.jetbrains.kotlin.resolve.scopes.receivers.ReceiverValue
+import org.jetbrains.kotlin.types.JetType
+import org.jetbrains.kotlin.types.TypeUtils
+import org.jetbrains.kotlin.types.expressions.OperatorConventions
+import org.jetbrains.kotlin.utils.addIfNotNull
+
+/**
+ * Reports to [lookupTracker] every name referenced in [files], based on the results of analysis in [bindingContext].
+ *
+ * A reference to a member is recorded for the class declaring it and for each class in the hierarchy of the receiver type,
+ * because a declaration with the same name added to any of them may change the resolution.
+ * For the same reason every reference is recorded for the hierarchies of the implicit receivers in scope at the reference.
+ * References to top-level and unresolved names are recorded at the package level.
+ *
+ * Calls by convention are recorded by the name of the called function: operators (`plus`, `get`, `contains`, ...),
+ * `iterator`/`hasNext`/`next` of for loops, `componentN` of multi-declarations, `invoke` and the `get`/`set`/`propertyDelegated`
+ * functions of property delegates.
+ */
+public fun recordLookups(files: Collection<JetFile>, bindingContext: BindingContext, lookupTracker: LookupTracker) {
+    if (lookupTracker == LookupTracker.DO_NOTHING) return
+
+    for (file in files) {
+        val path = file.getVirtualFile()?.getPath() ?: continue
+        file.accept(LookupRecordingVisitor(path, bindingContext, lookupTracker))
+    }
+}
+
+private class LookupRecordingVisitor(
+        private val path: String,
+        private val bindingContext: BindingContext,
+        private val lookupTracker: LookupTracker
+) : JetTreeVisitorVoid() {
+    override fun visitSimpleNameExpression(expression: JetSimpleNameExpression) {
+        val resolvedCall = expression.getResolvedCall(bindingContext)
+        if (resolvedCall is VariableAsFunctionResolvedCall) {
+            recordCall(resolvedCall.variableCall)
+            recordCall(resolvedCall.functionCall)
+            return
+        }
+
+        if (expression is JetOperationReferenceExpression) {
+            if (resolvedCall != null) {
+                recordCall(resolvedCall)
+            }
+            else {
+                record(setOf(PACKAGE_LEVEL_LOOKUP_SCOPE), expression.getConventionName() ?: return)
+            }
+            return
+        }
+
+        val scopes = linkedSetOf<String>()
+        val target = bindingContext[BindingContext.REFERENCE_TARGET, expression]
+        if (target == null) {
+            scopes.add(PACKAGE_LEVEL_LOOKUP_SCOPE)
+        }
+        else {
+            scopes.addIfNotNull(target.getLookupScope())
+        }
+
+        if (resolvedCall != null) {
+            scopes.addReceiverTypeScopes(resolvedCall.getDispatchReceiver())
+            scopes.addReceiverTypeScopes(resolvedCall.getExtensionReceiver())
+        }
+        scopes.addImplicitReceiverScopes(expression)
+
+        record(scopes, expression.getReferencedName())
+    }
+
+    override fun visitForExpression(expression: JetForExpression) {
+        val loopRange = expression.getLoopRange()
+        if (loopRange != null) {
+            recordCall(bindingContext[BindingContext.LOOP_RANGE_ITERATOR_RESOLVED_CALL, loopRange])
+            recordCall(bindingContext[BindingContext.LOOP_RANGE_HAS_NEXT_RESOLVED_CALL, loopRange])
+            recordCall(bindingContext[BindingContext.LOOP_RANGE_NEXT_RESOLVED_CALL, loopRange])
+        }
+        super.visitForExpression(expression)
+    }
+
+    override fun visitMultiDeclarationEntry(multiDeclarationEntry: JetMultiDeclarationEntry) {
+        recordCall(bindingContext[BindingContext.COMPONENT_RESOLVED_CALL, multiDeclarationEntry])
+        super.visitMultiDeclarationEntry(multiDeclarationEntry)
+    }
+
+    override fun visitArrayAccessExpression(expression: JetArrayAccessExpression) {
+        recordCall(bindingContext[BindingContext.INDEXED_LVALUE_GET, expression])
+        recordCall(bindingContext[BindingContext.INDEXED_LVALUE_SET, expression])
+        super.visitArrayAccessExpression(expression)
+    }
+
+    override fun visitProperty(property: JetProperty) {
+        if (property.hasDelegate()) {
+            val descriptor = bindingContext[BindingContext.VARIABLE, property] as? PropertyDescriptor
+            if (descriptor != null) {
+                recordCall(bindingContext[BindingContext.DELEGATED_PROPERTY_PD_RESOLVED_CALL, descriptor])
+                for (accessor in descriptor.getAccessors()) {
+                    recordCall(bindingContext[BindingContext.DELEGATED_PROPERTY_RESOLVED_CALL, accessor])
+                }
+            }
+        }
+        super.visitProperty(property)
+    }
+
+    private fun recordCall(resolvedCall: ResolvedCall<*>?) {
+        if (resolvedCall == null) return
+
+        val descriptor = resolvedCall.getResultingDescriptor()
+        val scopes = linkedSetOf<String>()
+        scopes.addIfNotNull(descriptor.getLookupScope())
+        scopes.addReceiverTypeScopes(resolvedCall.getDispatchReceiver())
+        scopes.addReceiverTypeScopes(resolvedCall.getExtensionReceiver())
+        scopes.addImplicitReceiverScopes(resolvedCall.getCall().getCallElement())
+
+        record(scopes, descriptor.getName().asString())
+    }
+
+    /**
+     * Resolution searches the members of every implicit receiver in scope (outer classes, receivers of extension functions and
+     * of function literals), so a member added to any class of their hierarchies may shadow the declaration found before.
+     */
+    private fun MutableSet<String>.addImplicitReceiverScopes(element: JetElement) {
+        val resolutionScope = JetScopeUtils.getResolutionScope(element, bindingContext) ?: return
+        for (receiver in resolutionScope.getImplicitReceiversHierarchy()) {
+            addTypeHierarchyScopes(receiver.getType())
+        }
+    }
+
+    private fun record(scopes: Collection<String>, name: String) {
+        for (scope in scopes) {
+            lookupTracker.record(path, scope, name)
+        }
+    }
+}
+
+/**
+ * Returns the name of the function an unresolved operation reference would be resolved to,
+ * or null for operations which are not calls by convention (`&&`, `===`, `as`, ...).
+ */
+private fun JetOperationReferenceExpression.getConventionName(): String? {
+    val elementType = getReferencedNameElementType()
+    if (elementType == JetTokens.IDENTIFIER) return getReferencedName()
+
+    return (elementType as? JetToken)?.let { OperatorConventions.getNameForOperationSymbol(it)?.asString() }
+}
+
+private fun DeclarationDescriptor.getLookupScope(): String? {
+    val container = getContainingDeclaration()
+    return when (container) {
+        is ClassDescriptor -> DescriptorUtils.getFqName(container).asString()
+        is PackageFragmentDescriptor, is PackageViewDescriptor -> PACKAGE_LEVEL_LOOKUP_SCOPE
+        // Local declarations can't be changed without recompiling the file itself
+        else -> null
+    }
+}
+
+private fun MutableSet<String>.addReceiverTypeScopes(receiver: ReceiverValue) {
+    if (!receiver.exists()) return
+
+    addTypeHierarchyScopes(receiver.getType())
+}
+
+private fun MutableSet<String>.addTypeHierarchyScopes(type: JetType) {
+    addClassScope(type)
+    for (supertype in TypeUtils.getAllSupertypes(type)) {
+        addClassScope(supertype)
+    }
+}
+
+private fun MutableSet<String>.addClassScope(type: JetType) {
+    val classDescriptor = type.getConstructor().getDeclarationDescriptor() as? ClassDescriptor ?: return
+    add(DescriptorUtils.getFqName(classDescriptor).asString())
+}
@@ -66,6 +66,13 @@ public class JetParser implements PsiParser {
         return psiBuilder.getTreeBuilt();
     }
 
+    @NotNull
+    public static ASTNode parseBlockExpression(PsiBuilder psiBuilder, boolean hasBraces) {
+        JetParsing jetParsing = JetParsing.createForTopLevel(new SemanticWhitespaceAwarePsiBuilderImpl(psiBuilder));
+        jetParsing.parseBlockExpression(hasBraces);
+        return psiBuilder.getTreeBuilt();
+    }
+
     @NotNull
     public static ASTNode parseBlockCodeFragment(PsiBuilder psiBuilder) {
         JetParsing jetParsing = JetParsing.createForTopLevel(new SemanticWhitespaceAwarePsiBuilderImpl(psiBuilder));
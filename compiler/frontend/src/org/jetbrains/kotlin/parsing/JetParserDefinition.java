@@ -105,6 +105,9 @@ public class JetParserDefinition implements ParserDefinition {
                  elementType == JetNodeTypes.BLOCK_CODE_FRAGMENT) {
             return new ASTWrapperPsiElement(astNode);
         }
+        else if (elementType == JetNodeTypes.BLOCK) {
+            return JetNodeTypes.BLOCK.createPsi(astNode);
+        }
         else if (elementType instanceof KDocElementType) {
             return ((KDocElementType) elementType).createPsi(astNode);
         }
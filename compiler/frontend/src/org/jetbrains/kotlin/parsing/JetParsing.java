@@ -1616,7 +1616,11 @@ public class JetParsing extends AbstractJetParsing {
      */
     void parseBlock() {
         PsiBuilder.Marker block = mark();
+        parseBlockContents();
+        block.done(BLOCK);
+    }
 
+    private void parseBlockContents() {
         myBuilder.enableNewlines();
         expect(LBRACE, "Expecting '{' to open a block");
 
@@ -1624,6 +1628,24 @@ public class JetParsing extends AbstractJetParsing {
 
         expect(RBRACE, "Expecting '}'");
         myBuilder.restoreNewlinesState();
+    }
+
+    /*
+     * Reparses the text of a single block, see JetBlockExpressionElementType
+     */
+    void parseBlockExpression(boolean hasBraces) {
+        PsiBuilder.Marker block = mark();
+
+        if (hasBraces) {
+            parseBlockContents();
+        }
+        else {
+            myBuilder.enableNewlines();
+            myExpressionParsing.parseStatements();
+            myBuilder.restoreNewlinesState();
+        }
+
+        checkForUnexpectedSymbols();
 
         block.done(BLOCK);
     }
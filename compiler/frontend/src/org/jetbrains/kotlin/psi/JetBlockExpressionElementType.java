@@ -0,0 +1,113 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.psi;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.impl.source.DummyHolder;
+import com.intellij.psi.impl.source.tree.CompositeElement;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
+import com.intellij.psi.tree.ICompositeElementType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IErrorCounterReparseableElementType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.kotlin.idea.JetLanguage;
+import org.jetbrains.kotlin.lexer.JetLexer;
+import org.jetbrains.kotlin.lexer.JetTokens;
+import org.jetbrains.kotlin.parsing.JetParser;
+
+/**
+ * Element type of {@link JetBlockExpression}. Blocks are parsed eagerly together with the rest of the file, but in the IDE
+ * a change inside a block whose new text is still a single balanced "{...}" only re-lexes and reparses that block.
+ *
+ * Blocks without braces (function literal bodies, scripts and code fragments) are never reparsed on their own unless their whole
+ * text is a braced construct (e.g. "{ { foo() } }"), in which case they are reparsed as a list of statements again.
+ *
+ * Only the chameleon created for a reparse is a {@link LazyParseableElement}: its children are merged into the existing block right away.
+ * Blocks built by the parser are plain composite elements, so the tree takes no more memory than with a non-reparseable type.
+ */
+public class JetBlockExpressionElementType extends IErrorCounterReparseableElementType implements ICompositeElementType {
+    public JetBlockExpressionElementType(@NotNull String debugName) {
+        super(debugName, JetLanguage.INSTANCE);
+    }
+
+    @NotNull
+    @Override
+    public ASTNode createCompositeNode() {
+        return new CompositeElement(this);
+    }
+
+    @Override
+    public ASTNode createNode(CharSequence text) {
+        return text != null ? new LazyParseableElement(this, text) : new CompositeElement(this);
+    }
+
+    @NotNull
+    public JetBlockExpression createPsi(@NotNull ASTNode node) {
+        return new JetBlockExpression(node);
+    }
+
+    @Override
+    protected ASTNode doParseContents(@NotNull ASTNode chameleon, @NotNull PsiElement psi) {
+        Project project = psi.getProject();
+        Language languageForParser = getLanguageForParser(psi);
+        PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(project, chameleon, null, languageForParser, chameleon.getChars());
+        return JetParser.parseBlockExpression(builder, hasBraces(psi)).getFirstChildNode();
+    }
+
+    private static boolean hasBraces(@NotNull PsiElement psi) {
+        // When reparsing, the chameleon is put into a holder whose context is the block being replaced
+        PsiElement holder = psi.getParent();
+        PsiElement original = holder instanceof DummyHolder ? holder.getContext() : null;
+        return !(original instanceof JetBlockExpression) || ((JetBlockExpression) original).getLBrace() != null;
+    }
+
+    @Override
+    public int getErrorsCount(CharSequence seq, Language fileLanguage, Project project) {
+        JetLexer lexer = new JetLexer();
+        lexer.start(seq);
+        if (lexer.getTokenType() != JetTokens.LBRACE) return FATAL_ERROR;
+        lexer.advance();
+
+        int balance = 1;
+        while (true) {
+            IElementType type = lexer.getTokenType();
+            if (type == null) break;
+            // Something after the closing brace
+            if (balance == 0) return FATAL_ERROR;
+
+            if (type == JetTokens.LBRACE) {
+                balance++;
+            }
+            else if (type == JetTokens.RBRACE) {
+                balance--;
+            }
+            else if (type == JetTokens.ARROW && balance == 1) {
+                // "{ a -> b }" may become a function literal after the change
+                return FATAL_ERROR;
+            }
+            lexer.advance();
+        }
+
+        return balance == 0 ? NO_ERRORS : FATAL_ERROR;
+    }
+}
@@ -38,6 +38,7 @@ public class BindingTraceContext implements BindingTrace {
 
     private final MutableSlicedMap map;
     private final MutableDiagnosticsWithSuppression mutableDiagnostics;
+    private final boolean threadSafe;
 
     private final BindingContext bindingContext = new BindingContext() {
 
@@ -73,24 +74,43 @@ public class BindingTraceContext implements BindingTrace {
     };
 
     public BindingTraceContext() {
-        //noinspection ConstantConditions
-        this(TRACK_REWRITES ? new TrackingSlicedMap(TRACK_WITH_STACK_TRACES) : SlicedMapImpl.create());
+        this(false);
     }
 
+    /**
+     * @param threadSafe whether the trace may be read and written from several threads at once.
+     *                   {@link ControlFlowAnalyzer} analyzes declarations in parallel only against such a trace
+     */
+    public BindingTraceContext(boolean threadSafe) {
+        //noinspection ConstantConditions
+        this(TRACK_REWRITES ? new TrackingSlicedMap(TRACK_WITH_STACK_TRACES) : SlicedMapImpl.create(), threadSafe);
+    }
 
-    private BindingTraceContext(@NotNull MutableSlicedMap map) {
-        this.map = map;
+    private BindingTraceContext(@NotNull MutableSlicedMap map, boolean threadSafe) {
+        this.map = threadSafe ? new SynchronizedSlicedMap(map) : map;
         this.mutableDiagnostics = new MutableDiagnosticsWithSuppression(bindingContext, Diagnostics.EMPTY);
+        this.threadSafe = threadSafe;
     }
 
     @TestOnly
     public static BindingTraceContext createTraceableBindingTrace() {
-        return new BindingTraceContext(new TrackingSlicedMap(TRACK_WITH_STACK_TRACES));
+        return new BindingTraceContext(new TrackingSlicedMap(TRACK_WITH_STACK_TRACES), false);
+    }
+
+    public boolean isThreadSafe() {
+        return threadSafe;
     }
 
     @Override
     public void report(@NotNull Diagnostic diagnostic) {
-        mutableDiagnostics.report(diagnostic);
+        if (threadSafe) {
+            synchronized (map) {
+                mutableDiagnostics.report(diagnostic);
+            }
+        }
+        else {
+            mutableDiagnostics.report(diagnostic);
+        }
     }
 
     public void clearDiagnostics() {
@@ -27,50 +27,162 @@ import org.jetbrains.kotlin.psi.*;
 import org.jetbrains.kotlin.types.JetType;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
 
 import static org.jetbrains.kotlin.types.TypeUtils.NO_EXPECTED_TYPE;
 
 public class ControlFlowAnalyzer {
     private BindingTrace trace;
+    private int parallelism = 1;
 
     @Inject
     public void setTrace(BindingTrace trace) {
         this.trace = trace;
     }
 
-    public void process(@NotNull BodiesResolveContext c) {
-        for (JetFile file : c.getFiles()) {
-            checkDeclarationContainer(c, file);
+    /**
+     * Sets the number of threads used to analyze top-level declarations. Each declaration is then analyzed against its own buffering
+     * trace, and the buffers are merged back in declaration order, so diagnostics are reported in the same order as in the sequential mode.
+     * <p/>
+     * The buffers read through to the main trace, and such reads may trigger lazy resolution which writes to it
+     * (see CliBindingTrace), so declarations are only analyzed in parallel if the main trace is a thread-safe {@link BindingTraceContext}.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public void process(@NotNull final BodiesResolveContext c) {
+        List<DeclarationCheck> checks = new ArrayList<DeclarationCheck>();
+
+        for (final JetFile file : c.getFiles()) {
+            checks.add(new DeclarationCheck(file) {
+                @Override
+                void check(@NotNull BindingTrace trace) {
+                    checkDeclarationContainer(c, file, trace);
+                }
+            });
         }
-        for (JetClassOrObject aClass : c.getDeclaredClasses().keySet()) {
-            checkDeclarationContainer(c, aClass);
+        for (final JetClassOrObject aClass : c.getDeclaredClasses().keySet()) {
+            checks.add(new DeclarationCheck(aClass) {
+                @Override
+                void check(@NotNull BindingTrace trace) {
+                    checkDeclarationContainer(c, aClass, trace);
+                }
+            });
         }
-        for (JetSecondaryConstructor constructor : c.getSecondaryConstructors().keySet()) {
-            checkSecondaryConstructor(constructor);
+        for (final JetSecondaryConstructor constructor : c.getSecondaryConstructors().keySet()) {
+            checks.add(new DeclarationCheck(constructor) {
+                @Override
+                void check(@NotNull BindingTrace trace) {
+                    checkSecondaryConstructor(constructor, trace);
+                }
+            });
         }
         for (Map.Entry<JetNamedFunction, SimpleFunctionDescriptor> entry : c.getFunctions().entrySet()) {
-            JetNamedFunction function = entry.getKey();
+            final JetNamedFunction function = entry.getKey();
             SimpleFunctionDescriptor functionDescriptor = entry.getValue();
-            JetType expectedReturnType = !function.hasBlockBody() && !function.hasDeclaredReturnType()
+            final JetType expectedReturnType = !function.hasBlockBody() && !function.hasDeclaredReturnType()
                                                ? NO_EXPECTED_TYPE
                                                : functionDescriptor.getReturnType();
-            checkFunction(c, function, expectedReturnType);
+            checks.add(new DeclarationCheck(function) {
+                @Override
+                void check(@NotNull BindingTrace trace) {
+                    checkFunction(c, function, expectedReturnType, trace);
+                }
+            });
         }
         for (Map.Entry<JetProperty, PropertyDescriptor> entry : c.getProperties().entrySet()) {
-            JetProperty property = entry.getKey();
-            PropertyDescriptor propertyDescriptor = entry.getValue();
-            checkProperty(c, property, propertyDescriptor);
+            final JetProperty property = entry.getKey();
+            final PropertyDescriptor propertyDescriptor = entry.getValue();
+            checks.add(new DeclarationCheck(property) {
+                @Override
+                void check(@NotNull BindingTrace trace) {
+                    checkProperty(c, property, propertyDescriptor, trace);
+                }
+            });
+        }
+
+        if (parallelism <= 1 || checks.size() < 2 || c.getTopDownAnalysisMode().getIsLocalDeclarations() || !isThreadSafe(trace)) {
+            for (DeclarationCheck check : checks) {
+                check.check(trace);
+            }
+        }
+        else {
+            processInParallel(checks);
         }
     }
 
-    private void checkSecondaryConstructor(@NotNull JetSecondaryConstructor constructor) {
+    private void processInParallel(@NotNull List<DeclarationCheck> checks) {
+        final BindingContext bindingContext = trace.getBindingContext();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, checks.size()));
+        try {
+            List<Future<DelegatingBindingTrace>> results = new ArrayList<Future<DelegatingBindingTrace>>(checks.size());
+            for (final DeclarationCheck check : checks) {
+                results.add(executor.submit(new Callable<DelegatingBindingTrace>() {
+                    @Override
+                    public DelegatingBindingTrace call() {
+                        DelegatingBindingTrace buffer =
+                                new DelegatingBindingTrace(bindingContext, "Control flow analysis", check.declaration);
+                        check.check(buffer);
+                        return buffer;
+                    }
+                }));
+            }
+
+            for (Future<DelegatingBindingTrace> result : results) {
+                getResult(result).addAllMyDataTo(trace);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isThreadSafe(@NotNull BindingTrace trace) {
+        return trace instanceof BindingTraceContext && ((BindingTraceContext) trace).isThreadSafe();
+    }
+
+    @NotNull
+    private static DelegatingBindingTrace getResult(@NotNull Future<DelegatingBindingTrace> result) {
+        try {
+            return result.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Control flow analysis was interrupted", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static abstract class DeclarationCheck {
+        final JetElement declaration;
+
+        DeclarationCheck(@NotNull JetElement declaration) {
+            this.declaration = declaration;
+        }
+
+        abstract void check(@NotNull BindingTrace trace);
+    }
+
+    private static void checkSecondaryConstructor(@NotNull JetSecondaryConstructor constructor, @NotNull BindingTrace trace) {
         JetFlowInformationProvider flowInformationProvider = new JetFlowInformationProvider(constructor, trace);
         flowInformationProvider.checkDeclaration();
         flowInformationProvider.checkFunction(KotlinBuiltIns.getInstance().getUnitType());
     }
 
-    private void checkDeclarationContainer(@NotNull BodiesResolveContext c, JetDeclarationContainer declarationContainer) {
+    private static void checkDeclarationContainer(
+            @NotNull BodiesResolveContext c,
+            JetDeclarationContainer declarationContainer,
+            @NotNull BindingTrace trace
+    ) {
         // A pseudocode of class/object initialization corresponds to a class/object
         // or initialization of properties corresponds to a package declared in a file
         JetFlowInformationProvider flowInformationProvider = new JetFlowInformationProvider((JetElement) declarationContainer, trace);
@@ -81,18 +193,28 @@ public class ControlFlowAnalyzer {
         flowInformationProvider.checkDeclaration();
     }
 
-    private void checkProperty(@NotNull BodiesResolveContext c, JetProperty property, PropertyDescriptor propertyDescriptor) {
+    private static void checkProperty(
+            @NotNull BodiesResolveContext c,
+            JetProperty property,
+            PropertyDescriptor propertyDescriptor,
+            @NotNull BindingTrace trace
+    ) {
         for (JetPropertyAccessor accessor : property.getAccessors()) {
             PropertyAccessorDescriptor accessorDescriptor = accessor.isGetter()
                                                             ? propertyDescriptor.getGetter()
                                                             : propertyDescriptor.getSetter();
             assert accessorDescriptor != null : "no property accessor descriptor " + accessor.getText();
             JetType returnType = accessorDescriptor.getReturnType();
-            checkFunction(c, accessor, returnType);
+            checkFunction(c, accessor, returnType, trace);
         }
     }
 
-    private void checkFunction(@NotNull BodiesResolveContext c, @NotNull JetDeclarationWithBody function, @Nullable JetType expectedReturnType) {
+    private static void checkFunction(
+            @NotNull BodiesResolveContext c,
+            @NotNull JetDeclarationWithBody function,
+            @Nullable JetType expectedReturnType,
+            @NotNull BindingTrace trace
+    ) {
         if (!function.hasBody()) return;
         JetFlowInformationProvider flowInformationProvider = new JetFlowInformationProvider(function, trace);
         if (c.getTopDownAnalysisMode().getIsLocalDeclarations()) {
@@ -23,6 +23,8 @@ import org.jetbrains.kotlin.descriptors.*
 import org.jetbrains.kotlin.psi.Call
 import org.jetbrains.kotlin.resolve.calls.context.BasicCallResolutionContext
 import org.jetbrains.kotlin.resolve.calls.smartcasts.SmartCastUtils
+import org.jetbrains.kotlin.builtins.KotlinBuiltIns
+import org.jetbrains.kotlin.name.FqNameUnsafe
 import org.jetbrains.kotlin.name.Name
 import org.jetbrains.kotlin.resolve.scopes.JetScope
 import org.jetbrains.kotlin.resolve.scopes.JetScopeUtils
@@ -40,6 +42,8 @@ import org.jetbrains.kotlin.resolve.scopes.receivers.ReceiverValue.NO_RECEIVER
 import org.jetbrains.kotlin.resolve.*
 import org.jetbrains.kotlin.resolve.calls.util.*
 import org.jetbrains.kotlin.resolve.calls.tasks.collectors.*
+import java.util.ArrayList
+import java.util.HashSet
 
 public class TaskPrioritizer(private val storageManager: StorageManager) {
 
@@ -156,16 +160,83 @@ public class TaskPrioritizer(private val storageManager: StorageManager) {
                 )
             }
             //extensions
-            c.result.addCandidates {
-                convertWithImpliedThis(
-                        c.scope,
-                        explicitReceiver,
+            val extensions = storageManager.createLazyValue {
+                splitByReceiverClassifier(
                         callableDescriptorCollector.getExtensionsByName(c.scope, c.name, c.context.trace),
-                        createKind(EXTENSION_RECEIVER, isExplicit),
-                        c.context.call
+                        getReceiverClassifiers(explicitReceiver, c)
                 )
             }
+            c.result.addCandidates {
+                convertWithImpliedThis(c.scope, explicitReceiver, extensions().first, createKind(EXTENSION_RECEIVER, isExplicit), c.context.call)
+            }
+            // Extensions whose receiver classifier is not among the receiver's supertypes can't be applicable,
+            // they are only needed to report errors when nothing else is found
+            c.result.addCandidates {
+                convertWithImpliedThis(c.scope, explicitReceiver, extensions().second, createKind(EXTENSION_RECEIVER, isExplicit), c.context.call)
+            }
+        }
+    }
+
+    /**
+     * Returns fq-names of classifiers of all types the receiver can be cast to (including its smart cast variants
+     * and all their supertypes), or null if the receiver is compatible with any receiver type (e.g. when it's of type Nothing
+     * or has an error type).
+     */
+    private fun <D : CallableDescriptor, F : D> getReceiverClassifiers(receiver: ReceiverValue, c: TaskPrioritizerContext<D, F>): Set<FqNameUnsafe>? {
+        val result = HashSet<FqNameUnsafe>()
+        for (type in SmartCastUtils.getSmartCastVariants(receiver, c.context)) {
+            if (type.isError() || type.isDynamic() || KotlinBuiltIns.isNothingOrNullableNothing(type)) return null
+
+            for (bound in setOf(type.lowerIfFlexible(), type.upperIfFlexible())) {
+                if (!collectSupertypeClassifiers(bound.getConstructor(), result, HashSet())) return null
+            }
+        }
+        return result
+    }
+
+    private fun collectSupertypeClassifiers(
+            constructor: TypeConstructor,
+            result: MutableSet<FqNameUnsafe>,
+            visited: MutableSet<TypeConstructor>
+    ): Boolean {
+        if (!visited.add(constructor)) return true
+
+        val classifier = constructor.getDeclarationDescriptor()
+        when (classifier) {
+            is ClassDescriptor -> result.add(DescriptorUtils.getFqName(classifier))
+            is TypeParameterDescriptor -> {}
+            // e.g. integer literal types or intersection types
+            else -> return false
+        }
+
+        return constructor.getSupertypes().all { collectSupertypeClassifiers(it.getConstructor(), result, visited) }
+    }
+
+    /**
+     * Splits extensions into those that may accept a receiver whose supertypes have the given classifiers
+     * and those that certainly can't.
+     */
+    private fun <D : CallableDescriptor> splitByReceiverClassifier(
+            extensions: Collection<D>,
+            receiverClassifiers: Set<FqNameUnsafe>?
+    ): Pair<Collection<D>, Collection<D>> {
+        if (receiverClassifiers == null) return Pair(extensions, listOf())
+
+        val applicable = ArrayList<D>(extensions.size())
+        val inapplicable = ArrayList<D>()
+        for (extension in extensions) {
+            val receiverType = extension.getExtensionReceiverParameter()?.getType()
+            val classifier = receiverType?.getConstructor()?.getDeclarationDescriptor()
+            if (receiverType == null || receiverType.isFlexible() || KotlinBuiltIns.isAnyOrNullableAny(receiverType) ||
+                classifier !is ClassDescriptor ||
+                DescriptorUtils.getFqName(classifier) in receiverClassifiers) {
+                applicable.add(extension)
+            }
+            else {
+                inapplicable.add(extension)
+            }
         }
+        return Pair(applicable, inapplicable)
     }
 
     private fun <D : CallableDescriptor, F : D> addMembers(
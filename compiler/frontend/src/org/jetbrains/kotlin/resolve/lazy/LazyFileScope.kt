@@ -16,7 +16,12 @@
 
 package org.jetbrains.kotlin.resolve.lazy
 
+import org.jetbrains.kotlin.descriptors.ClassifierDescriptor
+import org.jetbrains.kotlin.descriptors.FunctionDescriptor
 import org.jetbrains.kotlin.descriptors.PackageViewDescriptor
+import org.jetbrains.kotlin.descriptors.VariableDescriptor
+import org.jetbrains.kotlin.name.Name
+import org.jetbrains.kotlin.storage.StorageManager
 import org.jetbrains.kotlin.resolve.scopes.ChainedScope
 import org.jetbrains.kotlin.psi.JetImportDirective
 import org.jetbrains.kotlin.psi.JetFile
@@ -37,10 +42,36 @@ class LazyFileScope private(
         private val scopeChain: List<JetScope>,
         private val aliasImportResolver: LazyImportResolver,
         private val allUnderImportResolver: LazyImportResolver,
+        private val allImportResolvers: List<LazyImportResolver>,
+        storageManager: StorageManager,
         containingDeclaration: PackageFragmentDescriptor,
         debugName: String
 ) : ChainedScope(containingDeclaration, debugName, *scopeChain.copyToArray()) {
 
+    // Lookups by name go through all the imports of the file, so their results (including negative ones) are remembered
+    // for the lifetime of the resolve session, which is dropped on any modification that may change them
+    private val canCacheLookups = { allImportResolvers.none { it.isResolvingImport } }
+    private val classifiers = NameLookupCache<ClassifierDescriptor?>(storageManager, canCacheLookups)
+    private val packages = NameLookupCache<PackageViewDescriptor?>(storageManager, canCacheLookups)
+    private val properties = NameLookupCache<Set<VariableDescriptor>>(storageManager, canCacheLookups)
+    private val functions = NameLookupCache<Set<FunctionDescriptor>>(storageManager, canCacheLookups)
+
+    override fun getClassifier(name: Name) = classifiers.get(name) { getClassifierFromChain(it) }
+
+    override fun getPackage(name: Name) = packages.get(name) { getPackageFromChain(it) }
+
+    override fun getProperties(name: Name) = properties.get(name) { getPropertiesFromChain(it) }
+
+    override fun getFunctions(name: Name) = functions.get(name) { getFunctionsFromChain(it) }
+
+    private fun getClassifierFromChain(name: Name) = super.getClassifier(name)
+
+    private fun getPackageFromChain(name: Name) = super.getPackage(name)
+
+    private fun getPropertiesFromChain(name: Name) = super.getProperties(name)
+
+    private fun getFunctionsFromChain(name: Name) = super.getFunctions(name)
+
     public fun forceResolveAllImports() {
         aliasImportResolver.forceResolveAllContents()
         allUnderImportResolver.forceResolveAllContents()
@@ -97,7 +128,9 @@ class LazyFileScope private(
             scopeChain.add(LazyImportScope(defaultAllUnderImportResolver, LazyImportScope.FilteringKind.INVISIBLE_CLASSES, "Default all under imports in $debugName (invisible classes only)"))
             scopeChain.add(LazyImportScope(allUnderImportResolver, LazyImportScope.FilteringKind.INVISIBLE_CLASSES, "All under imports in $debugName (invisible classes only)"))
 
-            return LazyFileScope(scopeChain, aliasImportResolver, allUnderImportResolver, packageFragment, debugName)
+            val allImportResolvers = listOf(aliasImportResolver, allUnderImportResolver, defaultAliasImportResolver, defaultAllUnderImportResolver)
+            return LazyFileScope(scopeChain, aliasImportResolver, allUnderImportResolver, allImportResolvers,
+                                 resolveSession.getStorageManager(), packageFragment, debugName)
         }
 
         private fun getPackageViewDescriptor(file: JetFile, resolveSession: ResolveSession): PackageViewDescriptor {
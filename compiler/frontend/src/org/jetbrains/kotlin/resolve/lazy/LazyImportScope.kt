@@ -79,6 +79,10 @@ class LazyImportResolver(
 
     private var directiveUnderResolve: JetImportDirective? = null
 
+    // Lookups made while an import directive is being resolved may see incomplete results because of the recursion guards below
+    public val isResolvingImport: Boolean
+        get() = directiveUnderResolve != null
+
     private class ImportResolveStatus(val lookupMode: LookupMode, val scope: JetScope, val descriptors: Collection<DeclarationDescriptor>)
 
     private inner class ImportDirectiveResolveCache(private val directive: JetImportDirective) {
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.resolve.lazy
+
+import org.jetbrains.kotlin.name.Name
+import org.jetbrains.kotlin.storage.StorageManager
+import java.util.HashSet
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Remembers the results of lookups by name, including negative ones. A result is not remembered if [canCache] returns false
+ * when the lookup starts, or if the same name is looked up again while the result is being computed.
+ */
+public class NameLookupCache<V>(private val storageManager: StorageManager, private val canCache: () -> Boolean) {
+    private val values = ConcurrentHashMap<Name, Any>()
+
+    // Guarded by the storage manager lock
+    private val namesInProgress = HashSet<Name>()
+    private val namesLookedUpRecursively = HashSet<Name>()
+
+    public fun get(name: Name, compute: (Name) -> V): V {
+        val cached = values[name]
+        if (cached != null) return unwrap(cached)
+
+        return storageManager.compute {
+            val cachedUnderLock = values[name]
+            when {
+                cachedUnderLock != null -> unwrap(cachedUnderLock)
+                !canCache() -> compute(name)
+                !namesInProgress.add(name) -> {
+                    // A lookup of the same name while computing it may give an incomplete answer, neither of them can be cached
+                    namesLookedUpRecursively.add(name)
+                    compute(name)
+                }
+                else -> {
+                    try {
+                        val result = compute(name)
+                        if (!namesLookedUpRecursively.remove(name)) {
+                            values[name] = result ?: NULL_VALUE
+                        }
+                        result
+                    }
+                    finally {
+                        namesInProgress.remove(name)
+                    }
+                }
+            }
+        }
+    }
+
+    [suppress("UNCHECKED_CAST")]
+    private fun unwrap(value: Any): V = (if (value === NULL_VALUE) null else value) as V
+
+    companion object {
+        private val NULL_VALUE = Any()
+    }
+}
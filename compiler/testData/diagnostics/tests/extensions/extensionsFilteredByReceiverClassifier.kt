@@ -0,0 +1,24 @@
+package a
+
+interface Base
+class Derived : Base
+class Other
+
+fun Base.foo() = 1
+fun Other.foo() = ""
+fun <T : Base> T.bar() = this
+fun Any?.baz() {}
+
+fun test(b: Base, d: Derived, o: Any) {
+    b.foo()
+    d.foo()
+    d.bar()
+    o.baz()
+    null.baz()
+
+    if (o is Other) {
+        <!DEBUG_INFO_SMARTCAST!>o<!>.foo()
+    }
+
+    o.<!UNRESOLVED_REFERENCE_WRONG_RECEIVER!>foo<!>()
+}
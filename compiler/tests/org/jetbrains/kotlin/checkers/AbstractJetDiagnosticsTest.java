@@ -109,7 +109,7 @@ public abstract class AbstractJetDiagnosticsTest extends BaseDiagnosticsTest {
             List<JetFile> jetFiles = getJetFiles(testFilesInModule, true);
 
             ModuleDescriptorImpl module = modules.get(testModule);
-            BindingTrace moduleTrace = new CliLightClassGenerationSupport.NoScopeRecordCliBindingTrace();
+            BindingTrace moduleTrace = new CliLightClassGenerationSupport.NoScopeRecordCliBindingTrace(getControlFlowThreads() > 1);
 
             moduleBindings.put(testModule, moduleTrace.getBindingContext());
 
@@ -236,10 +236,15 @@ public abstract class AbstractJetDiagnosticsTest extends BaseDiagnosticsTest {
                 jetFiles,
                 moduleTrace,
                 null,
-                null
+                null,
+                getControlFlowThreads()
         );
     }
 
+    protected int getControlFlowThreads() {
+        return 1;
+    }
+
     private void validateAndCompareDescriptorWithFile(
             File expectedFile,
             List<TestFile> testFiles,
@@ -5172,6 +5172,12 @@ public class JetDiagnosticsTestGenerated extends AbstractJetDiagnosticsTest {
                 doTest(fileName);
             }
 
+            @TestMetadata("extensionsFilteredByReceiverClassifier.kt")
+            public void testExtensionsFilteredByReceiverClassifier() throws Exception {
+                String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/extensions/extensionsFilteredByReceiverClassifier.kt");
+                doTest(fileName);
+            }
+
             @TestMetadata("GenericIterator.kt")
             public void testGenericIterator() throws Exception {
                 String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/extensions/GenericIterator.kt");
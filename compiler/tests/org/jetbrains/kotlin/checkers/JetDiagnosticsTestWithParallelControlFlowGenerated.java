@@ -0,0 +1,505 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.checkers;
+
+import com.intellij.testFramework.TestDataPath;
+import org.jetbrains.kotlin.test.JUnit3RunnerWithInners;
+import org.jetbrains.kotlin.test.JetTestUtils;
+import org.jetbrains.kotlin.test.TestMetadata;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.regex.Pattern;
+
+/** This class is generated by {@link org.jetbrains.kotlin.generators.tests.TestsPackage}. DO NOT MODIFY MANUALLY */
+@SuppressWarnings("all")
+@TestMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis")
+@TestDataPath("$PROJECT_ROOT")
+@RunWith(JUnit3RunnerWithInners.class)
+public class JetDiagnosticsTestWithParallelControlFlowGenerated extends AbstractJetDiagnosticsTestWithParallelControlFlow {
+    public void testAllFilesPresentInControlFlowAnalysis() throws Exception {
+        JetTestUtils.assertAllTestsPresentByMetadata(this.getClass(), new File("compiler/testData/diagnostics/tests/controlFlowAnalysis"), Pattern.compile("^(.+)\\.kt$"), true);
+    }
+
+    @TestMetadata("backingFieldInsideGetter.kt")
+    public void testBackingFieldInsideGetter() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/backingFieldInsideGetter.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("breakOrContinueInLoopCondition.kt")
+    public void testBreakOrContinueInLoopCondition() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/breakOrContinueInLoopCondition.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("checkInnerLocalDeclarations.kt")
+    public void testCheckInnerLocalDeclarations() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/checkInnerLocalDeclarations.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("checkPropertyAccessor.kt")
+    public void testCheckPropertyAccessor() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/checkPropertyAccessor.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("definiteReturnInWhen.kt")
+    public void testDefiniteReturnInWhen() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/definiteReturnInWhen.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1001.kt")
+    public void testKt1001() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1001.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1027.kt")
+    public void testKt1027() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1027.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1066.kt")
+    public void testKt1066() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1066.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1156.kt")
+    public void testKt1156() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1156.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1185enums.kt")
+    public void testKt1185enums() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1185enums.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1189.kt")
+    public void testKt1189() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1189.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1191.kt")
+    public void testKt1191() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1191.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1219.1301.kt")
+    public void testKt1219_1301() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1219.1301.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1571.kt")
+    public void testKt1571() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1571.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt1977.kt")
+    public void testKt1977() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt1977.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2166_kt2103.kt")
+    public void testKt2166_kt2103() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2166_kt2103.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2226.kt")
+    public void testKt2226() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2226.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2330.kt")
+    public void testKt2330() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2330.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2334.kt")
+    public void testKt2334() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2334.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2369.kt")
+    public void testKt2369() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2369.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2845.kt")
+    public void testKt2845() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2845.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2960.kt")
+    public void testKt2960() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2960.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt2972.kt")
+    public void testKt2972() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt2972.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt3444.kt")
+    public void testKt3444() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt3444.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt3501.kt")
+    public void testKt3501() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt3501.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt4126.kt")
+    public void testKt4126() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt4126.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt4405.kt")
+    public void testKt4405() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt4405.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt510.kt")
+    public void testKt510() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt510.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt607.kt")
+    public void testKt607() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt607.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt609.kt")
+    public void testKt609() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt609.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt610.kt")
+    public void testKt610() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt610.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt6788.kt")
+    public void testKt6788() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt6788.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt776.kt")
+    public void testKt776() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt776.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt843.kt")
+    public void testKt843() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt843.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("kt897.kt")
+    public void testKt897() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/kt897.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("localClasses.kt")
+    public void testLocalClasses() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/localClasses.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("propertiesInitWithOtherInstance.kt")
+    public void testPropertiesInitWithOtherInstance() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/propertiesInitWithOtherInstance.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("propertiesInitWithOtherInstanceInner.kt")
+    public void testPropertiesInitWithOtherInstanceInner() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/propertiesInitWithOtherInstanceInner.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("propertiesInitWithOtherInstanceThisLabel.kt")
+    public void testPropertiesInitWithOtherInstanceThisLabel() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/propertiesInitWithOtherInstanceThisLabel.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("propertiesOrderInPackage.kt")
+    public void testPropertiesOrderInPackage() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/propertiesOrderInPackage.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("referenceToPropertyInitializer.kt")
+    public void testReferenceToPropertyInitializer() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/referenceToPropertyInitializer.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("repeatUnitializedErrorOnlyForLocalVars.kt")
+    public void testRepeatUnitializedErrorOnlyForLocalVars() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/repeatUnitializedErrorOnlyForLocalVars.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("scopeOfAnonymousInitializer.kt")
+    public void testScopeOfAnonymousInitializer() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/scopeOfAnonymousInitializer.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("uninitializedInLocalDeclarations.kt")
+    public void testUninitializedInLocalDeclarations() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/uninitializedInLocalDeclarations.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("UninitializedOrReassignedVariables.kt")
+    public void testUninitializedOrReassignedVariables() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/UninitializedOrReassignedVariables.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("unmappedArgs.kt")
+    public void testUnmappedArgs() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/unmappedArgs.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("varInitializationInIfInCycle.kt")
+    public void testVarInitializationInIfInCycle() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/varInitializationInIfInCycle.kt");
+        doTest(fileName);
+    }
+
+    @TestMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode")
+    @TestDataPath("$PROJECT_ROOT")
+    @RunWith(JUnit3RunnerWithInners.class)
+    public static class DeadCode extends AbstractJetDiagnosticsTestWithParallelControlFlow {
+        public void testAllFilesPresentInDeadCode() throws Exception {
+            JetTestUtils.assertAllTestsPresentByMetadata(this.getClass(), new File("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode"), Pattern.compile("^(.+)\\.kt$"), true);
+        }
+
+        @TestMetadata("commasAndWhitespaces.kt")
+        public void testCommasAndWhitespaces() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/commasAndWhitespaces.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("commentsInDeadCode.kt")
+        public void testCommentsInDeadCode() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/commentsInDeadCode.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCallInInvokeCall.kt")
+        public void testDeadCallInInvokeCall() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCallInInvokeCall.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCallInReceiver.kt")
+        public void testDeadCallInReceiver() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCallInReceiver.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeDifferentExamples.kt")
+        public void testDeadCodeDifferentExamples() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeDifferentExamples.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeFromDifferentSources.kt")
+        public void testDeadCodeFromDifferentSources() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeFromDifferentSources.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInArrayAccess.kt")
+        public void testDeadCodeInArrayAccess() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInArrayAccess.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInAssignment.kt")
+        public void testDeadCodeInAssignment() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInAssignment.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInBinaryExpressions.kt")
+        public void testDeadCodeInBinaryExpressions() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInBinaryExpressions.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInCalls.kt")
+        public void testDeadCodeInCalls() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInCalls.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInDeadCode.kt")
+        public void testDeadCodeInDeadCode() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInDeadCode.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInIf.kt")
+        public void testDeadCodeInIf() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInIf.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInInnerExpressions.kt")
+        public void testDeadCodeInInnerExpressions() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInInnerExpressions.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInLocalDeclarations.kt")
+        public void testDeadCodeInLocalDeclarations() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInLocalDeclarations.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInLoops.kt")
+        public void testDeadCodeInLoops() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInLoops.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInReturn.kt")
+        public void testDeadCodeInReturn() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInReturn.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInUnaryExpr.kt")
+        public void testDeadCodeInUnaryExpr() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInUnaryExpr.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("deadCodeInWhileFromBreak.kt")
+        public void testDeadCodeInWhileFromBreak() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/deadCodeInWhileFromBreak.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("expressionInUnitLiteral.kt")
+        public void testExpressionInUnitLiteral() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/expressionInUnitLiteral.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("kt2585_1.kt")
+        public void testKt2585_1() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/kt2585_1.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("kt2585_2.kt")
+        public void testKt2585_2() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/kt2585_2.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("kt2585_3.kt")
+        public void testKt2585_3() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/kt2585_3.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("kt3162tryAsInitializer.kt")
+        public void testKt3162tryAsInitializer() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/kt3162tryAsInitializer.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("kt5200DeadCodeInLambdas.kt")
+        public void testKt5200DeadCodeInLambdas() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/deadCode/kt5200DeadCodeInLambdas.kt");
+            doTest(fileName);
+        }
+    }
+
+    @TestMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/definiteReturn")
+    @TestDataPath("$PROJECT_ROOT")
+    @RunWith(JUnit3RunnerWithInners.class)
+    public static class DefiniteReturn extends AbstractJetDiagnosticsTestWithParallelControlFlow {
+        public void testAllFilesPresentInDefiniteReturn() throws Exception {
+            JetTestUtils.assertAllTestsPresentByMetadata(this.getClass(), new File("compiler/testData/diagnostics/tests/controlFlowAnalysis/definiteReturn"), Pattern.compile("^(.+)\\.kt$"), true);
+        }
+
+        @TestMetadata("kt3444_ReturnFromLocalFunctions.kt")
+        public void testKt3444_ReturnFromLocalFunctions() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/definiteReturn/kt3444_ReturnFromLocalFunctions.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("kt4034.kt")
+        public void testKt4034() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/definiteReturn/kt4034.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("ReturnFromFunctionInObject.kt")
+        public void testReturnFromFunctionInObject() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/definiteReturn/ReturnFromFunctionInObject.kt");
+            doTest(fileName);
+        }
+
+        @TestMetadata("simpleClass.kt")
+        public void testSimpleClass() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/diagnostics/tests/controlFlowAnalysis/definiteReturn/simpleClass.kt");
+            doTest(fileName);
+        }
+    }
+}
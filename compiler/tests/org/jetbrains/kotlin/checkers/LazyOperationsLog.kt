@@ -58,7 +58,10 @@ class LazyOperationsLog(
 
     public val addRecordFunction: (lambda: Any, LoggingStorageManager.CallData) -> Unit = {
         lambda, data ->
-        records.add(Record(lambda, data))
+        // lazy operations may be triggered from several threads, see AbstractJetDiagnosticsTestWithParallelControlFlow
+        synchronized(records) {
+            records.add(Record(lambda, data))
+        }
     }
 
     public fun getText(): String {
@@ -196,6 +196,12 @@ public class KotlincExecutableTestGenerated extends AbstractKotlincExecutableTes
             doJsTest(fileName);
         }
 
+        @TestMetadata("dceWithMetaInfo.args")
+        public void testDceWithMetaInfo() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/cli/js/dceWithMetaInfo.args");
+            doJsTest(fileName);
+        }
+
         @TestMetadata("diagnosticForClassLiteral.args")
         public void testDiagnosticForClassLiteral() throws Exception {
             String fileName = JetTestUtils.navigationMetadata("compiler/testData/cli/js/diagnosticForClassLiteral.args");
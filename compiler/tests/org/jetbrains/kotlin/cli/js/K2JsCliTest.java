@@ -51,6 +51,13 @@ public class K2JsCliTest extends CliBaseTest {
         Assert.assertFalse(new File(tmpdir.getTmpDir(), "out.js").exists());
     }
 
+    @Test
+    public void dceWithMetaInfo() throws Exception {
+        executeCompilerCompareOutputJS();
+
+        Assert.assertFalse(new File(tmpdir.getTmpDir(), "out.js").exists());
+    }
+
     @Test
     public void jsHelp() throws Exception {
         executeCompilerCompareOutputJS();
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jetbrains.kotlin.resolve.lazy
+
+import org.jetbrains.kotlin.cli.jvm.compiler.EnvironmentConfigFiles
+import org.jetbrains.kotlin.cli.jvm.compiler.KotlinCoreEnvironment
+import org.jetbrains.kotlin.config.CompilerConfiguration
+import org.jetbrains.kotlin.name.Name
+import org.jetbrains.kotlin.test.JetTestUtils
+import org.junit.Assert
+
+public class LazyFileScopeTest : KotlinTestWithEnvironment() {
+    override fun createEnvironment(): KotlinCoreEnvironment? {
+        return KotlinCoreEnvironment.createForTests(getTestRootDisposable()!!, CompilerConfiguration(), EnvironmentConfigFiles.JVM_CONFIG_FILES)
+    }
+
+    private fun getFileScope(text: String): LazyFileScope {
+        val file = JetTestUtils.createFile("file.kt", text, getProject())
+        return createResolveSessionForFiles(getProject(), listOf(file), true).getScopeProvider().getFileScope(file)
+    }
+
+    fun testLookupsAreCached() {
+        val scope = getFileScope("package test\nimport java.util.*\nfun foo() {}\nfun foo(i: Int) {}\nval bar = 1")
+
+        // the chain of scopes returns a new set on every lookup
+        val functions = scope.getFunctions(Name.identifier("foo"))
+        Assert.assertEquals(2, functions.size())
+        Assert.assertSame(functions, scope.getFunctions(Name.identifier("foo")))
+
+        val properties = scope.getProperties(Name.identifier("bar"))
+        Assert.assertEquals(1, properties.size())
+        Assert.assertSame(properties, scope.getProperties(Name.identifier("bar")))
+
+        val classifier = scope.getClassifier(Name.identifier("ArrayList"))
+        Assert.assertNotNull(classifier)
+        Assert.assertSame(classifier, scope.getClassifier(Name.identifier("ArrayList")))
+    }
+
+    fun testNegativeLookupsAreCached() {
+        val scope = getFileScope("package test\nimport java.util.*")
+
+        val functions = scope.getFunctions(Name.identifier("missing"))
+        Assert.assertTrue(functions.isEmpty())
+        Assert.assertSame(functions, scope.getFunctions(Name.identifier("missing")))
+        Assert.assertNull(scope.getClassifier(Name.identifier("Missing")))
+        Assert.assertNull(scope.getPackage(Name.identifier("missing")))
+    }
+
+    fun testLookupsAfterImportResolution() {
+        val scope = getFileScope("package test\nimport test.A.Nested\nimport test.A.Nested as Alias\nclass A { class Nested }")
+
+        // the first lookup resolves the alias imports
+        val nested = scope.getClassifier(Name.identifier("Nested"))
+        Assert.assertNotNull(nested)
+        scope.forceResolveAllImports()
+
+        Assert.assertSame(nested, scope.getClassifier(Name.identifier("Nested")))
+        Assert.assertSame(nested, scope.getClassifier(Name.identifier("Alias")))
+        Assert.assertNotNull(scope.getClassifier(Name.identifier("A")))
+    }
+
+    fun testFreshScopeAfterFileChange() {
+        val oldScope = getFileScope("package test")
+        Assert.assertNull(oldScope.getClassifier(Name.identifier("A")))
+
+        // a modification of the file drops the resolve session, and the file scope with its cache
+        val newScope = getFileScope("package test\nclass A")
+        Assert.assertNotSame(oldScope, newScope)
+        Assert.assertNotNull(newScope.getClassifier(Name.identifier("A")))
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jetbrains.kotlin.resolve.lazy
+
+import junit.framework.TestCase
+import org.jetbrains.kotlin.name.Name
+import org.jetbrains.kotlin.storage.LockBasedStorageManager
+import org.junit.Assert
+import java.util.ArrayList
+
+public class NameLookupCacheTest : TestCase() {
+    private val foo = Name.identifier("foo")
+    private val bar = Name.identifier("bar")
+
+    // Stands for LazyImportResolver.isResolvingImport of the imports of a file
+    private var resolvingImport = false
+    private val computed = ArrayList<Name>()
+    private val cache = NameLookupCache<String?>(LockBasedStorageManager()) { !resolvingImport }
+
+    private fun lookUp(name: Name, result: String? = name.asString()): String? = cache.get(name) {
+        computed.add(it)
+        result
+    }
+
+    fun testResultIsCached() {
+        Assert.assertEquals("foo", lookUp(foo))
+        Assert.assertEquals("foo", lookUp(foo, "changed"))
+        Assert.assertEquals(listOf(foo), computed)
+    }
+
+    fun testNegativeResultIsCached() {
+        Assert.assertNull(lookUp(bar, null))
+        Assert.assertNull(lookUp(bar, "changed"))
+        Assert.assertEquals(listOf(bar), computed)
+    }
+
+    fun testLookupWhileResolvingImportIsNotCached() {
+        resolvingImport = true
+        Assert.assertNull(lookUp(foo, null))
+        Assert.assertEquals("foo", lookUp(foo))
+
+        resolvingImport = false
+        Assert.assertEquals("foo", lookUp(foo))
+        Assert.assertEquals("foo", lookUp(foo, "changed"))
+        Assert.assertEquals(listOf(foo, foo, foo), computed)
+    }
+
+    fun testLookupMadeByImportResolution() {
+        // the lookup of foo resolves an import, which looks up bar before all of the imports are known
+        val result = cache.get(foo) {
+            computed.add(it)
+            resolvingImport = true
+            try {
+                lookUp(bar, null)
+            }
+            finally {
+                resolvingImport = false
+            }
+            "foo"
+        }
+        Assert.assertEquals("foo", result)
+
+        Assert.assertEquals("bar", lookUp(bar))
+        Assert.assertEquals("foo", lookUp(foo, "changed"))
+        Assert.assertEquals(listOf(foo, bar, bar), computed)
+    }
+
+    fun testRecursiveLookupIsNotCached() {
+        val result = cache.get(foo) {
+            computed.add(it)
+            Assert.assertEquals("incomplete", lookUp(foo, "incomplete"))
+            "outer"
+        }
+        Assert.assertEquals("outer", result)
+
+        Assert.assertEquals("foo", lookUp(foo))
+        Assert.assertEquals("foo", lookUp(foo, "changed"))
+        Assert.assertEquals(listOf(foo, foo, foo), computed)
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.jetbrains.kotlin.serialization.builtins
 
+import org.jetbrains.kotlin.builtins.BuiltInsSerializedResourcePaths
 import org.jetbrains.kotlin.builtins.KotlinBuiltIns
 import org.jetbrains.kotlin.builtins.createBuiltInPackageFragmentProvider
 import org.jetbrains.kotlin.codegen.forTestCompile.ForTestCompileRuntime
@@ -25,11 +26,12 @@ import org.jetbrains.kotlin.storage.LockBasedStorageManager
 import org.jetbrains.kotlin.test.JetTestUtils
 import org.jetbrains.kotlin.test.TestCaseWithTmpdir
 import org.jetbrains.kotlin.test.util.RecursiveDescriptorComparator
+import java.io.ByteArrayInputStream
 import java.io.File
 import java.io.FileInputStream
 
 public class BuiltInsSerializerTest : TestCaseWithTmpdir() {
-    private fun doTest(fileName: String) {
+    private fun doTest(fileName: String, fromSnapshotOnly: Boolean = false, corruptSnapshot: ((ByteArray) -> ByteArray)? = null) {
         val source = "compiler/testData/serialization/builtinsSerializer/$fileName"
         BuiltInsSerializer(dependOnOldBuiltIns = true).serialize(
                 tmpdir,
@@ -44,7 +46,12 @@ public class BuiltInsSerializerTest : TestCaseWithTmpdir() {
                 LockBasedStorageManager(), module, setOf(TEST_PACKAGE_FQNAME), ClassDescriptorFactory.EMPTY
         ) {
             val file = File(tmpdir, it)
-            if (file.exists()) FileInputStream(file) else null
+            val isSnapshot = it == BuiltInsSerializedResourcePaths.getSnapshotFilePath(TEST_PACKAGE_FQNAME)
+            when {
+                !file.exists() || fromSnapshotOnly && !isSnapshot -> null
+                isSnapshot && corruptSnapshot != null -> ByteArrayInputStream(corruptSnapshot(file.readBytes()))
+                else -> FileInputStream(file)
+            }
         }
 
         module.initialize(packageFragmentProvider)
@@ -63,6 +70,22 @@ public class BuiltInsSerializerTest : TestCaseWithTmpdir() {
         doTest("simple.kt")
     }
 
+    fun testSimpleFromSnapshot() {
+        doTest("simple.kt", fromSnapshotOnly = true)
+    }
+
+    fun testNestedClassesAndObjectsFromSnapshot() {
+        doTest("nestedClassesAndObjects.kt", fromSnapshotOnly = true)
+    }
+
+    fun testTruncatedSnapshotHeader() {
+        doTest("nestedClassesAndObjects.kt", corruptSnapshot = { it.copyOf(20) })
+    }
+
+    fun testTruncatedSnapshotData() {
+        doTest("nestedClassesAndObjects.kt", corruptSnapshot = { it.copyOf(it.size() - 1) })
+    }
+
     fun testNestedClassesAndObjects() {
         doTest("nestedClassesAndObjects.kt")
     }
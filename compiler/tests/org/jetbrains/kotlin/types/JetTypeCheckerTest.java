@@ -307,6 +307,37 @@ public class JetTypeCheckerTest extends JetLiteFixture {
 //        assertSubtype("java.lang.Integer", "java.lang.Comparable<java.lang.Integer>?");
     }
 
+    public void testCachedSupertypePaths() throws Exception {
+        // Paths are cached per pair of constructors, whatever the arguments of the checked types are
+        assertSubtype("Derived_T<Int>", "Base_T<Int>");
+        assertNotSubtype("Derived_T<Int>", "Base_T<Any>");
+        assertNotSubtype("Base_T<Int>", "Derived_T<Int>");
+
+        SupertypePathCache.Entry found =
+                getSupertypePathCache("Derived_T<Int>").getCorrespondingSupertype(makeType("Base_T<Any>").getConstructor());
+        assertNotNull(found);
+        assertNotNull(found.supertype);
+
+        SupertypePathCache.Entry notFound =
+                getSupertypePathCache("Base_T<Int>").getCorrespondingSupertype(makeType("Derived_T<Any>").getConstructor());
+        assertNotNull(notFound);
+        assertNull(notFound.supertype);
+    }
+
+    public void testBuiltInSupertypePathsDontKeepOtherClasses() throws Exception {
+        // Built-in constructors outlive resolve sessions, so paths to classes of a session must not be cached on them
+        assertNotSubtype("Int", "Base_T<Int>");
+        assertSubtype("Int", "Comparable<Int>");
+
+        SupertypePathCache cache = getSupertypePathCache("Int");
+        assertNull(cache.getCorrespondingSupertype(makeType("Base_T<Int>").getConstructor()));
+        assertNotNull(cache.getCorrespondingSupertype(makeType("Comparable<Int>").getConstructor()));
+    }
+
+    private SupertypePathCache getSupertypePathCache(String type) {
+        return ((AbstractClassTypeConstructor) makeType(type).getConstructor()).getSupertypePathCache();
+    }
+
     public void testNullable() throws Exception {
         assertSubtype("Any?", "Any?");
         assertSubtype("Any", "Any?");
@@ -160,6 +160,21 @@ public class TypeSubstitutorTest extends KotlinTestWithEnvironment {
         return Pair.create(typeParameterName, replacementProjectionString);
     }
 
+    public void testUnaffectedTypeIsNotCopied() throws Exception {
+        Map<TypeConstructor, TypeProjection> map = stringsToSubstitutionMap(new Pair[] {map("T", "String")});
+        TypeSubstitutor substitutor = TypeSubstitutor.create(map);
+
+        for (String typeStr : new String[] {"C<Int>", "P<Int, Out<C<Any?>>>?", "In<Int>", "C<*>", "R"}) {
+            JetType type = resolveType(typeStr);
+            assertSame(typeStr, type, substitutor.substitute(type, Variance.INVARIANT));
+        }
+
+        JetType type = resolveType("P<Int, C<T>>");
+        JetType substituted = substitutor.substitute(type, Variance.INVARIANT);
+        assertNotSame(type, substituted);
+        assertSame(type.getArguments().get(0), substituted.getArguments().get(0));
+    }
+
     public void testNoOccurrence() throws Exception {
         doTest(
                 "C<Int>",
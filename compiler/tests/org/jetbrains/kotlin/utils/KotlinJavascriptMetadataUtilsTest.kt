@@ -0,0 +1,100 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.utils
+
+import com.intellij.openapi.util.io.FileUtil
+import org.jetbrains.kotlin.test.TestCaseWithTmpdir
+import java.io.File
+import java.io.FileOutputStream
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+import javax.xml.bind.DatatypeConverter.printBase64Binary
+
+public class KotlinJavascriptMetadataUtilsTest : TestCaseWithTmpdir() {
+    private val FIRST_BODY = byteArrayOf(1, 2, 3, 4, 5)
+    private val SECOND_BODY = byteArrayOf(-1, 0, 42)
+
+    fun testNoMetadata() {
+        doTest("var kotlin = {};\nKotlin.defineModule('foo', _);\n")
+    }
+
+    fun testMethodNameWithoutCall() {
+        doTest("// see Kotlin.kotlin_module_metadata(<abi version>, <module name>, <base64 data>)\n")
+    }
+
+    fun testFormattedMetadata() {
+        doTest("var foo = {};\n" + format("foo", FIRST_BODY), "foo" to FIRST_BODY)
+    }
+
+    fun testFormattedMetadataOfSeveralModules() {
+        doTest(format("foo", FIRST_BODY) + "var x = 1;\n" + format("bar", SECOND_BODY), "foo" to FIRST_BODY, "bar" to SECOND_BODY)
+    }
+
+    fun testSingleQuotesAndSpaces() {
+        doTest("Kotlin.kotlin_module_metadata(2,   'foo',\n  '${printBase64Binary(FIRST_BODY)}');\n", "foo" to FIRST_BODY)
+    }
+
+    // The data is split over lines, which only the regex accepts
+    fun testRegexFallback() {
+        val data = printBase64Binary(SECOND_BODY)
+        doTest("Kotlin.kotlin_module_metadata(2, \"bar\", \"${data.substring(0, 2)}\n${data.substring(2)}\");\n", "bar" to SECOND_BODY)
+    }
+
+    // Calls parsed in place before the fallback must not be reported twice
+    fun testRegexFallbackAfterFormattedMetadata() {
+        val data = printBase64Binary(SECOND_BODY)
+        doTest(format("foo", FIRST_BODY) + "Kotlin.kotlin_module_metadata(2, \"bar\", \"${data.substring(0, 2)}\n${data.substring(2)}\");\n",
+               "foo" to FIRST_BODY, "bar" to SECOND_BODY)
+    }
+
+    fun testMetaJsFileWithJsFile() {
+        val metaFile = File(tmpdir, "lib.meta.js")
+        FileUtil.writeToFile(metaFile, format("foo", FIRST_BODY))
+        FileUtil.writeToFile(File(tmpdir, "lib.js"), "var bar = {};\n" + format("bar", SECOND_BODY))
+
+        checkMetadata(KotlinJavascriptMetadataUtils.loadMetadata(metaFile), "foo" to FIRST_BODY, "bar" to SECOND_BODY)
+    }
+
+    fun testArchive() {
+        val jarFile = File(tmpdir, "lib.jar")
+        ZipOutputStream(FileOutputStream(jarFile)).use {
+            it.putNextEntry(ZipEntry("foo.js"))
+            it.write(format("foo", FIRST_BODY).toByteArray(Charsets.UTF_8))
+            it.closeEntry()
+            it.putNextEntry(ZipEntry("META-INF/bar.js"))
+            it.write(format("bar", SECOND_BODY).toByteArray(Charsets.UTF_8))
+            it.closeEntry()
+        }
+
+        checkMetadata(KotlinJavascriptMetadataUtils.loadMetadata(jarFile), "foo" to FIRST_BODY)
+    }
+
+    private fun format(moduleName: String, body: ByteArray): String = KotlinJavascriptMetadataUtils.formatMetadataAsString(moduleName, body)
+
+    private fun doTest(text: String, vararg expected: Pair<String, ByteArray>) {
+        val file = File(tmpdir, "lib.js")
+        FileUtil.writeToFile(file, text)
+
+        assertEquals(expected.isNotEmpty(), KotlinJavascriptMetadataUtils.hasMetadata(text))
+        checkMetadata(KotlinJavascriptMetadataUtils.loadMetadata(file), *expected)
+    }
+
+    private fun checkMetadata(actual: List<KotlinJavascriptMetadata>, vararg expected: Pair<String, ByteArray>) {
+        assertEquals(expected.map { it.first }, actual.map { it.moduleName })
+        assertEquals(expected.map { it.second.toList() }, actual.map { it.body.toList() })
+    }
+}
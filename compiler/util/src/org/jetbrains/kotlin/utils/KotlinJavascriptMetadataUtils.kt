@@ -20,6 +20,7 @@ import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.util.io.FileUtil
 import java.io.File
 import java.io.IOException
+import java.nio.ByteBuffer
 import javax.xml.bind.DatatypeConverter.parseBase64Binary
 import javax.xml.bind.DatatypeConverter.printBase64Binary
 import kotlin.platform.platformStatic
@@ -31,6 +32,7 @@ public object KotlinJavascriptMetadataUtils {
 
     public val JS_EXT: String = ".js"
     public val META_JS_SUFFIX: String = ".meta.js"
+    public val CHUNK_JS_SUFFIX: String = ".chunk.js"
     public val VFS_PROTOCOL: String = "kotlin-js-meta"
     private val KOTLIN_JAVASCRIPT_METHOD_NAME = "kotlin_module_metadata"
     private val KOTLIN_JAVASCRIPT_METHOD_NAME_PATTERN = "\\.kotlin_module_metadata\\(".toRegex()
@@ -40,6 +42,8 @@ public object KotlinJavascriptMetadataUtils {
     private val METADATA_PATTERN = "(?m)\\w+\\.$KOTLIN_JAVASCRIPT_METHOD_NAME\\((\\d+),\\s*(['\"])([^'\"]*)\\2,\\s*(['\"])([^'\"]*)\\4\\)".toRegex()
     private val ABI_VERSION = 2
 
+    private val METHOD_CALL_BYTES = ".$KOTLIN_JAVASCRIPT_METHOD_NAME(".toByteArray(Charsets.ISO_8859_1)
+
     public fun replaceSuffix(filePath: String): String = filePath.substringBeforeLast(JS_EXT) + META_JS_SUFFIX
 
     platformStatic
@@ -52,7 +56,7 @@ public object KotlinJavascriptMetadataUtils {
     public fun loadMetadata(file: File): List<KotlinJavascriptMetadata> {
         assert(file.exists()) { "Library " + file + " not found" }
         val metadataList = arrayListOf<KotlinJavascriptMetadata>()
-        LibraryUtils.traverseJsLibrary(file) { content, relativePath ->
+        LibraryUtils.traverseJsLibraryContents(file) { content, relativePath ->
             var path = file.getPath()
 
             if (relativePath.isNotBlank()) {
@@ -68,6 +72,108 @@ public object KotlinJavascriptMetadataUtils {
     platformStatic
     public fun loadMetadata(path: String): List<KotlinJavascriptMetadata> = loadMetadata(File(path))
 
+    /**
+     * Looks for metadata calls in the undecoded content: files without metadata are rejected without decoding them to a string,
+     * calls in the format written by [formatMetadataAsString] are parsed in place. Anything else is parsed by the regex on the decoded text.
+     */
+    private fun parseMetadata(content: ByteBuffer, path: String, metadataList: MutableList<KotlinJavascriptMetadata>) {
+        var index = indexOf(content, METHOD_CALL_BYTES, 0)
+        if (index < 0) return
+
+        val parsed = arrayListOf<KotlinJavascriptMetadata>()
+        while (index >= 0) {
+            val metadata = parseMetadataCall(content, index, path)
+            if (metadata == null) {
+                val bytes = ByteArray(content.limit())
+                content.duplicate().get(bytes)
+                parseMetadata(String(bytes, Charsets.UTF_8), path, metadataList)
+                return
+            }
+            parsed.add(metadata)
+            index = indexOf(content, METHOD_CALL_BYTES, index + METHOD_CALL_BYTES.size())
+        }
+
+        metadataList.addAll(parsed)
+    }
+
+    /**
+     * Parses <name>.kotlin_module_metadata(<abi version>, "<module name>", "<base64 data>") starting at the dot before the method name.
+     * @return null if the call doesn't have the expected format
+     */
+    private fun parseMetadataCall(content: ByteBuffer, callIndex: Int, path: String): KotlinJavascriptMetadata? {
+        if (callIndex == 0 || !isWordChar(content.get(callIndex - 1))) return null
+
+        var i = callIndex + METHOD_CALL_BYTES.size()
+        val versionStart = i
+        while (i < content.limit() && content.get(i).toChar() in '0'..'9') i++
+        if (i == versionStart) return null
+        val abiVersion = Integer.parseInt(asciiString(content, versionStart, i))
+
+        i = skipCommaAndSpaces(content, i)
+        if (i < 0) return null
+        val moduleNameEnd = findClosingQuote(content, i)
+        if (moduleNameEnd < 0) return null
+        val moduleName = asciiString(content, i + 1, moduleNameEnd)
+
+        i = skipCommaAndSpaces(content, moduleNameEnd + 1)
+        if (i < 0) return null
+        val dataEnd = findClosingQuote(content, i)
+        if (dataEnd < 0 || dataEnd + 1 >= content.limit() || content.get(dataEnd + 1).toChar() != ')') return null
+
+        if (abiVersion != ABI_VERSION) LOG.error("Unsupported abi version in $path, expected $ABI_VERSION, but $abiVersion")
+        return KotlinJavascriptMetadata(moduleName, parseBase64Binary(asciiString(content, i + 1, dataEnd)))
+    }
+
+    private fun skipCommaAndSpaces(content: ByteBuffer, start: Int): Int {
+        if (start >= content.limit() || content.get(start).toChar() != ',') return -1
+        var i = start + 1
+        while (i < content.limit() && Character.isWhitespace(content.get(i).toChar())) i++
+        return if (i < content.limit()) i else -1
+    }
+
+    /**
+     * @return index of the quote closing the string which starts at [openingQuoteIndex], or -1 if there is no string there
+     */
+    private fun findClosingQuote(content: ByteBuffer, openingQuoteIndex: Int): Int {
+        val quote = content.get(openingQuoteIndex).toChar()
+        if (quote != '"' && quote != '\'') return -1
+
+        for (i in openingQuoteIndex + 1..content.limit() - 1) {
+            val c = content.get(i).toChar()
+            if (c == quote) return i
+            if (c == '"' || c == '\'' || c == '\n') return -1
+        }
+        return -1
+    }
+
+    private fun isWordChar(byte: Byte): Boolean {
+        val c = byte.toChar()
+        return c == '_' || c in 'a'..'z' || c in 'A'..'Z' || c in '0'..'9'
+    }
+
+    private fun asciiString(content: ByteBuffer, start: Int, end: Int): String {
+        val bytes = ByteArray(end - start)
+        val slice = content.duplicate()
+        slice.position(start)
+        slice.get(bytes)
+        return String(bytes, Charsets.ISO_8859_1)
+    }
+
+    private fun indexOf(content: ByteBuffer, pattern: ByteArray, fromIndex: Int): Int {
+        val first = pattern[0]
+        val last = content.limit() - pattern.size()
+        var i = fromIndex
+        while (i <= last) {
+            if (content.get(i) == first) {
+                var j = 1
+                while (j < pattern.size() && content.get(i + j) == pattern[j]) j++
+                if (j == pattern.size()) return i
+            }
+            i++
+        }
+        return -1
+    }
+
     private fun parseMetadata(text: String, path: String, metadataList: MutableList<KotlinJavascriptMetadata>) {
         // Check for literal pattern first in order to reduce time for large files without metadata
         if (!KOTLIN_JAVASCRIPT_METHOD_NAME_PATTERN.matcher(text).find()) return
@@ -22,6 +22,7 @@ import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.Processor
 import org.jetbrains.kotlin.utils.fileUtils.withReplacedExtensionOrNull
 import java.io.*
+import java.nio.ByteBuffer
 import java.util.Properties
 import java.util.jar.Attributes
 import java.util.jar.JarFile
@@ -126,6 +127,7 @@ public object LibraryUtils {
                 lib.runIfFileExists(action)
                 val jsFile = lib.withReplacedExtensionOrNull(KotlinJavascriptMetadataUtils.META_JS_SUFFIX, KotlinJavascriptMetadataUtils.JS_EXT)
                 jsFile?.runIfFileExists(action)
+                (jsFile ?: lib).getChunkFiles().forEach { it.runIfFileExists(action) }
             }
             else ->
                 throw IllegalArgumentException("Unknown library format (directory, zip or js file expected): $lib")
@@ -138,6 +140,87 @@ public object LibraryUtils {
         }
     }
 
+    /**
+     * Package chunks written next to the file when the module is compiled with split output, see TranslationResult.
+     */
+    private fun File.getChunkFiles(): List<File> {
+        val prefix = getName().substringBeforeLast(KotlinJavascriptMetadataUtils.JS_EXT) + "."
+        val files = getAbsoluteFile().getParentFile()?.listFiles() ?: return listOf()
+        return files.filter { it.getName().startsWith(prefix) && it.getName().endsWith(KotlinJavascriptMetadataUtils.CHUNK_JS_SUFFIX) }
+                .sortBy { it.getName() }
+    }
+
+    /**
+     * Same as [traverseJsLibrary], but passes undecoded contents of the files.
+     * Plain files are read as a whole instead of being memory-mapped, because a mapped file stays locked on Windows until the buffer is collected.
+     */
+    platformStatic
+    public fun traverseJsLibraryContents(lib: File, action: (content: ByteBuffer, path: String) -> Unit) {
+        when {
+            lib.isDirectory() -> traverseDirectoryContents(lib, action)
+            FileUtil.isJarOrZip(lib) -> traverseArchiveContents(lib, action)
+            lib.getName().endsWith(KotlinJavascriptMetadataUtils.JS_EXT) -> {
+                lib.runIfFileExistsWithContent(action)
+                val jsFile = lib.withReplacedExtensionOrNull(KotlinJavascriptMetadataUtils.META_JS_SUFFIX, KotlinJavascriptMetadataUtils.JS_EXT)
+                jsFile?.runIfFileExistsWithContent(action)
+            }
+            else ->
+                throw IllegalArgumentException("Unknown library format (directory, zip or js file expected): $lib")
+        }
+    }
+
+    private fun File.runIfFileExistsWithContent(action: (content: ByteBuffer, path: String) -> Unit) {
+        if (isFile()) {
+            action(loadFile(this), "")
+        }
+    }
+
+    private fun loadFile(file: File): ByteBuffer = ByteBuffer.wrap(FileUtil.loadFileBytes(file))
+
+    private fun traverseDirectoryContents(dir: File, action: (content: ByteBuffer, relativePath: String) -> Unit) {
+        try {
+            FileUtil.processFilesRecursively(dir, object : Processor<File> {
+                override fun process(file: File): Boolean {
+                    val relativePath = FileUtil.getRelativePath(dir, file) ?: throw IllegalArgumentException("relativePath should not be null " + dir + " " + file)
+                    if (file.isFile() && relativePath.endsWith(KotlinJavascriptMetadataUtils.JS_EXT)) {
+                        val suggestedRelativePath = getSuggestedPath(relativePath)
+                        if (suggestedRelativePath == null) return true
+
+                        action(loadFile(file), suggestedRelativePath)
+                    }
+                    return true
+                }
+            })
+        }
+        catch (ex: IOException) {
+            LOG.error("Could not read files from directory ${dir.getName()}: ${ex.getMessage()}")
+        }
+    }
+
+    private fun traverseArchiveContents(file: File, action: (content: ByteBuffer, relativePath: String) -> Unit) {
+        val zipFile = ZipFile(file.getPath())
+        try {
+            val zipEntries = zipFile.entries()
+            while (zipEntries.hasMoreElements()) {
+                val entry = zipEntries.nextElement()
+                val entryName = entry.getName()
+                if (!entry.isDirectory() && entryName.endsWith(KotlinJavascriptMetadataUtils.JS_EXT)) {
+                    val relativePath = getSuggestedPath(entryName)
+                    if (relativePath == null) continue
+
+                    val content = zipFile.getInputStream(entry).use { FileUtil.loadBytes(it) }
+                    action(ByteBuffer.wrap(content), relativePath)
+                }
+            }
+        }
+        catch (ex: IOException) {
+            LOG.error("Could not extract files from archive ${file.getName()}: ${ex.getMessage()}")
+        }
+        finally {
+            zipFile.close()
+        }
+    }
+
     private fun copyJsFilesFromDirectory(dir: File, outputLibraryJsPath: String) {
         traverseDirectory(dir) {
             content, relativePath -> FileUtil.writeToFile(File(outputLibraryJsPath, relativePath), content)
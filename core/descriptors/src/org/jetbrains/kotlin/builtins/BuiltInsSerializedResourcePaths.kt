@@ -33,6 +33,7 @@ public object BuiltInsSerializedResourcePaths : SerializedResourcePaths() {
     private val CLASS_METADATA_FILE_EXTENSION = "kotlin_class"
     private val PACKAGE_FILE_EXTENSION = "kotlin_package"
     private val STRING_TABLE_FILE_EXTENSION = "kotlin_string_table"
+    private val SNAPSHOT_FILE_EXTENSION = "kotlin_builtins"
 
     public override fun getClassMetadataPath(classId: ClassId): String {
         return packageFqNameToPath(classId.getPackageFqName()) + "/" + classId.getRelativeClassName().asString() +
@@ -45,6 +46,8 @@ public object BuiltInsSerializedResourcePaths : SerializedResourcePaths() {
     public override fun getStringTableFilePath(fqName: FqName): String =
             packageFqNameToPath(fqName) + "/" + shortName(fqName) + "." + STRING_TABLE_FILE_EXTENSION
 
+    public fun getSnapshotFilePath(fqName: FqName): String =
+            packageFqNameToPath(fqName) + "/" + shortName(fqName) + "." + SNAPSHOT_FILE_EXTENSION
 
     private fun packageFqNameToPath(fqName: FqName): String =
             fqName.asString().replace('.', '/')
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.builtins
+
+import java.io.*
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
+
+/**
+ * A single-file image of all serialized resources of one built-ins package (string table, package proto and one proto per class).
+ *
+ * Layout: magic, version, entry count, then (path, offset, length) for each entry, followed by the entry data.
+ * Offsets are relative to the start of the data section. Entries are sliced out of the buffer only when requested,
+ * so classes are still deserialized one by one on first access, but the class loader is consulted only once per package.
+ */
+public class BuiltInsSnapshot private constructor(private val entries: Map<String, ByteBuffer>) {
+    public val paths: Set<String>
+        get() = entries.keySet()
+
+    public fun loadResource(path: String): InputStream? {
+        val entry = entries[path] ?: return null
+        return ByteBufferInputStream(entry.duplicate())
+    }
+
+    companion object {
+        private val MAGIC = 0x4B424953 // "KBIS"
+        private val VERSION = 1
+
+        public fun write(output: OutputStream, entries: Map<String, ByteArray>) {
+            val out = DataOutputStream(output)
+            out.writeInt(MAGIC)
+            out.writeInt(VERSION)
+            out.writeInt(entries.size())
+
+            var offset = 0
+            for ((path, bytes) in entries) {
+                out.writeUTF(path)
+                out.writeInt(offset)
+                out.writeInt(bytes.size())
+                offset += bytes.size()
+            }
+
+            for (bytes in entries.values()) {
+                out.write(bytes)
+            }
+            out.flush()
+        }
+
+        /**
+         * Reads a snapshot from the given stream. The stream is read into a single buffer rather than memory-mapped,
+         * so that the file is not kept locked (on Windows) while the built-ins are in use.
+         *
+         * @return null if the stream doesn't contain a snapshot of the current version, or if the snapshot is truncated
+         * or corrupt: the resources of the package are then loaded one by one
+         */
+        public fun read(input: InputStream): BuiltInsSnapshot? {
+            val bytes = input.use { it.readBytes() }
+            try {
+                return read(ByteBuffer.wrap(bytes))
+            }
+            catch (e: IOException) {
+                // EOFException or UTFDataFormatException from the header of a truncated or corrupt snapshot
+                return null
+            }
+            catch (e: BufferUnderflowException) {
+                return null
+            }
+        }
+
+        private fun read(buffer: ByteBuffer): BuiltInsSnapshot? {
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null
+
+            val count = buffer.getInt()
+            // each entry takes at least 10 bytes of the header: the length of an empty path, the offset and the length
+            if (count < 0 || count > buffer.remaining() / 10) return null
+
+            val paths = arrayOfNulls<String>(count)
+            val offsets = IntArray(count)
+            val lengths = IntArray(count)
+            val header = DataInputStream(ByteBufferInputStream(buffer))
+            for (i in 0..count - 1) {
+                paths[i] = header.readUTF()
+                offsets[i] = header.readInt()
+                lengths[i] = header.readInt()
+            }
+
+            val dataStart = buffer.position()
+            val dataSize = buffer.limit() - dataStart
+            for (i in 0..count - 1) {
+                if (offsets[i] < 0 || lengths[i] < 0 || offsets[i].toLong() + lengths[i] > dataSize) return null
+            }
+
+            val entries = linkedMapOf<String, ByteBuffer>()
+            for (i in 0..count - 1) {
+                val slice = buffer.duplicate()
+                slice.position(dataStart + offsets[i])
+                slice.limit(dataStart + offsets[i] + lengths[i])
+                entries[paths[i]!!] = slice.slice()
+            }
+
+            return BuiltInsSnapshot(entries)
+        }
+    }
+
+    private class ByteBufferInputStream(private val buffer: ByteBuffer) : InputStream() {
+        override fun read(): Int = if (buffer.hasRemaining()) buffer.get().toInt() and 0xFF else -1
+
+        override fun read(b: ByteArray, off: Int, len: Int): Int {
+            if (len == 0) return 0
+            if (!buffer.hasRemaining()) return -1
+            val count = Math.min(len, buffer.remaining())
+            buffer.get(b, off, count)
+            return count
+        }
+
+        override fun available(): Int = buffer.remaining()
+    }
+}
@@ -29,8 +29,10 @@ public fun createBuiltInPackageFragmentProvider(
         module: ModuleDescriptor,
         packageFqNames: Set<FqName>,
         classDescriptorFactory: ClassDescriptorFactory,
-        loadResource: (String) -> InputStream?
+        loadResourceFromClassPath: (String) -> InputStream?
 ): PackageFragmentProvider {
+    val loadResource = createSnapshotResourceLoader(packageFqNames, loadResourceFromClassPath)
+
     val packageFragments = packageFqNames.map { fqName ->
         BuiltinsPackageFragment(fqName, storageManager, module, loadResource)
     }
@@ -57,3 +59,24 @@ public fun createBuiltInPackageFragmentProvider(
 
     return provider
 }
+
+/**
+ * If a snapshot is available for a package, its serialized resources are served from the snapshot,
+ * otherwise (e.g. for old runtimes) they are looked up one by one via [loadResource].
+ */
+private fun createSnapshotResourceLoader(packageFqNames: Set<FqName>, loadResource: (String) -> InputStream?): (String) -> InputStream? {
+    val snapshots = packageFqNames.map { fqName ->
+        loadResource(BuiltInsSerializedResourcePaths.getSnapshotFilePath(fqName))?.let { BuiltInsSnapshot.read(it) }
+    }.filterNotNull()
+
+    if (snapshots.isEmpty()) return loadResource
+
+    return { path ->
+        var result: InputStream? = null
+        for (snapshot in snapshots) {
+            result = snapshot.loadResource(path)
+            if (result != null) break
+        }
+        result ?: loadResource(path)
+    }
+}
@@ -23,6 +23,23 @@ import org.jetbrains.kotlin.name.FqNameUnsafe;
 import org.jetbrains.kotlin.resolve.DescriptorUtils;
 
 public abstract class AbstractClassTypeConstructor implements TypeConstructor {
+    private volatile SupertypePathCache supertypePathCache = null;
+
+    @NotNull
+    public SupertypePathCache getSupertypePathCache() {
+        SupertypePathCache cache = supertypePathCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = supertypePathCache;
+                if (cache == null) {
+                    cache = new SupertypePathCache(getDeclarationDescriptor());
+                    supertypePathCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
     @Override
     public final int hashCode() {
         return hashCode(this);
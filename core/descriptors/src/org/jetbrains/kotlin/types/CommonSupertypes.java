@@ -314,9 +314,6 @@ public class CommonSupertypes {
     }
 
     private static void markAll(@NotNull TypeConstructor typeConstructor, @NotNull Set<TypeConstructor> markerSet) {
-        markerSet.add(typeConstructor);
-        for (JetType type : typeConstructor.getSupertypes()) {
-            markAll(type.getConstructor(), markerSet);
-        }
+        markerSet.addAll(SupertypePathCache.getAllSupertypeConstructors(typeConstructor));
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.builtins.BuiltinsPackageFragment;
+import org.jetbrains.kotlin.descriptors.ClassifierDescriptor;
+import org.jetbrains.kotlin.descriptors.ModuleDescriptor;
+import org.jetbrains.kotlin.descriptors.PackageFragmentDescriptor;
+import org.jetbrains.kotlin.resolve.DescriptorUtils;
+
+import java.util.*;
+
+/**
+ * Caches supertype paths of a class type constructor: for a target constructor, the supertype having it, expressed in terms of
+ * the type parameters of the class (or its absence), and the set of all constructors of all supertypes.
+ *
+ * The cache is owned by the type constructor, and it only keeps entries for targets of the same module as the owner, or built-in ones.
+ * Constructors of built-in classes and of libraries may be shared by several resolve sessions, and an entry for a class of another
+ * module would keep the descriptors of its session alive after the session is gone. Built-in classes are shared by all sessions
+ * in the process, so referencing them never keeps a session alive. Only the most recently used entries are kept.
+ * Captured, intersection and other synthetic type constructors have no cache, since they are usually created for a single check.
+ */
+public final class SupertypePathCache {
+    private static final int MAX_ENTRIES = 64;
+
+    private static final Object NO_SUPERTYPE = new Object();
+
+    @Nullable
+    private final ModuleDescriptor module;
+
+    // target constructor -> corresponding supertype or NO_SUPERTYPE, in access order, guarded by this
+    private final Map<IdentityKey, Object> correspondingSupertypes = new LinkedHashMap<IdentityKey, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IdentityKey, Object> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private volatile Set<TypeConstructor> allSupertypeConstructors = null;
+
+    public SupertypePathCache(@Nullable ClassifierDescriptor owner) {
+        this.module = owner != null ? DescriptorUtils.getContainingModuleOrNull(owner) : null;
+    }
+
+    public static final class Entry {
+        @Nullable
+        public final JetType supertype;
+
+        private Entry(@Nullable JetType supertype) {
+            this.supertype = supertype;
+        }
+    }
+
+    /**
+     * @return null if nothing is cached for the given constructor yet
+     */
+    @Nullable
+    public Entry getCorrespondingSupertype(@NotNull TypeConstructor target) {
+        Object value;
+        synchronized (this) {
+            value = correspondingSupertypes.get(new IdentityKey(target));
+        }
+        if (value == null) return null;
+        return new Entry(value == NO_SUPERTYPE ? null : (JetType) value);
+    }
+
+    public void putCorrespondingSupertype(@NotNull TypeConstructor target, @Nullable JetType supertype) {
+        if (!canBeCached(target.getDeclarationDescriptor())) return;
+
+        synchronized (this) {
+            correspondingSupertypes.put(new IdentityKey(target), supertype == null ? NO_SUPERTYPE : supertype);
+        }
+    }
+
+    private boolean canBeCached(@Nullable ClassifierDescriptor target) {
+        if (target == null) return false;
+        if (isBuiltIn(target)) return true;
+        return module != null && module == DescriptorUtils.getContainingModuleOrNull(target);
+    }
+
+    private static boolean isBuiltIn(@Nullable ClassifierDescriptor descriptor) {
+        return descriptor != null &&
+               DescriptorUtils.getParentOfType(descriptor, PackageFragmentDescriptor.class) instanceof BuiltinsPackageFragment;
+    }
+
+    // Type constructors of class descriptors are equal if their classes have the same FqName, even in different resolve sessions
+    private static final class IdentityKey {
+        private final TypeConstructor constructor;
+
+        private IdentityKey(@NotNull TypeConstructor constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).constructor == constructor;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(constructor);
+        }
+    }
+
+    /**
+     * @return the given constructor and constructors of all its supertypes
+     */
+    @NotNull
+    public static Set<TypeConstructor> getAllSupertypeConstructors(@NotNull TypeConstructor constructor) {
+        if (!(constructor instanceof AbstractClassTypeConstructor)) {
+            Set<TypeConstructor> result = new HashSet<TypeConstructor>();
+            collectAllSupertypeConstructors(constructor, result);
+            return result;
+        }
+
+        SupertypePathCache cache = ((AbstractClassTypeConstructor) constructor).getSupertypePathCache();
+        Set<TypeConstructor> result = cache.allSupertypeConstructors;
+        if (result == null) {
+            Set<TypeConstructor> computed = new HashSet<TypeConstructor>();
+            collectAllSupertypeConstructors(constructor, computed);
+            result = Collections.unmodifiableSet(computed);
+            cache.allSupertypeConstructors = result;
+        }
+        return result;
+    }
+
+    private static void collectAllSupertypeConstructors(@NotNull TypeConstructor constructor, @NotNull Set<TypeConstructor> result) {
+        if (!result.add(constructor)) return;
+        for (JetType supertype : constructor.getSupertypes()) {
+            collectAllSupertypeConstructors(supertype.getConstructor(), result);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.kotlin.builtins.KotlinBuiltIns;
 import org.jetbrains.kotlin.descriptors.TypeParameterDescriptor;
 import org.jetbrains.kotlin.resolve.calls.inference.InferencePackage;
+import org.jetbrains.kotlin.resolve.scopes.JetScope;
 import org.jetbrains.kotlin.resolve.scopes.SubstitutingScope;
 import org.jetbrains.kotlin.types.typeUtil.TypeUtilPackage;
 import org.jetbrains.kotlin.types.typesApproximation.TypesApproximationPackage;
@@ -182,6 +183,11 @@ public class TypeSubstitutor {
                    originalProjectionKind == Variance.INVARIANT || originalProjectionKind == substitutedProjectionKind :
                     "Unexpected substituted projection kind: " + substitutedProjectionKind + "; original: " + originalProjectionKind;
 
+            if (substitutedLower.getType() == flexibility.getLowerBound() && substitutedUpper.getType() == flexibility.getUpperBound()
+                && substitutedProjectionKind == originalProjectionKind) {
+                return originalProjection;
+            }
+
             JetType substitutedFlexibleType = DelegatingFlexibleType.create(
                     substitutedLower.getType(), substitutedUpper.getType(), flexibility.getExtraCapabilities());
             return new TypeProjectionImpl(substitutedProjectionKind, substitutedFlexibleType);
@@ -242,34 +248,63 @@ public class TypeSubstitutor {
             return originalProjection;
         }
 
-        List<TypeProjection> substitutedArguments = substituteTypeArguments(
-                type.getConstructor().getParameters(), type.getArguments(), recursionDepth);
-
         // Only type parameters of the corresponding class (or captured type parameters of outer declaration) are substituted
         // e.g. for return type Foo of 'add(..)' in 'class Foo { fun <R> add(bar: Bar<R>): Foo }' R shouldn't be substituted in the scope
-        TypeSubstitution substitutionFilteringTypeParameters = new TypeSubstitution() {
-            private final Collection<TypeConstructor> containedOrCapturedTypeParameters =
-                    TypeUtilPackage.getContainedAndCapturedTypeParameterConstructors(type);
-
-            @Nullable
-            @Override
-            public TypeProjection get(TypeConstructor key) {
-                return containedOrCapturedTypeParameters.contains(key) ? substitution.get(key) : null;
+        final Collection<TypeConstructor> containedOrCapturedTypeParameters =
+                TypeUtilPackage.getContainedAndCapturedTypeParameterConstructors(type);
+        boolean memberScopeChanges = false;
+        for (TypeConstructor typeParameter : containedOrCapturedTypeParameters) {
+            if (substitution.get(typeParameter) != null) {
+                memberScopeChanges = true;
+                break;
             }
+        }
+
+        List<TypeProjection> arguments = type.getArguments();
+        List<TypeProjection> substitutedArguments = substituteTypeArguments(
+                type.getConstructor().getParameters(), arguments, recursionDepth);
+
+        // Nothing in this type is affected by the substitution, so there's no need to create a new instance
+        if (!memberScopeChanges && identical(arguments, substitutedArguments)) {
+            return originalProjection;
+        }
+
+        JetScope substitutedMemberScope;
+        if (memberScopeChanges) {
+            TypeSubstitution substitutionFilteringTypeParameters = new TypeSubstitution() {
+                @Nullable
+                @Override
+                public TypeProjection get(TypeConstructor key) {
+                    return containedOrCapturedTypeParameters.contains(key) ? substitution.get(key) : null;
+                }
+
+                @Override
+                public boolean isEmpty() {
+                    return substitution.isEmpty();
+                }
+            };
+            substitutedMemberScope = new SubstitutingScope(type.getMemberScope(), create(substitutionFilteringTypeParameters));
+        }
+        else {
+            substitutedMemberScope = type.getMemberScope();
+        }
 
-            @Override
-            public boolean isEmpty() {
-                return substitution.isEmpty();
-            }
-        };
         JetType substitutedType = new JetTypeImpl(type.getAnnotations(),   // Old annotations. This is questionable
                                            type.getConstructor(),   // The same constructor
                                            type.isMarkedNullable(),       // Same nullability
                                            substitutedArguments,
-                                           new SubstitutingScope(type.getMemberScope(), create(substitutionFilteringTypeParameters)));
+                                           substitutedMemberScope);
         return new TypeProjectionImpl(projectionKind, substitutedType);
     }
 
+    private static boolean identical(@NotNull List<TypeProjection> original, @NotNull List<TypeProjection> substituted) {
+        if (original.size() != substituted.size()) return false;
+        for (int i = 0; i < original.size(); i++) {
+            if (original.get(i) != substituted.get(i)) return false;
+        }
+        return true;
+    }
+
     private List<TypeProjection> substituteTypeArguments(
             List<TypeParameterDescriptor> typeParameters, List<TypeProjection> typeArguments, int recursionDepth
     ) throws SubstitutionException {
@@ -283,7 +318,8 @@ public class TypeSubstitutor {
             switch (conflictType(typeParameter.getVariance(), substitutedTypeArgument.getProjectionKind())) {
                 case NO_CONFLICT:
                     // if the corresponding type parameter is already co/contra-variant, there's not need for an explicit projection
-                    if (typeParameter.getVariance() != Variance.INVARIANT && !substitutedTypeArgument.isStarProjection()) {
+                    if (typeParameter.getVariance() != Variance.INVARIANT && !substitutedTypeArgument.isStarProjection()
+                        && substitutedTypeArgument.getProjectionKind() != Variance.INVARIANT) {
                         substitutedTypeArgument = new TypeProjectionImpl(Variance.INVARIANT, substitutedTypeArgument.getType());
                     }
                     break;
@@ -44,10 +44,40 @@ public class TypeCheckingProcedure {
         if (typeCheckingProcedureCallbacks.assertEqualTypeConstructors(constructor, supertype.getConstructor())) {
             return subtype;
         }
+
+        JetType correspondingSupertype;
+        // The path doesn't depend on type arguments of the subtype, so it can be cached per constructor,
+        // but only as long as constructors are compared in the default way
+        if (constructor instanceof AbstractClassTypeConstructor &&
+            typeCheckingProcedureCallbacks.getClass() == TypeCheckerProcedureCallbacksImpl.class) {
+            SupertypePathCache cache = ((AbstractClassTypeConstructor) constructor).getSupertypePathCache();
+            SupertypePathCache.Entry entry = cache.getCorrespondingSupertype(supertype.getConstructor());
+            if (entry != null) {
+                correspondingSupertype = entry.supertype;
+            }
+            else {
+                correspondingSupertype = findCorrespondingSupertypeOfImmediateSupertypes(constructor, supertype, typeCheckingProcedureCallbacks);
+                cache.putCorrespondingSupertype(supertype.getConstructor(), correspondingSupertype);
+            }
+        }
+        else {
+            correspondingSupertype = findCorrespondingSupertypeOfImmediateSupertypes(constructor, supertype, typeCheckingProcedureCallbacks);
+        }
+
+        if (correspondingSupertype == null) return null;
+        return TypeSubstitutor.create(subtype).safeSubstitute(correspondingSupertype, Variance.INVARIANT);
+    }
+
+    @Nullable
+    private static JetType findCorrespondingSupertypeOfImmediateSupertypes(
+            @NotNull TypeConstructor constructor,
+            @NotNull JetType supertype,
+            @NotNull TypeCheckingProcedureCallbacks typeCheckingProcedureCallbacks
+    ) {
         for (JetType immediateSupertype : constructor.getSupertypes()) {
             JetType correspondingSupertype = findCorrespondingSupertype(immediateSupertype, supertype, typeCheckingProcedureCallbacks);
             if (correspondingSupertype != null) {
-                return TypeSubstitutor.create(subtype).safeSubstitute(correspondingSupertype, Variance.INVARIANT);
+                return correspondingSupertype;
             }
         }
         return null;
@@ -64,12 +94,19 @@ public class TypeCheckingProcedure {
     }
 
     private final TypeCheckingProcedureCallbacks constraints;
+    // Default callbacks don't record anything, so a type can be considered equal to itself without looking inside
+    private final boolean identicalTypesAreEqual;
 
     public TypeCheckingProcedure(TypeCheckingProcedureCallbacks constraints) {
         this.constraints = constraints;
+        this.identicalTypesAreEqual = constraints.getClass() == TypeCheckerProcedureCallbacksImpl.class;
     }
 
     public boolean equalTypes(@NotNull JetType type1, @NotNull JetType type2) {
+        if (type1 == type2 && identicalTypesAreEqual && !TypesPackage.isFlexible(type1)) {
+            return true;
+        }
+
         if (TypesPackage.isFlexible(type1)) {
             if (TypesPackage.isFlexible(type2)) {
                 return !type1.isError() && !type2.isError() && isSubtypeOf(type1, type2) && isSubtypeOf(type2, type1);
@@ -258,6 +258,7 @@ private fun DependencyInjectorGenerator.commonForJavaTopDownAnalyzer() {
     publicField<LazyTopDownAnalyzerForTopLevel>()
     publicField<JavaDescriptorResolver>()
     publicField<DeserializationComponentsForJava>()
+    publicField<ControlFlowAnalyzer>()
 
     field<JvmVirtualFileFinder>(
           init = GivenExpression(javaClass<JvmVirtualFileFinderFactory>().getName()
@@ -139,6 +139,10 @@ fun main(args: Array<String>) {
             model("diagnostics/testsWithStdLib")
         }
 
+        testClass(javaClass<AbstractJetDiagnosticsTestWithParallelControlFlow>()) {
+            model("diagnostics/tests/controlFlowAnalysis")
+        }
+
         testClass(javaClass<AbstractJetDiagnosticsTestWithJsStdLib>()) {
             model("diagnostics/testsWithJsStdLib")
         }
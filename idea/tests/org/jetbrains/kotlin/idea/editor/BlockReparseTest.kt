@@ -0,0 +1,119 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.idea.editor
+
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.openapi.editor.Document
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFileFactory
+import com.intellij.psi.impl.DebugUtil
+import com.intellij.psi.util.PsiTreeUtil
+import com.intellij.testFramework.LightCodeInsightTestCase
+import com.intellij.testFramework.LightPlatformCodeInsightTestCase
+import org.jetbrains.kotlin.JetNodeTypes
+import org.jetbrains.kotlin.idea.JetFileType
+import org.jetbrains.kotlin.idea.JetLanguage
+import org.jetbrains.kotlin.psi.JetBlockExpression
+
+public class BlockReparseTest : LightCodeInsightTestCase() {
+    public fun testEditInFunctionBody(): Unit = doInsertTest(
+            "fun foo() {\n    val a = 1\n    bar(a<caret>)\n}\n\nfun bar(x: Int) {}",
+            " + 2",
+            reparsedAlone = true
+    )
+
+    public fun testNewStatementInFunctionBody(): Unit = doInsertTest(
+            "fun foo() {\n    val a = 1<caret>\n}",
+            "\n    if (a > 0) { bar() } else { baz() }",
+            reparsedAlone = true
+    )
+
+    public fun testEditInNestedBlock(): Unit = doInsertTest(
+            "fun foo(a: Int) {\n    if (a > 0) {\n        bar(<caret>)\n    }\n}",
+            "a, { it + 1 }",
+            reparsedAlone = true
+    )
+
+    public fun testEditInAccessorBody(): Unit = doInsertTest(
+            "val x: Int\n    get() {\n        return 1<caret>\n    }",
+            " + 1",
+            reparsedAlone = true
+    )
+
+    public fun testEditInLambdaBody(): Unit = doInsertTest(
+            "fun foo() {\n    run {\n        bar(<caret>)\n    }\n}",
+            "1",
+            reparsedAlone = false
+    )
+
+    public fun testArrowInsideBracedBlock(): Unit = doInsertTest(
+            "fun foo(x: Boolean) {\n    if (x) { a<caret> }\n}",
+            " ->",
+            reparsedAlone = false
+    )
+
+    public fun testUnbalancedOpeningBrace(): Unit = doInsertTest(
+            "fun foo() {\n    val a = 1\n    <caret>\n}\n\nfun bar() {\n    baz()\n}",
+            "if (a > 0) {",
+            reparsedAlone = false
+    )
+
+    public fun testUnbalancedClosingBrace(): Unit = doInsertTest(
+            "class A {\n    fun foo() {\n        val a = 1<caret>\n    }\n\n    fun bar() {}\n}",
+            "\n    }",
+            reparsedAlone = false
+    )
+
+    public fun testClosingBraceRemoved(): Unit = doDeleteTest(
+            "fun foo() {\n    if (true) {\n        bar()\n    <caret>}\n}\n\nfun baz() {}",
+            1
+    )
+
+    private fun doInsertTest(before: String, inserted: String, reparsedAlone: Boolean) {
+        LightPlatformCodeInsightTestCase.configureFromFileText("a.kt", before)
+        val offset = LightPlatformCodeInsightTestCase.getEditor().getCaretModel().getOffset()
+
+        val block = PsiTreeUtil.getParentOfType(LightPlatformCodeInsightTestCase.getFile().findElementAt(offset), javaClass<JetBlockExpression>())!!
+        val blockRange = block.getTextRange()
+        val newBlockText = StringBuilder(block.getText()).insert(offset - blockRange.getStartOffset(), inserted)
+        assertEquals(reparsedAlone, JetNodeTypes.BLOCK.isParsable(newBlockText, JetLanguage.INSTANCE, LightPlatformCodeInsightTestCase.getProject()))
+
+        edit { it.insertString(offset, inserted) }
+    }
+
+    private fun doDeleteTest(before: String, deletedLength: Int) {
+        LightPlatformCodeInsightTestCase.configureFromFileText("a.kt", before)
+        val offset = LightPlatformCodeInsightTestCase.getEditor().getCaretModel().getOffset()
+
+        edit { it.deleteString(offset, offset + deletedLength) }
+    }
+
+    private fun edit(change: (Document) -> Unit) {
+        val project = LightPlatformCodeInsightTestCase.getProject()
+        val file = LightPlatformCodeInsightTestCase.getFile()
+        // Build the tree before the change so that the commit goes through incremental reparse
+        file.getNode().getText()
+
+        WriteCommandAction.runWriteCommandAction(project) {
+            change(LightPlatformCodeInsightTestCase.getEditor().getDocument())
+        }
+        PsiDocumentManager.getInstance(project).commitAllDocuments()
+
+        val fullyParsed = PsiFileFactory.getInstance(project).createFileFromText("a.kt", JetFileType.INSTANCE, file.getText())
+        assertEquals(DebugUtil.psiToString(fullyParsed, false), DebugUtil.psiToString(file, false))
+    }
+}
@@ -203,6 +203,8 @@ public class KotlinCompilerRunner {
         });
         settings.outputFile = outputFile.getPath();
         settings.metaInfo = true;
+        // The compiler is loaded once per build process, so translated files can be reused by the next build of the module
+        settings.incrementalTranslation = true;
         settings.libraryFiles = ArrayUtil.toStringArray(libraryFiles);
     }
 }
@@ -48,6 +48,7 @@ import org.jetbrains.kotlin.config.CompilerRunnerConstants
 import org.jetbrains.kotlin.config.CompilerRunnerConstants.INTERNAL_ERROR_PREFIX
 import org.jetbrains.kotlin.config.IncrementalCompilation
 import org.jetbrains.kotlin.config.Services
+import org.jetbrains.kotlin.incremental.components.LookupTracker
 import org.jetbrains.kotlin.jps.JpsKotlinCompilerSettings
 import org.jetbrains.kotlin.jps.incremental.*
 import org.jetbrains.kotlin.jps.incremental.IncrementalCacheImpl.RecompilationDecision.DO_NOTHING
@@ -69,6 +70,9 @@ import java.util.ArrayList
 import java.util.HashMap
 import java.util.HashSet
 import java.util.ServiceLoader
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
 
 public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR) {
     companion object {
@@ -117,7 +121,8 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
 
         val incrementalCaches = chunk.getTargets().keysToMap { dataManager.getKotlinCache(it) }
 
-        val environment = createCompileEnvironment(incrementalCaches)
+        val lookupTracker = LookupTrackerImpl()
+        val environment = createCompileEnvironment(incrementalCaches, lookupTracker)
         if (!environment.success()) {
             environment.reportErrorsTo(messageCollector)
             return ABORT
@@ -152,7 +157,15 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
         }
         else {
             val generatedClasses = generatedFiles as List<GeneratedJvmClass>
-            recompilationDecision = updateKotlinIncrementalCache(compilationErrors, incrementalCaches, generatedClasses)
+            recompilationDecision = updateKotlinIncrementalCache(chunk, compilationErrors, incrementalCaches, generatedClasses)
+            if (IncrementalCompilation.ENABLED) {
+                // Lookups are stored in the cache of the target the file belongs to, and searched for in all caches of the chunk
+                val sourceToTarget = HashMap<File, ModuleBuildTarget>()
+                for (target in filesToCompile.keySet()) {
+                    filesToCompile[target].forEach { sourceToTarget[it] = target }
+                }
+                lookupTracker.saveTo { file -> incrementalCaches[sourceToTarget[file] ?: chunk.representativeTarget()]!! }
+            }
             updateJavaMappings(chunk, compilationErrors, context, dirtyFilesHolder, filesToCompile, generatedClasses)
         }
 
@@ -165,25 +178,42 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
         }
 
         if (IncrementalCompilation.ENABLED) {
+            // Dependent targets can't observe changes which don't affect the ABI of this chunk (e.g. private constants or private
+            // inline functions), so in that case only this chunk is recompiled. All digests are updated, hence no short-circuiting
+            val abiChanged = incrementalCaches.values().map { it.updateModuleAbiDigest() }.fold(false) { a, b -> a || b }
+            val affectedFiles = getFilesAffectedByChangedLookups(incrementalCaches.values())
+
             when (recompilationDecision) {
                 RECOMPILE_ALL_IN_CHUNK_AND_DEPENDANTS -> {
                     allCompiledFiles.clear()
-                    FSOperations.markDirtyRecursively(context, chunk)
+                    if (abiChanged) {
+                        FSOperations.markDirtyRecursively(context, chunk)
+                    }
+                    else {
+                        FSOperations.markDirty(context, chunk, null)
+                    }
                 }
                 RECOMPILE_OTHER_IN_CHUNK_AND_DEPENDANTS -> {
-                    // Workaround for IDEA 14.0-14.0.2: extended version of markDirtyRecursively is not available
-                    try {
-                        Class.forName("org.jetbrains.jps.incremental.fs.CompilationRound")
-
-                        FSOperations.markDirtyRecursively(context, CompilationRound.NEXT, chunk, { file -> file !in allCompiledFiles })
-                    } catch (e: ClassNotFoundException) {
-                        allCompiledFiles.clear()
-                        FSOperations.markDirtyRecursively(context, chunk)
+                    if (abiChanged) {
+                        // Workaround for IDEA 14.0-14.0.2: extended version of markDirtyRecursively is not available
+                        try {
+                            Class.forName("org.jetbrains.jps.incremental.fs.CompilationRound")
+
+                            FSOperations.markDirtyRecursively(context, CompilationRound.NEXT, chunk, { file -> file !in allCompiledFiles })
+                        } catch (e: ClassNotFoundException) {
+                            allCompiledFiles.clear()
+                            FSOperations.markDirtyRecursively(context, chunk)
+                        }
+                    }
+                    else {
+                        FSOperations.markDirty(context, chunk, { file -> file !in allCompiledFiles })
                     }
                 }
                 RECOMPILE_OTHER_KOTLIN_IN_CHUNK -> {
+                    // Only files which looked up the changed members need to be recompiled, if this can be determined
                     FSOperations.markDirty(context, chunk, { file ->
                         KotlinSourceFileCollector.isKotlinSourceFile(file) && file !in allCompiledFiles
+                        && (affectedFiles == null || file in affectedFiles)
                     })
                 }
             }
@@ -233,15 +263,20 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
         return compileToJvm(allCompiledFiles, chunk, commonArguments, context, dirtyFilesHolder, environment, filesToCompile, messageCollector)
     }
 
-    private fun createCompileEnvironment(incrementalCaches: Map<ModuleBuildTarget, IncrementalCache>): CompilerEnvironment {
+    private fun createCompileEnvironment(
+            incrementalCaches: Map<ModuleBuildTarget, IncrementalCache>,
+            lookupTracker: LookupTracker
+    ): CompilerEnvironment {
         val compilerServices = Services.Builder()
                 .register(javaClass<IncrementalCacheProvider>(), IncrementalCacheProviderImpl(incrementalCaches))
+                .register(javaClass<LookupTracker>(), lookupTracker)
                 .build()
 
         return CompilerEnvironment.getEnvironmentFor(
                 PathUtil.getKotlinPathsForJpsPluginOrJpsTests(),
                 { className ->
                     className.startsWith("org.jetbrains.kotlin.load.kotlin.incremental.cache.")
+                    || className.startsWith("org.jetbrains.kotlin.incremental.components.")
                     || className == "org.jetbrains.kotlin.config.Services"
                 },
                 compilerServices
@@ -339,6 +374,20 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
         JavaBuilderUtil.updateMappings(context, delta, dirtyFilesHolder, chunk, allCompiled, compiledInThisRound)
     }
 
+    private fun getFilesAffectedByChangedLookups(incrementalCaches: Collection<IncrementalCacheImpl>): Set<File>? {
+        var result: MutableSet<File>? = HashSet()
+        for (cache in incrementalCaches) {
+            val files = cache.getAndClearFilesAffectedByChangedLookups(incrementalCaches)
+            if (files == null) {
+                result = null
+            }
+            else {
+                result?.addAll(files)
+            }
+        }
+        return result
+    }
+
     private fun registerOutputItems(outputConsumer: ModuleLevelBuilder.OutputConsumer, generatedFiles: List<GeneratedFile>) {
         for (generatedFile in generatedFiles) {
             outputConsumer.registerOutputFile(generatedFile.target, generatedFile.outputFile, generatedFile.sourceFiles.map { it.getPath() })
@@ -346,6 +395,7 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
     }
 
     private fun updateKotlinIncrementalCache(
+            chunk: ModuleChunk,
             compilationErrors: Boolean,
             incrementalCaches: Map<ModuleBuildTarget, IncrementalCacheImpl>,
             generatedClasses: List<GeneratedJvmClass>
@@ -354,9 +404,14 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
             return DO_NOTHING
         }
 
+        val start = System.nanoTime()
+
+        // Class files are parsed in parallel, but the cache maps are not thread-safe, so they are updated sequentially afterwards
+        val analyses = analyzeClassFiles(generatedClasses)
+
         var recompilationDecision = DO_NOTHING
-        for (generatedClass in generatedClasses) {
-            val newDecision = incrementalCaches[generatedClass.target]!!.saveFileToCache(generatedClass.sourceFiles, generatedClass.outputClass)
+        for ((generatedClass, analysis) in generatedClasses.zip(analyses)) {
+            val newDecision = incrementalCaches[generatedClass.target]!!.saveFileToCache(generatedClass.sourceFiles, analysis)
             recompilationDecision = recompilationDecision.merge(newDecision)
         }
 
@@ -367,9 +422,36 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
             }
         }
 
+        statisticsLogger.registerCacheUpdateStatistic(chunk, System.nanoTime() - start)
+
         return recompilationDecision
     }
 
+    private fun analyzeClassFiles(generatedClasses: List<GeneratedJvmClass>): List<ClassFileAnalysis> {
+        if (generatedClasses.size() < 2) {
+            return generatedClasses.map { analyzeClassFile(it.outputClass) }
+        }
+
+        val threadCount = Math.min(Runtime.getRuntime().availableProcessors(), generatedClasses.size())
+        val executor = Executors.newFixedThreadPool(threadCount)
+        try {
+            val futures = generatedClasses.map { generatedClass ->
+                executor.submit(Callable { analyzeClassFile(generatedClass.outputClass) })
+            }
+            return futures.map {
+                try {
+                    it.get()
+                }
+                catch (e: ExecutionException) {
+                    throw e.getCause() ?: e
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow()
+        }
+    }
+
     // if null is returned, nothing was done
     private fun compileToJs(chunk: ModuleChunk,
                             commonArguments: CommonCompilerArguments,
@@ -70,6 +70,15 @@ class TeamcityStatisticsLogger {
         )
     }
 
+    fun registerCacheUpdateStatistic(moduleChunk: ModuleChunk, timeToUpdateNs: Long) {
+        if (!isOnTeamcity) return
+
+        printStatisticMessage(
+                "${KotlinBuilder.KOTLIN_BUILDER_NAME} for ${moduleChunk.getPresentableShortName()} incremental cache update time, ms",
+                timeToUpdateNs.nanosToMillis().toString()
+        )
+    }
+
     fun reportTotal() {
         if (!isOnTeamcity) return
 
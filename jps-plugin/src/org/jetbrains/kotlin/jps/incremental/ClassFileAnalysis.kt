@@ -0,0 +1,137 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.jps.incremental
+
+import org.jetbrains.kotlin.load.kotlin.header.isCompatiblePackageFacadeKind
+import org.jetbrains.kotlin.serialization.jvm.BitEncoding
+import org.jetbrains.org.objectweb.asm.*
+import java.security.MessageDigest
+import java.util.ArrayList
+import java.util.HashMap
+
+private val KOTLIN_METADATA_ANNOTATION_PREFIX = "Lkotlin/jvm/internal/Kotlin"
+
+/**
+ * Everything the incremental cache needs to know about a compiled class, computed with a single pass over the class file,
+ * so that it can be done for all generated classes in parallel before the cache maps are updated.
+ */
+class ClassFileAnalysis(
+        val kotlinClass: LocalFileKotlinClass,
+        // Serialized Kotlin metadata, present for classes and package facades
+        val protoData: ByteArray?,
+        // Values of static final fields
+        val constants: Map<String, Any>?,
+        // Hashes of bodies of inline functions, keyed by name and descriptor
+        val inlineFunctions: Map<String, Long>?,
+        /**
+         * Hash of everything in a class file that can be observed from other modules: the class signature,
+         * non-private fields (including constant values), non-private methods with their annotations, bodies of non-private
+         * inline functions and Kotlin metadata of non-private members. Bodies of other methods and private members don't contribute.
+         */
+        val abiHash: Long
+)
+
+fun analyzeClassFile(kotlinClass: LocalFileKotlinClass): ClassFileAnalysis {
+    val annotationData = kotlinClass.getClassHeader().annotationData
+    val protoData = if (annotationData != null) BitEncoding.decodeBytes(annotationData) else null
+
+    val constants = HashMap<String, Any>()
+    val inlineFunctions = HashMap<String, Long>()
+    val abiMembers = ArrayList<String>()
+    var abiHeader = ""
+
+    ClassReader(kotlinClass.getFileContents()).accept(object : ClassVisitor(Opcodes.ASM5) {
+        override fun visit(version: Int, access: Int, name: String, signature: String?, superName: String?, interfaces: Array<out String>?) {
+            abiHeader = "$access $name $signature $superName ${interfaces?.join(",")}"
+        }
+
+        override fun visitAnnotation(desc: String, visible: Boolean): AnnotationVisitor? {
+            if (!desc.startsWith(KOTLIN_METADATA_ANNOTATION_PREFIX)) {
+                abiMembers.add("@$desc")
+            }
+            return null
+        }
+
+        override fun visitField(access: Int, name: String, desc: String, signature: String?, value: Any?): FieldVisitor? {
+            val staticFinal = Opcodes.ACC_STATIC or Opcodes.ACC_FINAL
+            if (value != null && access and staticFinal == staticFinal) {
+                constants[name] = value
+            }
+
+            if (!access.isPrivateOrSynthetic()) {
+                abiMembers.add("field $access $name $desc $signature $value")
+            }
+            return null
+        }
+
+        override fun visitMethod(access: Int, name: String, desc: String, signature: String?, exceptions: Array<out String>?): MethodVisitor? {
+            val dummyClassWriter = ClassWriter(Opcodes.ASM5)
+            return object : MethodVisitor(Opcodes.ASM5, dummyClassWriter.visitMethod(0, name, desc, null, exceptions)) {
+                val annotations = ArrayList<String>()
+                var hasInlineAnnotation = false
+
+                override fun visitAnnotation(desc: String, visible: Boolean): AnnotationVisitor? {
+                    if (desc == INLINE_ANNOTATION_DESC) {
+                        hasInlineAnnotation = true
+                    }
+                    annotations.add(desc)
+                    return null
+                }
+
+                override fun visitParameterAnnotation(parameter: Int, desc: String, visible: Boolean): AnnotationVisitor? {
+                    annotations.add("$parameter:$desc")
+                    return null
+                }
+
+                override fun visitEnd() {
+                    var bodyHash = ""
+                    if (hasInlineAnnotation) {
+                        val hash = dummyClassWriter.toByteArray()!!.md5()
+                        inlineFunctions[name + desc] = hash
+                        bodyHash = java.lang.Long.toHexString(hash)
+                    }
+
+                    if (!access.isPrivateOrSynthetic()) {
+                        abiMembers.add("method $access $name $desc $signature ${exceptions?.join(",")} ${annotations.sort()} $bodyHash")
+                    }
+                }
+            }
+        }
+    }, 0)
+
+    val digest = MessageDigest.getInstance("MD5")
+    digest.update(abiHeader.toByteArray())
+    // Members are sorted so that reordering declarations in the source doesn't change the hash
+    for (member in abiMembers.sort()) {
+        digest.update(member.toByteArray())
+    }
+    if (protoData != null) {
+        val isPackageFacade = kotlinClass.getClassHeader().isCompatiblePackageFacadeKind()
+        digest.update(protoAbiHash(protoData, isPackageFacade).toString().toByteArray())
+    }
+
+    return ClassFileAnalysis(
+            kotlinClass,
+            protoData,
+            if (constants.isEmpty()) null else constants,
+            if (inlineFunctions.isEmpty()) null else inlineFunctions,
+            digest.digest().toLong()
+    )
+}
+
+private fun Int.isPrivateOrSynthetic(): Boolean = this and (Opcodes.ACC_PRIVATE or Opcodes.ACC_SYNTHETIC) != 0
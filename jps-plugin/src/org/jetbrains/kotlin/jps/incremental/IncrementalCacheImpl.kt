@@ -24,7 +24,6 @@ import com.intellij.util.io.IOUtil
 import java.io.DataInput
 import org.jetbrains.kotlin.name.FqName
 import com.intellij.util.io.DataExternalizer
-import org.jetbrains.kotlin.serialization.jvm.BitEncoding
 import java.util.Arrays
 import org.jetbrains.org.objectweb.asm.*
 import com.intellij.util.io.EnumeratorStringDescriptor
@@ -48,6 +47,8 @@ import java.util.ArrayList
 import org.jetbrains.annotations.TestOnly
 import org.jetbrains.kotlin.utils.Printer
 import java.io.DataInputStream
+import java.util.HashSet
+import org.jetbrains.kotlin.incremental.components.PACKAGE_LEVEL_LOOKUP_SCOPE
 
 val INLINE_ANNOTATION_DESC = "Lkotlin/inline;"
 
@@ -57,7 +58,7 @@ private val CACHE_DIRECTORY_NAME = "kotlin"
 class CacheFormatVersion(targetDataRoot: File) {
     companion object {
         // Change this when incremental cache format changes
-        private val INCREMENTAL_CACHE_OWN_VERSION = 2
+        private val INCREMENTAL_CACHE_OWN_VERSION = 5
         private val CACHE_FORMAT_VERSION: Int = INCREMENTAL_CACHE_OWN_VERSION * 1000000 + JvmAbi.VERSION
         val FORMAT_VERSION_FILE_PATH: String = "$CACHE_DIRECTORY_NAME/format-version.txt"
     }
@@ -89,6 +90,10 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
         val PACKAGE_PARTS = "package-parts.tab"
         val SOURCE_TO_CLASSES = "source-to-classes.tab"
         val DIRTY_OUTPUT_CLASSES = "dirty-output-classes.tab"
+        val ABI_MAP = "abi.tab"
+        val LOOKUPS = "lookups.tab"
+        val FILE_TO_LOOKUPS = "file-to-lookups.tab"
+        val MODULE_ABI_DIGEST = "module-abi-digest.txt"
     }
 
     private val baseDir = File(targetDataRoot, CACHE_DIRECTORY_NAME)
@@ -98,8 +103,18 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
     private val packagePartMap = PackagePartMap()
     private val sourceToClassesMap = SourceToClassesMap()
     private val dirtyOutputClassesMap = DirtyOutputClassesMap()
+    private val abiMap = AbiMap()
+    private val lookupMap = LookupMap()
+    private val fileToLookupsMap = FileToLookupsMap()
 
-    private val maps = listOf(protoMap, constantsMap, inlineFunctionsMap, packagePartMap, sourceToClassesMap, dirtyOutputClassesMap)
+    private val maps = listOf(protoMap, constantsMap, inlineFunctionsMap, packagePartMap, sourceToClassesMap, dirtyOutputClassesMap, abiMap,
+                              lookupMap, fileToLookupsMap)
+
+    // Lookups (see lookupKey) of members changed since the last call to getAndClearChangedLookups
+    private val changedLookups = HashSet<String>()
+    private var changedLookupsIncomplete = false
+
+    private val moduleAbiDigestFile = File(baseDir, MODULE_ABI_DIGEST)
 
     private val cacheFormatVersion = CacheFormatVersion(targetDataRoot)
 
@@ -114,6 +129,54 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
             classes.forEach { dirtyOutputClassesMap.markDirty(it.getInternalName()) }
 
             sourceToClassesMap.clearOutputsForSource(sourceFile)
+            clearLookups(sourceFile)
+        }
+    }
+
+    public fun registerLookups(sourceFile: File, lookups: Collection<LookupTrackerImpl.Lookup>) {
+        clearLookups(sourceFile)
+
+        val keys = lookups.map { lookupKey(it.scopeFqName, it.name) }.toSet()
+        keys.forEach { lookupMap.add(it, sourceFile) }
+        fileToLookupsMap.put(sourceFile, keys)
+    }
+
+    private fun clearLookups(sourceFile: File) {
+        for (key in fileToLookupsMap[sourceFile]) {
+            lookupMap.remove(key, sourceFile)
+        }
+        fileToLookupsMap.clear(sourceFile)
+    }
+
+    /**
+     * Returns files which looked up any of the members that changed since the previous call,
+     * or null if some change can't be expressed in terms of lookups (e.g. supertypes of a class changed).
+     */
+    public fun getAndClearFilesAffectedByChangedLookups(lookupCaches: Collection<IncrementalCacheImpl>): Set<File>? {
+        val result = if (changedLookupsIncomplete) null else changedLookups.flatMapTo(HashSet<File>()) { key ->
+            lookupCaches.flatMap { it.lookupMap[key] }
+        }
+        changedLookups.clear()
+        changedLookupsIncomplete = false
+        return result
+    }
+
+    private fun registerProtoChanges(className: JvmClassName, oldData: ByteArray?, newData: ByteArray?) {
+        val fqName = className.getFqNameForClassNameWithoutDollars()
+        val isPackageFacade = PackageClassUtils.isPackageClassFqName(fqName)
+        val difference = protoDifference(oldData, newData, isPackageFacade)
+
+        val scope = if (isPackageFacade) PACKAGE_LEVEL_LOOKUP_SCOPE else fqName.asString()
+        difference.changedMemberNames.mapTo(changedLookups) { lookupKey(scope, it) }
+
+        if (!isPackageFacade) {
+            if (oldData == null || newData == null) {
+                // A class was added or removed: files which referred to this name may now resolve differently
+                changedLookups.add(lookupKey(PACKAGE_LEVEL_LOOKUP_SCOPE, fqName.shortName().asString()))
+            }
+            else if (difference.otherPartsChanged) {
+                changedLookupsIncomplete = true
+            }
         }
     }
 
@@ -125,10 +188,10 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
                 else -> DO_NOTHING
             }
 
-    public fun saveFileToCache(sourceFiles: Collection<File>, kotlinClass: LocalFileKotlinClass): RecompilationDecision {
+    public fun saveFileToCache(sourceFiles: Collection<File>, classFile: ClassFileAnalysis): RecompilationDecision {
         cacheFormatVersion.saveIfNeeded()
 
-        val fileBytes = kotlinClass.getFileContents()
+        val kotlinClass = classFile.kotlinClass
         val className = JvmClassName.byClassId(kotlinClass.getClassId())
         val header = kotlinClass.getClassHeader()
 
@@ -136,29 +199,42 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
         sourceFiles.forEach { sourceToClassesMap.addSourceToClass(it, className) }
 
         return when {
-            header.isCompatiblePackageFacadeKind() ->
+            header.isCompatiblePackageFacadeKind() -> {
+                abiMap.put(className, classFile.abiHash)
+
                 getRecompilationDecision(
-                        protoChanged = protoMap.put(className, BitEncoding.decodeBytes(header.annotationData)),
+                        protoChanged = protoMap.put(className, classFile.protoData!!),
                         constantsChanged = false,
                         inlinesChanged = false
                 )
-            header.isCompatibleClassKind() ->
+            }
+            header.isCompatibleClassKind() -> {
+                if (header.classKind == JvmAnnotationNames.KotlinClass.Kind.CLASS) {
+                    abiMap.put(className, classFile.abiHash)
+                }
+
                 getRecompilationDecision(
-                        protoChanged = protoMap.put(className, BitEncoding.decodeBytes(header.annotationData)),
-                        constantsChanged = constantsMap.process(className, fileBytes),
-                        inlinesChanged = inlineFunctionsMap.process(className, fileBytes)
+                        protoChanged = protoMap.put(className, classFile.protoData!!),
+                        constantsChanged = constantsMap.put(className, classFile.constants),
+                        inlinesChanged = inlineFunctionsMap.put(className, classFile.inlineFunctions)
                 )
+            }
             header.syntheticClassKind == JvmAnnotationNames.KotlinSyntheticClass.Kind.PACKAGE_PART -> {
                 assert(sourceFiles.size() == 1) { "Package part from several source files: $sourceFiles" }
 
                 packagePartMap.addPackagePart(className)
+                abiMap.put(className, classFile.abiHash)
 
                 getRecompilationDecision(
                         protoChanged = false,
-                        constantsChanged = constantsMap.process(className, fileBytes),
-                        inlinesChanged = inlineFunctionsMap.process(className, fileBytes)
+                        constantsChanged = constantsMap.put(className, classFile.constants),
+                        inlinesChanged = inlineFunctionsMap.put(className, classFile.inlineFunctions)
                 )
             }
+            header.syntheticClassKind == JvmAnnotationNames.KotlinSyntheticClass.Kind.TRAIT_IMPL -> {
+                abiMap.put(className, classFile.abiHash)
+                DO_NOTHING
+            }
             else -> {
                 DO_NOTHING
             }
@@ -178,15 +254,35 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
 
             recompilationDecision = recompilationDecision.merge(newDecision)
 
+            if (internalClassName in protoMap) {
+                registerProtoChanges(className, protoMap[className], null)
+            }
+
             protoMap.remove(className)
             packagePartMap.remove(className)
             constantsMap.remove(className)
             inlineFunctionsMap.remove(className)
+            abiMap.remove(className)
         }
         dirtyOutputClassesMap.clear()
         return recompilationDecision
     }
 
+    /**
+     * Recomputes the ABI digest of the whole target from the per-class ABI hashes and records it for the next build.
+     * Returns false if the digest is the same as the one recorded previously, i.e. no change made in this target
+     * is observable from dependent targets, so they don't need to be recompiled.
+     */
+    public fun updateModuleAbiDigest(): Boolean {
+        val newDigest = abiMap.getModuleDigest().toString()
+        val oldDigest = if (moduleAbiDigestFile.exists()) moduleAbiDigestFile.readText() else null
+        if (newDigest == oldDigest) return false
+
+        moduleAbiDigestFile.getParentFile().mkdirs()
+        moduleAbiDigestFile.writeText(newDigest)
+        return true
+    }
+
     public override fun getObsoletePackageParts(): Collection<String> {
         return dirtyOutputClassesMap.getDirtyOutputClasses().filter { packagePartMap.isPackagePart(JvmClassName.byInternalName(it)) }
     }
@@ -201,6 +297,7 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
 
     public override fun clean() {
         maps.forEach { it.clean() }
+        moduleAbiDigestFile.delete()
         cacheFormatVersion.clean()
     }
 
@@ -279,6 +376,7 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
             if (Arrays.equals(data, oldData)) {
                 return false
             }
+            registerProtoChanges(className, oldData, data)
             storage.put(key, data)
             return true
         }
@@ -303,27 +401,7 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
                 ConstantsMapExternalizer
         )
 
-        private fun getConstantsMap(bytes: ByteArray): Map<String, Any>? {
-            val result = HashMap<String, Any>()
-
-            ClassReader(bytes).accept(object : ClassVisitor(Opcodes.ASM5) {
-                override fun visitField(access: Int, name: String, desc: String, signature: String?, value: Any?): FieldVisitor? {
-                    val staticFinal = Opcodes.ACC_STATIC or Opcodes.ACC_FINAL
-                    if (value != null && access and staticFinal == staticFinal) {
-                        result[name] = value
-                    }
-                    return null
-                }
-            }, ClassReader.SKIP_CODE or ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES)
-
-            return if (result.isEmpty()) null else result
-        }
-
-        public fun process(className: JvmClassName, bytes: ByteArray): Boolean {
-            return put(className, getConstantsMap(bytes))
-        }
-
-        private fun put(className: JvmClassName, constantsMap: Map<String, Any>?): Boolean {
+        public fun put(className: JvmClassName, constantsMap: Map<String, Any>?): Boolean {
             val key = className.getInternalName()
 
             val oldMap = storage[key]
@@ -422,43 +500,7 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
                 InlineFunctionsMapExternalizer
         )
 
-        private fun getInlineFunctionsMap(bytes: ByteArray): Map<String, Long>? {
-            val result = HashMap<String, Long>()
-
-            ClassReader(bytes).accept(object : ClassVisitor(Opcodes.ASM5) {
-                override fun visitMethod(access: Int, name: String, desc: String, signature: String?, exceptions: Array<out String>?): MethodVisitor? {
-                    val dummyClassWriter = ClassWriter(Opcodes.ASM5)
-                    return object : MethodVisitor(Opcodes.ASM5, dummyClassWriter.visitMethod(0, name, desc, null, exceptions)) {
-                        var hasInlineAnnotation = false
-
-                        override fun visitAnnotation(desc: String, visible: Boolean): AnnotationVisitor? {
-                            if (desc == INLINE_ANNOTATION_DESC) {
-                                hasInlineAnnotation = true
-                            }
-                            return null
-                        }
-
-                        override fun visitEnd() {
-                            if (hasInlineAnnotation) {
-                                val dummyBytes = dummyClassWriter.toByteArray()!!
-                                val hash = dummyBytes.md5()
-
-                                result[name + desc] = hash
-                            }
-                        }
-                    }
-                }
-
-            }, 0)
-
-            return if (result.isEmpty()) null else result
-        }
-
-        public fun process(className: JvmClassName, bytes: ByteArray): Boolean {
-            return put(className, getInlineFunctionsMap(bytes))
-        }
-
-        private fun put(className: JvmClassName, inlineFunctionsMap: Map<String, Long>?): Boolean {
+        public fun put(className: JvmClassName, inlineFunctionsMap: Map<String, Long>?): Boolean {
             val key = className.getInternalName()
 
             val oldMap = storage[key]
@@ -587,6 +629,79 @@ public class IncrementalCacheImpl(targetDataRoot: File) : StorageOwner, Incremen
         override fun dumpValue(value: Boolean) = ""
     }
 
+    private inner class AbiMap : BasicMap<Long>() {
+        override fun createMap(): PersistentHashMap<String, Long> = PersistentHashMap(
+                File(baseDir, ABI_MAP),
+                EnumeratorStringDescriptor(),
+                LongExternalizer
+        )
+
+        public fun put(className: JvmClassName, abiHash: Long) {
+            storage.put(className.getInternalName(), abiHash)
+        }
+
+        public fun remove(className: JvmClassName) {
+            storage.remove(className.getInternalName())
+        }
+
+        public fun getModuleDigest(): Long {
+            val digest = MessageDigest.getInstance("MD5")
+            for (key in storage.getAllKeysWithExistingMapping().sort()) {
+                digest.update(key.toByteArray())
+                digest.update(java.lang.Long.toHexString(storage[key]!!).toByteArray())
+            }
+            return digest.digest().toLong()
+        }
+
+        override fun dumpValue(value: Long): String = java.lang.Long.toHexString(value)
+    }
+
+    private inner class LookupMap : BasicMap<List<String>>() {
+        override fun createMap(): PersistentHashMap<String, List<String>> = PersistentHashMap(
+                File(baseDir, LOOKUPS),
+                EnumeratorStringDescriptor(),
+                StringListExternalizer
+        )
+
+        public fun add(key: String, sourceFile: File) {
+            storage.appendData(key, { out -> IOUtil.writeUTF(out, sourceFile.getAbsolutePath()) })
+        }
+
+        public fun remove(key: String, sourceFile: File) {
+            val remaining = storage[key].orEmpty().filter { it != sourceFile.getAbsolutePath() }
+            if (remaining.isEmpty()) {
+                storage.remove(key)
+            }
+            else {
+                storage.put(key, remaining)
+            }
+        }
+
+        public fun get(key: String): Collection<File> = storage[key].orEmpty().map { File(it) }
+
+        override fun dumpValue(value: List<String>) = value.sort().toString()
+    }
+
+    private inner class FileToLookupsMap : BasicMap<List<String>>() {
+        override fun createMap(): PersistentHashMap<String, List<String>> = PersistentHashMap(
+                File(baseDir, FILE_TO_LOOKUPS),
+                EnumeratorStringDescriptor(),
+                StringListExternalizer
+        )
+
+        public fun put(sourceFile: File, keys: Collection<String>) {
+            storage.put(sourceFile.getAbsolutePath(), keys.toList())
+        }
+
+        public fun get(sourceFile: File): Collection<String> = storage[sourceFile.getAbsolutePath()].orEmpty()
+
+        public fun clear(sourceFile: File) {
+            storage.remove(sourceFile.getAbsolutePath())
+        }
+
+        override fun dumpValue(value: List<String>) = value.sort().toString()
+    }
+
     enum class RecompilationDecision {
         DO_NOTHING,
         RECOMPILE_OTHER_KOTLIN_IN_CHUNK,
@@ -605,12 +720,16 @@ private val storageProvider = object : StorageProvider<IncrementalCacheImpl>() {
     }
 }
 
+private fun lookupKey(scopeFqName: String, name: String): String = "$scopeFqName#$name"
+
 public fun BuildDataPaths.getKotlinCacheVersion(target: BuildTarget<*>): CacheFormatVersion = CacheFormatVersion(getTargetDataRoot(target))
 
 public fun BuildDataManager.getKotlinCache(target: BuildTarget<*>): IncrementalCacheImpl = getStorage(target, storageProvider)
 
-private fun ByteArray.md5(): Long {
-    val d = MessageDigest.getInstance("MD5").digest(this)!!
+fun ByteArray.md5(): Long = MessageDigest.getInstance("MD5").digest(this)!!.toLong()
+
+fun ByteArray.toLong(): Long {
+    val d = this
     return ((d[0].toLong() and 0xFFL)
             or ((d[1].toLong() and 0xFFL) shl 8)
             or ((d[2].toLong() and 0xFFL) shl 16)
@@ -636,6 +755,14 @@ private object ByteArrayExternalizer : DataExternalizer<ByteArray> {
     }
 }
 
+private object LongExternalizer : DataExternalizer<Long> {
+    override fun save(out: DataOutput, value: Long) {
+        out.writeLong(value)
+    }
+
+    override fun read(`in`: DataInput): Long = `in`.readLong()
+}
+
 private object StringListExternalizer : DataExternalizer<List<String>> {
     override fun save(out: DataOutput, value: List<String>) {
         value.forEach { IOUtil.writeUTF(out, it) }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.jps.incremental
+
+import org.jetbrains.kotlin.incremental.components.LookupTracker
+import java.io.File
+import java.util.HashMap
+import java.util.HashSet
+
+/**
+ * Collects lookups reported by the compiler in memory; they are written to the incremental cache
+ * only after compilation, with one write per source file.
+ */
+public class LookupTrackerImpl : LookupTracker {
+    data class Lookup(val scopeFqName: String, val name: String)
+
+    private val lookups = HashMap<File, MutableSet<Lookup>>()
+
+    override fun record(lookupContainingFile: String, scopeFqName: String, name: String) {
+        lookups.getOrPut(File(lookupContainingFile)) { HashSet() }.add(Lookup(scopeFqName, name))
+    }
+
+    public fun saveTo(cacheForFile: (File) -> IncrementalCacheImpl) {
+        for ((file, fileLookups) in lookups) {
+            cacheForFile(file).registerLookups(file, fileLookups)
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.jps.incremental
+
+import org.jetbrains.kotlin.serialization.ClassData
+import org.jetbrains.kotlin.serialization.Flags
+import org.jetbrains.kotlin.serialization.ProtoBuf
+import org.jetbrains.kotlin.serialization.deserialization.NameResolver
+import org.jetbrains.kotlin.serialization.jvm.JvmProtoBuf
+import org.jetbrains.kotlin.serialization.jvm.JvmProtoBufUtil
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.security.MessageDigest
+
+/**
+ * Names of members which differ between two versions of serialized data of a class or a package facade.
+ * [otherPartsChanged] is true if something besides members changed (e.g. supertypes or constructors of a class),
+ * in which case the set of names is not enough to find everything affected by the change.
+ *
+ * Serialized data refers to names by indices into the string and qualified name tables of the class, and these indices
+ * change whenever a name is added or removed anywhere in the class. So members are compared by hashes of their contents
+ * with all names resolved, not by their serialized bytes.
+ */
+class ProtoDifference(val changedMemberNames: Set<String>, val otherPartsChanged: Boolean)
+
+fun protoDifference(oldData: ByteArray?, newData: ByteArray?, isPackageFacade: Boolean): ProtoDifference {
+    val oldProto = oldData?.let { readProto(it, isPackageFacade) }
+    val newProto = newData?.let { readProto(it, isPackageFacade) }
+
+    val oldMembers = oldProto?.members.orEmpty()
+    val newMembers = newProto?.members.orEmpty()
+    val changedMemberNames = (oldMembers.keySet() + newMembers.keySet()).filterTo(hashSetOf()) { oldMembers[it] != newMembers[it] }
+
+    val otherPartsChanged = oldProto?.otherParts != newProto?.otherParts
+    return ProtoDifference(changedMemberNames, otherPartsChanged)
+}
+
+/**
+ * Hash of the part of serialized data of a class or a package facade which can be observed from other modules,
+ * i.e. everything except private members.
+ */
+fun protoAbiHash(data: ByteArray, isPackageFacade: Boolean): Long {
+    val proto = readProto(data, isPackageFacade, includePrivateMembers = false)
+
+    val digest = MessageDigest.getInstance("MD5")
+    for (name in proto.members.keySet().sort()) {
+        digest.update("$name ${proto.members[name]}".toByteArray())
+    }
+    digest.update(proto.otherParts.toString().toByteArray())
+    return digest.digest().toLong()
+}
+
+private class MembersAndOtherParts(val members: Map<String, List<Long>>, val otherParts: Long)
+
+private fun readProto(data: ByteArray, isPackageFacade: Boolean, includePrivateMembers: Boolean = true): MembersAndOtherParts {
+    if (isPackageFacade) {
+        val packageData = JvmProtoBufUtil.readPackageDataFrom(data)
+        val members = packageData.getPackageProto().getMemberList()
+        return MembersAndOtherParts(hashMembers(members, packageData.getNameResolver(), includePrivateMembers), 0)
+    }
+
+    val classData = ClassData.read(data, JvmProtoBufUtil.EXTENSION_REGISTRY)
+    val classProto = classData.getClassProto()
+    val nameResolver = classData.getNameResolver()
+    return MembersAndOtherParts(
+            hashMembers(classProto.getMemberList(), nameResolver, includePrivateMembers),
+            ResolvedProtoHasher(nameResolver).hash { classWithoutMembers(classProto) }
+    )
+}
+
+private fun hashMembers(members: List<ProtoBuf.Callable>, nameResolver: NameResolver, includePrivate: Boolean): Map<String, List<Long>> {
+    val result = hashMapOf<String, MutableList<Long>>()
+    for (member in members) {
+        if (!includePrivate && member.isPrivate()) continue
+
+        val hash = ResolvedProtoHasher(nameResolver).hash { callable(member) }
+        result.getOrPut(nameResolver.getString(member.getName())) { arrayListOf() }.add(hash)
+    }
+    return result.mapValues { it.value.sort() }
+}
+
+private fun ProtoBuf.Callable.isPrivate(): Boolean {
+    val visibility = Flags.VISIBILITY.get(getFlags())
+    return visibility == ProtoBuf.Visibility.PRIVATE || visibility == ProtoBuf.Visibility.PRIVATE_TO_THIS
+}
+
+/**
+ * Writes the contents of protos to a stream with every string and qualified name index replaced by the name itself,
+ * so that the result doesn't depend on the layout of the name tables. Optional fields are preceded by a presence flag.
+ */
+private class ResolvedProtoHasher(private val nameResolver: NameResolver) {
+    private val bytes = ByteArrayOutputStream()
+    private val out = DataOutputStream(bytes)
+
+    fun hash(write: ResolvedProtoHasher.() -> Unit): Long {
+        write()
+        out.flush()
+        return bytes.toByteArray().md5()
+    }
+
+    fun classWithoutMembers(proto: ProtoBuf.Class) {
+        out.writeInt(proto.getFlags())
+        qualifiedName(proto.getFqName())
+        optional(proto.hasCompanionObjectName()) { string(proto.getCompanionObjectName()) }
+        list(proto.getTypeParameterList()) { typeParameter(it) }
+        list(proto.getSupertypeList()) { type(it) }
+        list(proto.getNestedClassNameList()) { string(it) }
+        list(proto.getEnumEntryList()) { string(it) }
+        optional(proto.hasPrimaryConstructor()) {
+            val primaryConstructor = proto.getPrimaryConstructor()
+            optional(primaryConstructor.hasData()) { callable(primaryConstructor.getData()) }
+        }
+        list(proto.getSecondaryConstructorList()) { callable(it) }
+    }
+
+    fun callable(proto: ProtoBuf.Callable) {
+        out.writeInt(proto.getFlags())
+        optional(proto.hasGetterFlags()) { out.writeInt(proto.getGetterFlags()) }
+        optional(proto.hasSetterFlags()) { out.writeInt(proto.getSetterFlags()) }
+        list(proto.getTypeParameterList()) { typeParameter(it) }
+        optional(proto.hasReceiverType()) { type(proto.getReceiverType()) }
+        string(proto.getName())
+        list(proto.getValueParameterList()) { valueParameter(it) }
+        type(proto.getReturnType())
+
+        optional(proto.hasExtension(JvmProtoBuf.methodSignature)) { jvmMethodSignature(proto.getExtension(JvmProtoBuf.methodSignature)) }
+        optional(proto.hasExtension(JvmProtoBuf.propertySignature)) {
+            val signature = proto.getExtension(JvmProtoBuf.propertySignature)
+            optional(signature.hasField()) { jvmFieldSignature(signature.getField()) }
+            optional(signature.hasSyntheticMethod()) { jvmMethodSignature(signature.getSyntheticMethod()) }
+            optional(signature.hasGetter()) { jvmMethodSignature(signature.getGetter()) }
+            optional(signature.hasSetter()) { jvmMethodSignature(signature.getSetter()) }
+        }
+        optional(proto.hasExtension(JvmProtoBuf.implClassName)) { string(proto.getExtension(JvmProtoBuf.implClassName)) }
+    }
+
+    private fun valueParameter(proto: ProtoBuf.Callable.ValueParameter) {
+        out.writeInt(proto.getFlags())
+        string(proto.getName())
+        type(proto.getType())
+        optional(proto.hasVarargElementType()) { type(proto.getVarargElementType()) }
+        optional(proto.hasExtension(JvmProtoBuf.index)) { out.writeInt(proto.getExtension(JvmProtoBuf.index)) }
+    }
+
+    private fun typeParameter(proto: ProtoBuf.TypeParameter) {
+        out.writeInt(proto.getId())
+        string(proto.getName())
+        out.writeBoolean(proto.getReified())
+        out.writeInt(proto.getVariance().getNumber())
+        list(proto.getUpperBoundList()) { type(it) }
+    }
+
+    private fun type(proto: ProtoBuf.Type) {
+        val typeConstructor = proto.getConstructor()
+        out.writeInt(typeConstructor.getKind().getNumber())
+        if (typeConstructor.getKind() == ProtoBuf.Type.Constructor.Kind.CLASS) {
+            qualifiedName(typeConstructor.getId())
+        }
+        else {
+            out.writeInt(typeConstructor.getId())
+        }
+
+        list(proto.getArgumentList()) { argument ->
+            out.writeInt(argument.getProjection().getNumber())
+            optional(argument.hasType()) { type(argument.getType()) }
+        }
+        out.writeBoolean(proto.getNullable())
+        optional(proto.hasFlexibleTypeCapabilitiesId()) { string(proto.getFlexibleTypeCapabilitiesId()) }
+        optional(proto.hasFlexibleUpperBound()) { type(proto.getFlexibleUpperBound()) }
+        list(proto.getExtension(JvmProtoBuf.typeAnnotation)) { annotation(it) }
+    }
+
+    private fun annotation(proto: ProtoBuf.Annotation) {
+        qualifiedName(proto.getId())
+        list(proto.getArgumentList()) { argument ->
+            string(argument.getNameId())
+            annotationValue(argument.getValue())
+        }
+    }
+
+    private fun annotationValue(proto: ProtoBuf.Annotation.Argument.Value) {
+        out.writeInt(proto.getType().getNumber())
+        out.writeLong(proto.getIntValue())
+        out.writeFloat(proto.getFloatValue())
+        out.writeDouble(proto.getDoubleValue())
+        optional(proto.hasStringValue()) { string(proto.getStringValue()) }
+        optional(proto.hasClassId()) { qualifiedName(proto.getClassId()) }
+        optional(proto.hasEnumValueId()) { string(proto.getEnumValueId()) }
+        optional(proto.hasAnnotation()) { annotation(proto.getAnnotation()) }
+        list(proto.getArrayElementList()) { annotationValue(it) }
+    }
+
+    private fun jvmMethodSignature(proto: JvmProtoBuf.JvmMethodSignature) {
+        string(proto.getName())
+        jvmType(proto.getReturnType())
+        list(proto.getParameterTypeList()) { jvmType(it) }
+    }
+
+    private fun jvmFieldSignature(proto: JvmProtoBuf.JvmFieldSignature) {
+        string(proto.getName())
+        jvmType(proto.getType())
+        out.writeBoolean(proto.getIsStaticInOuter())
+    }
+
+    private fun jvmType(proto: JvmProtoBuf.JvmType) {
+        optional(proto.hasPrimitiveType()) { out.writeInt(proto.getPrimitiveType().getNumber()) }
+        optional(proto.hasClassFqName()) { qualifiedName(proto.getClassFqName()) }
+        out.writeInt(proto.getArrayDimension())
+    }
+
+    private fun string(index: Int) {
+        out.writeUTF(nameResolver.getString(index))
+    }
+
+    private fun qualifiedName(index: Int) {
+        out.writeUTF(nameResolver.getClassId(index).toString())
+    }
+
+    private inline fun optional(present: Boolean, write: () -> Unit) {
+        out.writeBoolean(present)
+        if (present) write()
+    }
+
+    private inline fun <T> list(elements: List<T>, write: (T) -> Unit) {
+        out.writeInt(elements.size())
+        elements.forEach(write)
+    }
+}
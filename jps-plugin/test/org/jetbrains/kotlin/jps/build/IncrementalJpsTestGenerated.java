@@ -49,6 +49,18 @@ public class IncrementalJpsTestGenerated extends AbstractIncrementalJpsTest {
             doTest(fileName);
         }
 
+        @TestMetadata("classPrivateInlineFunctionChanged")
+        public void testClassPrivateInlineFunctionChanged() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/multiModule/classPrivateInlineFunctionChanged/");
+            doTest(fileName);
+        }
+
+        @TestMetadata("classPublicInlineFunctionChanged")
+        public void testClassPublicInlineFunctionChanged() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/multiModule/classPublicInlineFunctionChanged/");
+            doTest(fileName);
+        }
+
         @TestMetadata("constantValueChanged")
         public void testConstantValueChanged() throws Exception {
             String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/multiModule/constantValueChanged/");
@@ -215,6 +227,12 @@ public class IncrementalJpsTestGenerated extends AbstractIncrementalJpsTest {
             doTest(fileName);
         }
 
+        @TestMetadata("conventionFunctionsChanged")
+        public void testConventionFunctionsChanged() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/pureKotlin/conventionFunctionsChanged/");
+            doTest(fileName);
+        }
+
         @TestMetadata("defaultArguments")
         public void testDefaultArguments() throws Exception {
             String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/pureKotlin/defaultArguments/");
@@ -281,6 +299,18 @@ public class IncrementalJpsTestGenerated extends AbstractIncrementalJpsTest {
             doTest(fileName);
         }
 
+        @TestMetadata("memberAddedToSupertype")
+        public void testMemberAddedToSupertype() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/pureKotlin/memberAddedToSupertype/");
+            doTest(fileName);
+        }
+
+        @TestMetadata("memberSignatureChangedToExistingType")
+        public void testMemberSignatureChangedToExistingType() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/pureKotlin/memberSignatureChangedToExistingType/");
+            doTest(fileName);
+        }
+
         @TestMetadata("moveClass")
         public void testMoveClass() throws Exception {
             String fileName = JetTestUtils.navigationMetadata("jps-plugin/testData/incremental/pureKotlin/moveClass/");
@@ -0,0 +1,7 @@
+package a
+
+class A {
+    public inline fun f(): String = "old"
+
+    fun a(): String = f()
+}
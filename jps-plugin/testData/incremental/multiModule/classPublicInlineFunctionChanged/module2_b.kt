@@ -0,0 +1,3 @@
+package b
+
+fun b(): String = a.A().f()
@@ -0,0 +1,5 @@
+package test
+
+fun componentUsage(k: Klass) {
+    val (x) = k
+}
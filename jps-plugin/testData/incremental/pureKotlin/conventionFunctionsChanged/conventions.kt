@@ -0,0 +1,11 @@
+package test
+
+class Klass {
+    fun plus(other: Klass): Klass = this
+    fun iterator(): Iterator<Int> = listOf(1).iterator()
+    fun component1(): Int = 1
+    fun get(index: Int): Int = index
+    fun get(thisRef: Any?, metadata: PropertyMetadata): Int = 0
+    fun invoke() {
+    }
+}
@@ -0,0 +1,3 @@
+package test
+
+val delegateUsage: Any by Klass()
@@ -0,0 +1,6 @@
+package test
+
+fun forUsage(k: Klass) {
+    for (x in k) {
+    }
+}
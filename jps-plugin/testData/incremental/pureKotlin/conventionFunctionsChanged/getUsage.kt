@@ -0,0 +1,5 @@
+package test
+
+fun getUsage(k: Klass) {
+    k[0]
+}
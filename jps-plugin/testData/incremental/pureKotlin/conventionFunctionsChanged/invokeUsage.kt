@@ -0,0 +1,5 @@
+package test
+
+fun invokeUsage(k: Klass) {
+    k()
+}
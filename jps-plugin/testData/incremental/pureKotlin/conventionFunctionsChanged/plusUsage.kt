@@ -0,0 +1,5 @@
+package test
+
+fun plusUsage(k: Klass) {
+    k + k
+}
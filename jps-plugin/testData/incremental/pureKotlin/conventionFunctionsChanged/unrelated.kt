@@ -0,0 +1,4 @@
+package test
+
+fun unrelated(k: Klass) {
+}
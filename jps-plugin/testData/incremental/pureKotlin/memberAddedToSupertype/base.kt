@@ -0,0 +1,4 @@
+package test
+
+open class Base {
+}
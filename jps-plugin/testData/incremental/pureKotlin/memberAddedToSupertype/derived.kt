@@ -0,0 +1,5 @@
+package test
+
+class Derived : Base() {
+    fun bar() = foo()
+}
@@ -0,0 +1,7 @@
+package test
+
+class Outer : Base() {
+    inner class Inner {
+        fun bar() = foo()
+    }
+}
@@ -0,0 +1,3 @@
+package test
+
+fun lambdaUsage(base: Base) = with(base) { foo() }
@@ -0,0 +1,5 @@
+package test
+
+fun barUsage(a: Klass) {
+    a.bar()
+}
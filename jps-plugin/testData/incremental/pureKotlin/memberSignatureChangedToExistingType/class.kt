@@ -0,0 +1,6 @@
+package test
+
+class Klass {
+    fun foo(): String = ""
+    fun bar(): Int = 0
+}
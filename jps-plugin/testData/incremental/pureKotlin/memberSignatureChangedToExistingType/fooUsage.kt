@@ -0,0 +1,5 @@
+package test
+
+fun fooUsage(a: Klass) {
+    a.foo()
+}
@@ -53,7 +53,7 @@ public final class JsProgram extends SourceInfoAwareJsNode {
         return getFragmentBlock(0);
     }
 
-    public JsNumberLiteral getNumberLiteral(double value) {
+    public synchronized JsNumberLiteral getNumberLiteral(double value) {
         JsDoubleLiteral literal = doubleLiteralMap.get(value);
         if (literal == null) {
             literal = new JsDoubleLiteral(value);
@@ -63,7 +63,7 @@ public final class JsProgram extends SourceInfoAwareJsNode {
         return literal;
     }
 
-    public JsNumberLiteral getNumberLiteral(int value) {
+    public synchronized JsNumberLiteral getNumberLiteral(int value) {
         JsIntLiteral literal = intLiteralMap.get(value);
         if (literal == null) {
             literal = new JsIntLiteral(value);
@@ -94,7 +94,7 @@ public final class JsProgram extends SourceInfoAwareJsNode {
      * Creates or retrieves a JsStringLiteral from an interned object pool.
      */
     @NotNull
-    public JsStringLiteral getStringLiteral(String value) {
+    public synchronized JsStringLiteral getStringLiteral(String value) {
         JsStringLiteral literal = stringLiteralMap.get(value);
         if (literal == null) {
             literal = new JsStringLiteral(value);
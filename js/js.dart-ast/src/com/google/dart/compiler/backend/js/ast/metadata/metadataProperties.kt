@@ -32,6 +32,13 @@ public var JsInvocation.psiElement: PsiElement? by MetadataProperty(default = nu
 
 public var JsFunction.isLocal: Boolean by MetadataProperty(default = false)
 
+/**
+ * Marks parts of a program reused from a previous translation, they have been already processed by the inliner
+ */
+public var JsPropertyInitializer.isReused: Boolean by MetadataProperty(default = false)
+
+public var JsBlock.isReused: Boolean by MetadataProperty(default = false)
+
 public var JsParameter.hasDefaultValue: Boolean by MetadataProperty(default = false)
 
 public var JsInvocation.typeCheck: TypeCheck? by MetadataProperty(default = null)
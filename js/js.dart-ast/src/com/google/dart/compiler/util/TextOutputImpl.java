@@ -4,6 +4,7 @@
 
 package com.google.dart.compiler.util;
 
+import java.io.IOException;
 import java.util.Arrays;
 
 public class TextOutputImpl implements TextOutput {
@@ -12,7 +13,7 @@ public class TextOutputImpl implements TextOutput {
     private final static int indentGranularity = 2;
     private char[][] indents = new char[][] {new char[0]};
     private boolean justNewlined;
-    private final StringBuilder out;
+    private final Appendable out;
     private int position = 0;
     private int line = 0;
     private int column = 0;
@@ -28,10 +29,21 @@ public class TextOutputImpl implements TextOutput {
     }
 
     public TextOutputImpl(boolean compact) {
+        this(new StringBuilder(), compact);
+    }
+
+    /**
+     * Writes the text to the given destination (e.g. a buffered file writer) as it is printed, instead of accumulating it in memory.
+     * I/O errors are rethrown as {@link RuntimeException}s.
+     */
+    public TextOutputImpl(Appendable out, boolean compact) {
         this.compact = compact;
-        out = new StringBuilder();
+        this.out = out;
     }
 
+    /**
+     * @return the text printed so far if this output is backed by a {@link StringBuilder}
+     */
     @Override
     public String toString() {
         return out.toString();
@@ -73,7 +85,7 @@ public class TextOutputImpl implements TextOutput {
 
     @Override
     public void newline() {
-        out.append('\n');
+        append('\n');
         position++;
         line++;
         column = 0;
@@ -86,23 +98,19 @@ public class TextOutputImpl implements TextOutput {
     @Override
     public void print(double value) {
         maybeIndent();
-        int oldLength = out.length();
-        out.append(value);
-        movePosition(out.length() - oldLength);
+        printAndCount(String.valueOf(value));
     }
 
     @Override
     public void print(int value) {
         maybeIndent();
-        int oldLength = out.length();
-        out.append(value);
-        movePosition(out.length() - oldLength);
+        printAndCount(String.valueOf(value));
     }
 
     @Override
     public void print(char c) {
         maybeIndent();
-        out.append(c);
+        append(c);
         movePosition(1);
     }
 
@@ -160,13 +168,36 @@ public class TextOutputImpl implements TextOutput {
     private void printAndCount(CharSequence charSequence) {
         position += charSequence.length();
         column += charSequence.length();
-        out.append(charSequence);
+        append(charSequence);
     }
 
     private void printAndCount(char[] chars) {
         position += chars.length;
         column += chars.length;
-        out.append(chars);
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(chars);
+        }
+        else {
+            append(new String(chars));
+        }
+    }
+
+    private void append(char c) {
+        try {
+            out.append(c);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void append(CharSequence charSequence) {
+        try {
+            out.append(charSequence);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
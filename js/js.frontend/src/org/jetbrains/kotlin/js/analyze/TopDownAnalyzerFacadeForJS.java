@@ -68,7 +68,7 @@ public final class TopDownAnalyzerFacadeForJS {
             @NotNull Collection<JetFile> files,
             @NotNull Config config
     ) {
-        BindingTrace trace = new BindingTraceContext();
+        BindingTrace trace = new BindingTraceContext(config.getTranslationThreads() > 1);
 
         MutableModuleContext newModuleContext = ContextPackage.ContextForNewModule(
                 config.getProject(), Name.special("<" + config.getModuleId() + ">"), JS_MODULE_PARAMETERS
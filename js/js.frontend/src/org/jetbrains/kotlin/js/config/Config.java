@@ -40,6 +40,14 @@ import java.util.List;
  * Base class representing a configuration of translator.
  */
 public abstract class Config {
+    /**
+     * System property with the maximal number of parsed inline functions of libraries kept between compilations.
+     * Unlike the rest of the configuration it is not a setting of one translation: the cache is shared by all compilations
+     * running in the JVM and lives as long as the process, its entries are keyed by digest of library content.
+     */
+    public static final String INLINE_CACHE_SIZE_PROPERTY = "kotlin.js.inline.cache.size";
+    public static final int DEFAULT_INLINE_CACHE_SIZE = 500;
+
     private final boolean inlineEnabled;
     @NotNull
     private final Project project;
@@ -55,6 +63,13 @@ public abstract class Config {
 
     private final boolean sourcemap;
     private final boolean metaInfo;
+    private final boolean deadCodeElimination;
+    private final boolean minificationEnabled;
+    private final boolean typedArraysEnabled;
+    private final boolean splitOutput;
+    private final int translationThreads;
+    @NotNull
+    private final List<String> declarationsToKeep;
 
     @NotNull
     protected final List<KotlinJavascriptMetadata> metadata = new SmartList<KotlinJavascriptMetadata>();
@@ -70,14 +85,27 @@ public abstract class Config {
             @NotNull EcmaVersion ecmaVersion,
             boolean sourcemap,
             boolean inlineEnabled,
-            boolean metaInfo
+            boolean metaInfo,
+            boolean deadCodeElimination,
+            @NotNull List<String> declarationsToKeep,
+            boolean minificationEnabled,
+            boolean typedArraysEnabled,
+            boolean splitOutput,
+            int translationThreads
     ) {
+        assert !(deadCodeElimination && metaInfo) : "Dead code elimination would remove declarations used by the modules depending on " + moduleId;
         this.project = project;
         this.target = ecmaVersion;
         this.moduleId = moduleId;
         this.sourcemap = sourcemap;
         this.inlineEnabled = inlineEnabled;
         this.metaInfo = metaInfo;
+        this.deadCodeElimination = deadCodeElimination;
+        this.declarationsToKeep = declarationsToKeep;
+        this.minificationEnabled = minificationEnabled;
+        this.typedArraysEnabled = typedArraysEnabled;
+        this.splitOutput = splitOutput;
+        this.translationThreads = translationThreads;
     }
 
     public boolean isSourcemap() {
@@ -88,10 +116,55 @@ public abstract class Config {
         return metaInfo;
     }
 
+    /**
+     * Inline functions of libraries are parsed once per process, see {@link #INLINE_CACHE_SIZE_PROPERTY}.
+     */
     public boolean isInlineEnabled() {
         return inlineEnabled;
     }
 
+    /**
+     * If enabled, unused package members of the module are removed; the runtime and the libraries are not changed
+     */
+    public boolean isDeadCodeElimination() {
+        return deadCodeElimination;
+    }
+
+    /**
+     * JS names of the package members which should not be removed by the dead code elimination, because they are used from the outside
+     */
+    @NotNull
+    public List<String> getDeclarationsToKeep() {
+        return declarationsToKeep;
+    }
+
+    public boolean isMinificationEnabled() {
+        return minificationEnabled;
+    }
+
+    /**
+     * If enabled, byte, short, int, float and double arrays are created as JavaScript typed arrays (Int8Array, ..., Float64Array)
+     */
+    public boolean isTypedArraysEnabled() {
+        return typedArraysEnabled;
+    }
+
+    /**
+     * If enabled, the definitions of packages are moved to separate files, which are loaded when the package is accessed the first time
+     */
+    public boolean isSplitOutput() {
+        return splitOutput;
+    }
+
+    /**
+     * Number of threads used to translate the declarations of different packages. More than one thread also makes
+     * the binding trace of the analysis thread-safe, since translation reads from it and reports diagnostics to it.
+     * It isn't a compiler option yet: the speedup of the parallel mode hasn't been measured, so only tests set it
+     */
+    public int getTranslationThreads() {
+        return translationThreads;
+    }
+
     @NotNull
     public Project getProject() {
         return project;
@@ -71,9 +71,16 @@ public class LibrarySourcesConfig extends Config {
             boolean sourceMap,
             boolean inlineEnabled,
             boolean isUnitTestConfig,
-            boolean metaInfo
+            boolean metaInfo,
+            boolean deadCodeElimination,
+            @NotNull List<String> declarationsToKeep,
+            boolean minificationEnabled,
+            boolean typedArraysEnabled,
+            boolean splitOutput,
+            int translationThreads
     ) {
-        super(project, moduleId, ecmaVersion, sourceMap, inlineEnabled, metaInfo);
+        super(project, moduleId, ecmaVersion, sourceMap, inlineEnabled, metaInfo, deadCodeElimination, declarationsToKeep,
+              minificationEnabled, typedArraysEnabled, splitOutput, translationThreads);
         this.files = files;
         this.isUnitTestConfig = isUnitTestConfig;
     }
@@ -187,6 +194,13 @@ public class LibrarySourcesConfig extends Config {
         boolean inlineEnabled = true;
         boolean isUnitTestConfig = false;
         boolean metaInfo = false;
+        boolean deadCodeElimination = false;
+        @NotNull
+        List<String> declarationsToKeep = Collections.emptyList();
+        boolean minificationEnabled = false;
+        boolean typedArraysEnabled = false;
+        boolean splitOutput = false;
+        int translationThreads = 1;
 
         public Builder(@NotNull Project project, @NotNull String moduleId, @NotNull List<String> files) {
             this.project = project;
@@ -219,8 +233,40 @@ public class LibrarySourcesConfig extends Config {
             return this;
         }
 
+        public Builder deadCodeElimination(boolean deadCodeElimination) {
+            this.deadCodeElimination = deadCodeElimination;
+            return this;
+        }
+
+        public Builder declarationsToKeep(@NotNull List<String> declarationsToKeep) {
+            this.declarationsToKeep = declarationsToKeep;
+            return this;
+        }
+
+        public Builder minificationEnabled(boolean minificationEnabled) {
+            this.minificationEnabled = minificationEnabled;
+            return this;
+        }
+
+        public Builder typedArraysEnabled(boolean typedArraysEnabled) {
+            this.typedArraysEnabled = typedArraysEnabled;
+            return this;
+        }
+
+        public Builder splitOutput(boolean splitOutput) {
+            this.splitOutput = splitOutput;
+            return this;
+        }
+
+        public Builder translationThreads(int translationThreads) {
+            this.translationThreads = translationThreads;
+            return this;
+        }
+
         public Config build() {
-            return new LibrarySourcesConfig(project, moduleId, files, ecmaVersion, sourceMap, inlineEnabled, isUnitTestConfig, metaInfo);
+            return new LibrarySourcesConfig(project, moduleId, files, ecmaVersion, sourceMap, inlineEnabled, isUnitTestConfig, metaInfo,
+                                            deadCodeElimination, declarationsToKeep, minificationEnabled, typedArraysEnabled,
+                                            splitOutput, translationThreads);
         }
     }
 
@@ -21,8 +21,10 @@ import com.google.dart.compiler.backend.js.ast.metadata.inlineStrategy
 import com.google.gwt.dev.js.ThrowExceptionOnErrorReporter
 import com.intellij.openapi.util.io.FileUtil
 import com.intellij.util.containers.SLRUCache
+import org.jetbrains.annotations.TestOnly
 import org.jetbrains.kotlin.builtins.KotlinBuiltIns
 import org.jetbrains.kotlin.descriptors.CallableDescriptor
+import org.jetbrains.kotlin.js.config.Config
 import org.jetbrains.kotlin.js.config.LibrarySourcesConfig
 import org.jetbrains.kotlin.js.inline.util.IdentitySet
 import org.jetbrains.kotlin.js.inline.util.isCallInvocation
@@ -37,6 +39,8 @@ import org.jetbrains.kotlin.utils.KotlinJavascriptMetadataUtils
 import org.jetbrains.kotlin.utils.LibraryUtils
 import org.jetbrains.kotlin.utils.sure
 import java.io.File
+import java.security.MessageDigest
+import java.util.LinkedHashMap
 import kotlin.platform.platformStatic
 
 // TODO: add hash checksum to defineModule?
@@ -46,6 +50,11 @@ import kotlin.platform.platformStatic
  */
 private val DEFINE_MODULE_PATTERN = "(\\w+)\\.defineModule\\(\\s*(['\"])(\\w+)\\2\\s*,\\s*(\\w+)\\s*\\)".toRegex()
 
+/**
+ * Matches the start of a package chunk of a module compiled with split output, like Kotlin.defineModuleChunk("stdlib", "kotlin", ...
+ */
+private val DEFINE_MODULE_CHUNK_PATTERN = "(\\w+)\\.defineModuleChunk\\(\\s*(['\"])(\\w+)\\2\\s*,".toRegex()
+
 public class FunctionReader(private val context: TranslationContext) {
     /**
      * Maps module name to .js file content, that contains this module definition.
@@ -65,12 +74,30 @@ public class FunctionReader(private val context: TranslationContext) {
      */
     private val moduleKotlinVariable = hashMapOf<String, String>()
 
+    /**
+     * Maps module name to digest of .js file content, that contains this module definition.
+     * Used as a part of the key in [FunctionTemplateCache].
+     */
+    private val moduleJsDigest = hashMapOf<String, String>()
+
     init {
         val config = context.getConfig() as LibrarySourcesConfig
         val libs = config.getLibraries().map { File(it) }
 
+        val moduleJsChunks = hashMapOf<String, MutableList<String>>()
+
         LibraryUtils.traverseJsLibraries(libs) { fileContent, path ->
+            val chunkMatcher = DEFINE_MODULE_CHUNK_PATTERN.toPattern().matcher(fileContent)
+            val chunkModuleNames = linkedSetOf<String>()
+            while (chunkMatcher.find()) {
+                chunkModuleNames.add(chunkMatcher.group(3))
+            }
+            for (moduleName in chunkModuleNames) {
+                moduleJsChunks.getOrPut(moduleName) { arrayListOf() }.add(fileContent)
+            }
+
             val matcher = DEFINE_MODULE_PATTERN.toPattern().matcher(fileContent)
+            var digest: String? = null
 
             while (matcher.find()) {
                 val moduleName = matcher.group(3)
@@ -80,8 +107,21 @@ public class FunctionReader(private val context: TranslationContext) {
                 moduleJsDefinition[moduleName] = fileContent
                 moduleRootVariable[moduleName] = moduleVariable
                 moduleKotlinVariable[moduleName] = kotlinVariable
+
+                if (digest == null) {
+                    digest = computeDigest(fileContent)
+                }
+                moduleJsDigest[moduleName] = digest!!
             }
         }
+
+        // chunks use the same names for the root package and the Kotlin object as the main file of their module
+        for ((moduleName, chunks) in moduleJsChunks) {
+            val mainContent = moduleJsDefinition[moduleName] ?: continue
+            val content = (listOf(mainContent) + chunks).joinToString("\n")
+            moduleJsDefinition[moduleName] = content
+            moduleJsDigest[moduleName] = computeDigest(content)
+        }
     }
 
     private val functionCache = object : SLRUCache<CallableDescriptor, JsFunction>(50, 50) {
@@ -102,23 +142,21 @@ public class FunctionReader(private val context: TranslationContext) {
 
         val moduleName = getExternalModuleName(descriptor)
         val file = moduleJsDefinition[moduleName].sure { "Module $moduleName file have not been read" }
-        val function = readFunctionFromSource(descriptor, file)
+        val digest = moduleJsDigest[moduleName]!!
+        val function = readFunctionFromSource(descriptor, file, digest)
         function?.markInlineArguments(descriptor)
         return function
     }
 
-    private fun readFunctionFromSource(descriptor: CallableDescriptor, source: String): JsFunction? {
+    private fun readFunctionFromSource(descriptor: CallableDescriptor, source: String, sourceDigest: String): JsFunction? {
         val tag = Namer.getFunctionTag(descriptor)
-        val index = source.indexOf(tag)
-        if (index < 0) return null
-
-        // + 1 for closing quote
-        var offset = index + tag.length() + 1
-        while (offset < source.length() && source.charAt(offset).isWhitespaceOrComma) {
-            offset++
+        var template = FunctionTemplateCache.get(sourceDigest, tag)
+        if (template == null) {
+            template = parseFunctionTemplate(source, tag) ?: return null
+            FunctionTemplateCache.put(sourceDigest, tag, template!!)
         }
 
-        val function = parseFunction(source, offset, ThrowExceptionOnErrorReporter, JsRootScope(JsProgram("<inline>")))
+        val function = template!!.deepCopy()
         val moduleName = getExternalModuleName(descriptor)!!
         val moduleNameLiteral = context.program().getStringLiteral(moduleName)
         val moduleReference =  context.namer().getModuleReference(moduleNameLiteral)
@@ -128,6 +166,65 @@ public class FunctionReader(private val context: TranslationContext) {
         replaceExternalNames(function, replacements)
         return function
     }
+
+    companion object {
+        TestOnly platformStatic fun getCachedTemplates(): List<JsFunction> = FunctionTemplateCache.getTemplates()
+
+        TestOnly platformStatic fun getParsedTemplateCount(): Int = FunctionTemplateCache.getParsedCount()
+    }
+}
+
+private fun parseFunctionTemplate(source: String, tag: String): JsFunction? {
+    val index = source.indexOf(tag)
+    if (index < 0) return null
+
+    // + 1 for closing quote
+    var offset = index + tag.length() + 1
+    while (offset < source.length() && source.charAt(offset).isWhitespaceOrComma) {
+        offset++
+    }
+
+    return parseFunction(source, offset, ThrowExceptionOnErrorReporter, JsRootScope(JsProgram("<inline>")))
+}
+
+private fun computeDigest(content: String): String {
+    val bytes = MessageDigest.getInstance("SHA-1").digest(content.toByteArray(Charsets.UTF_8))
+    return bytes.joinToString("") { Integer.toHexString((it.toInt() and 0xFF) or 0x100).substring(1) }
+}
+
+/**
+ * Process-wide cache of parsed inline functions, shared by all compilations running in the same JVM
+ * (e.g. several modules of one build), so that the library functions are parsed only once.
+ * It lives as long as the process, the number of kept templates is set by [Config.INLINE_CACHE_SIZE_PROPERTY].
+ *
+ * Templates are keyed by digest of library file content and function tag, so a changed library is never served stale functions.
+ * Cached templates are never modified: [FunctionReader] deep copies a template before module references are replaced and
+ * inline arguments are marked.
+ */
+private object FunctionTemplateCache {
+    private val SIZE = Integer.getInteger(Config.INLINE_CACHE_SIZE_PROPERTY, Config.DEFAULT_INLINE_CACHE_SIZE)
+
+    private val templates = object : LinkedHashMap<Pair<String, String>, JsFunction>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Pair<String, String>, JsFunction>?): Boolean = size() > SIZE
+    }
+
+    private var parsedCount = 0
+
+    fun get(sourceDigest: String, tag: String): JsFunction? =
+            synchronized(templates) { templates.get(sourceDigest to tag) }
+
+    fun put(sourceDigest: String, tag: String, template: JsFunction) {
+        synchronized(templates) {
+            templates.put(sourceDigest to tag, template)
+            parsedCount++
+        }
+    }
+
+    fun getTemplates(): List<JsFunction> =
+            synchronized(templates) { templates.values().toList() }
+
+    fun getParsedCount(): Int =
+            synchronized(templates) { parsedCount }
 }
 
 private val Char.isWhitespaceOrComma: Boolean
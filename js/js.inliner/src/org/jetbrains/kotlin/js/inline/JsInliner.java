@@ -88,6 +88,16 @@ public class JsInliner extends JsVisitorWithContextImpl {
         this.trace = trace;
     }
 
+    @Override
+    public boolean visit(@NotNull JsPropertyInitializer x, @NotNull JsContext ctx) {
+        return !MetadataPackage.getIsReused(x);
+    }
+
+    @Override
+    public boolean visit(@NotNull JsBlock x, @NotNull JsContext ctx) {
+        return !MetadataPackage.getIsReused(x);
+    }
+
     @Override
     public boolean visit(@NotNull JsFunction function, @NotNull JsContext context) {
         inliningContexts.push(new JsInliningContext(function));
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.inline.clean
+
+import com.google.dart.compiler.backend.js.ast.*
+import org.jetbrains.kotlin.js.inline.util.IdentitySet
+import org.jetbrains.kotlin.js.translate.context.TranslationContext
+import java.util.ArrayDeque
+import java.util.HashSet
+
+/**
+ * A module-local pass: removes package members (functions, classes, objects and properties) of the module being compiled
+ * which are not reachable from the code run when the module is loaded: package initializers, the call to main and the test calls.
+ * The kotlin.js runtime and library modules are separate files which are shipped as they are, so nothing is removed from them.
+ *
+ * Reachability is tracked by JS names: a member is kept if its name is referenced from reachable code, even if the reference
+ * is to another declaration with the same name, so the pass is conservative without knowing what a name refers to.
+ * Members of classes are not processed. Declarations used from the outside of the module
+ * should be listed in [namesToKeep].
+ *
+ * The pass must not be run when metadata is generated: the modules depending on a library may use any of its public declarations,
+ * including the bodies of inline functions, which are removed once they have been inlined.
+ */
+public fun removeUnreachableDeclarations(context: TranslationContext, namesToKeep: Collection<String>) {
+    val program = context.program()
+    val packageDefinitionMethods = listOf(context.namer().packageDefinitionMethodReference(),
+                                          context.namer().rootPackageDefinitionMethodReference())
+            .map { (it as JsNameRef).getIdent() }
+            .toSet()
+
+    val members = with(PackageMembersCollector(packageDefinitionMethods)) {
+        accept(program)
+        members
+    }
+    val membersByName = members.groupBy { it.name }
+
+    val reachableNames = HashSet<String>()
+    val queue = ArrayDeque<String>()
+    fun reach(names: Collection<String>) {
+        for (name in names) {
+            if (reachableNames.add(name)) {
+                queue.add(name)
+            }
+        }
+    }
+
+    reach(namesToKeep)
+    reach(with(ReferencedNamesCollector(members.mapTo(IdentitySet<JsPropertyInitializer>()) { it.initializer })) {
+        accept(program)
+        names
+    })
+
+    while (queue.isNotEmpty()) {
+        membersByName[queue.poll()]?.forEach { member ->
+            reach(with(ReferencedNamesCollector(setOf())) {
+                accept(member.initializer.getValueExpr())
+                names
+            })
+        }
+    }
+
+    for (member in members) {
+        if (member.name !in reachableNames) {
+            member.container.remove(member.initializer)
+        }
+    }
+}
+
+private class PackageMember(val name: String, val initializer: JsPropertyInitializer, val container: MutableList<JsPropertyInitializer>)
+
+private class PackageMembersCollector(private val packageDefinitionMethods: Set<String>) : RecursiveJsVisitor() {
+    public val members: MutableList<PackageMember> = arrayListOf()
+
+    override fun visitInvocation(invocation: JsInvocation) {
+        val membersLiteral = invocation.getArguments().lastOrNull() as? JsObjectLiteral
+        if (!isPackageDefinition(invocation) || membersLiteral == null) {
+            super.visitInvocation(invocation)
+            return
+        }
+
+        invocation.getArguments().forEach { if (it != membersLiteral) accept(it) }
+
+        val container = membersLiteral.getPropertyInitializers()
+        for (initializer in container) {
+            val value = initializer.getValueExpr()
+            val label = initializer.getLabelExpr()
+            when {
+                value is JsInvocation && isPackageDefinition(value) -> accept(value)
+                label is JsNameRef -> members.add(PackageMember(label.getIdent(), initializer, container))
+                else -> accept(initializer)
+            }
+        }
+    }
+
+    private fun isPackageDefinition(invocation: JsInvocation): Boolean {
+        val qualifier = invocation.getQualifier() as? JsNameRef ?: return false
+        return qualifier.getIdent() in packageDefinitionMethods
+    }
+}
+
+private class ReferencedNamesCollector(private val skipped: Set<JsPropertyInitializer>) : RecursiveJsVisitor() {
+    public val names: MutableSet<String> = HashSet()
+
+    override fun visitPropertyInitializer(x: JsPropertyInitializer) {
+        if (x !in skipped) {
+            super.visitPropertyInitializer(x)
+        }
+    }
+
+    override fun visitNameRef(nameRef: JsNameRef) {
+        names.add(nameRef.getIdent())
+        super.visitNameRef(nameRef)
+    }
+}
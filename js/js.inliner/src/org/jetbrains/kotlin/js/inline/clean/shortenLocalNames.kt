@@ -0,0 +1,227 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.inline.clean
+
+import com.google.dart.compiler.backend.js.ast.*
+import org.jetbrains.kotlin.js.inline.util.IdentitySet
+import java.util.HashMap
+import java.util.HashSet
+import java.util.IdentityHashMap
+import java.util.LinkedHashSet
+
+/**
+ * Renames parameters and local variables of every function in [program] to the shortest identifiers
+ * which are not used anywhere inside the function.
+ *
+ * A local is renamed only when every unqualified reference to its identifier inside the function is resolved to the same [JsName],
+ * so references created by identifier only, names shared with nested declarations and functions calling `eval` are left as is.
+ * Package members, class members and property names are never renamed, since other modules access them by name.
+ */
+public fun shortenLocalNames(program: JsProgram) {
+    object : RecursiveJsVisitor() {
+        override fun visitFunction(x: JsFunction) {
+            shortenLocalNames(x)
+        }
+    }.accept(program)
+}
+
+/**
+ * Shortens names of nested functions first, so the usages of a function tree are collected in one pass:
+ * a function reuses the usages of its nested functions, which already reflect their new names.
+ * A name chosen for a local of the function is not used anywhere inside it, so it can't capture a reference in a nested function.
+ *
+ * @return identifiers used inside [function] after renaming
+ */
+private fun shortenLocalNames(function: JsFunction): IdentUsages {
+    val collector = IdentUsageCollector()
+    function.getName()?.let { collector.usages.add(it.getIdent(), it) }
+    function.getParameters().forEach { collector.accept(it) }
+    collector.accept(function.getBody())
+    val usages = collector.usages
+    if (usages.isUsed(EVAL)) return usages
+
+    val locals = LinkedHashSet<JsName>()
+    function.getParameters().mapTo(locals) { it.getName() }
+    with(LocalVarCollector()) {
+        accept(function.getBody())
+        locals.addAll(names)
+    }
+
+    val replaceMap = IdentityHashMap<JsName, JsName>()
+    var index = 0
+    for (name in locals) {
+        val ident = name.getIdent()
+        if (ident in usages.unresolvedIdents || usages.namesByIdent[ident]?.size() != 1) continue
+
+        var nextIndex = index
+        var shortIdent: String
+        do {
+            shortIdent = shortIdent(nextIndex++)
+        }
+        while (usages.isUsed(shortIdent) || shortIdent in JsFunctionScope.RESERVED_WORDS)
+
+        if (shortIdent.length() >= ident.length()) continue
+
+        index = nextIndex
+        val shortName = function.getScope().declareNameUnsafe(shortIdent)
+        replaceMap[name] = shortName
+        usages.namesByIdent.remove(ident)
+        usages.add(shortIdent, shortName)
+    }
+
+    if (replaceMap.isNotEmpty()) {
+        LocalNameReplacingVisitor(replaceMap).accept(function)
+    }
+
+    return usages
+}
+
+private val EVAL = "eval"
+
+private val FIRST_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_$"
+private val NEXT_CHARS = FIRST_CHARS + "0123456789"
+
+private fun shortIdent(index: Int): String {
+    val sb = StringBuilder()
+    sb.append(FIRST_CHARS[index % FIRST_CHARS.length()])
+
+    var rest = index / FIRST_CHARS.length()
+    while (rest > 0) {
+        rest--
+        sb.append(NEXT_CHARS[rest % NEXT_CHARS.length()])
+        rest /= NEXT_CHARS.length()
+    }
+
+    return sb.toString()
+}
+
+/**
+ * Identifiers declared or referenced without qualifier inside a function, including nested functions.
+ */
+private class IdentUsages {
+    public val unresolvedIdents: MutableSet<String> = HashSet()
+    public val namesByIdent: MutableMap<String, MutableSet<JsName>> = HashMap()
+
+    public fun isUsed(ident: String): Boolean = ident in namesByIdent || ident in unresolvedIdents
+
+    public fun add(ident: String, name: JsName?) {
+        if (name == null) {
+            unresolvedIdents.add(ident)
+        }
+        else {
+            namesByIdent.getOrPut(ident) { IdentitySet<JsName>() }.add(name)
+        }
+    }
+
+    /**
+     * Adds the smaller of the two usages to the larger one, so that merging the usages of all functions in a tree takes O(n log n).
+     * @return the merged usages; neither of the merged objects should be used afterwards
+     */
+    public fun merge(other: IdentUsages): IdentUsages {
+        val (larger, smaller) = if (size() >= other.size()) Pair(this, other) else Pair(other, this)
+        larger.unresolvedIdents.addAll(smaller.unresolvedIdents)
+        for ((ident, names) in smaller.namesByIdent) {
+            val largerNames = larger.namesByIdent[ident]
+            if (largerNames == null) {
+                larger.namesByIdent[ident] = names
+            }
+            else {
+                largerNames.addAll(names)
+            }
+        }
+        return larger
+    }
+
+    private fun size(): Int = unresolvedIdents.size() + namesByIdent.size()
+}
+
+/**
+ * Collects usages of identifiers in a function body. Nested functions are processed by [shortenLocalNames] and their usages are merged in.
+ * Property names in object literals are not identifiers of the scope and are skipped.
+ */
+private class IdentUsageCollector : RecursiveJsVisitor() {
+    public var usages: IdentUsages = IdentUsages()
+        private set
+
+    override fun visitNameRef(nameRef: JsNameRef) {
+        if (nameRef.getQualifier() == null) {
+            usages.add(nameRef.getIdent(), nameRef.getName())
+        }
+        super.visitNameRef(nameRef)
+    }
+
+    override fun visit(x: JsVars.JsVar) {
+        usages.add(x.getName().getIdent(), x.getName())
+        super.visit(x)
+    }
+
+    override fun visitParameter(x: JsParameter) {
+        usages.add(x.getName().getIdent(), x.getName())
+        super.visitParameter(x)
+    }
+
+    override fun visitFunction(x: JsFunction) {
+        usages = usages.merge(shortenLocalNames(x))
+    }
+
+    override fun visitPropertyInitializer(x: JsPropertyInitializer) {
+        accept(x.getValueExpr())
+    }
+}
+
+private class LocalVarCollector : RecursiveJsVisitor() {
+    public val names: MutableList<JsName> = arrayListOf()
+
+    override fun visit(x: JsVars.JsVar) {
+        names.add(x.getName())
+        super.visit(x)
+    }
+
+    override fun visitFunction(x: JsFunction) { }
+}
+
+private class LocalNameReplacingVisitor(private val replaceMap: Map<JsName, JsName>) : JsVisitorWithContextImpl() {
+    private val propertyLabels = IdentitySet<JsExpression>()
+
+    override fun visit(x: JsPropertyInitializer, ctx: JsContext<*>): Boolean {
+        propertyLabels.add(x.getLabelExpr())
+        return super.visit(x, ctx)
+    }
+
+    override fun endVisit(x: JsNameRef, ctx: JsContext<*>) {
+        if (x.getQualifier() != null || x in propertyLabels) return
+
+        val replacement = replaceMap[x.getName()]
+        if (replacement != null) {
+            ctx.replaceMe(replacement.makeRef())
+        }
+    }
+
+    override fun endVisit(x: JsVars.JsVar, ctx: JsContext<*>) {
+        val replacement = replaceMap[x.getName()]
+        if (replacement != null) {
+            ctx.replaceMe(JsVars.JsVar(replacement, x.getInitExpression()))
+        }
+    }
+
+    override fun endVisit(x: JsParameter, ctx: JsContext<*>) {
+        val replacement = replaceMap[x.getName()]
+        if (replacement != null) {
+            ctx.replaceMe(JsParameter(replacement))
+        }
+    }
+}
@@ -0,0 +1,1199 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.gwt.dev.js.rhino;
+
+import com.google.dart.compiler.backend.js.ast.*;
+import com.google.dart.compiler.backend.js.ast.JsLiteral.JsBooleanLiteral;
+import com.google.dart.compiler.backend.js.ast.JsNumberLiteral.JsDoubleLiteral;
+import com.google.gwt.dev.js.ScopeContext;
+import com.google.gwt.dev.js.parserExceptions.JsParserException;
+import com.intellij.util.SmartList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive descent parser, which builds js.ast nodes directly from the token stream.
+ *
+ * Accepts the same grammar as the Rhino parser and produces the same trees as the Rhino parser followed by JsAstMapper,
+ * but without building the intermediate Rhino node tree. Both of them are kept in tests as the oracle for this parser.
+ * Names are resolved in source order, while the mapper resolves condition of do-while before its body.
+ */
+public class JsAstParser {
+    private final TokenStream ts;
+    private final ScopeContext scopeContext;
+    private final JsProgram program;
+    private final boolean insideFunction;
+
+    private boolean ok;
+    private int lastExprEndLine; // Hack to handle function expr termination.
+    private int firstOperandLineno; // Line of the operand passed down the expression chain as 'first'.
+
+    public JsAstParser(@NotNull TokenStream ts, @NotNull JsScope scope, boolean insideFunction) {
+        this.ts = ts;
+        this.scopeContext = new ScopeContext(scope);
+        this.program = scope.getProgram();
+        this.insideFunction = insideFunction;
+    }
+
+    /**
+     * Parses the whole token stream as a list of statements.
+     *
+     * @return parsed statements or null, if the parse fails
+     */
+    @Nullable
+    public List<JsStatement> parse() throws IOException {
+        ok = true;
+        List<JsStatement> statements = new ArrayList<JsStatement>();
+
+        while (true) {
+            ts.flags |= TokenStream.TSF_REGEXP;
+            int tt = ts.getToken();
+            ts.flags &= ~TokenStream.TSF_REGEXP;
+
+            if (tt <= TokenStream.EOF) {
+                break;
+            }
+
+            if (tt == TokenStream.FUNCTION) {
+                try {
+                    statements.add(function(false).makeStmt());
+                }
+                catch (JavaScriptException e) {
+                    ok = false;
+                    break;
+                }
+            }
+            else {
+                ts.ungetToken(tt);
+                statements.add(statement());
+            }
+        }
+
+        return ok ? statements : null;
+    }
+
+    /**
+     * Parses a single function expression and stops right after its closing brace,
+     * so the rest of the stream is never tokenized.
+     */
+    @NotNull
+    public JsFunction parseFunction() throws IOException, JavaScriptException {
+        ok = true;
+
+        ts.flags |= TokenStream.TSF_REGEXP;
+        int tt = ts.getToken();
+        ts.flags &= ~TokenStream.TSF_REGEXP;
+
+        if (tt != TokenStream.FUNCTION) {
+            reportError("msg.syntax");
+        }
+
+        return function(true);
+    }
+
+    private void mustMatchToken(int toMatch, String messageId) throws IOException, JavaScriptException {
+        int tt;
+        if ((tt = ts.getToken()) != toMatch) {
+            reportError(messageId);
+            ts.ungetToken(tt); // In case the parser decides to continue
+        }
+    }
+
+    private void reportError(String messageId) throws JavaScriptException {
+        ok = false;
+        ts.reportSyntaxError(messageId, null);
+
+        // Throw an exception to unwind the recursive descent parse.
+        throw new JavaScriptException(messageId);
+    }
+
+    private JsParserException createParserException(String msg) {
+        CodePosition position = new CodePosition(ts.getLineno(), 0);
+        return new JsParserException("Parser encountered internal error: " + msg, position);
+    }
+
+    private JsBlock parseFunctionBody() throws IOException {
+        int oldflags = ts.flags;
+        ts.flags &= ~(TokenStream.TSF_RETURN_EXPR | TokenStream.TSF_RETURN_VOID);
+        ts.flags |= TokenStream.TSF_FUNCTION;
+
+        JsBlock body = new JsBlock();
+        try {
+            int tt;
+            while ((tt = ts.peekToken()) > TokenStream.EOF && tt != TokenStream.RC) {
+                if (tt == TokenStream.FUNCTION) {
+                    ts.getToken();
+                    body.getStatements().add(function(false).makeStmt());
+                }
+                else {
+                    body.getStatements().add(statement());
+                }
+            }
+        }
+        catch (JavaScriptException e) {
+            ok = false;
+        }
+        finally {
+            ts.flags = oldflags;
+        }
+
+        return body;
+    }
+
+    private JsFunction function(boolean isExpr) throws IOException, JavaScriptException {
+        String name = null;
+        if (ts.matchToken(TokenStream.NAME)) {
+            name = ts.getString();
+        }
+        mustMatchToken(TokenStream.LP, "msg.no.paren.parms");
+
+        JsFunction function = scopeContext.enterFunction();
+        try {
+            if (name != null && name.length() > 0) {
+                scopeContext.globalNameFor(name);
+            }
+
+            if (!ts.matchToken(TokenStream.GWT)) {
+                do {
+                    mustMatchToken(TokenStream.NAME, "msg.no.parm");
+                    JsName parameterName = scopeContext.localNameFor(ts.getString());
+                    function.getParameters().add(new JsParameter(parameterName));
+                }
+                while (ts.matchToken(TokenStream.COMMA));
+
+                mustMatchToken(TokenStream.GWT, "msg.no.paren.after.parms");
+            }
+
+            mustMatchToken(TokenStream.LC, "msg.no.brace.body");
+            function.setBody(parseFunctionBody());
+            mustMatchToken(TokenStream.RC, "msg.no.brace.after.body");
+        }
+        finally {
+            scopeContext.exitFunction();
+        }
+
+        // Add EOL but only if function is not part of expression, in which
+        // case it gets SEMI + EOL from Statement.
+        if (!isExpr) {
+            wellTerminated(TokenStream.FUNCTION);
+        }
+
+        return function;
+    }
+
+    private JsBlock statements() throws IOException {
+        JsBlock block = new JsBlock();
+        statements(block.getStatements());
+        return block;
+    }
+
+    private void statements(List<JsStatement> statements) throws IOException {
+        int tt;
+        while ((tt = ts.peekToken()) > TokenStream.EOF && tt != TokenStream.RC) {
+            statements.add(statement());
+        }
+    }
+
+    private JsExpression condition() throws IOException, JavaScriptException {
+        mustMatchToken(TokenStream.LP, "msg.no.paren.cond");
+        JsExpression expression = expr(false);
+        mustMatchToken(TokenStream.GWT, "msg.no.paren.after.cond");
+        return expression;
+    }
+
+    private boolean wellTerminated(int lastExprType) throws IOException, JavaScriptException {
+        int tt = ts.peekTokenSameLine();
+        if (tt == TokenStream.ERROR) {
+            return false;
+        }
+
+        if (tt != TokenStream.EOF && tt != TokenStream.EOL && tt != TokenStream.SEMI && tt != TokenStream.RC) {
+            int version = Context.getContext().getLanguageVersion();
+            if ((tt == TokenStream.FUNCTION || lastExprType == TokenStream.FUNCTION) && (version < Context.VERSION_1_2)) {
+                return true;
+            }
+            else {
+                reportError("msg.no.semi.stmt");
+            }
+        }
+        return true;
+    }
+
+    // match a NAME; return null if no match.
+    private String matchLabel() throws IOException, JavaScriptException {
+        int lineno = ts.getLineno();
+
+        String label = null;
+        if (ts.peekTokenSameLine() == TokenStream.NAME) {
+            ts.getToken();
+            label = ts.getString();
+        }
+
+        if (lineno == ts.getLineno()) {
+            wellTerminated(TokenStream.ERROR);
+        }
+
+        return label;
+    }
+
+    @Nullable
+    private JsNameRef labelReference(@Nullable String identifier) {
+        if (identifier == null) return null;
+
+        JsName labelName = scopeContext.labelFor(identifier);
+        assert labelName != null: "Unknown label name: " + identifier;
+
+        return labelName.makeRef();
+    }
+
+    private JsStatement statement() throws IOException {
+        try {
+            return statementHelper();
+        }
+        catch (JavaScriptException e) {
+            // skip to end of statement
+            int t;
+            do {
+                t = ts.getToken();
+            }
+            while (t != TokenStream.SEMI && t != TokenStream.EOL && t != TokenStream.EOF && t != TokenStream.ERROR);
+            return scopeContext.globalNameFor("error").makeRef().makeStmt();
+        }
+    }
+
+    private JsStatement statementHelper() throws IOException, JavaScriptException {
+        JsStatement result;
+
+        int tt = ts.getToken();
+
+        switch (tt) {
+            case TokenStream.IF: {
+                JsExpression cond = condition();
+                JsStatement ifTrue = statement();
+                JsStatement ifFalse = null;
+                if (ts.matchToken(TokenStream.ELSE)) {
+                    ifFalse = statement();
+                }
+                result = new JsIf(cond, ifTrue, ifFalse);
+                break;
+            }
+
+            case TokenStream.SWITCH: {
+                JsSwitch jsSwitch = new JsSwitch();
+
+                mustMatchToken(TokenStream.LP, "msg.no.paren.switch");
+                jsSwitch.setExpression(expr(false));
+                mustMatchToken(TokenStream.GWT, "msg.no.paren.after.switch");
+                mustMatchToken(TokenStream.LC, "msg.no.brace.switch");
+
+                while ((tt = ts.getToken()) != TokenStream.RC && tt != TokenStream.EOF) {
+                    JsSwitchMember member;
+                    switch (tt) {
+                        case TokenStream.CASE:
+                            JsCase jsCase = new JsCase();
+                            jsCase.setCaseExpression(expr(false));
+                            member = jsCase;
+                            break;
+
+                        case TokenStream.DEFAULT:
+                            member = new JsDefault();
+                            break;
+
+                        default:
+                            reportError("msg.bad.switch");
+                            return null;
+                    }
+                    mustMatchToken(TokenStream.COLON, "msg.no.colon.case");
+
+                    while ((tt = ts.peekToken()) != TokenStream.RC && tt != TokenStream.CASE &&
+                           tt != TokenStream.DEFAULT && tt != TokenStream.EOF) {
+                        member.getStatements().add(statement());
+                    }
+
+                    jsSwitch.getCases().add(member);
+                }
+                result = jsSwitch;
+                break;
+            }
+
+            case TokenStream.WHILE: {
+                JsExpression cond = condition();
+                JsStatement body = statement();
+                result = new JsWhile(cond, body);
+                break;
+            }
+
+            case TokenStream.DO: {
+                JsStatement body = statement();
+                mustMatchToken(TokenStream.WHILE, "msg.no.while.do");
+                JsExpression cond = condition();
+                result = new JsDoWhile(cond, body);
+                break;
+            }
+
+            case TokenStream.FOR: {
+                result = forStatement();
+                break;
+            }
+
+            case TokenStream.TRY: {
+                result = tryStatement();
+                break;
+            }
+
+            case TokenStream.THROW: {
+                int lineno = ts.getLineno();
+                result = new JsThrow(expr(false));
+                if (lineno == ts.getLineno()) {
+                    wellTerminated(TokenStream.ERROR);
+                }
+                break;
+            }
+
+            case TokenStream.BREAK: {
+                result = new JsBreak(labelReference(matchLabel()));
+                break;
+            }
+
+            case TokenStream.CONTINUE: {
+                result = new JsContinue(labelReference(matchLabel()));
+                break;
+            }
+
+            case TokenStream.DEBUGGER: {
+                result = new JsDebugger();
+                break;
+            }
+
+            case TokenStream.WITH: {
+                // "with" is not supported, because it's impossible to identify bindings even passably well
+                reportError("msg.jsni.unsupported.with");
+                return null;
+            }
+
+            case TokenStream.VAR: {
+                int lineno = ts.getLineno();
+                result = variables(false);
+                if (ts.getLineno() == lineno) {
+                    wellTerminated(TokenStream.ERROR);
+                }
+                break;
+            }
+
+            case TokenStream.RETURN: {
+                JsReturn jsReturn = new JsReturn();
+                // bail if we're not in a (toplevel) function
+                if ((!insideFunction) && ((ts.flags & TokenStream.TSF_FUNCTION) == 0)) {
+                    reportError("msg.bad.return");
+                }
+
+                // This is ugly, but we don't want to require a semicolon.
+                ts.flags |= TokenStream.TSF_REGEXP;
+                tt = ts.peekTokenSameLine();
+                ts.flags &= ~TokenStream.TSF_REGEXP;
+
+                if (tt != TokenStream.EOF && tt != TokenStream.EOL && tt != TokenStream.SEMI && tt != TokenStream.RC) {
+                    int lineno = ts.getLineno();
+                    jsReturn.setExpression(expr(false));
+                    if (ts.getLineno() == lineno) {
+                        wellTerminated(TokenStream.ERROR);
+                    }
+                    ts.flags |= TokenStream.TSF_RETURN_EXPR;
+                }
+                else {
+                    ts.flags |= TokenStream.TSF_RETURN_VOID;
+                }
+
+                result = jsReturn;
+                break;
+            }
+
+            case TokenStream.LC:
+                result = statements();
+                mustMatchToken(TokenStream.RC, "msg.no.brace.block");
+                break;
+
+            case TokenStream.ERROR:
+                // Fall thru, to have a node for error recovery to work on
+            case TokenStream.EOL:
+            case TokenStream.SEMI:
+                result = JsEmpty.INSTANCE$;
+                break;
+
+            case TokenStream.NAME: {
+                String name = ts.getString();
+                int lineno = ts.getLineno();
+
+                if (ts.peekToken() == TokenStream.COLON) {
+                    ts.getToken(); // eat the COLON
+
+                    JsLabel label = new JsLabel(scopeContext.enterLabel(name));
+                    try {
+                        label.setStatement(statement());
+                    }
+                    finally {
+                        scopeContext.exitLabel();
+                    }
+
+                    return label;
+                }
+
+                firstOperandLineno = lineno;
+                JsExpression expression = expr(false, scopeContext.globalNameFor(name).makeRef());
+
+                if (ts.peekToken() == TokenStream.COLON) {
+                    reportError("msg.bad.label");
+                }
+
+                result = expressionStatement(expression, TokenStream.NAME, lineno);
+                break;
+            }
+
+            default: {
+                ts.ungetToken(tt);
+                int lineno = ts.getLineno();
+
+                JsExpression expression = expr(false);
+
+                if (ts.peekToken() == TokenStream.COLON) {
+                    reportError("msg.bad.label");
+                }
+
+                if (tt == TokenStream.FUNCTION && !(expression instanceof JsFunction)) {
+                    reportError("msg.syntax");
+                }
+
+                result = expressionStatement(expression, tt, lineno);
+                break;
+            }
+        }
+        ts.matchToken(TokenStream.SEMI);
+
+        return result;
+    }
+
+    private JsStatement expressionStatement(JsExpression expression, int lastExprType, int lineno)
+            throws IOException, JavaScriptException {
+        // Check explicitly against (multi-line) function statement.
+        //
+        // lastExprEndLine is a hack to fix an automatic semicolon insertion problem with function expressions;
+        // the ts.getLineno() == lineno check was firing after a function definition even though the next statement
+        // was on a new line, because speculative getToken calls advanced the line number even when they didn't succeed.
+        if (ts.getLineno() == lineno || (lastExprType == TokenStream.FUNCTION && ts.getLineno() == lastExprEndLine)) {
+            wellTerminated(lastExprType);
+        }
+
+        return expression.makeStmt();
+    }
+
+    private JsStatement forStatement() throws IOException, JavaScriptException {
+        JsNode init; // init is also foo in 'foo in Object'
+        JsExpression cond; // cond is also object in 'foo in Object'
+        JsExpression incr = null;
+        boolean isForIn = false;
+
+        mustMatchToken(TokenStream.LP, "msg.no.paren.for");
+        int tt = ts.peekToken();
+        if (tt == TokenStream.SEMI) {
+            init = null;
+        }
+        else if (tt == TokenStream.VAR) {
+            ts.getToken(); // throw away the 'var' token
+            init = variables(true);
+        }
+        else {
+            init = expr(true);
+        }
+
+        tt = ts.peekToken();
+        if (tt == TokenStream.RELOP && ts.getOp() == TokenStream.IN) {
+            ts.matchToken(TokenStream.RELOP);
+            // 'cond' is the object over which we're iterating
+            cond = expr(false);
+            isForIn = true;
+        }
+        else { // ordinary for loop
+            mustMatchToken(TokenStream.SEMI, "msg.no.semi.for");
+            if (ts.peekToken() == TokenStream.SEMI) {
+                // no loop condition
+                cond = null;
+            }
+            else {
+                cond = expr(false);
+            }
+
+            mustMatchToken(TokenStream.SEMI, "msg.no.semi.for.cond");
+            if (ts.peekToken() != TokenStream.GWT) {
+                incr = expr(false);
+            }
+        }
+
+        mustMatchToken(TokenStream.GWT, "msg.no.paren.for.ctrl");
+        JsStatement body = statement();
+
+        if (isForIn) {
+            JsForIn forIn;
+            if (init instanceof JsVars) {
+                // A named iterator var, which initializer is useful only for side effects.
+                JsVars.JsVar iterVar = ((JsVars) init).getVars().get(0);
+                forIn = new JsForIn(iterVar.getName());
+                if (iterVar.getInitExpression() != null) {
+                    forIn.setIterExpression(iterVar.getInitExpression());
+                }
+            }
+            else {
+                // An unnamed iterator var.
+                forIn = new JsForIn();
+                forIn.setIterExpression((JsExpression) init);
+            }
+            forIn.setObjectExpression(cond);
+            forIn.setBody(body);
+            return forIn;
+        }
+
+        JsFor jsFor;
+        if (init instanceof JsVars) {
+            jsFor = new JsFor((JsVars) init, cond, incr);
+        }
+        else {
+            jsFor = new JsFor((JsExpression) init, cond, incr);
+        }
+        jsFor.setBody(body);
+        return jsFor;
+    }
+
+    private JsStatement tryStatement() throws IOException, JavaScriptException {
+        JsTry jsTry = new JsTry();
+        jsTry.setTryBlock(asBlock(statement()));
+
+        boolean sawDefaultCatch = false;
+        int peek = ts.peekToken();
+        if (peek == TokenStream.CATCH) {
+            while (ts.matchToken(TokenStream.CATCH)) {
+                if (sawDefaultCatch) {
+                    reportError("msg.catch.unreachable");
+                }
+                mustMatchToken(TokenStream.LP, "msg.no.paren.catch");
+
+                mustMatchToken(TokenStream.NAME, "msg.bad.catchcond");
+                JsCatch jsCatch = scopeContext.enterCatch(ts.getString());
+                try {
+                    JsExpression catchCond;
+                    if (ts.matchToken(TokenStream.IF)) {
+                        catchCond = expr(false);
+                    }
+                    else {
+                        catchCond = JsBooleanLiteral.TRUE;
+                        sawDefaultCatch = true;
+                    }
+                    jsCatch.setCondition(catchCond);
+
+                    mustMatchToken(TokenStream.GWT, "msg.bad.catchcond");
+                    mustMatchToken(TokenStream.LC, "msg.no.brace.catchblock");
+
+                    jsCatch.setBody(statements());
+
+                    mustMatchToken(TokenStream.RC, "msg.no.brace.after.body");
+                }
+                finally {
+                    scopeContext.exitCatch();
+                }
+
+                jsTry.getCatches().add(jsCatch);
+            }
+
+            // The last catch block with 'true' condition is actually an unconditional catch block.
+            // Indicate that by nulling the condition.
+            List<JsCatch> catches = jsTry.getCatches();
+            JsCatch lastCatch = catches.get(catches.size() - 1);
+            if (lastCatch.getCondition() == JsBooleanLiteral.TRUE) {
+                lastCatch.setCondition(null);
+            }
+        }
+        else if (peek != TokenStream.FINALLY) {
+            mustMatchToken(TokenStream.FINALLY, "msg.try.no.catchfinally");
+        }
+
+        if (ts.matchToken(TokenStream.FINALLY)) {
+            jsTry.setFinallyBlock(asBlock(statement()));
+        }
+
+        return jsTry;
+    }
+
+    private static JsBlock asBlock(JsStatement statement) {
+        if (statement instanceof JsBlock) return (JsBlock) statement;
+
+        JsBlock block = new JsBlock();
+        block.getStatements().add(statement);
+        return block;
+    }
+
+    private JsVars variables(boolean inForInit) throws IOException, JavaScriptException {
+        JsVars vars = new JsVars();
+
+        for (;;) {
+            mustMatchToken(TokenStream.NAME, "msg.bad.var");
+            // Use a conservative name allocation strategy that allocates all names
+            // from the function's scope, even the names of properties in field literals.
+            JsVars.JsVar var = new JsVars.JsVar(scopeContext.localNameFor(ts.getString()));
+
+            if (ts.matchToken(TokenStream.ASSIGN)) {
+                if (ts.getOp() != TokenStream.NOP) {
+                    reportError("msg.bad.var.init");
+                }
+
+                var.setInitExpression(assignExpr(inForInit, null));
+            }
+            vars.add(var);
+            if (!ts.matchToken(TokenStream.COMMA)) {
+                break;
+            }
+        }
+        return vars;
+    }
+
+    private JsExpression expr(boolean inForInit) throws IOException, JavaScriptException {
+        return expr(inForInit, null);
+    }
+
+    // The first operand of the leftmost primary expression can be already parsed by the caller,
+    // e.g. a name, that turned out not to be a label. It is passed down the chain as 'first'.
+
+    private JsExpression expr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = assignExpr(inForInit, first);
+        while (ts.matchToken(TokenStream.COMMA)) {
+            result = new JsBinaryOperation(JsBinaryOperator.COMMA, result, assignExpr(inForInit, null));
+        }
+        return result;
+    }
+
+    private JsExpression assignExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = condExpr(inForInit, first);
+
+        if (ts.matchToken(TokenStream.ASSIGN)) {
+            JsBinaryOperator operator = assignmentOperator(ts.getOp());
+            if (!(result instanceof JsNameRef) && !(result instanceof JsArrayAccess)) {
+                reportError("msg.bad.lhs.assign");
+            }
+            result = new JsBinaryOperation(operator, result, assignExpr(inForInit, null));
+        }
+
+        return result;
+    }
+
+    private JsExpression condExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = orExpr(inForInit, first);
+
+        if (ts.matchToken(TokenStream.HOOK)) {
+            JsExpression ifTrue = assignExpr(false, null);
+            mustMatchToken(TokenStream.COLON, "msg.no.colon.cond");
+            JsExpression ifFalse = assignExpr(inForInit, null);
+            return new JsConditional(result, ifTrue, ifFalse);
+        }
+
+        return result;
+    }
+
+    private JsExpression orExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = andExpr(inForInit, first);
+        if (ts.matchToken(TokenStream.OR)) {
+            result = new JsBinaryOperation(JsBinaryOperator.OR, result, orExpr(inForInit, null));
+        }
+        return result;
+    }
+
+    private JsExpression andExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = bitOrExpr(inForInit, first);
+        if (ts.matchToken(TokenStream.AND)) {
+            result = new JsBinaryOperation(JsBinaryOperator.AND, result, andExpr(inForInit, null));
+        }
+        return result;
+    }
+
+    private JsExpression bitOrExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = bitXorExpr(inForInit, first);
+        while (ts.matchToken(TokenStream.BITOR)) {
+            result = new JsBinaryOperation(JsBinaryOperator.BIT_OR, result, bitXorExpr(inForInit, null));
+        }
+        return result;
+    }
+
+    private JsExpression bitXorExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = bitAndExpr(inForInit, first);
+        while (ts.matchToken(TokenStream.BITXOR)) {
+            result = new JsBinaryOperation(JsBinaryOperator.BIT_XOR, result, bitAndExpr(inForInit, null));
+        }
+        return result;
+    }
+
+    private JsExpression bitAndExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = eqExpr(inForInit, first);
+        while (ts.matchToken(TokenStream.BITAND)) {
+            result = new JsBinaryOperation(JsBinaryOperator.BIT_AND, result, eqExpr(inForInit, null));
+        }
+        return result;
+    }
+
+    private JsExpression eqExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = relExpr(inForInit, first);
+        while (ts.matchToken(TokenStream.EQOP)) {
+            JsBinaryOperator operator = equalityOperator(ts.getOp());
+            result = new JsBinaryOperation(operator, result, relExpr(inForInit, null));
+        }
+        return result;
+    }
+
+    private JsExpression relExpr(boolean inForInit, @Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = shiftExpr(first);
+        while (ts.matchToken(TokenStream.RELOP)) {
+            int op = ts.getOp();
+            if (inForInit && op == TokenStream.IN) {
+                ts.ungetToken(TokenStream.RELOP);
+                break;
+            }
+
+            result = new JsBinaryOperation(relationalOperator(op), result, shiftExpr(null));
+        }
+        return result;
+    }
+
+    private JsExpression shiftExpr(@Nullable JsExpression first) throws IOException, JavaScriptException {
+        JsExpression result = addExpr(first);
+        while (ts.matchToken(TokenStream.SHOP)) {
+            JsBinaryOperator operator = shiftOperator(ts.getOp());
+            result = new JsBinaryOperation(operator, result, addExpr(null));
+        }
+        return result;
+    }
+
+    private JsExpression addExpr(@Nullable JsExpression first) throws IOException, JavaScriptException {
+        int tt;
+        JsExpression result = mulExpr(first);
+
+        while ((tt = ts.getToken()) == TokenStream.ADD || tt == TokenStream.SUB) {
+            JsBinaryOperator operator = tt == TokenStream.ADD ? JsBinaryOperator.ADD : JsBinaryOperator.SUB;
+            result = new JsBinaryOperation(operator, result, mulExpr(null));
+        }
+        ts.ungetToken(tt);
+
+        return result;
+    }
+
+    private JsExpression mulExpr(@Nullable JsExpression first) throws IOException, JavaScriptException {
+        int tt;
+        JsExpression result = unaryExpr(first);
+
+        while ((tt = ts.peekToken()) == TokenStream.MUL || tt == TokenStream.DIV || tt == TokenStream.MOD) {
+            tt = ts.getToken();
+            JsBinaryOperator operator;
+            switch (tt) {
+                case TokenStream.MUL:
+                    operator = JsBinaryOperator.MUL;
+                    break;
+                case TokenStream.DIV:
+                    operator = JsBinaryOperator.DIV;
+                    break;
+                default:
+                    operator = JsBinaryOperator.MOD;
+                    break;
+            }
+            result = new JsBinaryOperation(operator, result, unaryExpr(null));
+        }
+
+        return result;
+    }
+
+    private JsExpression unaryExpr(@Nullable JsExpression first) throws IOException, JavaScriptException {
+        int lineno;
+        JsExpression result;
+
+        if (first == null) {
+            ts.flags |= TokenStream.TSF_REGEXP;
+            int tt = ts.getToken();
+            ts.flags &= ~TokenStream.TSF_REGEXP;
+
+            switch (tt) {
+                case TokenStream.UNARYOP:
+                    return new JsPrefixOperation(unaryOperator(ts.getOp()), unaryExpr(null));
+
+                case TokenStream.ADD: {
+                    JsExpression operand = unaryExpr(null);
+                    // Unary plus of a number literal is dropped.
+                    // Unlike the mapper, this also applies to a literal, which already had unary plus dropped.
+                    return operand instanceof JsDoubleLiteral ? operand : new JsPrefixOperation(JsUnaryOperator.POS, operand);
+                }
+
+                case TokenStream.SUB:
+                    return new JsPrefixOperation(JsUnaryOperator.NEG, unaryExpr(null));
+
+                case TokenStream.INC:
+                case TokenStream.DEC:
+                    return new JsPrefixOperation(incDecOperator(tt), memberExpr(true));
+
+                case TokenStream.DELPROP: {
+                    JsExpression operand = unaryExpr(null);
+                    if (!(operand instanceof JsNameRef) && !(operand instanceof JsArrayAccess)) {
+                        throw createParserException("'delete' can only operate on property names and array elements");
+                    }
+                    return new JsPrefixOperation(JsUnaryOperator.DELETE, operand);
+                }
+
+                case TokenStream.ERROR:
+                    // Only reached on error. Try to continue.
+                    return scopeContext.globalNameFor("err").makeRef();
+
+                default:
+                    ts.ungetToken(tt);
+                    lineno = ts.getLineno();
+                    result = memberExpr(true);
+                    break;
+            }
+        }
+        else {
+            lineno = firstOperandLineno;
+            result = memberExprTail(true, first);
+        }
+
+        // don't look across a newline boundary for a postfix incop.
+        int peeked;
+        if (((peeked = ts.peekToken()) == TokenStream.INC || peeked == TokenStream.DEC) && ts.getLineno() == lineno) {
+            int pf = ts.getToken();
+            return new JsPostfixOperation(incDecOperator(pf), result);
+        }
+        return result;
+    }
+
+    private void argumentList(List<JsExpression> arguments) throws IOException, JavaScriptException {
+        ts.flags |= TokenStream.TSF_REGEXP;
+        boolean matched = ts.matchToken(TokenStream.GWT);
+        ts.flags &= ~TokenStream.TSF_REGEXP;
+        if (!matched) {
+            do {
+                arguments.add(assignExpr(false, null));
+            }
+            while (ts.matchToken(TokenStream.COMMA));
+
+            mustMatchToken(TokenStream.GWT, "msg.no.paren.arg");
+        }
+    }
+
+    private JsExpression memberExpr(boolean allowCallSyntax) throws IOException, JavaScriptException {
+        JsExpression result;
+
+        // Check for new expressions.
+        ts.flags |= TokenStream.TSF_REGEXP;
+        int tt = ts.peekToken();
+        ts.flags &= ~TokenStream.TSF_REGEXP;
+        if (tt == TokenStream.NEW) {
+            // Eat the NEW token.
+            ts.getToken();
+
+            JsNew jsNew = new JsNew(memberExpr(false));
+            if (ts.matchToken(TokenStream.LP)) {
+                // Add the arguments, if any are supplied.
+                argumentList(jsNew.getArguments());
+            }
+
+            // Experimental syntax: allow an object literal to follow a new expression,
+            // the object literal will be passed as an additional argument to the constructor.
+            if (ts.peekToken() == TokenStream.LC) {
+                jsNew.getArguments().add(primaryExpr());
+            }
+            result = jsNew;
+        }
+        else {
+            result = primaryExpr();
+        }
+
+        return memberExprTail(allowCallSyntax, result);
+    }
+
+    private JsExpression memberExprTail(boolean allowCallSyntax, JsExpression result) throws IOException, JavaScriptException {
+        lastExprEndLine = ts.getLineno();
+        int tt;
+        while ((tt = ts.getToken()) > TokenStream.EOF) {
+            if (tt == TokenStream.DOT) {
+                mustMatchToken(TokenStream.NAME, "msg.no.name.after.dot");
+                JsNameRef nameRef = scopeContext.referenceFor(ts.getString());
+                nameRef.setQualifier(result);
+                result = nameRef;
+                lastExprEndLine = ts.getLineno();
+            }
+            else if (tt == TokenStream.LB) {
+                result = new JsArrayAccess(result, expr(false));
+
+                mustMatchToken(TokenStream.RB, "msg.no.bracket.index");
+                lastExprEndLine = ts.getLineno();
+            }
+            else if (allowCallSyntax && tt == TokenStream.LP) {
+                List<JsExpression> arguments = new SmartList<JsExpression>();
+                argumentList(arguments);
+                result = new JsInvocation(result, arguments);
+                lastExprEndLine = ts.getLineno();
+            }
+            else {
+                ts.ungetToken(tt);
+                break;
+            }
+        }
+        return result;
+    }
+
+    private JsExpression primaryExpr() throws IOException, JavaScriptException {
+        ts.flags |= TokenStream.TSF_REGEXP;
+        int tt = ts.getToken();
+        ts.flags &= ~TokenStream.TSF_REGEXP;
+
+        switch (tt) {
+            case TokenStream.FUNCTION:
+                return function(true);
+
+            case TokenStream.LB: {
+                JsArrayLiteral arrayLiteral = new JsArrayLiteral();
+
+                ts.flags |= TokenStream.TSF_REGEXP;
+                boolean matched = ts.matchToken(TokenStream.RB);
+                ts.flags &= ~TokenStream.TSF_REGEXP;
+
+                if (!matched) {
+                    do {
+                        ts.flags |= TokenStream.TSF_REGEXP;
+                        tt = ts.peekToken();
+                        ts.flags &= ~TokenStream.TSF_REGEXP;
+
+                        if (tt == TokenStream.RB) { // to fix [,,,].length behavior...
+                            break;
+                        }
+
+                        if (tt == TokenStream.COMMA) {
+                            arrayLiteral.getExpressions().add(JsLiteral.UNDEFINED);
+                        }
+                        else {
+                            arrayLiteral.getExpressions().add(assignExpr(false, null));
+                        }
+                    }
+                    while (ts.matchToken(TokenStream.COMMA));
+                    mustMatchToken(TokenStream.RB, "msg.no.bracket.arg");
+                }
+
+                return arrayLiteral;
+            }
+
+            case TokenStream.LC: {
+                JsObjectLiteral objectLiteral = new JsObjectLiteral();
+
+                if (!ts.matchToken(TokenStream.RC)) {
+                    commaloop:
+                    do {
+                        JsExpression property;
+
+                        tt = ts.getToken();
+                        switch (tt) {
+                            // map NAMEs to STRINGs in object literal context.
+                            case TokenStream.NAME:
+                            case TokenStream.STRING:
+                                property = program.getStringLiteral(ts.getString());
+                                break;
+                            case TokenStream.NUMBER_INT:
+                                property = program.getNumberLiteral((int) ts.getNumber());
+                                break;
+                            case TokenStream.NUMBER:
+                                property = program.getNumberLiteral(ts.getNumber());
+                                break;
+                            case TokenStream.RC:
+                                // trailing comma is OK.
+                                ts.ungetToken(tt);
+                                break commaloop;
+                            default:
+                                reportError("msg.bad.prop");
+                                break commaloop;
+                        }
+                        mustMatchToken(TokenStream.COLON, "msg.no.colon.prop");
+
+                        JsExpression value = assignExpr(false, null);
+                        objectLiteral.getPropertyInitializers().add(new JsPropertyInitializer(property, value));
+                    }
+                    while (ts.matchToken(TokenStream.COMMA));
+
+                    mustMatchToken(TokenStream.RC, "msg.no.brace.prop");
+                }
+                return objectLiteral;
+            }
+
+            case TokenStream.LP: {
+                JsExpression result = expr(false);
+                mustMatchToken(TokenStream.GWT, "msg.no.paren");
+                return result;
+            }
+
+            case TokenStream.NAME:
+                return scopeContext.globalNameFor(ts.getString()).makeRef();
+
+            case TokenStream.NUMBER_INT:
+                return program.getNumberLiteral((int) ts.getNumber());
+
+            case TokenStream.NUMBER:
+                return program.getNumberLiteral(ts.getNumber());
+
+            case TokenStream.STRING:
+                return program.getStringLiteral(ts.getString());
+
+            case TokenStream.REGEXP: {
+                String flags = ts.regExpFlags;
+                ts.regExpFlags = null;
+
+                JsRegExp regExp = new JsRegExp();
+                regExp.setPattern(ts.getString());
+                if (flags.length() != 0) {
+                    regExp.setFlags(flags);
+                }
+                return regExp;
+            }
+
+            case TokenStream.PRIMARY:
+                return primary(ts.getOp());
+
+            case TokenStream.ERROR:
+                // the scanner or one of its subroutines reported the error.
+                break;
+
+            default:
+                reportError("msg.syntax");
+                break;
+        }
+        return null; // should never reach here
+    }
+
+    private JsExpression primary(int op) {
+        switch (op) {
+            case TokenStream.THIS:
+                return JsLiteral.THIS;
+            case TokenStream.TRUE:
+                return JsBooleanLiteral.TRUE;
+            case TokenStream.FALSE:
+                return JsBooleanLiteral.FALSE;
+            case TokenStream.NULL:
+                return JsNullLiteral.NULL;
+            case TokenStream.UNDEFINED:
+                return JsLiteral.UNDEFINED;
+            default:
+                throw createParserException("Unknown primary: " + op);
+        }
+    }
+
+    private JsBinaryOperator assignmentOperator(int op) {
+        switch (op) {
+            case TokenStream.NOP:
+                return JsBinaryOperator.ASG;
+            case TokenStream.ADD:
+                return JsBinaryOperator.ASG_ADD;
+            case TokenStream.SUB:
+                return JsBinaryOperator.ASG_SUB;
+            case TokenStream.MUL:
+                return JsBinaryOperator.ASG_MUL;
+            case TokenStream.DIV:
+                return JsBinaryOperator.ASG_DIV;
+            case TokenStream.MOD:
+                return JsBinaryOperator.ASG_MOD;
+            case TokenStream.BITAND:
+                return JsBinaryOperator.ASG_BIT_AND;
+            case TokenStream.BITOR:
+                return JsBinaryOperator.ASG_BIT_OR;
+            case TokenStream.BITXOR:
+                return JsBinaryOperator.ASG_BIT_XOR;
+            case TokenStream.LSH:
+                return JsBinaryOperator.ASG_SHL;
+            case TokenStream.RSH:
+                return JsBinaryOperator.ASG_SHR;
+            case TokenStream.URSH:
+                return JsBinaryOperator.ASG_SHRU;
+            default:
+                throw createParserException("Unknown assignment operator variant: " + op);
+        }
+    }
+
+    private JsBinaryOperator equalityOperator(int op) {
+        switch (op) {
+            case TokenStream.EQ:
+                return JsBinaryOperator.EQ;
+            case TokenStream.NE:
+                return JsBinaryOperator.NEQ;
+            case TokenStream.SHEQ:
+                return JsBinaryOperator.REF_EQ;
+            case TokenStream.SHNE:
+                return JsBinaryOperator.REF_NEQ;
+            default:
+                throw createParserException("Unknown equality operator variant: " + op);
+        }
+    }
+
+    private JsBinaryOperator relationalOperator(int op) {
+        switch (op) {
+            case TokenStream.LT:
+                return JsBinaryOperator.LT;
+            case TokenStream.LE:
+                return JsBinaryOperator.LTE;
+            case TokenStream.GT:
+                return JsBinaryOperator.GT;
+            case TokenStream.GE:
+                return JsBinaryOperator.GTE;
+            case TokenStream.INSTANCEOF:
+                return JsBinaryOperator.INSTANCEOF;
+            case TokenStream.IN:
+                return JsBinaryOperator.INOP;
+            default:
+                throw createParserException("Unknown relational operator variant: " + op);
+        }
+    }
+
+    private JsBinaryOperator shiftOperator(int op) {
+        switch (op) {
+            case TokenStream.LSH:
+                return JsBinaryOperator.SHL;
+            case TokenStream.RSH:
+                return JsBinaryOperator.SHR;
+            case TokenStream.URSH:
+                return JsBinaryOperator.SHRU;
+            default:
+                throw createParserException("Unknown shift operator variant: " + op);
+        }
+    }
+
+    private JsUnaryOperator unaryOperator(int op) {
+        switch (op) {
+            case TokenStream.NOT:
+                return JsUnaryOperator.NOT;
+            case TokenStream.BITNOT:
+                return JsUnaryOperator.BIT_NOT;
+            case TokenStream.TYPEOF:
+                return JsUnaryOperator.TYPEOF;
+            case TokenStream.VOID:
+                return JsUnaryOperator.VOID;
+            default:
+                throw createParserException("Unknown unary operator variant: " + op);
+        }
+    }
+
+    private static JsUnaryOperator incDecOperator(int tt) {
+        return tt == TokenStream.INC ? JsUnaryOperator.INC : JsUnaryOperator.DEC;
+    }
+}
@@ -18,70 +18,41 @@ package org.jetbrains.kotlin.js.parser
 
 import com.google.dart.compiler.common.*
 import com.google.dart.compiler.backend.js.ast.*
-import com.google.gwt.dev.js.*
 import com.google.gwt.dev.js.rhino.*
 
-import com.intellij.util.*
 import java.io.*
-import java.util.*
 
 private val FAKE_SOURCE_INFO = SourceInfoImpl(null, 0, 0, 0, 0)
 
 public fun parse(code: String, reporter: ErrorReporter, scope: JsScope): List<JsStatement> {
         val insideFunction = scope is JsFunctionScope
-        val node = parse(code, 0, reporter, insideFunction, Parser::parse)
-        return node.toJsAst(scope, JsAstMapper::mapStatements)
+        return parse(code, 0, reporter, scope, insideFunction) { parse()!! }
 }
 
 public fun parseFunction(code: String, offset: Int, reporter: ErrorReporter, scope: JsScope): JsFunction =
-        parse(code, offset, reporter, insideFunction = false) {
-            addObserver(FunctionParsingObserver())
-            primaryExpr(it)
-        }.toJsAst(scope, JsAstMapper::mapFunction)
-
-private class FunctionParsingObserver : Observer {
-    var functionsStarted = 0
-
-    override fun update(o: Observable?, arg: Any?): Unit =
-            when (arg) {
-                is ParserEvents.OnFunctionParsingStart -> {
-                    functionsStarted++
-                }
-                is ParserEvents.OnFunctionParsingEnd -> {
-                    functionsStarted--
-
-                    if (functionsStarted == 0) {
-                        arg.tokenStream.ungetToken(TokenStream.EOF)
-                    }
-                }
-            }
-}
+        parse(code, offset, reporter, scope, insideFunction = false) { parseFunction() }
 
 inline
-private fun parse(
+private fun parse<T>(
         code: String,
         offset: Int,
         reporter: ErrorReporter,
+        scope: JsScope,
         insideFunction: Boolean,
-        parseAction: Parser.(TokenStream)->Any
-): Node {
+        parseAction: JsAstParser.()->T
+): T {
     Context.enter().setErrorReporter(reporter)
 
     try {
         val ts = TokenStream(StringReader(code, offset), "<parser>", FAKE_SOURCE_INFO.getLine())
-        val parser = Parser(IRFactory(ts), insideFunction)
-        return parser.parseAction(ts) as Node
+        return JsAstParser(ts, scope, insideFunction).parseAction()
     } finally {
         Context.exit()
     }
 }
 
-inline
-private fun Node.toJsAst<T>(scope: JsScope, mapAction: JsAstMapper.(Node)->T): T =
-        JsAstMapper(scope).mapAction(this)
-
 private fun StringReader(string: String, offset: Int): Reader {
     val reader = StringReader(string)
     reader.skip(offset.toLong())
     return reader
-}
\ No newline at end of file
+}
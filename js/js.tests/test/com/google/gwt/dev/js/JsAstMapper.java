@@ -26,6 +26,12 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Maps Rhino {@link Node} trees to js.ast nodes.
+ *
+ * The compiler parses with {@link JsAstParser} instead, this mapper and the Rhino {@link Parser} are kept only as the test oracle
+ * it is checked against, see JsAstParserTest.
+ */
 public class JsAstMapper {
 
     private final JsProgram program;
@@ -47,6 +47,9 @@ import java.util.Observable;
  * 
  * It is based on the C source files jsparse.c and jsparse.h in the jsref
  * package.
+ *
+ * The compiler parses with {@link JsAstParser}, this parser is kept in tests as a part of its oracle,
+ * see {@link com.google.gwt.dev.js.JsAstMapper}.
  * 
  * @see TokenStream
  */
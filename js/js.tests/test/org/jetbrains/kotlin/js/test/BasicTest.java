@@ -225,6 +225,31 @@ public abstract class BasicTest extends KotlinTestWithEnvironment {
         return false;
     }
 
+    protected boolean shouldUseTypedArrays() {
+        return false;
+    }
+
+    protected boolean shouldMinify() {
+        return false;
+    }
+
+    protected boolean shouldEliminateDeadCode() {
+        return false;
+    }
+
+    @NotNull
+    protected List<String> getDeclarationsToKeep() {
+        return Collections.emptyList();
+    }
+
+    protected boolean shouldSplitOutput() {
+        return false;
+    }
+
+    protected int getTranslationThreads() {
+        return 1;
+    }
+
     protected void processJsProgram(@NotNull JsProgram program, @NotNull List<JetFile> jetFiles) throws Exception {
         for (JetFile file : jetFiles) {
             String text = file.getText();
@@ -303,7 +328,7 @@ public abstract class BasicTest extends KotlinTestWithEnvironment {
     }
 
     @NotNull
-    private Config createConfig(@NotNull Project project, @NotNull String moduleId, @NotNull EcmaVersion ecmaVersion, @Nullable List<String> libraries) {
+    protected Config createConfig(@NotNull Project project, @NotNull String moduleId, @NotNull EcmaVersion ecmaVersion, @Nullable List<String> libraries) {
         List<String> librariesWithStdlib = new ArrayList<String>(LibrarySourcesConfig.JS_STDLIB);
         if (libraries != null) {
             librariesWithStdlib.addAll(libraries);
@@ -315,6 +340,12 @@ public abstract class BasicTest extends KotlinTestWithEnvironment {
                 .inlineEnabled(IS_INLINE_ENABLED)
                 .isUnitTestConfig(shouldBeTranslateAsUnitTestClass())
                 .metaInfo(shouldGenerateMetaInfo())
+                .deadCodeElimination(shouldEliminateDeadCode())
+                .declarationsToKeep(getDeclarationsToKeep())
+                .minificationEnabled(shouldMinify())
+                .typedArraysEnabled(shouldUseTypedArrays())
+                .splitOutput(shouldSplitOutput())
+                .translationThreads(getTranslationThreads())
                 .build();
     }
 
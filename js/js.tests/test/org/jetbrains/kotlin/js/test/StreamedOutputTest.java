@@ -0,0 +1,129 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.test;
+
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.kotlin.backend.common.output.OutputFile;
+import org.jetbrains.kotlin.backend.common.output.OutputFileCollection;
+import org.jetbrains.kotlin.cli.common.output.outputUtils.OutputUtilsPackage;
+import org.jetbrains.kotlin.js.config.Config;
+import org.jetbrains.kotlin.js.facade.K2JSTranslator;
+import org.jetbrains.kotlin.js.facade.MainCallParameters;
+import org.jetbrains.kotlin.js.facade.TranslationResult;
+import org.jetbrains.kotlin.psi.JetFile;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks that the files written by {@link TranslationResult.Success#writeOutputFiles} while the program is generated
+ * are the same as the ones built in memory by {@link TranslationResult.Success#getOutputFiles}.
+ */
+public final class StreamedOutputTest extends SingleFileTranslationTest {
+    private static final String STREAMED_DIR = "streamed";
+
+    private File outputPrefixFile;
+    private File outputPostfixFile;
+
+    public StreamedOutputTest() {
+        super("outputPrefixPostfix/");
+    }
+
+    @Override
+    protected boolean shouldGenerateSourceMap() {
+        return true;
+    }
+
+    @Override
+    protected boolean shouldGenerateMetaInfo() {
+        return true;
+    }
+
+    @Override
+    protected File getOutputPrefixFile() {
+        return outputPrefixFile;
+    }
+
+    @Override
+    protected File getOutputPostfixFile() {
+        return outputPostfixFile;
+    }
+
+    public void testSimple() throws Exception {
+        doTest("simple.kt");
+    }
+
+    public void testSimpleWithPrefix() throws Exception {
+        outputPrefixFile = new File(getInputFilePath("simpleWithPrefix.kt.prefix"));
+        doTest("simpleWithPrefix.kt");
+    }
+
+    public void testSimpleWithPrefixAndPostfix() throws Exception {
+        outputPrefixFile = new File(getInputFilePath("simpleWithPrefixAndPostfix.kt.prefix"));
+        outputPostfixFile = new File(getInputFilePath("simpleWithPrefixAndPostfix.kt.postfix"));
+        doTest("simpleWithPrefixAndPostfix.kt");
+    }
+
+    private void doTest(@NotNull String filename) throws Exception {
+        // Writes the output of both kinds, see translateFiles below, and runs the program built in memory
+        checkFooBoxIsOk(filename);
+    }
+
+    @Override
+    protected void translateFiles(
+            @NotNull List<JetFile> jetFiles,
+            @NotNull File outputFile,
+            @NotNull MainCallParameters mainCallParameters,
+            @NotNull Config config
+    ) throws Exception {
+        TranslationResult translationResult = new K2JSTranslator(config).translate(jetFiles, mainCallParameters);
+        assertTrue("Translation failed", translationResult instanceof TranslationResult.Success);
+        TranslationResult.Success successResult = (TranslationResult.Success) translationResult;
+
+        File outputDir = outputFile.getParentFile();
+        OutputFileCollection outputFiles = successResult.getOutputFiles(outputFile, getOutputPrefixFile(), getOutputPostfixFile());
+        OutputUtilsPackage.writeAllTo(outputFiles, outputDir);
+
+        File streamedDir = new File(outputDir, STREAMED_DIR);
+        FileUtil.delete(streamedDir);
+        List<File> writtenFiles = successResult.writeOutputFiles(new File(streamedDir, outputFile.getName()),
+                                                                 getOutputPrefixFile(), getOutputPostfixFile());
+
+        List<File> writtenAbsoluteFiles = new ArrayList<File>();
+        for (File file : writtenFiles) {
+            writtenAbsoluteFiles.add(file.getAbsoluteFile());
+        }
+
+        List<String> expectedNames = new ArrayList<String>();
+        for (OutputFile file : outputFiles.asList()) {
+            expectedNames.add(file.getRelativePath());
+            File streamedFile = new File(streamedDir, file.getRelativePath());
+            assertTrue("Not written: " + streamedFile, writtenAbsoluteFiles.contains(streamedFile.getAbsoluteFile()));
+            assertEquals("Streamed output differs: " + streamedFile, file.asText(), FileUtil.loadFile(streamedFile, "UTF-8"));
+        }
+
+        // No temporary files are left behind
+        List<String> streamedNames = Arrays.asList(streamedDir.list());
+        Collections.sort(expectedNames);
+        Collections.sort(streamedNames);
+        assertEquals(expectedNames, streamedNames);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.test.ast
+
+import com.google.dart.compiler.backend.js.ast.*
+import com.google.gwt.dev.js.JsAstMapper
+import com.google.gwt.dev.js.ThrowExceptionOnErrorReporter
+import com.google.gwt.dev.js.parserExceptions.JsParserException
+import com.google.gwt.dev.js.rhino.*
+import junit.framework.TestCase
+import org.jetbrains.kotlin.js.config.LibrarySourcesConfig
+import org.jetbrains.kotlin.js.parser.ParserEvents
+import org.jetbrains.kotlin.js.parser.parse
+import org.jetbrains.kotlin.js.parser.parseFunction
+import org.jetbrains.kotlin.js.test.BasicTest
+import org.jetbrains.kotlin.utils.LibraryUtils
+import java.io.File
+import java.io.StringReader
+import java.util.IdentityHashMap
+import java.util.Observable
+import java.util.Observer
+import java.util.Stack
+import java.util.regex.Pattern
+
+/**
+ * Checks, that [JsAstParser] builds the same trees as Rhino [Parser] followed by [JsAstMapper], which are kept in tests as the oracle.
+ * Besides the printed trees, compares what every name reference is bound to.
+ */
+public class JsAstParserTest : TestCase() {
+    private val FUNCTION_START = Pattern.compile("(?<![\\w$.'\"])function\\s*[\\w$]*\\s*\\(")
+
+    public fun testRuntimeLibraries() {
+        for (fileName in listOf("kotlin_lib.js", "kotlin_lib_ecma5.js", "maps.js", "long.js")) {
+            val path = BasicTest.TEST_DATA_DIR_PATH + fileName
+            checkLibraryFile(File(path).readText(), path)
+        }
+    }
+
+    public fun testStdLib() {
+        val libraries = LibrarySourcesConfig.JS_STDLIB.map { File(it) }
+        var filesChecked = 0
+
+        LibraryUtils.traverseJsLibraries(libraries) { content, path ->
+            checkLibraryFile(content, path)
+            filesChecked++
+        }
+
+        assertTrue("No JavaScript files found in $libraries", filesChecked > 0)
+    }
+
+    // Names are bound in source order: a use before the var declaration is bound to the global name
+    public fun testHoisting() {
+        checkBindings("""
+            function f(a) {
+                x = a;
+                var x;
+                g(x);
+                function g(b) {
+                    return a + b;
+                }
+            }
+        """,
+        "x -> global",
+        "a -> function#0",
+        "g -> global",
+        "x -> function#0",
+        "a -> function#0",
+        "b -> function#1")
+    }
+
+    // Unlike the mapper, the parser binds names of the body before the ones of the condition
+    public fun testDoWhile() {
+        checkBindings("""
+            function f() {
+                do {
+                    var x = next();
+                } while (x);
+                return x;
+            }
+        """,
+        "next -> global",
+        "x -> function#0",
+        "x -> function#0")
+    }
+
+    public fun testNestedFunctions() {
+        checkBindings("""
+            function outer(a) {
+                var b = a;
+                return function (c) {
+                    l: while (c) {
+                        try {
+                            if (a + b) break l;
+                        }
+                        catch (e) {
+                            c = e;
+                        }
+                    }
+                    return function (d) {
+                        return b + c + d;
+                    };
+                };
+            }
+        """,
+        "a -> function#0",
+        "c -> function#1",
+        "a -> function#0",
+        "b -> function#0",
+        "l -> label#0",
+        "c -> function#1",
+        "e -> catch#0",
+        "b -> function#0",
+        "c -> function#1",
+        "d -> function#2")
+    }
+
+    private fun checkBindings(code: String, vararg expected: String) {
+        checkLibraryFile(code, getName())
+
+        val scope = newScope()
+        val statements = parse(code, ThrowExceptionOnErrorReporter, scope)
+        assertEquals(expected.joinToString("\n"), NameBindingPrinter(scope, bindConditionsOfDoWhile = true).print(statements))
+    }
+
+    private fun checkLibraryFile(code: String, path: String) {
+        val expected = resultOf { parseWithMapper(code, it) }
+        val actual = resultOf { parse(code, ThrowExceptionOnErrorReporter, it) }
+        assertEquals(path, expected, actual)
+
+        val matcher = FUNCTION_START.matcher(code)
+        while (matcher.find()) {
+            val offset = matcher.start()
+            val expectedFunction = resultOf { listOf(parseFunctionWithMapper(code, offset, it)) }
+            val actualFunction = resultOf { listOf(parseFunction(code, offset, ThrowExceptionOnErrorReporter, it)) }
+            assertEquals("$path:$offset", expectedFunction, actualFunction)
+        }
+    }
+
+    private fun parseWithMapper(code: String, scope: JsScope) =
+            withTokenStream(code, 0) { ts ->
+                val node = Parser(IRFactory(ts), false).parse(ts) as Node
+                JsAstMapper(scope).mapStatements(node)
+            }
+
+    private fun parseFunctionWithMapper(code: String, offset: Int, scope: JsScope) =
+            withTokenStream(code, offset) { ts ->
+                val parser = Parser(IRFactory(ts), false)
+                parser.addObserver(FunctionParsingObserver(ts))
+                JsAstMapper(scope).mapFunction(parser.primaryExpr(ts) as Node)
+            }
+
+    private fun withTokenStream<T>(code: String, offset: Int, action: (TokenStream) -> T): T {
+        Context.enter().setErrorReporter(ThrowExceptionOnErrorReporter)
+
+        try {
+            val reader = StringReader(code)
+            reader.skip(offset.toLong())
+            return action(TokenStream(reader, "<parser>", 0))
+        }
+        finally {
+            Context.exit()
+        }
+    }
+
+    /**
+     * Prints parsed nodes followed by their name bindings.
+     * Conditions of do-while are bound differently by the mapper, so they are left out of the bindings.
+     */
+    private fun resultOf(action: (JsScope) -> List<JsNode>): String {
+        val scope = newScope()
+        return try {
+            val nodes = action(scope)
+            nodes.joinToString("\n") + "\n\n" + NameBindingPrinter(scope, bindConditionsOfDoWhile = false).print(nodes)
+        }
+        catch (e: JsParserException) {
+            "error: ${e.getMessage()}"
+        }
+    }
+
+    private fun newScope() = JsRootScope(JsProgram("<test>"))
+
+    /**
+     * Stops Rhino parser right after the outermost function, like [JsAstParser.parseFunction] does.
+     */
+    private class FunctionParsingObserver(private val tokenStream: TokenStream) : Observer {
+        var functionsStarted = 0
+
+        override fun update(o: Observable?, arg: Any?) {
+            when (arg) {
+                is ParserEvents.OnFunctionParsingStart -> functionsStarted++
+                is ParserEvents.OnFunctionParsingEnd -> {
+                    functionsStarted--
+
+                    if (functionsStarted == 0) {
+                        tokenStream.ungetToken(TokenStream.EOF)
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints a line per bound name reference with the node declaring the name: a function, a catch clause or a label,
+     * numbered in the order of visiting, or the global scope.
+     */
+    private class NameBindingPrinter(rootScope: JsScope, private val bindConditionsOfDoWhile: Boolean) : RecursiveJsVisitor() {
+        private val scopes = Stack<JsScope>()
+        private val scopeNames = IdentityHashMap<JsScope, String>()
+        private val labelNames = IdentityHashMap<JsName, String>()
+        private var functionCount = 0
+        private var catchCount = 0
+        private val lines = arrayListOf<String>()
+
+        init {
+            scopes.push(rootScope)
+        }
+
+        fun print(nodes: List<JsNode>): String {
+            acceptList(nodes)
+            return lines.joinToString("\n")
+        }
+
+        override fun visitFunction(x: JsFunction) {
+            scopeNames[x.getScope()] = "function#${functionCount++}"
+            withScope(x.getScope()) { super.visitFunction(x) }
+        }
+
+        override fun visitCatch(x: JsCatch) {
+            scopeNames[x.getScope()] = "catch#${catchCount++}"
+            withScope(x.getScope()) { super.visitCatch(x) }
+        }
+
+        override fun visitLabel(x: JsLabel) {
+            labelNames[x.getName()] = "label#${labelNames.size()}"
+            super.visitLabel(x)
+        }
+
+        override fun visitDoWhile(x: JsDoWhile) {
+            accept(x.getBody())
+            if (bindConditionsOfDoWhile) {
+                accept(x.getCondition())
+            }
+        }
+
+        override fun visitNameRef(nameRef: JsNameRef) {
+            val name = nameRef.getName()
+            if (name != null) {
+                lines.add("${name.getIdent()} -> ${getDeclaration(name)}")
+            }
+            super.visitNameRef(nameRef)
+        }
+
+        private fun getDeclaration(name: JsName): String {
+            labelNames[name]?.let { return it }
+
+            for (scope in sequence(scopes.peek()) { it.getParent() }) {
+                if (scope.findName(name.getIdent()) === name && scope.getParent()?.findName(name.getIdent()) !== name) {
+                    return if (scope is JsRootScope) "global" else scopeNames[scope] ?: scope.getDescription()
+                }
+            }
+
+            return "unbound"
+        }
+
+        private fun withScope(scope: JsScope, action: () -> Unit) {
+            scopes.push(scope)
+            try {
+                action()
+            }
+            finally {
+                scopes.pop()
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.test.semantics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.kotlin.js.test.SingleFileTranslationTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Removed and retained declarations are checked by CHECK_HAS_NO_PROPERTY and CHECK_HAS_PROPERTY directives in the test data.
+ * The box function is called from the outside of the module, so it has to be kept explicitly.
+ */
+public final class DeadCodeEliminationTest extends SingleFileTranslationTest {
+
+    public DeadCodeEliminationTest() {
+        super("deadCodeElimination/");
+    }
+
+    @Override
+    protected boolean shouldEliminateDeadCode() {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    protected List<String> getDeclarationsToKeep() {
+        return Arrays.asList(TEST_FUNCTION, "kept");
+    }
+
+    public void testUnusedFunction() throws Exception {
+        checkFooBoxIsOk();
+    }
+
+    public void testUnusedClass() throws Exception {
+        checkFooBoxIsOk();
+    }
+
+    public void testPackageInitializer() throws Exception {
+        checkFooBoxIsOk();
+    }
+
+    public void testInlineFunction() throws Exception {
+        checkFooBoxIsOk();
+    }
+
+    public void testDeclarationToKeep() throws Exception {
+        checkFooBoxIsOk();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.test.semantics;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.kotlin.backend.common.output.OutputFileCollection;
+import org.jetbrains.kotlin.cli.common.output.outputUtils.OutputUtilsPackage;
+import org.jetbrains.kotlin.js.config.Config;
+import org.jetbrains.kotlin.js.config.EcmaVersion;
+import org.jetbrains.kotlin.js.facade.IncrementalTranslationCache;
+import org.jetbrains.kotlin.js.facade.K2JSTranslator;
+import org.jetbrains.kotlin.js.facade.MainCallParameters;
+import org.jetbrains.kotlin.js.facade.TranslationResult;
+import org.jetbrains.kotlin.js.test.MultipleFilesTranslationTest;
+import org.jetbrains.kotlin.js.test.rhino.RhinoFunctionResultChecker;
+import org.jetbrains.kotlin.psi.JetFile;
+import org.jetbrains.kotlin.psi.JetPsiFactory;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Translates a module, changes one of its files and translates it again with the same {@link IncrementalTranslationCache}.
+ * The result should be the same as the one of a clean translation, and only the expected files should be translated anew.
+ *
+ * The changed text of a file "x.kt" is in "x.kt.after", which starts with a comment listing the files to be translated again.
+ */
+public final class IncrementalTranslationTest extends MultipleFilesTranslationTest {
+    private static final String AFTER_EXT = ".after";
+    private static final String RETRANSLATED_DIRECTIVE = "// RETRANSLATED:";
+
+    public IncrementalTranslationTest() {
+        super("incrementalTranslation/");
+    }
+
+    public void testFunctionBodyChanged() throws Exception {
+        doTest("functionBodyChanged");
+    }
+
+    public void testSignatureChanged() throws Exception {
+        doTest("signatureChanged");
+    }
+
+    public void testInlineFunctionChanged() throws Exception {
+        doTest("inlineFunctionChanged");
+    }
+
+    private void doTest(@NotNull String dirName) throws Exception {
+        Map<String, String> before = new TreeMap<String, String>();
+        Map<String, String> after = new TreeMap<String, String>();
+        Set<String> expectedRetranslated = new TreeSet<String>();
+
+        File[] files = new File(getInputFilePath(dirName)).listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            String text = FileUtil.loadFile(file, true);
+            if (file.getName().endsWith(AFTER_EXT)) {
+                after.put(StringUtil.trimEnd(file.getName(), AFTER_EXT), text);
+                String directive = StringUtil.substringBefore(text, "\n");
+                assertTrue("No " + RETRANSLATED_DIRECTIVE + " in " + file, directive != null && directive.startsWith(RETRANSLATED_DIRECTIVE));
+                for (String name : StringUtil.split(directive.substring(RETRANSLATED_DIRECTIVE.length()), ",")) {
+                    expectedRetranslated.add(name.trim());
+                }
+            }
+            else {
+                before.put(file.getName(), text);
+            }
+        }
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                after.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Config config = createConfig(getProject(), TEST_MODULE, EcmaVersion.v5, null);
+        IncrementalTranslationCache cache = new IncrementalTranslationCache();
+
+        translate(before, config, cache);
+        assertEquals(before.keySet(), getFileNames(cache.getLastTranslatedFiles()));
+
+        TranslationResult.Success incremental = translate(after, config, cache);
+        assertEquals(expectedRetranslated, getFileNames(cache.getLastTranslatedFiles()));
+
+        TranslationResult.Success clean = translate(after, config, new IncrementalTranslationCache());
+        assertEquals("Incremental translation differs from the clean one", clean.getCode(), incremental.getCode());
+
+        for (EcmaVersion version : DEFAULT_ECMA_VERSIONS) {
+            File outputFile = new File(getOutputFilePath(dirName, version));
+            OutputFileCollection outputFiles = incremental.getOutputFiles(outputFile, null, null);
+            OutputUtilsPackage.writeAllTo(outputFiles, outputFile.getParentFile());
+        }
+        runRhinoTests(dirName, DEFAULT_ECMA_VERSIONS, new RhinoFunctionResultChecker(TEST_MODULE, TEST_PACKAGE, TEST_FUNCTION, "OK"));
+    }
+
+    @NotNull
+    private TranslationResult.Success translate(
+            @NotNull Map<String, String> texts,
+            @NotNull Config config,
+            @NotNull IncrementalTranslationCache cache
+    ) throws Exception {
+        JetPsiFactory psiFactory = new JetPsiFactory(getProject());
+        List<JetFile> files = new ArrayList<JetFile>();
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            files.add(psiFactory.createPhysicalFile(entry.getKey(), entry.getValue()));
+        }
+
+        TranslationResult result = new K2JSTranslator(config, cache).translate(files, MainCallParameters.noCall());
+        assertTrue("Translation failed: " + result.getDiagnostics().all(), result instanceof TranslationResult.Success);
+        return (TranslationResult.Success) result;
+    }
+
+    @NotNull
+    private static Set<String> getFileNames(@NotNull Set<String> paths) {
+        Set<String> names = new TreeSet<String>();
+        for (String path : paths) {
+            names.add(new File(path).getName());
+        }
+        return names;
+    }
+}
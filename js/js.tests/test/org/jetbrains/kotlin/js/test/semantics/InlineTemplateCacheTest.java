@@ -0,0 +1,95 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.test.semantics;
+
+import com.google.dart.compiler.backend.js.ast.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.kotlin.js.inline.FunctionReader;
+import org.jetbrains.kotlin.js.test.SingleFileTranslationTest;
+import org.jetbrains.kotlin.psi.JetFile;
+
+import java.util.*;
+
+/**
+ * Translates a module twice in the same JVM against the stdlib. The second translation should reuse the inline functions
+ * parsed by the first one, and neither of them should reach or change the cached templates: inlined code is built from copies.
+ */
+public final class InlineTemplateCacheTest extends SingleFileTranslationTest {
+    private static final String FILE_NAME = "closure.kt";
+
+    private final List<JsProgram> programs = new ArrayList<JsProgram>();
+
+    public InlineTemplateCacheTest() {
+        super("inlineStdlib/");
+    }
+
+    public void testTwoTranslations() throws Exception {
+        checkFooBoxIsOk(FILE_NAME);
+        List<JsFunction> templates = FunctionReader.getCachedTemplates();
+        assertFalse("Inline functions of stdlib are not cached", templates.isEmpty());
+        List<String> templateTexts = getTexts(templates);
+        int parsedCount = FunctionReader.getParsedTemplateCount();
+
+        checkFooBoxIsOk(FILE_NAME);
+        assertEquals("Cached functions are parsed again", parsedCount, FunctionReader.getParsedTemplateCount());
+        assertEquals("Cached functions are changed by translation", templateTexts, getTexts(FunctionReader.getCachedTemplates()));
+
+        Set<JsNode> templateNodes = collectMutableNodes(templates);
+        assertTrue(programs.size() > 1);
+        for (JsProgram program : programs) {
+            Set<JsNode> programNodes = collectMutableNodes(Collections.singletonList(program));
+            programNodes.retainAll(templateNodes);
+            assertTrue("Translated program contains nodes of cached functions: " + programNodes, programNodes.isEmpty());
+        }
+    }
+
+    @Override
+    protected void processJsProgram(@NotNull JsProgram program, @NotNull List<JetFile> jetFiles) throws Exception {
+        super.processJsProgram(program, jetFiles);
+        programs.add(program);
+    }
+
+    @NotNull
+    private static List<String> getTexts(@NotNull List<JsFunction> functions) {
+        List<String> texts = new ArrayList<String>();
+        for (JsFunction function : functions) {
+            texts.add(function.toString());
+        }
+        // The order of cached functions depends on their last use
+        Collections.sort(texts);
+        return texts;
+    }
+
+    // Shared immutable nodes like JsLiteral.NULL or JsEmpty are not collected
+    @NotNull
+    private static Set<JsNode> collectMutableNodes(@NotNull List<? extends JsNode> roots) {
+        final Set<JsNode> nodes = Collections.newSetFromMap(new IdentityHashMap<JsNode, Boolean>());
+        RecursiveJsVisitor visitor = new RecursiveJsVisitor() {
+            @Override
+            protected void visitElement(@NotNull JsNode node) {
+                if (node instanceof JsFunction || node instanceof JsInvocation || (node instanceof JsStatement && node != JsEmpty.INSTANCE$)) {
+                    nodes.add(node);
+                }
+                super.visitElement(node);
+            }
+        };
+        for (JsNode root : roots) {
+            visitor.accept(root);
+        }
+        return nodes;
+    }
+}
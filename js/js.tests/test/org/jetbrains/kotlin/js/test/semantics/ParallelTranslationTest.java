@@ -0,0 +1,85 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.test.semantics;
+
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.kotlin.js.config.EcmaVersion;
+import org.jetbrains.kotlin.js.facade.MainCallParameters;
+import org.jetbrains.kotlin.js.test.MultipleFilesTranslationTest;
+import org.jetbrains.kotlin.js.test.rhino.RhinoFunctionResultChecker;
+
+import java.io.File;
+import java.util.List;
+
+import static org.jetbrains.kotlin.js.test.utils.JsTestUtils.getAllFilesInDir;
+
+/**
+ * Translates modules with several packages on one and on several threads and checks that the output is the same.
+ */
+public final class ParallelTranslationTest extends MultipleFilesTranslationTest {
+    private static final int PARALLEL_THREADS = 4;
+
+    private int translationThreads = 1;
+
+    public ParallelTranslationTest() {
+        super("multiPackage/");
+    }
+
+    @Override
+    protected int getTranslationThreads() {
+        return translationThreads;
+    }
+
+    public void testManyPackages() throws Exception {
+        checkSameOutput("manyPackages");
+        runRhinoTests("manyPackages_parallel.kt", DEFAULT_ECMA_VERSIONS, new RhinoFunctionResultChecker(TEST_MODULE, "a", TEST_FUNCTION, "OK"));
+    }
+
+    public void testClassesInheritedFromOtherPackage() throws Exception {
+        checkSameOutput("classesInheritedFromOtherPackage");
+    }
+
+    public void testCreateClassFromOtherPackageUsingImport() throws Exception {
+        checkSameOutput("createClassFromOtherPackageUsingImport");
+    }
+
+    public void testPackageVariableVisibleFromOtherPackage() throws Exception {
+        checkSameOutput("packageVariableVisibleFromOtherPackage");
+    }
+
+    public void testSubpackagesWithClashingNames() throws Exception {
+        checkSameOutput("subpackagesWithClashingNames");
+    }
+
+    private void checkSameOutput(@NotNull String dirName) throws Exception {
+        List<String> files = getAllFilesInDir(getInputFilePath(dirName));
+        String sequentialName = dirName + "_sequential";
+        String parallelName = dirName + "_parallel";
+
+        translationThreads = 1;
+        generateJavaScriptFiles(files, sequentialName, MainCallParameters.noCall(), DEFAULT_ECMA_VERSIONS);
+        translationThreads = PARALLEL_THREADS;
+        generateJavaScriptFiles(files, parallelName, MainCallParameters.noCall(), DEFAULT_ECMA_VERSIONS);
+
+        for (EcmaVersion version : DEFAULT_ECMA_VERSIONS) {
+            String sequential = FileUtil.loadFile(new File(getOutputFilePath(sequentialName, version)));
+            String parallel = FileUtil.loadFile(new File(getOutputFilePath(parallelName, version)));
+            assertEquals("Output of the parallel translation differs for " + dirName, sequential, parallel);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.jetbrains.kotlin.js.test.utils;
 import com.google.dart.compiler.backend.js.ast.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.js.inline.util.collectors.InstanceCollector;
 import org.jetbrains.kotlin.js.translate.expression.InlineMetadata;
 
 import java.util.*;
@@ -160,6 +161,56 @@ public class DirectiveTestUtils {
         }
     };
 
+    private static final DirectiveHandler HAS_PROPERTY = new DirectiveHandler("CHECK_HAS_PROPERTY") {
+        @Override
+        void processEntry(@NotNull JsNode ast, @NotNull ArgumentsHelper arguments) throws Exception {
+            String propertyName = arguments.getPositionalArgument(0);
+            assertNotNull("Property " + propertyName + " has been removed", AstSearchUtil.findProperty(ast, propertyName));
+        }
+    };
+
+    private static final DirectiveHandler HAS_NO_PROPERTY = new DirectiveHandler("CHECK_HAS_NO_PROPERTY") {
+        @Override
+        void processEntry(@NotNull JsNode ast, @NotNull ArgumentsHelper arguments) throws Exception {
+            String propertyName = arguments.getPositionalArgument(0);
+            assertNull("Property " + propertyName + " has not been removed", AstSearchUtil.findProperty(ast, propertyName));
+        }
+    };
+
+    private static final DirectiveHandler NAME_NOT_USED = new DirectiveHandler("CHECK_NAME_NOT_USED") {
+        @Override
+        void processEntry(@NotNull JsNode ast, @NotNull ArgumentsHelper arguments) throws Exception {
+            String functionName = arguments.getNamedArgument("function");
+            String name = arguments.getNamedArgument("name");
+            JsFunction function = AstSearchUtil.getFunction(ast, functionName);
+
+            String message = "Name " + name + " is used in function " + functionName;
+            for (JsParameter parameter : collectIncludingNested(JsParameter.class, function)) {
+                assertFalse(message, parameter.getName().getIdent().equals(name));
+            }
+            for (JsVars.JsVar var : collectIncludingNested(JsVars.JsVar.class, function)) {
+                assertFalse(message, var.getName().getIdent().equals(name));
+            }
+
+            Set<JsExpression> propertyLabels = new HashSet<JsExpression>();
+            for (JsPropertyInitializer initializer : collectIncludingNested(JsPropertyInitializer.class, function)) {
+                propertyLabels.add(initializer.getLabelExpr());
+            }
+            for (JsNameRef nameRef : collectIncludingNested(JsNameRef.class, function)) {
+                if (nameRef.getQualifier() == null && !propertyLabels.contains(nameRef)) {
+                    assertFalse(message, nameRef.getIdent().equals(name));
+                }
+            }
+        }
+
+        @NotNull
+        <T extends JsNode> List<T> collectIncludingNested(@NotNull Class<T> klass, @NotNull JsFunction function) {
+            InstanceCollector<T> collector = new InstanceCollector<T>(klass, true);
+            collector.accept(function);
+            return collector.getCollected();
+        }
+    };
+
     private static final List<DirectiveHandler> DIRECTIVE_HANDLERS = Arrays.asList(
             FUNCTION_CONTAINS_NO_CALLS,
             FUNCTION_NOT_CALLED,
@@ -170,7 +221,10 @@ public class DirectiveTestUtils {
             COUNT_VARS,
             COUNT_BREAKS,
             HAS_INLINE_METADATA,
-            HAS_NO_INLINE_METADATA
+            HAS_NO_INLINE_METADATA,
+            HAS_PROPERTY,
+            HAS_NO_PROPERTY,
+            NAME_NOT_USED
     );
 
     public static void processDirectives(@NotNull JsNode ast, @NotNull String sourceCode) throws Exception {
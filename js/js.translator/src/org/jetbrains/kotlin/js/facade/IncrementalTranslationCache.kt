@@ -0,0 +1,230 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.js.facade
+
+import com.intellij.psi.util.PsiTreeUtil
+import org.jetbrains.kotlin.descriptors.CallableDescriptor
+import org.jetbrains.kotlin.descriptors.ClassDescriptor
+import org.jetbrains.kotlin.js.translate.declaration.FileFragmentCache
+import org.jetbrains.kotlin.js.translate.declaration.TranslatedFileFragment
+import org.jetbrains.kotlin.psi.*
+import org.jetbrains.kotlin.renderer.DescriptorRenderer
+import org.jetbrains.kotlin.resolve.BindingContext
+import org.jetbrains.kotlin.resolve.DescriptorToSourceUtils
+import org.jetbrains.kotlin.resolve.inline.InlineUtil
+import java.security.MessageDigest
+import java.util.Arrays
+import java.util.HashMap
+import java.util.HashSet
+import java.util.LinkedHashSet
+
+/**
+ * Keeps translated fragments of the files of a module between its translations, so that only the files which have changed
+ * are translated and inlined again. Meant to be held by a process which translates the same module repeatedly,
+ * the cache should be dropped when the configuration or the libraries of the module change.
+ *
+ * A fragment is reused when the fingerprint of its file is the same as in the previous translation. The fingerprint covers
+ * the text of the file, the signatures of all declarations of the module (JS names of the declarations depend on them)
+ * and the text of the inline functions of the module called from the file, directly or through other inline functions.
+ *
+ * The cache keeps copies of the fragments taken after inlining, see [Session.saveFragments], and hands out a new copy
+ * for every reuse, so the passes which change the program afterwards (dead code elimination, minification) don't affect it.
+ */
+public class IncrementalTranslationCache {
+    private var entries: Map<String, Entry> = hashMapOf()
+
+    /**
+     * Paths of the files which the last committed translation translated anew rather than reused.
+     */
+    public var lastTranslatedFiles: Set<String> = setOf()
+        private set
+
+    private class Entry(val fingerprint: ByteArray, val fragment: TranslatedFileFragment)
+
+    public fun startTranslation(files: Collection<JetFile>, bindingContext: BindingContext): Session = Session(files, bindingContext)
+
+    public inner class Session(files: Collection<JetFile>, bindingContext: BindingContext) : FileFragmentCache {
+        private val fingerprints = HashMap<JetFile, ByteArray>()
+        private val filesToTranslate: Set<JetFile>
+        private val translatedFragments = HashMap<JetFile, TranslatedFileFragment>()
+        private var newEntries: MutableMap<String, Entry>? = null
+
+        init {
+            val inlineCalls = InlineCalls(files, bindingContext)
+            val signatures = computeSignatures(files, bindingContext)
+            for (file in files) {
+                fingerprints[file] = computeFingerprint(file, signatures, inlineCalls)
+            }
+
+            filesToTranslate = computeFilesToTranslate(files, inlineCalls)
+        }
+
+        override fun getReusableFragment(file: JetFile): TranslatedFileFragment? {
+            if (file in filesToTranslate) return null
+
+            return entries[getPath(file)]!!.fragment.deepCopy()
+        }
+
+        override fun fragmentTranslated(file: JetFile, fragment: TranslatedFileFragment) {
+            translatedFragments[file] = fragment
+        }
+
+        /**
+         * Copies the fragments of the program, should be called after inlining and before the passes which change the program
+         * for the output only.
+         */
+        public fun saveFragments() {
+            val saved = HashMap<String, Entry>()
+            for ((file, fingerprint) in fingerprints) {
+                val path = getPath(file)
+                val translated = translatedFragments[file]
+                saved[path] = if (translated != null) Entry(fingerprint, translated.deepCopy()) else entries[path]!!
+            }
+            newEntries = saved
+        }
+
+        /**
+         * Makes fragments of this translation available to the next one, should be called when the translation has succeeded.
+         */
+        public fun commit() {
+            entries = newEntries ?: throw IllegalStateException("Fragments should be saved before commit")
+            lastTranslatedFiles = filesToTranslate.mapTo(HashSet<String>()) { getPath(it) }
+        }
+
+        private fun computeFilesToTranslate(files: Collection<JetFile>, inlineCalls: InlineCalls): Set<JetFile> {
+            val result = HashSet<JetFile>()
+            val queue = files.filterTo(arrayListOf<JetFile>()) {
+                val entry = entries[getPath(it)]
+                entry == null || !Arrays.equals(entry.fingerprint, fingerprints[it])
+            }
+
+            // The inliner finds the definitions of inline functions by the names they got in the current translation,
+            // so the files defining inline functions called from the translated code have to be translated too
+            while (queue.isNotEmpty()) {
+                val file = queue.remove(queue.lastIndex)
+                if (!result.add(file)) continue
+
+                for (inlineFunction in inlineCalls.getCalledFromFile(file)) {
+                    queue.add(inlineFunction.getContainingJetFile())
+                }
+            }
+
+            return result
+        }
+    }
+
+    private class InlineCalls(files: Collection<JetFile>, private val bindingContext: BindingContext) {
+        private val calledFromFile = HashMap<JetFile, MutableSet<JetDeclaration>>()
+        private val calledFromFunction = HashMap<JetDeclaration, MutableSet<JetDeclaration>>()
+
+        init {
+            val moduleFiles = files.toSet()
+
+            for ((call, resolvedCall) in bindingContext.getSliceContents(BindingContext.RESOLVED_CALL)) {
+                record(call.getCallElement(), resolvedCall.getResultingDescriptor(), moduleFiles)
+            }
+
+            val slicesByElement = listOf(BindingContext.LOOP_RANGE_ITERATOR_RESOLVED_CALL,
+                                         BindingContext.LOOP_RANGE_HAS_NEXT_RESOLVED_CALL,
+                                         BindingContext.LOOP_RANGE_NEXT_RESOLVED_CALL,
+                                         BindingContext.COMPONENT_RESOLVED_CALL)
+            for (slice in slicesByElement) {
+                for ((element, resolvedCall) in bindingContext.getSliceContents(slice)) {
+                    record(element, resolvedCall.getResultingDescriptor(), moduleFiles)
+                }
+            }
+        }
+
+        private fun record(element: JetElement, descriptor: CallableDescriptor, moduleFiles: Set<JetFile>) {
+            if (!InlineUtil.isInline(descriptor)) return
+
+            val declaration = DescriptorToSourceUtils.descriptorToDeclaration(descriptor.getOriginal()) as? JetDeclaration ?: return
+            val file = element.getContainingJetFile()
+            if (file !in moduleFiles || declaration.getContainingJetFile() !in moduleFiles) return
+
+            calledFromFile.getOrPut(file) { HashSet() }.add(declaration)
+
+            var function = PsiTreeUtil.getParentOfType(element, javaClass<JetNamedFunction>())
+            while (function != null) {
+                if (InlineUtil.isInline(bindingContext.get(BindingContext.FUNCTION, function))) {
+                    calledFromFunction.getOrPut(function) { HashSet() }.add(declaration)
+                }
+                function = PsiTreeUtil.getParentOfType(function, javaClass<JetNamedFunction>())
+            }
+        }
+
+        fun getCalledFromFile(file: JetFile): Set<JetDeclaration> = calledFromFile[file] ?: setOf()
+
+        /**
+         * Inline functions of the module which are inlined into the file, directly or transitively, in a stable order.
+         */
+        fun getInlinedIntoFile(file: JetFile): List<JetDeclaration> {
+            val result = LinkedHashSet<JetDeclaration>()
+            val queue = getCalledFromFile(file).toArrayList()
+            while (queue.isNotEmpty()) {
+                val function = queue.remove(queue.lastIndex)
+                if (result.add(function)) {
+                    queue.addAll(calledFromFunction[function] ?: setOf())
+                }
+            }
+            return result.sortBy { getPath(it.getContainingJetFile()) + ":" + it.getTextOffset() }
+        }
+    }
+
+    companion object {
+        private fun getPath(file: JetFile): String = file.getVirtualFile()?.getPath() ?: file.getName()
+
+        private fun computeSignatures(files: Collection<JetFile>, bindingContext: BindingContext): ByteArray {
+            val digest = MessageDigest.getInstance("SHA-1")
+
+            fun addSignatures(declaration: JetDeclaration) {
+                val descriptor = bindingContext.get(BindingContext.DECLARATION_TO_DESCRIPTOR, declaration)
+                if (descriptor != null) {
+                    digest.update(DescriptorRenderer.FQ_NAMES_IN_TYPES.render(descriptor).toByteArray())
+                }
+                if (descriptor is ClassDescriptor) {
+                    descriptor.getConstructors().forEach { digest.update(DescriptorRenderer.FQ_NAMES_IN_TYPES.render(it).toByteArray()) }
+                }
+                if (declaration is JetClass) {
+                    for (parameter in declaration.getPrimaryConstructorParameters()) {
+                        val property = bindingContext.get(BindingContext.PRIMARY_CONSTRUCTOR_PARAMETER, parameter) ?: continue
+                        digest.update(DescriptorRenderer.FQ_NAMES_IN_TYPES.render(property).toByteArray())
+                    }
+                }
+                if (declaration is JetClassOrObject) {
+                    declaration.getDeclarations().forEach { addSignatures(it) }
+                }
+            }
+
+            for (file in files) {
+                file.getDeclarations().forEach { addSignatures(it) }
+            }
+            return digest.digest()
+        }
+
+        private fun computeFingerprint(file: JetFile, signatures: ByteArray, inlineCalls: InlineCalls): ByteArray {
+            val digest = MessageDigest.getInstance("SHA-1")
+            digest.update(signatures)
+            digest.update(file.getText().toByteArray())
+            for (function in inlineCalls.getInlinedIntoFile(file)) {
+                digest.update(function.getText().toByteArray())
+            }
+            return digest.digest()
+        }
+    }
+}
@@ -31,9 +31,13 @@ import org.jetbrains.kotlin.psi.JetFile;
 import org.jetbrains.kotlin.resolve.BindingTrace;
 import org.jetbrains.kotlin.resolve.diagnostics.Diagnostics;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.jetbrains.kotlin.diagnostics.DiagnosticUtils.hasError;
+import static org.jetbrains.kotlin.js.facade.FacadePackage.splitIntoChunks;
+import static org.jetbrains.kotlin.js.inline.clean.CleanPackage.removeUnreachableDeclarations;
+import static org.jetbrains.kotlin.js.inline.clean.CleanPackage.shortenLocalNames;
 import static org.jetbrains.kotlin.js.translate.utils.UtilsPackage.expandIsCalls;
 
 /**
@@ -47,8 +51,19 @@ public final class K2JSTranslator {
     @NotNull
     private final Config config;
 
+    @Nullable
+    private final IncrementalTranslationCache cache;
+
     public K2JSTranslator(@NotNull Config config) {
+        this(config, null);
+    }
+
+    /**
+     * @param cache if not null, files which haven't changed since the previous translation with the same cache are not translated again
+     */
+    public K2JSTranslator(@NotNull Config config, @Nullable IncrementalTranslationCache cache) {
         this.config = config;
+        this.cache = cache;
     }
 
     @NotNull
@@ -74,13 +89,32 @@ public final class K2JSTranslator {
         ModuleDescriptor moduleDescriptor = analysisResult.getModuleDescriptor();
         Diagnostics diagnostics = bindingTrace.getBindingContext().getDiagnostics();
 
-        TranslationContext context = Translation.generateAst(bindingTrace, files, mainCallParameters, moduleDescriptor, config);
+        IncrementalTranslationCache.Session cacheSession =
+                cache != null ? cache.startTranslation(files, bindingTrace.getBindingContext()) : null;
+
+        TranslationContext context =
+                Translation.generateAst(bindingTrace, files, mainCallParameters, moduleDescriptor, config, cacheSession);
         if (hasError(diagnostics)) return new TranslationResult.Fail(diagnostics);
 
         JsProgram program = JsInliner.process(context);
         if (hasError(diagnostics)) return new TranslationResult.Fail(diagnostics);
 
         expandIsCalls(program, context);
-        return new TranslationResult.Success(config, files, program, diagnostics, moduleDescriptor);
+        if (cacheSession != null) {
+            cacheSession.saveFragments();
+        }
+        if (config.isDeadCodeElimination()) {
+            removeUnreachableDeclarations(context, config.getDeclarationsToKeep());
+        }
+        if (config.isMinificationEnabled()) {
+            shortenLocalNames(program);
+        }
+        List<ProgramChunk> chunks = config.isSplitOutput()
+                                    ? splitIntoChunks(program, config.getModuleId())
+                                    : Collections.<ProgramChunk>emptyList();
+        if (cacheSession != null) {
+            cacheSession.commit();
+        }
+        return new TranslationResult.Success(config, files, program, diagnostics, moduleDescriptor, chunks);
     }
 }
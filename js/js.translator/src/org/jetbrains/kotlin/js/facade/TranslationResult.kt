@@ -19,6 +19,7 @@ package org.jetbrains.kotlin.js.facade
 import com.google.dart.compiler.backend.js.ast.JsProgram
 import com.google.dart.compiler.util.TextOutput
 import com.google.dart.compiler.util.TextOutputImpl
+import com.intellij.openapi.util.io.FileUtil
 import com.intellij.openapi.util.text.StringUtil
 import com.intellij.openapi.vfs.VfsUtilCore
 import org.jetbrains.kotlin.backend.common.output.OutputFileCollection
@@ -34,7 +35,11 @@ import org.jetbrains.kotlin.resolve.diagnostics.Diagnostics
 import org.jetbrains.kotlin.serialization.js.KotlinJavascriptSerializationUtil
 import org.jetbrains.kotlin.utils.KotlinJavascriptMetadataUtils
 import org.jetbrains.kotlin.utils.fileUtils.readTextOrEmpty
+import java.io.BufferedWriter
 import java.io.File
+import java.io.FileOutputStream
+import java.io.OutputStreamWriter
+import java.io.Writer
 import java.util.ArrayList
 
 public abstract class TranslationResult protected (public val diagnostics: Diagnostics) {
@@ -46,49 +51,151 @@ public abstract class TranslationResult protected (public val diagnostics: Diagn
             private val files: List<JetFile>,
             public val program: JsProgram,
             diagnostics: Diagnostics,
-            private val moduleDescriptor: ModuleDescriptor
+            private val moduleDescriptor: ModuleDescriptor,
+            public val chunks: List<ProgramChunk>
     ) : TranslationResult(diagnostics) {
+        /**
+         * The code of the main program. When the output is split, the code of [chunks] isn't included.
+         */
         public fun getCode(): String = getCode(TextOutputImpl(), sourceMapBuilder = null)
 
         public fun getOutputFiles(outputFile: File, outputPrefixFile: File?, outputPostfixFile: File?): OutputFileCollection {
-            val output = TextOutputImpl()
-            val sourceMapBuilder = when {
-                config.isSourcemap() -> SourceMap3Builder(outputFile, output, SourceMapBuilderConsumer())
-                else -> null
+            val prefix = outputPrefixFile?.readTextOrEmpty() ?: ""
+            val postfix = outputPostfixFile?.readTextOrEmpty() ?: ""
+            val sourceFiles = getSourceFiles()
+
+            val outputFiles = getProgramFiles(program, outputFile, prefix, postfix, sourceFiles)
+            for (chunk in chunks) {
+                outputFiles.addAll(getProgramFiles(chunk.program, File(chunk.fileName), "", "", sourceFiles))
             }
 
-            val code = getCode(output, sourceMapBuilder)
+            if (config.isMetaInfo()) {
+                outputFiles.add(getMetaFile(outputFile, sourceFiles))
+            }
+
+            return SimpleOutputFileCollection(outputFiles)
+        }
+
+        /**
+         * Same as [getOutputFiles] followed by writing the files, except that the code and the source map are written to disk
+         * while the program is generated, so neither the text of the program nor the source map is kept in memory as a whole.
+         * The content of the files is the same as in [getOutputFiles].
+         *
+         * @return the written files
+         */
+        public fun writeOutputFiles(outputFile: File, outputPrefixFile: File?, outputPostfixFile: File?): List<File> {
             val prefix = outputPrefixFile?.readTextOrEmpty() ?: ""
             val postfix = outputPostfixFile?.readTextOrEmpty() ?: ""
-            val sourceFiles = files.map {
-                val virtualFile = it.getOriginalFile().getVirtualFile()
+            val outputDir = outputFile.getAbsoluteFile().getParentFile()
 
-                when {
-                    virtualFile == null -> File(it.getName())
-                    else -> VfsUtilCore.virtualToIoFile(virtualFile)
-                }
+            outputDir?.mkdirs()
+            val writtenFiles = writeProgram(program, outputFile, prefix, postfix)
+            for (chunk in chunks) {
+                writtenFiles.addAll(writeProgram(chunk.program, File(outputDir, chunk.fileName), "", ""))
             }
 
-            val jsFile = SimpleOutputFile(sourceFiles, outputFile.getName(), prefix + code + postfix)
-            val outputFiles = arrayListOf(jsFile)
-
             if (config.isMetaInfo()) {
-                val metaFileName = KotlinJavascriptMetadataUtils.replaceSuffix(outputFile.getName())
-                val metaFileContent = KotlinJavascriptSerializationUtil.metadataAsString(config.getModuleId(), moduleDescriptor)
-                val sourceFilesForMetaFile = ArrayList(sourceFiles)
-                val jsMetaFile = SimpleOutputFile(sourceFilesForMetaFile, metaFileName, metaFileContent)
-                outputFiles.add(jsMetaFile)
+                val metaFile = getMetaFile(outputFile, getSourceFiles())
+                val file = File(outputDir, metaFile.relativePath)
+                replaceFiles(listOf(file)) { it[0].writeBytes(metaFile.asByteArray()) }
+                writtenFiles.add(file)
+            }
+
+            return writtenFiles
+        }
+
+        private fun getProgramFiles(
+                program: JsProgram,
+                outputFile: File,
+                prefix: String,
+                postfix: String,
+                sourceFiles: List<File>
+        ): MutableList<SimpleOutputFile> {
+            val output = TextOutputImpl()
+            val sourceMapBuilder = when {
+                config.isSourcemap() -> SourceMap3Builder(outputFile, output, SourceMapBuilderConsumer())
+                else -> null
             }
 
+            program.accept(JsSourceGenerationVisitor(output, sourceMapBuilder))
+            val jsFile = SimpleOutputFile(sourceFiles, outputFile.getName(), prefix + output.toString() + postfix)
+            val outputFiles = arrayListOf(jsFile)
+
             if (sourceMapBuilder != null) {
                 sourceMapBuilder.skipLinesAtBeginning(StringUtil.getLineBreakCount(prefix))
                 val sourceMapFile = SimpleOutputFile(sourceFiles, sourceMapBuilder.getOutFile().getName(), sourceMapBuilder.build())
                 outputFiles.add(sourceMapFile)
             }
 
-            return SimpleOutputFileCollection(outputFiles)
+            return outputFiles
         }
 
+        private fun writeProgram(program: JsProgram, outputFile: File, prefix: String, postfix: String): MutableList<File> {
+            val writtenFiles = arrayListOf(outputFile)
+            if (config.isSourcemap()) {
+                writtenFiles.add(SourceMap3Builder.getOutFile(outputFile))
+            }
+
+            replaceFiles(writtenFiles) { tempFiles ->
+                createWriter(tempFiles[0]).use { writer ->
+                    writer.write(prefix)
+                    val output = TextOutputImpl(writer, false)
+
+                    if (config.isSourcemap()) {
+                        createWriter(tempFiles[1]).use { sourceMapWriter ->
+                            val sourceMapBuilder = SourceMap3Builder.streaming(outputFile, output, SourceMapBuilderConsumer(), sourceMapWriter)
+                            sourceMapBuilder.skipLinesAtBeginning(StringUtil.getLineBreakCount(prefix))
+                            program.accept(JsSourceGenerationVisitor(output, sourceMapBuilder))
+                            sourceMapBuilder.finish()
+                        }
+                    }
+                    else {
+                        program.accept(JsSourceGenerationVisitor(output, null))
+                    }
+
+                    writer.write(postfix)
+                }
+            }
+
+            return writtenFiles
+        }
+
+        /**
+         * Lets [write] fill temporary files next to [targets] and moves them over [targets] only when all of them are written,
+         * so an exception in the middle of the generation doesn't leave a truncated file behind.
+         */
+        private fun replaceFiles(targets: List<File>, write: (List<File>) -> Unit) {
+            val tempFiles = targets.map { File.createTempFile(it.getName(), ".tmp", it.getAbsoluteFile().getParentFile()) }
+            try {
+                write(tempFiles)
+                for ((tempFile, target) in tempFiles zip targets) {
+                    FileUtil.rename(tempFile, target)
+                }
+            }
+            finally {
+                for (tempFile in tempFiles) {
+                    tempFile.delete()
+                }
+            }
+        }
+
+        public fun getSourceFiles(): List<File> = files.map {
+            val virtualFile = it.getOriginalFile().getVirtualFile()
+
+            when {
+                virtualFile == null -> File(it.getName())
+                else -> VfsUtilCore.virtualToIoFile(virtualFile)
+            }
+        }
+
+        private fun getMetaFile(outputFile: File, sourceFiles: List<File>): SimpleOutputFile {
+            val metaFileName = KotlinJavascriptMetadataUtils.replaceSuffix(outputFile.getName())
+            val metaFileContent = KotlinJavascriptSerializationUtil.metadataAsString(config.getModuleId(), moduleDescriptor)
+            return SimpleOutputFile(ArrayList(sourceFiles), metaFileName, metaFileContent)
+        }
+
+        private fun createWriter(file: File): Writer = BufferedWriter(OutputStreamWriter(FileOutputStream(file), Charsets.UTF_8))
+
         private fun getCode(output: TextOutput, sourceMapBuilder: SourceMapBuilder?): String {
             program.accept(JsSourceGenerationVisitor(output, sourceMapBuilder))
             return output.toString()
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.kotlin.js.facade
+
+import com.google.dart.compiler.backend.js.ast.*
+import org.jetbrains.kotlin.js.translate.context.Namer
+import org.jetbrains.kotlin.utils.KotlinJavascriptMetadataUtils
+
+/**
+ * A package definition moved out of the main program by [splitIntoChunks].
+ * [program] consists of a single `Kotlin.defineModuleChunk(moduleId, packageName, function (Kotlin, _) {...})` call.
+ */
+public class ProgramChunk(public val packageName: String, public val fileName: String, public val program: JsProgram)
+
+/**
+ * Moves the definition of every package which has its own members or initializer from [program] to a separate chunk.
+ *
+ * The definitions are replaced with `Kotlin.defineLazyPackage` stubs, and a `Kotlin.defineModuleChunks` call registering
+ * the chunk files is added right after the root package definition, so the runtime loads a chunk when its package is accessed
+ * for the first time. The module object keeps its shape, so other modules link against it (and its .meta.js) as before.
+ * Only JS shells can load a chunk synchronously on access: in a browser the chunks are loaded in advance by
+ * `Kotlin.preloadModuleChunks` (or by script tags), or `Kotlin.loadChunk` is replaced.
+ *
+ * Should be called after all other transformations of the program, since they don't look into the chunks.
+ */
+public fun splitIntoChunks(program: JsProgram, moduleId: String): List<ProgramChunk> {
+    val wrapper = program.getGlobalBlock().getStatements().firstOrNull()?.let { getWrapperFunction(it) } ?: return listOf()
+    val kotlinName = wrapper.getParameters().firstOrNull()?.getName() ?: return listOf()
+    val statements = wrapper.getBody().getStatements()
+
+    for ((index, statement) in statements.withIndex()) {
+        if (statement !is JsVars) continue
+
+        val rootVar = statement.firstOrNull { it.getName().getIdent() == Namer.getRootPackageName() } ?: continue
+        val rootMembers = (rootVar.getInitExpression() as? JsInvocation)?.getArguments()?.lastOrNull() as? JsObjectLiteral ?: continue
+
+        val splitter = ChunkSplitter(program, moduleId, kotlinName.getIdent(), rootVar.getName().getIdent())
+        splitter.split(rootMembers, prefix = "")
+        if (splitter.chunks.isEmpty()) return listOf()
+
+        val files = splitter.chunks.map {
+            JsPropertyInitializer(program.getStringLiteral(it.packageName), program.getStringLiteral(it.fileName))
+        }
+        val registration = JsInvocation(kotlinReference(DEFINE_MODULE_CHUNKS), program.getStringLiteral(moduleId),
+                                        rootVar.getName().makeRef(), JsObjectLiteral(files, true))
+        statements.add(index + 1, registration.makeStmt())
+        return splitter.chunks
+    }
+
+    return listOf()
+}
+
+private val DEFINE_PACKAGE = "definePackage"
+private val DEFINE_LAZY_PACKAGE = "defineLazyPackage"
+private val DEFINE_MODULE_CHUNKS = "defineModuleChunks"
+private val DEFINE_MODULE_CHUNK = "defineModuleChunk"
+
+private class ChunkSplitter(
+        private val program: JsProgram,
+        private val moduleId: String,
+        private val kotlinIdent: String,
+        private val rootIdent: String
+) {
+    val chunks = arrayListOf<ProgramChunk>()
+
+    fun split(members: JsObjectLiteral, prefix: String) {
+        val properties = members.getPropertyInitializers()
+        for (index in 0..properties.size() - 1) {
+            val property = properties[index]
+            val definition = property.getValueExpr() as? JsInvocation ?: continue
+            if (!isKotlinCall(definition, DEFINE_PACKAGE)) continue
+
+            val name = (property.getLabelExpr() as? JsNameRef)?.getIdent() ?: continue
+            val packageMembers = definition.getArguments().lastOrNull() as? JsObjectLiteral ?: continue
+            val packageName = if (prefix.isEmpty()) name else "$prefix.$name"
+
+            // nested packages get their own chunks, the parent chunk only keeps their stubs
+            split(packageMembers, packageName)
+
+            if (hasOwnDeclarations(definition, packageMembers)) {
+                chunks.add(createChunk(packageName, definition))
+                val stub = JsInvocation(kotlinReference(DEFINE_LAZY_PACKAGE), program.getStringLiteral(moduleId),
+                                        program.getStringLiteral(packageName))
+                properties[index] = JsPropertyInitializer(property.getLabelExpr(), stub)
+            }
+        }
+    }
+
+    private fun hasOwnDeclarations(definition: JsInvocation, members: JsObjectLiteral): Boolean =
+            definition.getArguments().first() !is JsNullLiteral ||
+            members.getPropertyInitializers().any {
+                val value = it.getValueExpr()
+                !isKotlinCall(value, DEFINE_PACKAGE) && !isKotlinCall(value, DEFINE_LAZY_PACKAGE)
+            }
+
+    private fun createChunk(packageName: String, definition: JsInvocation): ProgramChunk {
+        val chunkProgram = JsProgram("chunk")
+        val factory = JsFunction(chunkProgram.getScope(), JsBlock(), "chunk of package $packageName")
+        for (ident in listOf(kotlinIdent, rootIdent)) {
+            factory.getParameters().add(JsParameter(factory.getScope().declareName(ident)))
+        }
+        with(factory.getBody().getStatements()) {
+            add(chunkProgram.getStringLiteral("use strict").makeStmt())
+            add(JsReturn(definition))
+        }
+
+        val chunk = JsInvocation(kotlinReference(DEFINE_MODULE_CHUNK), chunkProgram.getStringLiteral(moduleId),
+                                 chunkProgram.getStringLiteral(packageName), factory)
+        chunkProgram.getGlobalBlock().getStatements().add(chunk.makeStmt())
+
+        return ProgramChunk(packageName, moduleId + "." + packageName + KotlinJavascriptMetadataUtils.CHUNK_JS_SUFFIX, chunkProgram)
+    }
+}
+
+private fun getWrapperFunction(statement: JsStatement): JsFunction? =
+        ((statement as? JsExpressionStatement)?.getExpression() as? JsInvocation)?.getQualifier() as? JsFunction
+
+private fun isKotlinCall(expression: JsExpression, name: String): Boolean {
+    val qualifier = (expression as? JsInvocation)?.getQualifier() as? JsNameRef ?: return false
+    return qualifier.getIdent() == name && (qualifier.getQualifier() as? JsNameRef)?.getIdent() == Namer.KOTLIN_NAME
+}
+
+private fun kotlinReference(name: String): JsNameRef = JsNameRef(name, Namer.KOTLIN_OBJECT_REF)
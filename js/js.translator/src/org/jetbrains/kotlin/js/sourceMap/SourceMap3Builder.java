@@ -23,11 +23,16 @@ import com.intellij.util.PairConsumer;
 import gnu.trove.TObjectIntHashMap;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
 public class SourceMap3Builder implements SourceMapBuilder {
     private final StringBuilder out = new StringBuilder(8192);
+    // Not null in the streaming mode: mappings are flushed there on every new line instead of being kept in 'out'
+    private final Writer writer;
+    private boolean finished;
     private final File generatedFile;
     private final TextOutput textOutput;
     private final PairConsumer<SourceMapBuilder, Object> sourceInfoConsumer;
@@ -51,25 +56,90 @@ public class SourceMap3Builder implements SourceMapBuilder {
     private int previousSourceColumn;
 
     public SourceMap3Builder(File generatedFile, TextOutput textOutput, PairConsumer<SourceMapBuilder, Object> sourceInfoConsumer) {
+        this(generatedFile, textOutput, sourceInfoConsumer, null);
+    }
+
+    private SourceMap3Builder(
+            File generatedFile,
+            TextOutput textOutput,
+            PairConsumer<SourceMapBuilder, Object> sourceInfoConsumer,
+            Writer writer
+    ) {
         this.generatedFile = generatedFile;
         this.textOutput = textOutput;
         this.sourceInfoConsumer = sourceInfoConsumer;
+        this.writer = writer;
+    }
+
+    /**
+     * Creates a builder which writes the source map to the given writer while the code is generated, so only the mappings
+     * of the current line are kept in memory. Sources are written after the mappings, so {@link #finish()} must be called
+     * at the end, and {@link #skipLinesAtBeginning(int)} can only be called before the generation.
+     */
+    public static SourceMap3Builder streaming(
+            File generatedFile,
+            TextOutput textOutput,
+            PairConsumer<SourceMapBuilder, Object> sourceInfoConsumer,
+            Writer writer
+    ) {
+        SourceMap3Builder builder = new SourceMap3Builder(generatedFile, textOutput, sourceInfoConsumer, writer);
+        builder.write("{\"version\":3,\"file\":\"" + generatedFile.getName() + "\",\"mappings\":\"");
+        return builder;
+    }
+
+    public static File getOutFile(File generatedFile) {
+        return new File(generatedFile.getParentFile(), generatedFile.getName() + ".map");
     }
 
     @Override
     public File getOutFile() {
-        return new File(generatedFile.getParentFile(), generatedFile.getName() + ".map");
+        return getOutFile(generatedFile);
+    }
+
+    /**
+     * Completes a source map created with {@link #streaming}.
+     */
+    public void finish() {
+        assert writer != null : "Only streaming source maps should be finished";
+        assert !finished : "Source map is already finished";
+        finished = true;
+
+        flushMappings();
+        StringBuilder sb = new StringBuilder(128 * orderedSources.size());
+        sb.append("\",");
+        appendSources(sb);
+        sb.append(",\"names\":[]}");
+        write(sb);
+    }
+
+    private void flushMappings() {
+        if (writer == null) return;
+        write(out);
+        out.setLength(0);
+    }
+
+    private void write(CharSequence text) {
+        try {
+            writer.append(text);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
     public String build() {
+        if (writer != null) {
+            throw new UnsupportedOperationException("Streaming source map is written directly, call finish() instead");
+        }
+
         StringBuilder sb = new StringBuilder(out.length() + (128 * orderedSources.size()));
-        sb.append("{\"version\":3,\"file\":\"").append(generatedFile.getName()).append('"').append(',');
-        appendSources(sb);
-        sb.append(",\"names\":[");
-        sb.append("],\"mappings\":\"");
+        // Same key order as in the streaming mode, where the sources are only known after the mappings are written
+        sb.append("{\"version\":3,\"file\":\"").append(generatedFile.getName()).append("\",\"mappings\":\"");
         sb.append(out);
-        sb.append("\"}");
+        sb.append("\",");
+        appendSources(sb);
+        sb.append(",\"names\":[]}");
         return sb.toString();
     }
 
@@ -92,10 +162,17 @@ public class SourceMap3Builder implements SourceMapBuilder {
     public void newLine() {
         out.append(';');
         previousGeneratedColumn = -1;
+        flushMappings();
     }
 
     @Override
     public void skipLinesAtBeginning(int count) {
+        if (writer != null) {
+            assert out.length() == 0 && previousGeneratedColumn == -1 && orderedSources.isEmpty()
+                    : "Lines can be skipped in a streaming source map only before the generation";
+            write(StringUtil.repeatSymbol(';', count));
+            return;
+        }
         out.insert(0, StringUtil.repeatSymbol(';', count));
     }
 
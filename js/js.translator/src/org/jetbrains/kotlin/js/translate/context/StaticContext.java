@@ -16,9 +16,7 @@
 
 package org.jetbrains.kotlin.js.translate.context;
 
-import com.google.common.collect.Maps;
 import com.google.dart.compiler.backend.js.ast.*;
-import com.intellij.openapi.util.Factory;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -37,7 +35,8 @@ import org.jetbrains.kotlin.resolve.BindingTrace;
 import org.jetbrains.kotlin.resolve.DescriptorUtils;
 import org.jetbrains.kotlin.resolve.calls.tasks.TasksPackage;
 
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.jetbrains.kotlin.js.translate.utils.AnnotationsUtils.*;
 import static org.jetbrains.kotlin.js.translate.utils.JsDescriptorUtils.*;
@@ -81,7 +80,7 @@ public final class StaticContext {
     @NotNull
     private final Generator<JsName> names = new NameGenerator();
     @NotNull
-    private final Map<FqName, JsName> packageNames = Maps.newHashMap();
+    private final ConcurrentMap<FqName, JsName> packageNames = new ConcurrentHashMap<FqName, JsName>();
     @NotNull
     private final Generator<JsScope> scopes = new ScopeGenerator();
     @NotNull
@@ -90,7 +89,7 @@ public final class StaticContext {
     private final Generator<Boolean> qualifierIsNull = new QualifierIsNullGenerator();
 
     @NotNull
-    private final Map<JsScope, JsFunction> scopeToFunction = Maps.newHashMap();
+    private final ConcurrentMap<JsScope, JsFunction> scopeToFunction = new ConcurrentHashMap<JsScope, JsFunction>();
 
     @NotNull
     private final Config config;
@@ -193,14 +192,14 @@ public final class StaticContext {
     }
 
     @NotNull
-    public JsName getNameForPackage(@NotNull final FqName packageFqName) {
-        return ContainerUtil.getOrCreate(packageNames, packageFqName, new Factory<JsName>() {
-            @Override
-            public JsName create() {
-                String name = Namer.generatePackageName(packageFqName);
-                return getRootScope().declareName(name);
-            }
-        });
+    public JsName getNameForPackage(@NotNull FqName packageFqName) {
+        JsName name = packageNames.get(packageFqName);
+        if (name == null) {
+            // declareName returns the same name for the same identifier, so a concurrent call gets the same value
+            name = getRootScope().declareName(Namer.generatePackageName(packageFqName));
+            packageNames.putIfAbsent(packageFqName, name);
+        }
+        return name;
     }
 
     @NotNull
@@ -17,17 +17,24 @@
 package org.jetbrains.kotlin.js.translate.context.generator;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.kotlin.descriptors.DeclarationDescriptor;
 
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Lookups don't take any lock, so declarations of different packages may be translated in parallel. If several threads
+ * generate a value for the same descriptor at once, all of them get the value stored first. The values which could be
+ * generated differently this way (the fresh names of module declarations) are generated before the parallel phase.
+ */
 public class Generator<V> {
+    private static final Object NULL_VALUE = new Object();
+
     @NotNull
-    private final Map<DeclarationDescriptor, V> values = Maps.newHashMap();
+    private final ConcurrentMap<DeclarationDescriptor, Object> values = new ConcurrentHashMap<DeclarationDescriptor, Object>();
     @NotNull
     private final List<Rule<V>> rules = Lists.newArrayList();
 
@@ -37,13 +44,16 @@ public class Generator<V> {
 
     @Nullable
     public V get(@NotNull DeclarationDescriptor descriptor) {
-        V result = values.get(descriptor);
-        if (result != null) {
-            return result;
+        Object value = values.get(descriptor);
+        if (value == null) {
+            V result = generate(descriptor);
+            value = values.putIfAbsent(descriptor, result != null ? result : NULL_VALUE);
+            if (value == null) {
+                return result;
+            }
         }
-        result = generate(descriptor);
-        values.put(descriptor, result);
-        return result;
+        //noinspection unchecked
+        return value != NULL_VALUE ? (V) value : null;
     }
 
     @Nullable
@@ -153,10 +153,7 @@ public class ClassTranslator private constructor(
         // So create alias for companion object receiver parameter.
         val companionObjectDescriptor = descriptor.getCompanionObjectDescriptor()
         if (companionObjectDescriptor != null) {
-            val referenceToClass = translateAsFQReference(companionObjectDescriptor.getContainingDeclaration(), context)
-            val companionObjectAccessor = Namer.getCompanionObjectAccessor(referenceToClass)
-            val companionObjectReceiver = getReceiverParameterForDeclaration(companionObjectDescriptor)
-            context.aliasingContext().registerAlias(companionObjectReceiver, companionObjectAccessor)
+            registerCompanionObjectAlias(companionObjectDescriptor, context)
         }
 
         // Overlap alias of companion object receiver for accessing from containing class(see previous if block),
@@ -272,6 +269,20 @@ public class ClassTranslator private constructor(
     }
 
     companion object {
+        /**
+         * Registers the accessor of [companionObject] as an alias of its receiver in the aliasing context of [context],
+         * unless it's already visible there (e.g. registered before translating the declarations in parallel).
+         */
+        platformStatic
+        public fun registerCompanionObjectAlias(companionObject: ClassDescriptor, context: TranslationContext) {
+            val companionObjectReceiver = getReceiverParameterForDeclaration(companionObject)
+            if (context.aliasingContext().getAliasForDescriptor(companionObjectReceiver) != null) return
+
+            val referenceToClass = translateAsFQReference(companionObject.getContainingDeclaration(), context)
+            val companionObjectAccessor = Namer.getCompanionObjectAccessor(referenceToClass)
+            context.aliasingContext().registerAlias(companionObjectReceiver, companionObjectAccessor)
+        }
+
         public fun translate(classDeclaration: JetClass, context: TranslationContext): List<JsPropertyInitializer> {
             val result = arrayListOf<JsPropertyInitializer>()
 
@@ -15,8 +15,12 @@
  */
 package org.jetbrains.kotlin.js.translate.declaration
 
+import com.google.dart.compiler.backend.js.ast.JsBlock
 import com.google.dart.compiler.backend.js.ast.JsFunction
+import com.google.dart.compiler.backend.js.ast.JsGlobalBlock
 import com.google.dart.compiler.backend.js.ast.JsPropertyInitializer
+import com.google.dart.compiler.backend.js.ast.JsStatement
+import com.google.dart.compiler.backend.js.ast.JsVars
 import com.intellij.util.SmartList
 import org.jetbrains.kotlin.descriptors.PropertyDescriptor
 import org.jetbrains.kotlin.js.translate.context.TranslationContext
@@ -38,9 +42,48 @@ class FileDeclarationVisitor(
 ) : DeclarationBodyVisitor(initializers, SmartList()) {
 
     private val initializer = JsAstUtils.createFunctionWithEmptyBody(context.scope())
-    private val initializerContext = context.contextWithScope(initializer)
-    private val initializerStatements = initializer.getBody()!!.getStatements()!!
-    private val initializerVisitor = InitializerVisitor(initializerStatements)
+    private val rootInitializerContext = context.contextWithScope(initializer)
+    private var initializerContext = rootInitializerContext
+    private var initializerStatements = initializer.getBody()!!.getStatements()!!
+    private var initializerVisitor = InitializerVisitor(initializerStatements)
+
+    /**
+     * Directs the initialization code of the declarations visited until [endFileBlock] to a separate block,
+     * so that it can be reused in another translation, see [TranslatedFileFragment].
+     */
+    fun startFileBlock(): JsGlobalBlock {
+        val block = JsGlobalBlock()
+        setInitializerBlock(rootInitializerContext.innerBlock(block), block.getStatements())
+        return block
+    }
+
+    fun endFileBlock(block: JsGlobalBlock) {
+        setInitializerBlock(rootInitializerContext, initializer.getBody()!!.getStatements()!!)
+        if (!block.isEmpty()) {
+            initializerStatements.add(block)
+        }
+    }
+
+    /**
+     * Adds the initialization code of a file translated earlier. Variables declared there are reserved in the initializer's scope,
+     * so temporary variables of the files translated now don't clash with them.
+     */
+    fun addReusedFileBlock(block: JsBlock) {
+        for (statement in block.getStatements()) {
+            if (statement is JsVars) {
+                statement.forEach { initializer.getScope().declareName(it.getName().getIdent()) }
+            }
+        }
+        if (!block.isEmpty()) {
+            initializerStatements.add(block)
+        }
+    }
+
+    private fun setInitializerBlock(context: TranslationContext, statements: MutableList<JsStatement>) {
+        initializerContext = context
+        initializerStatements = statements
+        initializerVisitor = InitializerVisitor(statements)
+    }
 
     fun computeInitializer(): JsFunction? {
         if (initializerStatements.isEmpty()) {
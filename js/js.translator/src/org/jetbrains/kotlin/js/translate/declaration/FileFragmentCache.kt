@@ -0,0 +1,45 @@
+/*
+ * Copyright 2010-2015 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.kotlin.js.translate.declaration
+
+import com.google.dart.compiler.backend.js.ast.JsGlobalBlock
+import com.google.dart.compiler.backend.js.ast.JsPropertyInitializer
+import org.jetbrains.kotlin.psi.JetFile
+
+/**
+ * Part of the translated program produced by a single file: members of the package object and statements of the package initializer.
+ * The nodes are shared with the program, so after the inliner has run the fragment contains the inlined code.
+ */
+public class TranslatedFileFragment(
+        public val members: List<JsPropertyInitializer>,
+        public val initializer: JsGlobalBlock
+) {
+    public fun deepCopy(): TranslatedFileFragment = TranslatedFileFragment(members.map { it.deepCopy() }, initializer.deepCopy())
+}
+
+/**
+ * Allows to reuse fragments of a previous translation for files which haven't changed since then.
+ */
+public trait FileFragmentCache {
+    /**
+     * @return the fragment of the file translated earlier if it can be used in the program as is, null if the file should be translated
+     */
+    fun getReusableFragment(file: JetFile): TranslatedFileFragment?
+
+    fun fragmentTranslated(file: JetFile, fragment: TranslatedFileFragment)
+}
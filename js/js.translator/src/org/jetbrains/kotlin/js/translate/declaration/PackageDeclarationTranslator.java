@@ -19,32 +19,57 @@ package org.jetbrains.kotlin.js.translate.declaration;
 import com.google.dart.compiler.backend.js.ast.*;
 import gnu.trove.THashMap;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.kotlin.descriptors.PackageFragmentDescriptor;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.descriptors.*;
+import org.jetbrains.kotlin.js.config.Config;
 import org.jetbrains.kotlin.js.translate.context.Namer;
 import org.jetbrains.kotlin.js.translate.context.TranslationContext;
 import org.jetbrains.kotlin.js.translate.general.AbstractTranslator;
+import org.jetbrains.kotlin.js.translate.utils.AnnotationsUtils;
 import org.jetbrains.kotlin.name.FqName;
+import org.jetbrains.kotlin.psi.JetDeclaration;
 import org.jetbrains.kotlin.psi.JetFile;
 import org.jetbrains.kotlin.resolve.BindingContext;
 import org.jetbrains.kotlin.resolve.BindingContextUtils;
+import org.jetbrains.kotlin.resolve.BindingTrace;
+import org.jetbrains.kotlin.resolve.BindingTraceContext;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.google.dart.compiler.backend.js.ast.JsVars.JsVar;
 
 public final class PackageDeclarationTranslator extends AbstractTranslator {
     private final Iterable<JetFile> files;
+    @Nullable
+    private final FileFragmentCache cache;
     private final Map<PackageFragmentDescriptor, PackageTranslator> packageFragmentToTranslator =
             new LinkedHashMap<PackageFragmentDescriptor, PackageTranslator>();
 
     public static List<JsStatement> translateFiles(@NotNull Collection<JetFile> files, @NotNull TranslationContext context) {
-        return new PackageDeclarationTranslator(files, context).translate();
+        return translateFiles(files, context, null);
     }
 
-    private PackageDeclarationTranslator(@NotNull Iterable<JetFile> files, @NotNull TranslationContext context) {
+    public static List<JsStatement> translateFiles(
+            @NotNull Collection<JetFile> files,
+            @NotNull TranslationContext context,
+            @Nullable FileFragmentCache cache
+    ) {
+        return new PackageDeclarationTranslator(files, context, cache).translate();
+    }
+
+    private PackageDeclarationTranslator(
+            @NotNull Iterable<JetFile> files,
+            @NotNull TranslationContext context,
+            @Nullable FileFragmentCache cache
+    ) {
         super(context);
 
         this.files = files;
+        this.cache = cache;
     }
 
     @NotNull
@@ -52,18 +77,16 @@ public final class PackageDeclarationTranslator extends AbstractTranslator {
         // predictable order
         Map<FqName, DefineInvocation> packageFqNameToDefineInvocation = new THashMap<FqName, DefineInvocation>();
 
-        for (JetFile file : files) {
-            PackageFragmentDescriptor packageFragment =
-                    BindingContextUtils.getNotNull(context().bindingContext(), BindingContext.FILE_TO_PACKAGE_FRAGMENT, file);
-
-            PackageTranslator translator = packageFragmentToTranslator.get(packageFragment);
-            if (translator == null) {
-                createRootPackageDefineInvocationIfNeeded(packageFqNameToDefineInvocation);
-                translator = PackageTranslator.create(packageFragment, context());
-                packageFragmentToTranslator.put(packageFragment, translator);
+        if (cache != null) {
+            translateIncrementally(cache, packageFqNameToDefineInvocation);
+        }
+        else if (canTranslateInParallel()) {
+            translateInParallel(packageFqNameToDefineInvocation);
+        }
+        else {
+            for (JetFile file : files) {
+                getTranslator(file, packageFqNameToDefineInvocation).translate(file);
             }
-
-            translator.translate(file);
         }
 
         for (PackageTranslator translator : packageFragmentToTranslator.values()) {
@@ -76,6 +99,173 @@ public final class PackageDeclarationTranslator extends AbstractTranslator {
         return Collections.<JsStatement>singletonList(vars);
     }
 
+    private void translateIncrementally(
+            @NotNull FileFragmentCache cache,
+            @NotNull Map<FqName, DefineInvocation> packageFqNameToDefineInvocation
+    ) {
+        // names of all reused fragments are reserved first, since they can be placed after the files translated anew
+        Map<JetFile, TranslatedFileFragment> reusedFragments = new HashMap<JetFile, TranslatedFileFragment>();
+        for (JetFile file : files) {
+            PackageTranslator translator = getTranslator(file, packageFqNameToDefineInvocation);
+            TranslatedFileFragment fragment = cache.getReusableFragment(file);
+            if (fragment != null) {
+                translator.reserveNames(fragment);
+                reusedFragments.put(file, fragment);
+            }
+        }
+
+        for (JetFile file : files) {
+            PackageTranslator translator = getTranslator(file, packageFqNameToDefineInvocation);
+            TranslatedFileFragment fragment = reusedFragments.get(file);
+            if (fragment != null) {
+                translator.addReused(fragment);
+            }
+            else {
+                cache.fragmentTranslated(file, translator.translateSeparately(file));
+            }
+        }
+    }
+
+    /**
+     * The declarations of different packages are translated on {@link Config#getTranslationThreads()} threads.
+     * The names of all declarations of the module are allocated sequentially beforehand, so the output is the same
+     * as in the sequential mode; the packages are then linked in the original order.
+     * <p/>
+     * Translation reads from the binding trace, which may resolve declarations lazily and so write to it, and reports
+     * diagnostics to it, so packages are only translated in parallel if the trace is a thread-safe {@link BindingTraceContext}.
+     */
+    private boolean canTranslateInParallel() {
+        if (context().getConfig().getTranslationThreads() <= 1) return false;
+
+        BindingTrace trace = context().bindingTrace();
+        return trace instanceof BindingTraceContext && ((BindingTraceContext) trace).isThreadSafe();
+    }
+
+    private void translateInParallel(@NotNull Map<FqName, DefineInvocation> packageFqNameToDefineInvocation) {
+        final Map<PackageTranslator, List<JetFile>> translatorToFiles = new LinkedHashMap<PackageTranslator, List<JetFile>>();
+        for (JetFile file : files) {
+            PackageTranslator translator = getTranslator(file, packageFqNameToDefineInvocation);
+            List<JetFile> translatorFiles = translatorToFiles.get(translator);
+            if (translatorFiles == null) {
+                translatorFiles = new ArrayList<JetFile>();
+                translatorToFiles.put(translator, translatorFiles);
+            }
+            translatorFiles.add(file);
+        }
+
+        if (translatorToFiles.size() < 2) {
+            for (Map.Entry<PackageTranslator, List<JetFile>> entry : translatorToFiles.entrySet()) {
+                for (JetFile file : entry.getValue()) {
+                    entry.getKey().translate(file);
+                }
+            }
+            return;
+        }
+
+        // declarations of a package can be referenced from any other one, so all names which can be shared between threads
+        // are allocated in the same order as in the files
+        for (JetFile file : files) {
+            for (JetDeclaration declaration : file.getDeclarations()) {
+                DeclarationDescriptor descriptor = bindingContext().get(BindingContext.DECLARATION_TO_DESCRIPTOR, declaration);
+                if (descriptor != null) {
+                    allocateNames(descriptor);
+                }
+            }
+        }
+
+        int threads = context().getConfig().getTranslationThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, translatorToFiles.size()));
+        try {
+            List<Future<?>> results = new ArrayList<Future<?>>(translatorToFiles.size());
+            for (final Map.Entry<PackageTranslator, List<JetFile>> entry : translatorToFiles.entrySet()) {
+                results.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (JetFile file : entry.getValue()) {
+                            entry.getKey().translate(file);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> result : results) {
+                waitFor(result);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void allocateNames(@NotNull DeclarationDescriptor descriptor) {
+        if (AnnotationsUtils.isPredefinedObject(descriptor)) return;
+
+        context().getNameForDescriptor(descriptor);
+
+        if (descriptor instanceof PropertyDescriptor) {
+            for (PropertyAccessorDescriptor accessor : ((PropertyDescriptor) descriptor).getAccessors()) {
+                context().getNameForDescriptor(accessor);
+            }
+        }
+        else if (descriptor instanceof ClassDescriptor) {
+            ClassDescriptor classDescriptor = (ClassDescriptor) descriptor;
+            context().getScopeForDescriptor(classDescriptor);
+
+            for (ConstructorDescriptor constructor : classDescriptor.getConstructors()) {
+                context().getNameForDescriptor(constructor);
+            }
+            for (DeclarationDescriptor member : classDescriptor.getDefaultType().getMemberScope().getAllDescriptors()) {
+                if (member instanceof CallableMemberDescriptor &&
+                    ((CallableMemberDescriptor) member).getKind() == CallableMemberDescriptor.Kind.FAKE_OVERRIDE) {
+                    continue;
+                }
+                allocateNames(member);
+            }
+            for (DeclarationDescriptor nestedClass : classDescriptor.getUnsubstitutedInnerClassesScope().getAllDescriptors()) {
+                allocateNames(nestedClass);
+            }
+
+            // the alias is registered in the context shared by all packages, so it isn't modified while they are translated
+            ClassDescriptor companionObject = classDescriptor.getCompanionObjectDescriptor();
+            if (companionObject != null) {
+                ClassTranslator.registerCompanionObjectAlias(companionObject, context());
+            }
+        }
+    }
+
+    private static void waitFor(@NotNull Future<?> result) {
+        try {
+            result.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Translation was interrupted", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @NotNull
+    private PackageTranslator getTranslator(
+            @NotNull JetFile file,
+            @NotNull Map<FqName, DefineInvocation> packageFqNameToDefineInvocation
+    ) {
+        PackageFragmentDescriptor packageFragment =
+                BindingContextUtils.getNotNull(context().bindingContext(), BindingContext.FILE_TO_PACKAGE_FRAGMENT, file);
+
+        PackageTranslator translator = packageFragmentToTranslator.get(packageFragment);
+        if (translator == null) {
+            createRootPackageDefineInvocationIfNeeded(packageFqNameToDefineInvocation);
+            translator = PackageTranslator.create(packageFragment, context());
+            packageFragmentToTranslator.put(packageFragment, translator);
+        }
+        return translator;
+    }
+
     private void createRootPackageDefineInvocationIfNeeded(@NotNull Map<FqName, DefineInvocation> packageFqNameToDefineInvocation) {
         if (!packageFqNameToDefineInvocation.containsKey(FqName.ROOT)) {
             packageFqNameToDefineInvocation.put(
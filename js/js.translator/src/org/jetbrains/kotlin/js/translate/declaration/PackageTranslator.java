@@ -17,6 +17,7 @@
 package org.jetbrains.kotlin.js.translate.declaration;
 
 import com.google.dart.compiler.backend.js.ast.*;
+import com.google.dart.compiler.backend.js.ast.metadata.MetadataPackage;
 import com.intellij.util.SmartList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,6 +31,7 @@ import org.jetbrains.kotlin.name.FqName;
 import org.jetbrains.kotlin.psi.JetDeclaration;
 import org.jetbrains.kotlin.psi.JetFile;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -72,6 +74,43 @@ final class PackageTranslator extends AbstractTranslator {
         }
     }
 
+    @NotNull
+    public TranslatedFileFragment translateSeparately(@NotNull JetFile file) {
+        List<JsPropertyInitializer> members = visitor.getResult();
+        int membersBefore = members.size();
+
+        JsGlobalBlock initializer = visitor.startFileBlock();
+        translate(file);
+        visitor.endFileBlock(initializer);
+
+        return new TranslatedFileFragment(new ArrayList<JsPropertyInitializer>(members.subList(membersBefore, members.size())), initializer);
+    }
+
+    /**
+     * Declares the names of the package members defined by the fragment, so that fresh names created
+     * while translating other files of the package don't clash with them.
+     */
+    public void reserveNames(@NotNull TranslatedFileFragment fragment) {
+        JsScope scope = context().getScopeForDescriptor(descriptor);
+        for (JsPropertyInitializer member : fragment.getMembers()) {
+            JsExpression label = member.getLabelExpr();
+            if (label instanceof JsNameRef) {
+                scope.declareName(((JsNameRef) label).getIdent());
+            }
+        }
+    }
+
+    public void addReused(@NotNull TranslatedFileFragment fragment) {
+        for (JsPropertyInitializer member : fragment.getMembers()) {
+            MetadataPackage.setIsReused(member, true);
+            visitor.getResult().add(member);
+        }
+
+        JsGlobalBlock initializer = fragment.getInitializer();
+        MetadataPackage.setIsReused(initializer, true);
+        visitor.addReusedFileBlock(initializer);
+    }
+
     private void createDefinitionPlace(
             @Nullable JsExpression initializer,
             Map<FqName, DefineInvocation> packageFqNameToDefineInvocation
@@ -19,11 +19,14 @@ package org.jetbrains.kotlin.js.translate.expression;
 import com.google.dart.compiler.backend.js.ast.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.builtins.KotlinBuiltIns;
+import org.jetbrains.kotlin.builtins.PrimitiveType;
 import org.jetbrains.kotlin.descriptors.*;
 import org.jetbrains.kotlin.js.translate.context.Namer;
 import org.jetbrains.kotlin.js.translate.context.TranslationContext;
 import org.jetbrains.kotlin.js.translate.general.AbstractTranslator;
 import org.jetbrains.kotlin.js.translate.general.Translation;
+import org.jetbrains.kotlin.js.translate.intrinsic.functions.factories.ArrayFIF;
 import org.jetbrains.kotlin.js.patterns.NamePredicate;
 import org.jetbrains.kotlin.js.translate.utils.BindingUtils;
 import org.jetbrains.kotlin.js.translate.utils.TranslationUtils;
@@ -121,6 +124,16 @@ public final class PatternTranslator extends AbstractTranslator {
             return namer().isTypeOf(program().getStringLiteral("number"));
         }
 
+        if (context().getConfig().isTypedArraysEnabled() && KotlinBuiltIns.isPrimitiveArray(type)) {
+            ClassDescriptor arrayClass = DescriptorUtils.getClassDescriptorForType(type);
+            PrimitiveType elementType = KotlinBuiltIns.getPrimitiveTypeByArrayClassFqName(DescriptorUtils.getFqName(arrayClass));
+            assert elementType != null : "Primitive array type expected: " + type;
+            String typedArrayName = ArrayFIF.getTypedArrayName(elementType);
+            if (typedArrayName != null) {
+                return namer().isInstanceOf(new JsNameRef(typedArrayName));
+            }
+        }
+
         return null;
     }
 
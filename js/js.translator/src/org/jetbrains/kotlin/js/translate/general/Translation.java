@@ -33,6 +33,7 @@ import org.jetbrains.kotlin.js.translate.context.Namer;
 import org.jetbrains.kotlin.js.translate.context.StaticContext;
 import org.jetbrains.kotlin.js.translate.context.TemporaryVariable;
 import org.jetbrains.kotlin.js.translate.context.TranslationContext;
+import org.jetbrains.kotlin.js.translate.declaration.FileFragmentCache;
 import org.jetbrains.kotlin.js.translate.declaration.PackageDeclarationTranslator;
 import org.jetbrains.kotlin.js.translate.expression.ExpressionVisitor;
 import org.jetbrains.kotlin.js.translate.expression.FunctionTranslator;
@@ -167,8 +168,18 @@ public final class Translation {
             @NotNull ModuleDescriptor moduleDescriptor,
             @NotNull Config config)
             throws TranslationException {
+        return generateAst(bindingTrace, files, mainCallParameters, moduleDescriptor, config, null);
+    }
+
+    @NotNull
+    public static TranslationContext generateAst(@NotNull BindingTrace bindingTrace,
+            @NotNull Collection<JetFile> files, @NotNull MainCallParameters mainCallParameters,
+            @NotNull ModuleDescriptor moduleDescriptor,
+            @NotNull Config config,
+            @Nullable FileFragmentCache fileFragmentCache)
+            throws TranslationException {
         try {
-            return doGenerateAst(bindingTrace, files, mainCallParameters, moduleDescriptor, config);
+            return doGenerateAst(bindingTrace, files, mainCallParameters, moduleDescriptor, config, fileFragmentCache);
         }
         catch (UnsupportedOperationException e) {
             throw new UnsupportedFeatureException("Unsupported feature used.", e);
@@ -182,7 +193,8 @@ public final class Translation {
     private static TranslationContext doGenerateAst(@NotNull BindingTrace bindingTrace, @NotNull Collection<JetFile> files,
             @NotNull MainCallParameters mainCallParameters,
             @NotNull ModuleDescriptor moduleDescriptor,
-            @NotNull Config config) throws MainFunctionNotFoundException {
+            @NotNull Config config,
+            @Nullable FileFragmentCache fileFragmentCache) throws MainFunctionNotFoundException {
         StaticContext staticContext = StaticContext.generateStaticContext(bindingTrace, config, moduleDescriptor);
         JsProgram program = staticContext.getProgram();
         JsBlock block = program.getGlobalBlock();
@@ -193,7 +205,7 @@ public final class Translation {
         statements.add(program.getStringLiteral("use strict").makeStmt());
 
         TranslationContext context = TranslationContext.rootContext(staticContext, rootFunction);
-        statements.addAll(PackageDeclarationTranslator.translateFiles(files, context));
+        statements.addAll(PackageDeclarationTranslator.translateFiles(files, context, fileFragmentCache));
         defineModule(context, statements, config.getModuleId());
 
         if (mainCallParameters.shouldBeGenerated()) {
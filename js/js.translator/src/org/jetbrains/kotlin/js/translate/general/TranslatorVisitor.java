@@ -33,7 +33,7 @@ public abstract class TranslatorVisitor<T> extends JetVisitor<T, TranslationCont
 
     @Override
     public T visitJetElement(@NotNull JetElement expression, TranslationContext context) {
-        context.bindingTrace().report(ErrorsJs.NOT_SUPPORTED.on(expression, expression));
+        context.report(ErrorsJs.NOT_SUPPORTED.on(expression, expression));
         return emptyResult(context);
     }
 
@@ -19,6 +19,8 @@ package org.jetbrains.kotlin.js.translate.intrinsic.functions.factories;
 import com.google.common.collect.Lists;
 import com.google.dart.compiler.backend.js.ast.JsArrayAccess;
 import com.google.dart.compiler.backend.js.ast.JsExpression;
+import com.google.dart.compiler.backend.js.ast.JsNameRef;
+import com.google.dart.compiler.backend.js.ast.JsNew;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.kotlin.builtins.PrimitiveType;
@@ -29,14 +31,16 @@ import org.jetbrains.kotlin.js.patterns.DescriptorPredicate;
 import org.jetbrains.kotlin.js.patterns.NamePredicate;
 import org.jetbrains.kotlin.name.Name;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.intellij.openapi.util.text.StringUtil.decapitalize;
 import static org.jetbrains.kotlin.js.patterns.PatternBuilder.pattern;
 import static org.jetbrains.kotlin.js.translate.utils.JsAstUtils.assignment;
 
 public final class ArrayFIF extends CompositeFIF {
-    private static final NamePredicate NUMBER_ARRAY;
+    private static final Map<PrimitiveType, String> TYPED_ARRAYS = new EnumMap<PrimitiveType, String>(PrimitiveType.class);
     private static final NamePredicate CHAR_ARRAY;
     private static final NamePredicate BOOLEAN_ARRAY;
     private static final NamePredicate LONG_ARRAY;
@@ -44,6 +48,13 @@ public final class ArrayFIF extends CompositeFIF {
     private static final DescriptorPredicate ARRAY_FACTORY_METHODS;
 
     static {
+        TYPED_ARRAYS.put(PrimitiveType.BYTE, "Int8Array");
+        TYPED_ARRAYS.put(PrimitiveType.SHORT, "Int16Array");
+        TYPED_ARRAYS.put(PrimitiveType.INT, "Int32Array");
+        // Float values are JS numbers of double precision, Float32Array would round the stored values
+        TYPED_ARRAYS.put(PrimitiveType.FLOAT, "Float64Array");
+        TYPED_ARRAYS.put(PrimitiveType.DOUBLE, "Float64Array");
+
         List<Name> arrayTypeNames = Lists.newArrayList();
         List<Name> arrayFactoryMethodNames = Lists.newArrayList(Name.identifier("arrayOf"));
         for (PrimitiveType type : PrimitiveType.values()) {
@@ -51,7 +62,7 @@ public final class ArrayFIF extends CompositeFIF {
             if (type != PrimitiveType.CHAR && type != PrimitiveType.BOOLEAN && type != PrimitiveType.LONG) {
                 arrayTypeNames.add(arrayTypeName);
             }
-            arrayFactoryMethodNames.add(Name.identifier(decapitalize(arrayTypeName.asString() + "Of")));
+            arrayFactoryMethodNames.add(getFactoryMethodName(type));
         }
 
         Name arrayName = Name.identifier("Array");
@@ -59,7 +70,6 @@ public final class ArrayFIF extends CompositeFIF {
         Name charArrayName = PrimitiveType.CHAR.getArrayTypeName();
         Name longArrayName = PrimitiveType.LONG.getArrayTypeName();
 
-        NUMBER_ARRAY = new NamePredicate(arrayTypeNames);
         CHAR_ARRAY = new NamePredicate(charArrayName);
         BOOLEAN_ARRAY = new NamePredicate(booleanArrayName);
         LONG_ARRAY = new NamePredicate(longArrayName);
@@ -115,6 +125,50 @@ public final class ArrayFIF extends CompositeFIF {
         }
     };
 
+    /**
+     * @return name of the typed array constructor which backs arrays of the given primitive type with -Xtyped-arrays, or null for plain JS arrays
+     */
+    @Nullable
+    public static String getTypedArrayName(@NotNull PrimitiveType type) {
+        return TYPED_ARRAYS.get(type);
+    }
+
+    @NotNull
+    private static Name getFactoryMethodName(@NotNull PrimitiveType type) {
+        return Name.identifier(decapitalize(type.getArrayTypeName().asString() + "Of"));
+    }
+
+    /**
+     * Wraps the plain JS array created by the given intrinsic (or its size) into a typed array if they are enabled in the config.
+     * The typed array constructor takes both an array-like object and a size, and fills the array with zeros in the latter case.
+     */
+    private static final class TypedArrayIntrinsic extends FunctionIntrinsic {
+        @NotNull
+        private final String typedArrayName;
+        @NotNull
+        private final FunctionIntrinsic plainArrayIntrinsic;
+
+        private TypedArrayIntrinsic(@NotNull String typedArrayName, @NotNull FunctionIntrinsic plainArrayIntrinsic) {
+            this.typedArrayName = typedArrayName;
+            this.plainArrayIntrinsic = plainArrayIntrinsic;
+        }
+
+        @NotNull
+        @Override
+        public JsExpression apply(
+                @Nullable JsExpression receiver,
+                @NotNull List<JsExpression> arguments,
+                @NotNull TranslationContext context
+        ) {
+            if (!context.getConfig().isTypedArraysEnabled()) {
+                return plainArrayIntrinsic.apply(receiver, arguments, context);
+            }
+
+            assert arguments.size() == 1;
+            return new JsNew(new JsNameRef(typedArrayName), arguments);
+        }
+    }
+
     @NotNull
     public static final FunctionIntrinsicFactory INSTANCE = new ArrayFIF();
 
@@ -123,7 +177,14 @@ public final class ArrayFIF extends CompositeFIF {
         add(pattern(ARRAYS, "set"), SET_INTRINSIC);
         add(pattern(ARRAYS, "size"), LENGTH_PROPERTY_INTRINSIC);
         add(pattern(ARRAYS, "iterator"), new KotlinFunctionIntrinsic("arrayIterator"));
-        add(pattern(NUMBER_ARRAY, "<init>"),new KotlinFunctionIntrinsic("numberArrayOfSize"));
+        FunctionIntrinsic numberArrayOfSize = new KotlinFunctionIntrinsic("numberArrayOfSize");
+        for (Map.Entry<PrimitiveType, String> entry : TYPED_ARRAYS.entrySet()) {
+            PrimitiveType type = entry.getKey();
+            String typedArrayName = entry.getValue();
+            add(pattern(new NamePredicate(type.getArrayTypeName()), "<init>"), new TypedArrayIntrinsic(typedArrayName, numberArrayOfSize));
+            add(pattern(Namer.KOTLIN_LOWER_NAME, new NamePredicate(getFactoryMethodName(type))),
+                new TypedArrayIntrinsic(typedArrayName, ARRAY_INTRINSIC));
+        }
         add(pattern(CHAR_ARRAY, "<init>"), new KotlinFunctionIntrinsic("charArrayOfSize"));
         add(pattern(BOOLEAN_ARRAY, "<init>"), new KotlinFunctionIntrinsic("booleanArrayOfSize"));
         add(pattern(LONG_ARRAY, "<init>"), new KotlinFunctionIntrinsic("longArrayOfSize"));
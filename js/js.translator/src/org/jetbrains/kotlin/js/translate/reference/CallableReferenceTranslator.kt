@@ -44,7 +44,7 @@ object CallableReferenceTranslator {
     }
 
     private fun reportNotSupported(context: TranslationContext, expression: JetCallableReferenceExpression): JsExpression {
-        context.bindingTrace().report(ErrorsJs.REFERENCE_TO_BUILTIN_MEMBERS_NOT_SUPPORTED.on(expression, expression))
+        context.report(ErrorsJs.REFERENCE_TO_BUILTIN_MEMBERS_NOT_SUPPORTED.on(expression, expression))
         return context.getEmptyExpression()
     }
 
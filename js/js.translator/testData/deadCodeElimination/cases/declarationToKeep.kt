@@ -0,0 +1,13 @@
+package foo
+
+// CHECK_HAS_PROPERTY: kept
+// CHECK_HAS_PROPERTY: usedFromKept
+// CHECK_HAS_NO_PROPERTY: unused
+
+fun usedFromKept() = "used from outside"
+
+fun kept() = usedFromKept()
+
+fun unused() = "fail"
+
+fun box(): String = "OK"
@@ -0,0 +1,11 @@
+package foo
+
+// CHECK_NOT_CALLED: inlined
+// CHECK_HAS_NO_PROPERTY: inlined
+// CHECK_HAS_PROPERTY: usedFromInlined
+
+fun usedFromInlined() = "OK"
+
+inline fun inlined(f: () -> String): String = f()
+
+fun box(): String = inlined { usedFromInlined() }
@@ -0,0 +1,12 @@
+package foo
+
+// CHECK_HAS_PROPERTY: usedFromInitializer
+// CHECK_HAS_NO_PROPERTY: unused
+
+fun usedFromInitializer() = "OK"
+
+fun unused() = "fail"
+
+val result = usedFromInitializer()
+
+fun box(): String = result
@@ -0,0 +1,25 @@
+package foo
+
+// CHECK_HAS_PROPERTY: Used
+// CHECK_HAS_PROPERTY: usedFromMember
+// CHECK_HAS_NO_PROPERTY: Unused
+// CHECK_HAS_NO_PROPERTY: UnusedObject
+// CHECK_HAS_NO_PROPERTY: usedFromUnusedMember
+
+fun usedFromMember() = "OK"
+
+fun usedFromUnusedMember() = "fail"
+
+class Used {
+    fun foo() = usedFromMember()
+}
+
+class Unused {
+    fun bar() = usedFromUnusedMember()
+}
+
+object UnusedObject {
+    fun baz() = usedFromUnusedMember()
+}
+
+fun box(): String = Used().foo()
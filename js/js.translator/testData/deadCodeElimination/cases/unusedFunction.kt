@@ -0,0 +1,17 @@
+package foo
+
+// CHECK_HAS_PROPERTY: box
+// CHECK_HAS_PROPERTY: used
+// CHECK_HAS_PROPERTY: usedFromUsed
+// CHECK_HAS_NO_PROPERTY: unused
+// CHECK_HAS_NO_PROPERTY: usedFromUnused
+
+fun usedFromUsed() = "K"
+
+fun used() = "O" + usedFromUsed()
+
+fun usedFromUnused() = "fail"
+
+fun unused() = usedFromUnused()
+
+fun box(): String = used()
@@ -0,0 +1,8 @@
+package foo
+
+fun box(): String {
+    if (twice(21) != 42) return "fail: twice(21) is ${twice(21)}"
+    if (Counter().next() != 1) return "fail: counter"
+
+    return "OK"
+}
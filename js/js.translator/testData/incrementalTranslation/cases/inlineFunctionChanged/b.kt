@@ -0,0 +1,7 @@
+package foo
+
+class Counter {
+    private var value = 0
+
+    fun next(): Int = ++value
+}
@@ -0,0 +1,3 @@
+package foo
+
+inline fun twice(x: Int): Int = x * 2
@@ -0,0 +1,8 @@
+package foo
+
+fun box(): String {
+    val square = Square(3)
+    if (square.area() != 9) return "fail: area is ${square.area()}"
+
+    return greet()
+}
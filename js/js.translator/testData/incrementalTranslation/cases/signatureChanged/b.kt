@@ -0,0 +1,7 @@
+package foo
+
+class Square(val side: Int) {
+    fun area(): Int = side * side
+}
+
+fun greet(): String = "O" + "K"
@@ -42,12 +42,17 @@
 
     // Kotlin stdlib
 
+    // primitive number arrays are typed arrays (Int32Array, Float64Array, ...) when compiled with -Xtyped-arrays
+    function isArrayish(obj) {
+        return Array.isArray(obj) || (obj != null && typeof obj === "object" && typeof obj.BYTES_PER_ELEMENT === "number");
+    }
+
     Kotlin.equals = function (obj1, obj2) {
         if (obj1 == null) {
             return obj2 == null;
         }
 
-        if (Array.isArray(obj1)) {
+        if (isArrayish(obj1)) {
             return Kotlin.arrayEquals(obj1, obj2);
         }
 
@@ -83,7 +88,7 @@
         if (o == null) {
             return "null";
         }
-        else if (Array.isArray(o)) {
+        else if (isArrayish(o)) {
             return Kotlin.arrayToString(o);
         }
         else {
@@ -92,7 +97,7 @@
     };
 
     Kotlin.arrayToString = function (a) {
-        return "[" + a.join(", ") + "]";
+        return "[" + Array.prototype.join.call(a, ", ") + "]";
     };
 
     Kotlin.compareTo = function (a, b) {
@@ -607,11 +612,12 @@
                 }
                 return -1;
             },
+            // the array can be a typed array wrapped by asList(), which has no slice and join in ES5
             toArray: function () {
-                return this.array.slice(0);
+                return Array.prototype.slice.call(this.array, 0);
             },
             toString: function () {
-                return "[" + this.array.join(", ") + "]";
+                return Kotlin.arrayToString(this.array);
             },
             toJSON: function () {
                 return this.array;
@@ -653,7 +659,7 @@
         if (a === b) {
             return true;
         }
-        if (!Array.isArray(b) || a.length !== b.length) {
+        if (!isArrayish(b) || a.length !== b.length) {
             return false;
         }
 
@@ -1046,28 +1052,28 @@
         return res;
     };
 
+    function arrayOfSize(size, value) {
+        var result = new Array(size);
+        for (var i = 0; i < size; i++) {
+            result[i] = value;
+        }
+        return result;
+    }
+
     Kotlin.numberArrayOfSize = function (size) {
-        return Kotlin.arrayFromFun(size, function () {
-            return 0;
-        });
+        return arrayOfSize(size, 0);
     };
 
     Kotlin.charArrayOfSize = function (size) {
-        return Kotlin.arrayFromFun(size, function () {
-            return '\0';
-        });
+        return arrayOfSize(size, '\0');
     };
 
     Kotlin.booleanArrayOfSize = function (size) {
-        return Kotlin.arrayFromFun(size, function () {
-            return false;
-        });
+        return arrayOfSize(size, false);
     };
 
     Kotlin.longArrayOfSize = function (size) {
-        return Kotlin.arrayFromFun(size, function () {
-            return Kotlin.Long.ZERO;
-        });
+        return arrayOfSize(size, Kotlin.Long.ZERO);
     };
 
     Kotlin.arrayFromFun = function (size, initFun) {
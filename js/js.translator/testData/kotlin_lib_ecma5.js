@@ -475,6 +475,162 @@ var Kotlin = {};
         Object.defineProperty(Kotlin.modules, id, {value: declaration});
     };
 
+    var moduleChunks = {};
+
+    function getModuleChunks(id) {
+        if (!moduleChunks.hasOwnProperty(id)) {
+            moduleChunks[id] = {root: null, files: {}, baseUrl: "", factories: {}};
+        }
+        return moduleChunks[id];
+    }
+
+    function getCurrentScriptBaseUrl() {
+        if (typeof document === "undefined" || document.currentScript == null) {
+            return "";
+        }
+        var src = document.currentScript.src;
+        return src.substring(0, src.lastIndexOf("/") + 1);
+    }
+
+    /**
+     * Registers the package chunks of a module compiled with -Xsplit-output.
+     * @param {string} id
+     * @param {Object} declaration the root package of the module
+     * @param {Object.<string, string>} files chunk file names by package name, relative to the file of the module
+     */
+    Kotlin.defineModuleChunks = function (id, declaration, files) {
+        var chunks = getModuleChunks(id);
+        if (chunks.root !== null) {
+            // the module is defined anew, so the chunks of the previous definition can't be used
+            delete moduleChunks[id];
+            chunks = getModuleChunks(id);
+        }
+        chunks.root = declaration;
+        chunks.files = files;
+        chunks.baseUrl = getCurrentScriptBaseUrl();
+    };
+
+    /**
+     * Called by a chunk file. Chunks can be loaded in advance (e.g. by script tags or by concatenation),
+     * then they are not requested again when their packages are accessed.
+     * @param {string} id
+     * @param {string} packageName
+     * @param {function(Object, Object): Object} factory creates the package definition
+     */
+    Kotlin.defineModuleChunk = function (id, packageName, factory) {
+        getModuleChunks(id).factories[packageName] = factory;
+    };
+
+    /**
+     * @param {string} id
+     * @param {string} packageName
+     * @returns {Object}
+     */
+    Kotlin.defineLazyPackage = function (id, packageName) {
+        var definition = null;
+        return {
+            get: function () {
+                if (definition === null) {
+                    definition = loadPackageChunk(id, packageName);
+                }
+                return typeof definition.get === "function" ? definition.get() : definition.value;
+            },
+            configurable: true
+        };
+    };
+
+    function loadPackageChunk(id, packageName) {
+        var chunks = getModuleChunks(id);
+        if (!chunks.factories.hasOwnProperty(packageName)) {
+            Kotlin.loadChunk(chunks.baseUrl + chunks.files[packageName]);
+            if (!chunks.factories.hasOwnProperty(packageName)) {
+                throw new Error("Package " + packageName + " of module " + id + " is not defined by its chunk");
+            }
+        }
+        return chunks.factories[packageName](Kotlin, chunks.root);
+    }
+
+    /**
+     * Loads the chunks of a module which are not loaded yet, so that its packages can be accessed without blocking.
+     * Should be called after the file of the module is evaluated and before its packages are used.
+     * @param {string} id
+     * @param {function(Error)} callback called once all chunks are loaded, with the first error if some of them could not be loaded;
+     * it may be called before the function returns
+     */
+    Kotlin.preloadModuleChunks = function (id, callback) {
+        var chunks = getModuleChunks(id);
+        var urls = [];
+        for (var packageName in chunks.files) {
+            if (chunks.files.hasOwnProperty(packageName) && !chunks.factories.hasOwnProperty(packageName)) {
+                urls.push(chunks.baseUrl + chunks.files[packageName]);
+            }
+        }
+
+        var pending = urls.length;
+        var firstError = null;
+        if (pending === 0) {
+            callback(null);
+            return;
+        }
+        urls.forEach(function (url) {
+            Kotlin.loadChunkAsync(url, function (error) {
+                if (error != null && firstError === null) {
+                    firstError = error;
+                }
+                if (--pending === 0) {
+                    callback(firstError);
+                }
+            });
+        });
+    };
+
+    /**
+     * Loads and evaluates a chunk file without blocking, used by {@link Kotlin.preloadModuleChunks}. In a browser the chunk
+     * is added as a script element. Can be replaced, e.g. by a module loader.
+     * @param {string} url
+     * @param {function(Error)} callback
+     */
+    Kotlin.loadChunkAsync = function (url, callback) {
+        if (typeof document !== "undefined") {
+            var script = document.createElement("script");
+            script.src = url;
+            script.async = true;
+            script.onload = function () {
+                callback(null);
+            };
+            script.onerror = function () {
+                callback(new Error("Could not load " + url));
+            };
+            document.head.appendChild(script);
+        }
+        else {
+            try {
+                Kotlin.loadChunk(url);
+                callback(null);
+            }
+            catch (e) {
+                callback(e);
+            }
+        }
+    };
+
+    /**
+     * Loads and evaluates a chunk file synchronously, when a package whose chunk isn't loaded is accessed.
+     * The default implementation only supports the load() function of JS shells (e.g. Rhino used by tests): in a browser
+     * the chunks should be loaded in advance, by {@link Kotlin.preloadModuleChunks} or by script tags, or this function
+     * should be replaced.
+     * @param {string} url
+     */
+    Kotlin.loadChunk = function (url) {
+        if (typeof load === "function") {
+            load(url);
+        }
+        else {
+            throw new Error("Could not load " + url + ": chunks should be loaded by Kotlin.preloadModuleChunks " +
+                            "before their packages are accessed, or Kotlin.loadChunk should be replaced");
+        }
+    };
+
     function defineInlineFunction(tag, fun) {
         return fun;
     }
@@ -0,0 +1,28 @@
+package foo
+
+// CHECK_NAME_NOT_USED: function=box name=message
+
+class MyException(val value: String) : Exception()
+
+fun box(): String {
+    val outerMessage = "O"
+    try {
+        throw MyException("K")
+    }
+    catch (caughtException: MyException) {
+        val message = outerMessage + caughtException.value
+        assertEquals("OK", message)
+
+        val nested = { outerMessage + caughtException.value }
+        assertEquals("OK", nested())
+    }
+
+    try {
+        throw MyException("A")
+    }
+    catch (outerMessage: MyException) {
+        assertEquals("A", outerMessage.value)
+    }
+
+    return outerMessage + "K"
+}
@@ -0,0 +1,20 @@
+package foo
+
+fun box(): String {
+    val kotlinLocal = "O"
+    var kotlinCounter = 0
+    js("""
+        var jsLocal = kotlinLocal + "K";
+        kotlinCounter = jsLocal.length;
+    """)
+    assertEquals(2, kotlinCounter)
+
+    val declaredInJs: String = js("(function (parameterValue) { var localValue = parameterValue + 'K'; return localValue; })(kotlinLocal)")
+    assertEquals("OK", declaredInJs)
+
+    val unusedInJs = "K"
+    val fromJs: String = js("kotlinLocal + unusedInJs")
+    assertEquals("OK", fromJs)
+
+    return kotlinLocal + "K"
+}
@@ -0,0 +1,27 @@
+package foo
+
+// CHECK_NAME_NOT_USED: function=box name=innerValue
+
+fun box(): String {
+    val outerValue = "O"
+    val withNested = {
+        val innerValue = "K"
+        val nested = { outerValue + innerValue }
+        nested()
+    }
+    assertEquals("OK", withNested())
+
+    val shadowing = { outerValue: String ->
+        val nested = { outerValue + "K" }
+        nested()
+    }
+    assertEquals("AK", shadowing("A"))
+
+    var counter = 0
+    val increment = { step: Int -> counter += step }
+    increment(1)
+    increment(2)
+    assertEquals(3, counter)
+
+    return outerValue + withNested().substring(1)
+}
@@ -0,0 +1,18 @@
+package foo
+
+// CHECK_NAME_NOT_USED: function=box name=number
+
+fun box(): String {
+    fun factorial(number: Int): Int = if (number <= 1) 1 else number * factorial(number - 1)
+    assertEquals(120, factorial(5))
+
+    val jsFactorial: (Int) -> Int = js("(function fact(value) { return value <= 1 ? 1 : value * fact(value - 1); })")
+    assertEquals(24, jsFactorial(4))
+
+    val fibonacci = object {
+        fun compute(index: Int): Int = if (index < 2) index else compute(index - 1) + compute(index - 2)
+    }
+    assertEquals(8, fibonacci.compute(6))
+
+    return "OK"
+}
@@ -0,0 +1,20 @@
+package a
+
+import b.Shape
+import c.Square
+import d.Circle
+
+fun areas(shapes: List<Shape>) = shapes.map { it.area() }
+
+fun box(): String {
+    val shapes = listOf(Square(2), Circle.unit(), Square.of(3))
+    val total = areas(shapes).fold(0) { sum, area -> sum + area }
+    if (total != 16) return "fail total: $total"
+
+    val names = shapes.map { it.name }.joinToString()
+    if (names != "square, circle, square") return "fail names: $names"
+
+    if (d.counter != 1) return "fail counter: ${d.counter}"
+
+    return "OK"
+}
@@ -0,0 +1,7 @@
+package b
+
+abstract class Shape(val name: String) {
+    abstract fun area(): Int
+}
+
+fun square(x: Int) = x * x
@@ -0,0 +1,12 @@
+package c
+
+import b.Shape
+import b.square
+
+class Square(val side: Int) : Shape("square") {
+    override fun area() = square(side)
+
+    companion object {
+        fun of(side: Int) = Square(side)
+    }
+}
@@ -0,0 +1,16 @@
+package d
+
+import b.Shape
+
+var counter = 0
+
+class Circle(val radius: Int) : Shape("circle") {
+    override fun area() = 3 * b.square(radius)
+
+    companion object {
+        fun unit(): Circle {
+            counter++
+            return Circle(1)
+        }
+    }
+}
@@ -0,0 +1,21 @@
+var loadedChunkFiles = [];
+
+function loadedChunks() {
+    return loadedChunkFiles.join();
+}
+
+Kotlin.loadChunk = function (url) {
+    loadedChunkFiles.push(url);
+    var file = new java.io.File("js/js.translator/testData/splitOutput/out/" + url);
+    var text = new java.lang.String(java.nio.file.Files.readAllBytes(file.toPath()), "UTF-8");
+    new Function(String(text))();
+};
+
+Kotlin.loadChunkAsync = function (url, callback) {
+    Kotlin.loadChunk(url);
+    callback(null);
+};
+
+function preloadChunks(callback) {
+    Kotlin.preloadModuleChunks("JS_TESTS", callback);
+}
@@ -0,0 +1,23 @@
+package foo
+
+import bar.baz.*
+
+native
+fun loadedChunks(): String = noImpl
+
+fun box(): String {
+    if (loadedChunks() != "JS_TESTS.foo.chunk.js") return "Only the chunk of foo should be loaded, but loaded: ${loadedChunks()}"
+
+    val square = square(7)
+    if (square != 49) return "square(7) = $square"
+    if (loadedChunks() != "JS_TESTS.foo.chunk.js,JS_TESTS.bar.baz.chunk.js") return "Wrong chunks loaded: ${loadedChunks()}"
+
+    if (greeting != "Hello") return "greeting = $greeting"
+
+    val counter = Counter()
+    counter.next()
+    if (counter.next() != 2) return "Counter is broken"
+
+    if (loadedChunks() != "JS_TESTS.foo.chunk.js,JS_TESTS.bar.baz.chunk.js") return "Chunks should be loaded once, but loaded: ${loadedChunks()}"
+    return "OK"
+}
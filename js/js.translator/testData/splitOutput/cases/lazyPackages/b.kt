@@ -0,0 +1,11 @@
+package bar.baz
+
+val greeting = "Hel" + "lo"
+
+fun square(x: Int) = x * x
+
+class Counter {
+    var count = 0
+
+    fun next(): Int = ++count
+}
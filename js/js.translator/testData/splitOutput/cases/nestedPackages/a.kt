@@ -0,0 +1,13 @@
+package foo
+
+native
+fun loadedChunks(): String = noImpl
+
+fun twice(s: String) = s + s
+
+fun box(): String {
+    val result = foo.nested.twiceAndOnce("a")
+    if (result != "aaa") return "foo.nested.twiceAndOnce(\"a\") = $result"
+    if (loadedChunks() != "JS_TESTS.foo.chunk.js,JS_TESTS.foo.nested.chunk.js") return "Wrong chunks loaded: ${loadedChunks()}"
+    return "OK"
+}
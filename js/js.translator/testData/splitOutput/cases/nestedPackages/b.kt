@@ -0,0 +1,5 @@
+package foo.nested
+
+import foo.twice
+
+fun twiceAndOnce(s: String) = twice(s) + s
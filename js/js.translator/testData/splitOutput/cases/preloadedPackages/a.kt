@@ -0,0 +1,26 @@
+package foo
+
+import bar.*
+
+native
+fun loadedChunks(): String = noImpl
+
+native
+fun preloadChunks(callback: (Any?) -> Unit): Unit = noImpl
+
+fun box(): String {
+    var loaded = false
+    var error: Any? = null
+    preloadChunks {
+        loaded = true
+        error = it
+    }
+    if (!loaded) return "Chunks are not preloaded"
+    if (error != null) return "Chunks are preloaded with an error: $error"
+    if (loadedChunks() != "JS_TESTS.foo.chunk.js,JS_TESTS.bar.chunk.js") return "Wrong chunks preloaded: ${loadedChunks()}"
+
+    val answer = answer()
+    if (answer != 42) return "answer() = $answer"
+    if (loadedChunks() != "JS_TESTS.foo.chunk.js,JS_TESTS.bar.chunk.js") return "Preloaded chunks should not be loaded again, but loaded: ${loadedChunks()}"
+    return "OK"
+}
@@ -0,0 +1,3 @@
+package bar
+
+fun answer() = 6 * 7
@@ -0,0 +1,18 @@
+package foo
+
+fun box(): String {
+    val ints = intArrayOf(1, 2, 3)
+    if (ints.size() != 3 || ints[0] != 1 || ints[2] != 3) return "Wrong intArrayOf"
+
+    val doubles = doubleArrayOf(0.5, 1.5)
+    if (doubles.size() != 2 || doubles[1] != 1.5) return "Wrong doubleArrayOf"
+
+    val shorts = shortArrayOf(1, 2)
+    val floats = floatArrayOf(0.5f)
+    if (shorts[1] != 2.toShort() || floats[0] != 0.5f) return "Wrong shortArrayOf or floatArrayOf"
+
+    // typed arrays are compared with plain arrays element by element
+    assertEquals(eval("[1, 2, 3]"), ints)
+
+    return "OK"
+}
@@ -0,0 +1,31 @@
+package foo
+
+fun box(): String {
+    val ints = intArrayOf(1, 2, 3)
+    val list = ints.asList()
+    assertEquals(3, list.size())
+    assertEquals(2, list[1])
+    assertEquals("[1, 2, 3]", list.toString())
+    assertEquals(1, list.indexOf(2))
+    assertTrue(list.contains(3))
+
+    ints[1] = 5
+    assertEquals(5, list[1], "asList() should be a view of the array")
+
+    var sum = 0
+    for (i in list) {
+        sum += i
+    }
+    assertEquals(9, sum)
+
+    assertEquals(listOf(1, 5, 3), list)
+    assertEquals(listOf(1, 5, 3), ints.toList())
+    assertEquals("[1, 5, 3]", ints.toList().toString())
+    assertEquals("1, 5, 3", ints.joinToString())
+
+    val doubles = doubleArrayOf(0.5, 1.5)
+    assertEquals("[0.5, 1.5]", doubles.asList().toString())
+    assertEquals(listOf(0.5, 1.5), doubles.toList())
+
+    return "OK"
+}
@@ -0,0 +1,19 @@
+package foo
+
+fun box(): String {
+    // 0.1f isn't exactly representable as a 32-bit float, the stored value must not be rounded
+    val floats = floatArrayOf(0.1f, 1.1f)
+    if (floats[0] != 0.1f || floats[1] != 1.1f) return "Wrong floatArrayOf elements: ${floats[0]}, ${floats[1]}"
+
+    val sized = FloatArray(1)
+    sized[0] = 0.1f
+    if (sized[0] != 0.1f) return "Wrong FloatArray element: ${sized[0]}"
+
+    var sum = 0.0f
+    for (f in floats) {
+        sum += f
+    }
+    if (sum != 0.1f + 1.1f) return "Wrong sum of FloatArray elements: $sum"
+
+    return "OK"
+}
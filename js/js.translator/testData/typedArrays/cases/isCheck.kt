@@ -0,0 +1,26 @@
+package foo
+
+fun isIntArray(obj: Any?) = obj is IntArray
+
+fun isDoubleArray(obj: Any?) = obj is DoubleArray
+
+fun box(): String {
+    assertTrue(isIntArray(IntArray(2)), "IntArray(2)")
+    assertTrue(isIntArray(intArrayOf(1, 2)), "intArrayOf(1, 2)")
+    assertFalse(isIntArray(doubleArrayOf(1.0)), "doubleArrayOf(1.0)")
+    assertFalse(isIntArray(arrayOf(1, 2)), "arrayOf(1, 2)")
+    assertFalse(isIntArray(null), "null")
+
+    assertTrue(isDoubleArray(DoubleArray(1)), "DoubleArray(1)")
+    assertFalse(isDoubleArray(IntArray(1)), "IntArray(1)")
+
+    val any: Any = intArrayOf(3)
+    val result = when (any) {
+        is DoubleArray -> "DoubleArray"
+        is IntArray -> "IntArray"
+        else -> "Any"
+    }
+    assertEquals("IntArray", result)
+
+    return "OK"
+}
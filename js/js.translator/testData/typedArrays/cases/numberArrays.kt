@@ -0,0 +1,29 @@
+package foo
+
+fun box(): String {
+    val ints = IntArray(3)
+    if (ints.size() != 3) return "Wrong size of IntArray: ${ints.size()}"
+    for (i in ints) {
+        if (i != 0) return "IntArray is not filled with zeros: $i"
+    }
+
+    ints[0] = 1
+    ints[1] = 2
+    ints[2] = ints[0] + ints[1]
+    var sum = 0
+    for (i in ints.indices) {
+        sum += ints[i]
+    }
+    if (sum != 6) return "Wrong sum of IntArray elements: $sum"
+
+    val doubles = DoubleArray(2)
+    doubles[0] = 0.5
+    doubles[1] = doubles[0] * 3
+    if (doubles[1] != 1.5) return "Wrong DoubleArray element: ${doubles[1]}"
+
+    val bytes = ByteArray(1)
+    bytes[0] = 127
+    if (bytes[0] != 127.toByte()) return "Wrong ByteArray element: ${bytes[0]}"
+
+    return "OK"
+}
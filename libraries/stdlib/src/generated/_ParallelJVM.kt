@@ -0,0 +1,687 @@
+package kotlin
+
+//
+// NOTE THIS FILE IS AUTO-GENERATED by the GenerateStandardLib.kt
+// See: https://github.com/JetBrains/kotlin/tree/master/libraries/stdlib
+//
+
+import kotlin.platform.*
+import java.util.*
+
+import java.util.Collections // TODO: it's temporary while we have java.util.Collections in js
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun <T> Array<out T>.parallelFilter(predicate: (T) -> Boolean): List<T> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<T>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun BooleanArray.parallelFilter(predicate: (Boolean) -> Boolean): List<Boolean> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Boolean>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun ByteArray.parallelFilter(predicate: (Byte) -> Boolean): List<Byte> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Byte>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun CharArray.parallelFilter(predicate: (Char) -> Boolean): List<Char> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Char>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun DoubleArray.parallelFilter(predicate: (Double) -> Boolean): List<Double> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Double>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun FloatArray.parallelFilter(predicate: (Float) -> Boolean): List<Float> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Float>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun IntArray.parallelFilter(predicate: (Int) -> Boolean): List<Int> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Int>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun LongArray.parallelFilter(predicate: (Long) -> Boolean): List<Long> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Long>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun ShortArray.parallelFilter(predicate: (Short) -> Boolean): List<Short> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<Short>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing only elements matching the given [predicate], in their original order.
+ * The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+ */
+public fun <T> List<T>.parallelFilter(predicate: (T) -> Boolean): List<T> {
+    val list = asRandomAccess()
+    return parallelParts(list.size()) { from, to ->
+        val part = ArrayList<T>()
+        for (index in from..to - 1) {
+            val element = list[index]
+            if (predicate(element)) part.add(element)
+        }
+        part
+    }.concatParts()
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <T, R> Array<out T>.parallelFold(initial: R, operation: (R, T) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> BooleanArray.parallelFold(initial: R, operation: (R, Boolean) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> ByteArray.parallelFold(initial: R, operation: (R, Byte) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> CharArray.parallelFold(initial: R, operation: (R, Char) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> DoubleArray.parallelFold(initial: R, operation: (R, Double) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> FloatArray.parallelFold(initial: R, operation: (R, Float) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> IntArray.parallelFold(initial: R, operation: (R, Int) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> LongArray.parallelFold(initial: R, operation: (R, Long) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <R> ShortArray.parallelFold(initial: R, operation: (R, Short) -> R, combine: (R, R) -> R): R {
+    return parallelParts(size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+ * and merges the results of the parts from left to right with [combine].
+ * The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+ * and [operation] and [combine] must be safe to call concurrently.
+ */
+public fun <T, R> List<T>.parallelFold(initial: R, operation: (R, T) -> R, combine: (R, R) -> R): R {
+    val list = asRandomAccess()
+    return parallelParts(list.size()) { from, to ->
+        var accumulator = initial
+        for (index in from..to - 1) accumulator = operation(accumulator, list[index])
+        accumulator
+    }.reduce(combine)
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun <T> Array<out T>.parallelForEach(operation: (T) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun BooleanArray.parallelForEach(operation: (Boolean) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun ByteArray.parallelForEach(operation: (Byte) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun CharArray.parallelForEach(operation: (Char) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun DoubleArray.parallelForEach(operation: (Double) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun FloatArray.parallelForEach(operation: (Float) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun IntArray.parallelForEach(operation: (Int) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun LongArray.parallelForEach(operation: (Long) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun ShortArray.parallelForEach(operation: (Short) -> Unit): Unit {
+    parallelParts(size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given [operation] on each element.
+ * The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+ * The function returns when all the elements have been processed.
+ */
+public fun <T> List<T>.parallelForEach(operation: (T) -> Unit): Unit {
+    val list = asRandomAccess()
+    parallelParts(list.size()) { from, to ->
+        for (index in from..to - 1) operation(list[index])
+    }
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <T, R> Array<out T>.parallelMap(transform: (T) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> BooleanArray.parallelMap(transform: (Boolean) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> ByteArray.parallelMap(transform: (Byte) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> CharArray.parallelMap(transform: (Char) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> DoubleArray.parallelMap(transform: (Double) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> FloatArray.parallelMap(transform: (Float) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> IntArray.parallelMap(transform: (Int) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> LongArray.parallelMap(transform: (Long) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <R> ShortArray.parallelMap(transform: (Short) -> R): List<R> {
+    return parallelParts(size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(this[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+ * The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+ * The results are in the same order as the elements they were produced from.
+ */
+public fun <T, R> List<T>.parallelMap(transform: (T) -> R): List<R> {
+    val list = asRandomAccess()
+    return parallelParts(list.size()) { from, to ->
+        val part = ArrayList<R>(to - from)
+        for (index in from..to - 1) part.add(transform(list[index]))
+        part
+    }.concatParts()
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun <T> Array<out T>.parallelReduce(operation: (T, T) -> T): T {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun BooleanArray.parallelReduce(operation: (Boolean, Boolean) -> Boolean): Boolean {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun ByteArray.parallelReduce(operation: (Byte, Byte) -> Byte): Byte {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun CharArray.parallelReduce(operation: (Char, Char) -> Char): Char {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun DoubleArray.parallelReduce(operation: (Double, Double) -> Double): Double {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun FloatArray.parallelReduce(operation: (Float, Float) -> Float): Float {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun IntArray.parallelReduce(operation: (Int, Int) -> Int): Int {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun LongArray.parallelReduce(operation: (Long, Long) -> Long): Long {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun ShortArray.parallelReduce(operation: (Short, Short) -> Short): Short {
+    if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+    return parallelParts(size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }.reduce(operation)
+}
+
+/**
+ * Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+ * from left to right, and then merges the results of the parts from left to right with [operation].
+ * The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+ */
+public fun <T> List<T>.parallelReduce(operation: (T, T) -> T): T {
+    if (isEmpty()) throw UnsupportedOperationException("Empty list can't be reduced.")
+    val list = asRandomAccess()
+    return parallelParts(list.size()) { from, to ->
+        var accumulator = list[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, list[index])
+        accumulator
+    }.reduce(operation)
+}
+
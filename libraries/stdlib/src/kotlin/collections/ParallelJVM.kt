@@ -0,0 +1,116 @@
+package kotlin
+
+import java.util.ArrayList
+import java.util.RandomAccess
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Parts of a range processed in parallel are never smaller than this, so cheap operations on small collections are not slowed down.
+ */
+private val MIN_PART_SIZE = 256
+
+/**
+ * Ranges are split into more parts than there are threads, so the threads which are done early can take the remaining parts.
+ */
+private val PARTS_PER_THREAD = 4
+
+private object ParallelWorkers {
+    val parallelism = Runtime.getRuntime().availableProcessors()
+
+    /**
+     * The thread calling a parallel operation processes parts too, so the pool has one thread less than the number of processors.
+     */
+    val executor: ExecutorService = Executors.newFixedThreadPool(Math.max(parallelism - 1, 1), object : ThreadFactory {
+        private val threadCount = AtomicInteger()
+
+        override fun newThread(task: Runnable): Thread {
+            val thread = Thread(task, "kotlin-parallel-" + threadCount.incrementAndGet())
+            thread.setDaemon(true)
+            return thread
+        }
+    })
+}
+
+/**
+ * Splits the index range `0..size - 1` into consecutive parts, calls [task] for each of them with the start (inclusive) and the end
+ * (exclusive) of the part, and returns the results in the order of the parts.
+ *
+ * The parts are processed by the calling thread together with the threads of a shared daemon pool. Each thread takes the next
+ * unprocessed part until none is left, so a thread never waits for a part nobody has started, and parallel operations can be
+ * nested. Small ranges are processed by the calling thread as a single part.
+ * If [task] throws an exception, the remaining parts are skipped and the exception is rethrown to the caller.
+ */
+internal fun <R> parallelParts(size: Int, task: (from: Int, to: Int) -> R): List<R> {
+    val partCount = Math.min(ParallelWorkers.parallelism * PARTS_PER_THREAD, size / MIN_PART_SIZE)
+    if (partCount <= 1) return listOf(task(0, size))
+
+    val parts = ParallelParts(size, partCount, task)
+    val helpers = ArrayList<Future<*>>()
+    for (i in 1..Math.min(ParallelWorkers.parallelism, partCount) - 1) {
+        helpers.add(ParallelWorkers.executor.submit(parts))
+    }
+
+    try {
+        parts.run()
+        return parts.await()
+    }
+    finally {
+        // helpers which haven't started yet have nothing left to do
+        for (helper in helpers) helper.cancel(false)
+    }
+}
+
+/**
+ * Concatenates the lists returned for the parts by [parallelParts].
+ */
+internal fun <T> List<List<T>>.concatParts(): List<T> {
+    val result = ArrayList<T>(sumBy { it.size() })
+    for (part in this) result.addAll(part)
+    return result
+}
+
+/**
+ * Returns this list if it can be accessed by index efficiently, otherwise a copy of it.
+ */
+internal fun <T> List<T>.asRandomAccess(): List<T> = if (this is RandomAccess) this else ArrayList(this)
+
+private class ParallelParts<R>(private val size: Int, private val count: Int, private val task: (Int, Int) -> R) : Runnable {
+    private val results = arrayOfNulls<Any>(count)
+    private val nextPart = AtomicInteger()
+    private val finished = CountDownLatch(count)
+    private val failure = AtomicReference<Throwable>()
+
+    override fun run() {
+        while (true) {
+            val part = nextPart.getAndIncrement()
+            if (part >= count) return
+
+            try {
+                if (failure.get() == null) {
+                    results[part] = task(start(part), start(part + 1))
+                }
+            }
+            catch (e: Throwable) {
+                failure.compareAndSet(null, e)
+            }
+            finally {
+                finished.countDown()
+            }
+        }
+    }
+
+    private fun start(part: Int): Int = (size.toLong() * part / count).toInt()
+
+    fun await(): List<R> {
+        finished.await()
+        val exception = failure.get()
+        if (exception != null) throw exception
+        return results.asList() as List<R>
+    }
+}
@@ -0,0 +1,73 @@
+package test.collections
+
+import java.util.LinkedList
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.test.*
+import org.junit.Test as test
+
+class ParallelJVMTest {
+    val size = 100000
+    val list = (0..size - 1).toList()
+    val array = list.toIntArray()
+
+    test fun parallelMap() {
+        val expected = list.map { it * 2L }
+        assertEquals(expected, list.parallelMap { it * 2L })
+        assertEquals(expected, array.parallelMap { it * 2L })
+        assertEquals(expected, list.map { it.toString() }.toTypedArray().parallelMap { it.toLong() * 2 })
+        assertEquals(expected, LinkedList(list).parallelMap { it * 2L })
+    }
+
+    test fun parallelMapSmall() {
+        assertEquals(listOf<Int>(), listOf<Int>().parallelMap { it + 1 })
+        assertEquals(listOf(2, 3, 4), intArrayOf(1, 2, 3).parallelMap { it + 1 })
+    }
+
+    test fun parallelFilter() {
+        val expected = list.filter { it % 3 == 0 }
+        assertEquals(expected, list.parallelFilter { it % 3 == 0 })
+        assertEquals(expected, array.parallelFilter { it % 3 == 0 })
+        assertEquals(listOf<Int>(), array.parallelFilter { it < 0 })
+    }
+
+    test fun parallelFold() {
+        assertEquals(list.fold(0L) { s, e -> s + e }, list.parallelFold(0L, { s, e -> s + e }, { a, b -> a + b }))
+        assertEquals(list.fold(0L) { s, e -> s + e }, array.parallelFold(0L, { s, e -> s + e }, { a, b -> a + b }))
+        assertEquals("", intArrayOf().parallelFold("", { s, e -> s + e }, { a, b -> a + b }))
+
+        // parts are combined in order, so non-commutative operations are fine
+        val digits = (0..1999).map { '0' + it % 10 }.toCharArray()
+        assertEquals(String(digits), digits.parallelFold("", { s, c -> s + c }, { a, b -> a + b }))
+    }
+
+    test fun parallelReduce() {
+        assertEquals(list.max(), list.parallelReduce { a, b -> Math.max(a, b) })
+        assertEquals(list.max(), array.parallelReduce { a, b -> Math.max(a, b) })
+        assertEquals(7, intArrayOf(7).parallelReduce { a, b -> a + b })
+
+        failsWith(javaClass<UnsupportedOperationException>()) {
+            listOf<Int>().parallelReduce { a, b -> a + b }
+        }
+        failsWith(javaClass<UnsupportedOperationException>()) {
+            intArrayOf().parallelReduce { a, b -> a + b }
+        }
+    }
+
+    test fun parallelForEach() {
+        val sum = AtomicLong()
+        array.parallelForEach { sum.addAndGet(it.toLong()) }
+        assertEquals(list.fold(0L) { s, e -> s + e }, sum.get())
+    }
+
+    test fun nested() {
+        val rows = (1..8).toList()
+        assertEquals(rows.map { size.toLong() * (size - 1) / 2 * it },
+                     rows.parallelMap { row -> array.parallelFold(0L, { s, e -> s + e.toLong() * row }, { a, b -> a + b }) })
+    }
+
+    test fun exception() {
+        failsWith(javaClass<IllegalStateException>()) {
+            list.parallelMap { if (it == size / 2) throw IllegalStateException() else it }
+        }
+    }
+}
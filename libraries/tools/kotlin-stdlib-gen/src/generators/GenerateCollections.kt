@@ -19,6 +19,7 @@ fun generateCollectionsAPI(outDir: File) {
     strings().writeTo(File(outDir, "_Strings.kt")) { build() }
     sequences().writeTo(File(outDir, "_Sequences.kt")) { build() }
     specialJVM().writeTo(File(outDir, "_SpecialJVM.kt")) { build() }
+    parallel().writeTo(File(outDir, "_ParallelJVM.kt")) { build() }
     ranges().writeTo(File(outDir, "_Ranges.kt")) { build() }
 
     toPrimitiveArrays().writeTo(File(outDir, "_ArraysToPrimitiveArrays.kt")) {
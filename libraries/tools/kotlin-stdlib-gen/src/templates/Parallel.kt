@@ -0,0 +1,172 @@
+package templates
+
+import templates.Family.*
+
+fun parallel(): List<GenericFunction> {
+    val templates = arrayListOf<GenericFunction>()
+
+    templates add f("parallelMap(transform: (T) -> R)") {
+        only(Lists, ArraysOfObjects, ArraysOfPrimitives)
+        doc {
+            """
+            Returns a list containing the results of applying the given [transform] function to each element of the original collection.
+            The elements are transformed on several threads at once, so [transform] must be safe to call concurrently.
+            The results are in the same order as the elements they were produced from.
+            """
+        }
+        typeParam("R")
+        returns("List<R>")
+        body {
+            """
+            return parallelParts(size()) { from, to ->
+                val part = ArrayList<R>(to - from)
+                for (index in from..to - 1) part.add(transform(this[index]))
+                part
+            }.concatParts()
+            """
+        }
+        body(Lists) {
+            """
+            val list = asRandomAccess()
+            return parallelParts(list.size()) { from, to ->
+                val part = ArrayList<R>(to - from)
+                for (index in from..to - 1) part.add(transform(list[index]))
+                part
+            }.concatParts()
+            """
+        }
+    }
+
+    templates add f("parallelFilter(predicate: (T) -> Boolean)") {
+        only(Lists, ArraysOfObjects, ArraysOfPrimitives)
+        doc {
+            """
+            Returns a list containing only elements matching the given [predicate], in their original order.
+            The elements are tested on several threads at once, so [predicate] must be safe to call concurrently.
+            """
+        }
+        returns("List<T>")
+        body {
+            """
+            return parallelParts(size()) { from, to ->
+                val part = ArrayList<T>()
+                for (index in from..to - 1) {
+                    val element = this[index]
+                    if (predicate(element)) part.add(element)
+                }
+                part
+            }.concatParts()
+            """
+        }
+        body(Lists) {
+            """
+            val list = asRandomAccess()
+            return parallelParts(list.size()) { from, to ->
+                val part = ArrayList<T>()
+                for (index in from..to - 1) {
+                    val element = list[index]
+                    if (predicate(element)) part.add(element)
+                }
+                part
+            }.concatParts()
+            """
+        }
+    }
+
+    templates add f("parallelFold(initial: R, operation: (R, T) -> R, combine: (R, R) -> R)") {
+        only(Lists, ArraysOfObjects, ArraysOfPrimitives)
+        doc {
+            """
+            Splits the collection into consecutive parts, folds each part with [operation] starting with [initial] value,
+            and merges the results of the parts from left to right with [combine].
+            The parts are folded on several threads at once, so [initial] must be an identity of [combine],
+            and [operation] and [combine] must be safe to call concurrently.
+            """
+        }
+        typeParam("R")
+        returns("R")
+        body {
+            """
+            return parallelParts(size()) { from, to ->
+                var accumulator = initial
+                for (index in from..to - 1) accumulator = operation(accumulator, this[index])
+                accumulator
+            }.reduce(combine)
+            """
+        }
+        body(Lists) {
+            """
+            val list = asRandomAccess()
+            return parallelParts(list.size()) { from, to ->
+                var accumulator = initial
+                for (index in from..to - 1) accumulator = operation(accumulator, list[index])
+                accumulator
+            }.reduce(combine)
+            """
+        }
+    }
+
+    templates add f("parallelReduce(operation: (T, T) -> T)") {
+        only(Lists, ArraysOfObjects, ArraysOfPrimitives)
+        doc {
+            """
+            Splits the collection into consecutive parts, accumulates each part starting with its first element and applying [operation]
+            from left to right, and then merges the results of the parts from left to right with [operation].
+            The parts are reduced on several threads at once, so [operation] must be associative and safe to call concurrently.
+            """
+        }
+        returns("T")
+        body {
+            """
+            if (isEmpty()) throw UnsupportedOperationException("Empty array can't be reduced.")
+
+            return parallelParts(size()) { from, to ->
+                var accumulator = this[from]
+                for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+                accumulator
+            }.reduce(operation)
+            """
+        }
+        body(Lists) {
+            """
+            if (isEmpty()) throw UnsupportedOperationException("Empty list can't be reduced.")
+
+            val list = asRandomAccess()
+            return parallelParts(list.size()) { from, to ->
+                var accumulator = list[from]
+                for (index in from + 1..to - 1) accumulator = operation(accumulator, list[index])
+                accumulator
+            }.reduce(operation)
+            """
+        }
+    }
+
+    templates add f("parallelForEach(operation: (T) -> Unit)") {
+        only(Lists, ArraysOfObjects, ArraysOfPrimitives)
+        doc {
+            """
+            Performs the given [operation] on each element.
+            The elements are processed on several threads at once and in no particular order, so [operation] must be safe to call concurrently.
+            The function returns when all the elements have been processed.
+            """
+        }
+        returns("Unit")
+        body {
+            """
+            parallelParts(size()) { from, to ->
+                for (index in from..to - 1) operation(this[index])
+            }
+            """
+        }
+        body(Lists) {
+            """
+            val list = asRandomAccess()
+            parallelParts(list.size()) { from, to ->
+                for (index in from..to - 1) operation(list[index])
+            }
+            """
+        }
+    }
+
+    return templates
+}